@@ -0,0 +1,72 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.benchmarks;
+
+import com.google.common.base.Charsets;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.javascript.EcmaScriptConfiguration;
+import org.sonar.javascript.JavaScriptAstScanner;
+import org.sonar.javascript.parser.EcmaScriptParser;
+import org.sonar.javascript.parser.sslr.ParseTreeCache;
+import org.sonar.squidbridge.AstScanner;
+import org.sonar.squidbridge.SquidAstVisitor;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import java.io.File;
+
+/**
+ * Analysis of a single file of the {@link Corpus}, set up as the sensor does it.
+ */
+final class Analysis {
+
+  private Analysis() {
+  }
+
+  /**
+   * The parse tree cache of the returned configuration already holds the tree of the file, so that the benchmarks of
+   * the steps following the parsing are not dominated by it.
+   */
+  static EcmaScriptConfiguration cachedParseTreeConfiguration(File file) {
+    EcmaScriptConfiguration conf = new EcmaScriptConfiguration(Charsets.UTF_8);
+    conf.setParseTreeCache(ParseTreeCache.load(new File(file.getPath() + ".cache"), EcmaScriptParser.grammarFingerprint()));
+    EcmaScriptParser.create(conf).parse(file);
+    return conf;
+  }
+
+  static DefaultFileSystem fileSystem(File file) {
+    DefaultFileSystem fs = new DefaultFileSystem();
+    fs.setBaseDir(file.getParentFile());
+    fs.setEncoding(Charsets.UTF_8);
+    fs.add(new DefaultInputFile(file.getName())
+      .setAbsolutePath(file.getAbsolutePath())
+      .setType(InputFile.Type.MAIN)
+      .setLanguage("js"));
+    return fs;
+  }
+
+  static AstScanner<LexerlessGrammar> scan(EcmaScriptConfiguration conf, File file, SquidAstVisitor<LexerlessGrammar>... visitors) {
+    AstScanner<LexerlessGrammar> scanner = JavaScriptAstScanner.create(conf, visitors);
+    scanner.scanFile(file);
+    return scanner;
+  }
+
+}
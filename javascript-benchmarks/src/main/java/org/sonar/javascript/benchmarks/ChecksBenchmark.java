@@ -0,0 +1,131 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.benchmarks;
+
+import com.google.common.collect.Lists;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.config.Settings;
+import org.sonar.javascript.EcmaScriptConfiguration;
+import org.sonar.javascript.ast.visitors.VisitorsBridge;
+import org.sonar.javascript.checks.CheckList;
+import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
+import org.sonar.squidbridge.AstScanner;
+import org.sonar.squidbridge.SquidAstVisitor;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analysis of a file with the checks of {@link CheckList}, with their default parameters.
+ * <p>
+ * {@code check} is either {@value #ALL_CHECKS}, {@value #NO_CHECK} or the simple name of the class of a single check.
+ * {@value #NO_CHECK} measures the analysis without any check, including the symbol model which is built once per file
+ * whatever the number of checks: the cost of the checks is the difference with it.
+ * {@code fused} toggles {@link VisitorsBridge#FUSED_VISITORS_KEY}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ChecksBenchmark {
+
+  static final String ALL_CHECKS = "all";
+  static final String NO_CHECK = "none";
+
+  @Param({Corpus.UNDERSCORE, Corpus.JQUERY, Corpus.ANGULAR})
+  public String file;
+
+  @Param({ALL_CHECKS, NO_CHECK})
+  public String check;
+
+  @Param({"false", "true"})
+  public boolean fused;
+
+  private File input;
+  private EcmaScriptConfiguration conf;
+  private FileSystem fs;
+  private Settings settings;
+  private List<Class> checkClasses;
+
+  @Setup
+  public void setUp() throws IOException {
+    input = Corpus.file(file);
+    conf = Analysis.cachedParseTreeConfiguration(input);
+    fs = Analysis.fileSystem(input);
+    settings = new Settings();
+    settings.setProperty(VisitorsBridge.FUSED_VISITORS_KEY, fused);
+    settings.setProperty(VisitorsBridge.SYMBOL_HIGHLIGHTING_KEY, false);
+    checkClasses = checkClasses(check);
+  }
+
+  static List<Class> checkClasses(String check) {
+    if (ALL_CHECKS.equals(check)) {
+      return CheckList.getChecks();
+    }
+    List<Class> checkClasses = Lists.newArrayList();
+    if (!NO_CHECK.equals(check)) {
+      for (Class checkClass : CheckList.getChecks()) {
+        if (checkClass.getSimpleName().equals(check)) {
+          checkClasses.add(checkClass);
+        }
+      }
+      if (checkClasses.isEmpty()) {
+        throw new IllegalArgumentException("Unknown check: " + check);
+      }
+    }
+    return checkClasses;
+  }
+
+  /**
+   * The checks are instantiated for each analysis, as AST visitors cannot be shared by several scanners.
+   */
+  @Benchmark
+  public AstScanner<LexerlessGrammar> analyse() throws ReflectiveOperationException {
+    List<SquidAstVisitor<LexerlessGrammar>> visitors = Lists.newArrayList();
+    List<JavaScriptFileScanner> treeChecks = Lists.newArrayList();
+    for (Class checkClass : checkClasses) {
+      Object instance = checkClass.newInstance();
+      if (instance instanceof JavaScriptFileScanner) {
+        treeChecks.add((JavaScriptFileScanner) instance);
+      } else {
+        visitors.add((SquidAstVisitor<LexerlessGrammar>) instance);
+      }
+    }
+    visitors.add(new VisitorsBridge(treeChecks, null, fs, settings));
+    return Analysis.scan(conf, input, visitors.toArray(new SquidAstVisitor[visitors.size()]));
+  }
+
+}
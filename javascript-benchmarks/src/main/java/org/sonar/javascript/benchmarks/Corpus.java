@@ -0,0 +1,94 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.benchmarks;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import com.google.common.io.Resources;
+import org.sonar.javascript.JavaScriptAstScanner;
+import org.sonar.javascript.api.EcmaScriptMetric;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Files analysed by the benchmarks: well-known libraries of several sizes, bundled so that the benchmarks run offline,
+ * and generated files stressing a particular part of the analysis.
+ * <p>
+ * The files are copied to a temporary directory, as the analysis reads them from the file system.
+ */
+final class Corpus {
+
+  static final String UNDERSCORE = "underscore-1.8.3.js";
+  static final String JQUERY = "jquery-2.1.4.js";
+  static final String ANGULAR = "angular-1.4.7.js";
+
+  /**
+   * Generated file in which a single global, {@code $}, is referenced a huge number of times.
+   */
+  static final String GLOBAL_USAGES = "global-usages.js";
+
+  private static final int GLOBAL_USAGES_STATEMENTS = 20000;
+
+  private static final File DIRECTORY = createDirectory();
+  private static final Map<String, File> FILES = new ConcurrentHashMap<>();
+
+  private Corpus() {
+  }
+
+  private static File createDirectory() {
+    File directory = Files.createTempDir();
+    directory.deleteOnExit();
+    return directory;
+  }
+
+  static synchronized File file(String name) throws IOException {
+    File file = FILES.get(name);
+    if (file == null) {
+      file = new File(DIRECTORY, name);
+      file.deleteOnExit();
+      Files.write(contents(name), file, Charsets.UTF_8);
+      FILES.put(name, file);
+    }
+    return file;
+  }
+
+  static String contents(String name) throws IOException {
+    if (GLOBAL_USAGES.equals(name)) {
+      return globalUsages();
+    }
+    return Resources.toString(Resources.getResource(Corpus.class, "corpus/" + name), Charsets.UTF_8);
+  }
+
+  private static String globalUsages() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < GLOBAL_USAGES_STATEMENTS; i++) {
+      sb.append("$.fn.plugin").append(i).append(" = function () { return $(this).data(\"key").append(i).append("\"); };\n");
+    }
+    return sb.toString();
+  }
+
+  static int linesOfCode(String name) throws IOException {
+    return JavaScriptAstScanner.scanSingleFile(file(name)).getInt(EcmaScriptMetric.LINES_OF_CODE);
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.benchmarks;
+
+import com.google.common.base.Charsets;
+import net.sourceforge.pmd.cpd.SourceCode;
+import net.sourceforge.pmd.cpd.Tokens;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.plugins.javascript.cpd.JavaScriptTokenizer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenization of a file for the copy-paste detection by {@link JavaScriptTokenizer}, when its tokens were not
+ * recorded during the analysis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class CpdTokenizerBenchmark {
+
+  @Param({Corpus.UNDERSCORE, Corpus.JQUERY, Corpus.ANGULAR})
+  public String file;
+
+  private SourceCode sourceCode;
+  private JavaScriptTokenizer tokenizer;
+
+  @Setup
+  public void setUp() throws IOException {
+    File input = Corpus.file(file);
+    sourceCode = new SourceCode(new SourceCode.FileCodeLoader(input, Charsets.UTF_8.name()));
+    tokenizer = new JavaScriptTokenizer(Charsets.UTF_8);
+  }
+
+  @Benchmark
+  public Tokens tokenize() {
+    Tokens tokens = new Tokens();
+    tokenizer.tokenize(sourceCode, tokens);
+    return tokens;
+  }
+
+}
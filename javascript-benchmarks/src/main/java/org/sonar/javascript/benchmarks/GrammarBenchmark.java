@@ -0,0 +1,65 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.benchmarks;
+
+import com.google.common.base.Charsets;
+import com.sonar.sslr.impl.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.javascript.EcmaScriptConfiguration;
+import org.sonar.javascript.ast.parser.TreeFactory;
+import org.sonar.javascript.parser.ActionGrammar;
+import org.sonar.javascript.parser.EcmaScriptGrammar;
+import org.sonar.javascript.parser.EcmaScriptParser;
+import org.sonar.javascript.parser.sslr.CompiledActionGrammar;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of the parsers: compiling the grammar is done once per analysis, creating a parser once per thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class GrammarBenchmark {
+
+  @Benchmark
+  public CompiledActionGrammar compileGrammar() {
+    return CompiledActionGrammar.compile(
+      EcmaScriptGrammar.createGrammarBuilder(),
+      ActionGrammar.class,
+      new TreeFactory(),
+      EcmaScriptGrammar.SCRIPT);
+  }
+
+  @Benchmark
+  public Parser<LexerlessGrammar> createParser() {
+    return EcmaScriptParser.create(new EcmaScriptConfiguration(Charsets.UTF_8));
+  }
+
+}
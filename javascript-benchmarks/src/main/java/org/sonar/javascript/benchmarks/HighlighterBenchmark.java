@@ -0,0 +1,79 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.javascript.EcmaScriptConfiguration;
+import org.sonar.javascript.highlighter.JavaScriptHighlighter;
+import org.sonar.squidbridge.AstScanner;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Syntax highlighting by {@link JavaScriptHighlighter}. {@link #metrics()} is the analysis of the file without the
+ * highlighter: the cost of the highlighting is the difference with {@link #highlight()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class HighlighterBenchmark {
+
+  @Param({Corpus.UNDERSCORE, Corpus.JQUERY, Corpus.ANGULAR})
+  public String file;
+
+  private File input;
+  private EcmaScriptConfiguration conf;
+  private FileSystem fs;
+
+  @Setup
+  public void setUp() throws IOException {
+    input = Corpus.file(file);
+    conf = Analysis.cachedParseTreeConfiguration(input);
+    fs = Analysis.fileSystem(input);
+  }
+
+  @Benchmark
+  public AstScanner<LexerlessGrammar> metrics() {
+    return Analysis.scan(conf, input);
+  }
+
+  @Benchmark
+  public AstScanner<LexerlessGrammar> highlight() {
+    return Analysis.scan(conf, input, new JavaScriptHighlighter(new NoOpPerspectives(), fs));
+  }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.benchmarks;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sonar.javascript.checks.CheckList;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the benchmarks with the GC profiler and reports, for each benchmark analysing a file of the {@link Corpus},
+ * its throughput in thousands of lines of code per second and its allocations in bytes per line of code.
+ * <p>
+ * Usage: {@code java -jar target/benchmarks.jar [-each-check] [regexp of the benchmarks to run]}.
+ * With {@code -each-check}, {@link ChecksBenchmark} is run for each check of {@link CheckList} in turn.
+ * The jar can also be run with the options of JMH by calling {@code org.openjdk.jmh.Main}.
+ */
+public final class JavaScriptBenchmarks {
+
+  private static final String EACH_CHECK = "-each-check";
+
+  private JavaScriptBenchmarks() {
+  }
+
+  public static void main(String[] args) throws RunnerException, IOException {
+    ChainedOptionsBuilder options = new OptionsBuilder()
+      .addProfiler(GCProfiler.class);
+    boolean included = false;
+    for (String arg : args) {
+      if (EACH_CHECK.equals(arg)) {
+        options.param("check", checkNames());
+        options.param("fused", "false");
+      } else {
+        options.include(arg);
+        included = true;
+      }
+    }
+    if (!included) {
+      options.include(JavaScriptBenchmarks.class.getPackage().getName() + ".*");
+    }
+
+    Collection<RunResult> results = new Runner(options.build()).run();
+    report(results);
+  }
+
+  private static String[] checkNames() {
+    List<Class> checks = CheckList.getChecks();
+    String[] names = new String[checks.size() + 1];
+    names[0] = ChecksBenchmark.NO_CHECK;
+    for (int i = 0; i < checks.size(); i++) {
+      names[i + 1] = checks.get(i).getSimpleName();
+    }
+    return names;
+  }
+
+  private static void report(Collection<RunResult> results) throws IOException {
+    System.out.println();
+    System.out.println(String.format(Locale.ENGLISH, "%-60s %-22s %10s %10s %12s", "Benchmark", "File", "LOC", "KLOC/s", "Bytes/LOC"));
+    for (RunResult result : results) {
+      BenchmarkParams params = result.getParams();
+      String file = params.getParam("file");
+      if (file == null || params.getTimeUnit() != TimeUnit.SECONDS) {
+        continue;
+      }
+      int linesOfCode = Corpus.linesOfCode(file);
+      double filesPerSecond = result.getPrimaryResult().getScore();
+      Result allocated = allocatedBytesPerOperation(result.getSecondaryResults());
+      System.out.println(String.format(Locale.ENGLISH, "%-60s %-22s %10d %10.1f %12s",
+        benchmarkName(params),
+        file,
+        linesOfCode,
+        filesPerSecond * linesOfCode / 1000,
+        allocated == null ? "-" : String.format(Locale.ENGLISH, "%.0f", allocated.getScore() / linesOfCode)));
+    }
+  }
+
+  private static String benchmarkName(BenchmarkParams params) {
+    String name = params.getBenchmark().substring(JavaScriptBenchmarks.class.getPackage().getName().length() + 1);
+    StringBuilder sb = new StringBuilder(name);
+    for (String key : params.getParamsKeys()) {
+      if (!"file".equals(key)) {
+        sb.append(' ').append(key).append('=').append(params.getParam(key));
+      }
+    }
+    return sb.toString();
+  }
+
+  @Nullable
+  private static Result allocatedBytesPerOperation(Map<String, Result> secondaryResults) {
+    for (Map.Entry<String, Result> entry : secondaryResults.entrySet()) {
+      if (entry.getKey().endsWith("gc.alloc.rate.norm")) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.benchmarks;
+
+import org.sonar.api.batch.fs.InputPath;
+import org.sonar.api.component.Component;
+import org.sonar.api.component.Perspective;
+import org.sonar.api.component.ResourcePerspectives;
+import org.sonar.api.resources.Resource;
+import org.sonar.api.source.Highlightable;
+
+import javax.annotation.Nullable;
+
+/**
+ * Perspectives of the platform which discard what the analysis stores in them, so that only the work of the analysis
+ * is measured.
+ */
+class NoOpPerspectives implements ResourcePerspectives {
+
+  private static final Highlightable.HighlightingBuilder HIGHLIGHTING = new Highlightable.HighlightingBuilder() {
+    @Override
+    public Highlightable.HighlightingBuilder highlight(int startOffset, int endOffset, String typeOfText) {
+      return this;
+    }
+
+    @Override
+    public void done() {
+      // nothing is stored
+    }
+  };
+
+  private static final Highlightable HIGHLIGHTABLE = new Highlightable() {
+    @Override
+    public HighlightingBuilder newHighlighting() {
+      return HIGHLIGHTING;
+    }
+
+    @Override
+    public Component component() {
+      return null;
+    }
+  };
+
+  @Nullable
+  @Override
+  public <P extends Perspective> P as(Class<P> perspectiveClass, Component component) {
+    return null;
+  }
+
+  @Nullable
+  @Override
+  public <P extends Perspective> P as(Class<P> perspectiveClass, Resource resource) {
+    return null;
+  }
+
+  @Nullable
+  @Override
+  public <P extends Perspective> P as(Class<P> perspectiveClass, InputPath inputPath) {
+    return perspectiveClass == Highlightable.class ? perspectiveClass.cast(HIGHLIGHTABLE) : null;
+  }
+
+}
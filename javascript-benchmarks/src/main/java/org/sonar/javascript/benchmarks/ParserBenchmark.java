@@ -0,0 +1,83 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.benchmarks;
+
+import com.google.common.base.Charsets;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.impl.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.javascript.EcmaScriptConfiguration;
+import org.sonar.javascript.parser.EcmaScriptParser;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a file by {@link EcmaScriptParser}: matching of the PEG grammar, creation of the syntax tree and sanitization.
+ * <p>
+ * {@link #decodeCachedParseTree()} gets the parse tree from a {@link org.sonar.javascript.parser.sslr.ParseTreeCache},
+ * as an analysis does for the files which did not change: what remains is mostly the creation of the syntax tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class ParserBenchmark {
+
+  @Param({Corpus.UNDERSCORE, Corpus.JQUERY, Corpus.ANGULAR})
+  public String file;
+
+  private File input;
+  private Parser<LexerlessGrammar> parser;
+  private Parser<LexerlessGrammar> cachedParser;
+
+  @Setup
+  public void setUp() throws IOException {
+    input = Corpus.file(file);
+    parser = EcmaScriptParser.create(new EcmaScriptConfiguration(Charsets.UTF_8));
+
+    cachedParser = EcmaScriptParser.create(Analysis.cachedParseTreeConfiguration(input));
+  }
+
+  @Benchmark
+  public AstNode parse() {
+    return parser.parse(input);
+  }
+
+  @Benchmark
+  public AstNode decodeCachedParseTree() {
+    return cachedParser.parse(input);
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.benchmarks;
+
+import com.sonar.sslr.impl.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.javascript.ast.resolve.SymbolModelImpl;
+import org.sonar.javascript.ast.resolve.SymbolVisitor;
+import org.sonar.javascript.ast.resolve.type.TypeVisitor;
+import org.sonar.javascript.parser.EcmaScriptParser;
+import org.sonar.plugins.javascript.api.tree.ScriptTree;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Symbol resolution by {@link SymbolVisitor} and type inference by {@link TypeVisitor}, as done once per file by
+ * {@link SymbolModelImpl#create}.
+ * <p>
+ * Both annotate the syntax tree, so each invocation works on a fresh tree decoded from the parse tree cache:
+ * {@link #decodeTree()} measures that part alone. The time and allocations of the type inference are the difference
+ * between {@link #symbolModel()} and {@link #symbolResolution()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SymbolModelBenchmark {
+
+  @Param({Corpus.UNDERSCORE, Corpus.JQUERY, Corpus.ANGULAR, Corpus.GLOBAL_USAGES})
+  public String file;
+
+  private File input;
+  private Parser<LexerlessGrammar> parser;
+
+  @Setup
+  public void setUp() throws IOException {
+    input = Corpus.file(file);
+    parser = EcmaScriptParser.create(Analysis.cachedParseTreeConfiguration(input));
+  }
+
+  @Benchmark
+  public ScriptTree decodeTree() {
+    return (ScriptTree) parser.parse(input);
+  }
+
+  @Benchmark
+  public SymbolModelImpl symbolResolution() {
+    SymbolModelImpl symbolModel = new SymbolModelImpl();
+    new SymbolVisitor(symbolModel).visitScript(decodeTree());
+    return symbolModel;
+  }
+
+  @Benchmark
+  public SymbolModelImpl symbolModel() {
+    return SymbolModelImpl.create(decodeTree(), null);
+  }
+
+}
@@ -32,8 +32,7 @@ import org.sonar.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.squidbridge.annotations.SqaleSubCharacteristic;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Collection;
 
 @Rule(
     key = "S1854",
@@ -60,7 +59,7 @@ public class DeadStoreCheck extends BaseTreeVisitor {
     if (scope.isGlobal()) {
       return;
     }
-    List<Usage> usages = new LinkedList<>(symbol.usages());
+    Collection<Usage> usages = symbol.usages();
     if (!hasRead(usages)) {
       for (Usage usage : usages) {
         if (!usage.isDeclaration() && usage.kind() != Usage.Kind.LEXICAL_DECLARATION) {
@@ -71,7 +70,7 @@ public class DeadStoreCheck extends BaseTreeVisitor {
 
   }
 
-  private boolean hasRead(List<Usage> usages) {
+  private boolean hasRead(Collection<Usage> usages) {
     for (Usage usage : usages){
       if (usage.kind().equals(Usage.Kind.READ) || usage.kind().equals(Usage.Kind.READ_WRITE)){
         return true;
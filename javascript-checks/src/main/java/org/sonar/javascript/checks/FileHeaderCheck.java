@@ -19,19 +19,18 @@
  */
 package org.sonar.javascript.checks;
 
-import org.sonar.api.utils.SonarException;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.javascript.CharsetAwareVisitor;
+import org.sonar.javascript.SourceBuffers;
+import org.sonar.javascript.SourceBuffersAwareVisitor;
 import org.sonar.squidbridge.annotations.NoSqale;
 import org.sonar.squidbridge.checks.SquidCheck;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
-import com.google.common.io.Files;
 import com.sonar.sslr.api.AstNode;
 
-import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.Iterator;
 import java.util.List;
@@ -42,7 +41,7 @@ import java.util.List;
   priority = Priority.BLOCKER)
 //@ActivatedByDefault
 @NoSqale
-public class FileHeaderCheck extends SquidCheck<LexerlessGrammar> implements CharsetAwareVisitor {
+public class FileHeaderCheck extends SquidCheck<LexerlessGrammar> implements CharsetAwareVisitor, SourceBuffersAwareVisitor {
 
   private static final String DEFAULT_HEADER_FORMAT = "";
 
@@ -54,6 +53,7 @@ public class FileHeaderCheck extends SquidCheck<LexerlessGrammar> implements Cha
   public String headerFormat = DEFAULT_HEADER_FORMAT;
 
   private Charset charset;
+  private SourceBuffers sourceBuffers;
   private String[] expectedLines;
 
   @Override
@@ -61,6 +61,11 @@ public class FileHeaderCheck extends SquidCheck<LexerlessGrammar> implements Cha
     this.charset = charset;
   }
 
+  @Override
+  public void setSourceBuffers(SourceBuffers sourceBuffers) {
+    this.sourceBuffers = sourceBuffers;
+  }
+
   @Override
   public void init() {
     expectedLines = headerFormat.split("(?:\r)?\n|\r");
@@ -68,12 +73,7 @@ public class FileHeaderCheck extends SquidCheck<LexerlessGrammar> implements Cha
 
   @Override
   public void visitFile(AstNode astNode) {
-    List<String> lines;
-    try {
-      lines = Files.readLines(getContext().getFile(), charset);
-    } catch (IOException e) {
-      throw new SonarException(e);
-    }
+    List<String> lines = sourceBuffers.get(getContext().getFile(), charset).lines();
 
     if (!matches(expectedLines, lines)) {
       getContext().createFileViolation(this, "Add or update the header of this file.");
@@ -26,6 +26,7 @@ import org.sonar.javascript.model.internal.JavaScriptTree;
 import org.sonar.plugins.javascript.api.tree.Tree;
 import org.sonar.plugins.javascript.api.tree.expression.CallExpressionTree;
 import org.sonar.plugins.javascript.api.visitors.BaseTreeVisitor;
+import org.sonar.plugins.javascript.api.visitors.FusableTreeVisitor;
 import org.sonar.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.squidbridge.annotations.SqaleSubCharacteristic;
@@ -40,7 +41,7 @@ import java.util.Iterator;
 @ActivatedByDefault
 @SqaleSubCharacteristic(RulesDefinition.SubCharacteristics.INSTRUCTION_RELIABILITY)
 @SqaleConstantRemediation("5min")
-public class FunctionCallArgumentsOnNewLineCheck extends BaseTreeVisitor {
+public class FunctionCallArgumentsOnNewLineCheck extends BaseTreeVisitor implements FusableTreeVisitor {
 
   @Override
   public void visitCallExpression(CallExpressionTree tree) {
@@ -23,12 +23,11 @@ import org.sonar.api.server.rule.RulesDefinition;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
-import org.sonar.javascript.api.EcmaScriptMetric;
-import org.sonar.plugins.javascript.api.tree.Tree.Kind;
+import org.sonar.javascript.metrics.ComplexityVisitor;
+import org.sonar.javascript.metrics.FunctionComplexityStack;
 import org.sonar.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.squidbridge.annotations.SqaleSubCharacteristic;
-import org.sonar.squidbridge.api.SourceFunction;
 import org.sonar.squidbridge.checks.SquidCheck;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
@@ -52,24 +51,32 @@ public class FunctionComplexityCheck extends SquidCheck<LexerlessGrammar> {
     defaultValue = "" + DEFAULT_MAXIMUM_FUNCTION_COMPLEXITY_THRESHOLD)
   private int maximumFunctionComplexityThreshold = DEFAULT_MAXIMUM_FUNCTION_COMPLEXITY_THRESHOLD;
 
+  private final FunctionComplexityStack functionStack = new FunctionComplexityStack();
+
   @Override
   public void init() {
-    subscribeTo(
-      Kind.METHOD,
-      Kind.GENERATOR_METHOD,
-      Kind.GENERATOR_DECLARATION,
-      Kind.GENERATOR_FUNCTION_EXPRESSION,
-      Kind.FUNCTION_DECLARATION,
-      Kind.FUNCTION_EXPRESSION);
+    subscribeTo(ComplexityVisitor.nodeTypes());
+  }
+
+  @Override
+  public void visitFile(AstNode astNode) {
+    functionStack.clear();
+  }
+
+  @Override
+  public void visitNode(AstNode node) {
+    functionStack.visitNode(node, ComplexityVisitor.increasesComplexity(node));
   }
 
   @Override
   public void leaveNode(AstNode node) {
-    SourceFunction function = (SourceFunction) getContext().peekSourceCode();
-    if (function.getInt(EcmaScriptMetric.COMPLEXITY) > maximumFunctionComplexityThreshold) {
-      getContext().createLineViolation(this,
-        "Function has a complexity of {0,number,integer} which is greater than {1,number,integer} authorized.", node,
-        function.getInt(EcmaScriptMetric.COMPLEXITY), maximumFunctionComplexityThreshold);
+    if (ComplexityVisitor.isFunction(node)) {
+      int complexity = functionStack.leaveFunction();
+      if (complexity > maximumFunctionComplexityThreshold) {
+        getContext().createLineViolation(this,
+          "Function has a complexity of {0,number,integer} which is greater than {1,number,integer} authorized.", node,
+          complexity, maximumFunctionComplexityThreshold);
+      }
     }
   }
 
@@ -19,22 +19,21 @@
  */
 package org.sonar.javascript.checks;
 
-import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.List;
 
 import org.sonar.api.server.rule.RulesDefinition;
-import org.sonar.api.utils.SonarException;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.javascript.CharsetAwareVisitor;
+import org.sonar.javascript.SourceBuffers;
+import org.sonar.javascript.SourceBuffersAwareVisitor;
 import org.sonar.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.squidbridge.annotations.SqaleSubCharacteristic;
 import org.sonar.squidbridge.checks.SquidCheck;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
-import com.google.common.io.Files;
 import com.sonar.sslr.api.AstNode;
 
 @Rule(
@@ -45,23 +44,24 @@ import com.sonar.sslr.api.AstNode;
 @ActivatedByDefault
 @SqaleSubCharacteristic(RulesDefinition.SubCharacteristics.READABILITY)
 @SqaleConstantRemediation("2min")
-public class TabCharacterCheck extends SquidCheck<LexerlessGrammar> implements CharsetAwareVisitor {
+public class TabCharacterCheck extends SquidCheck<LexerlessGrammar> implements CharsetAwareVisitor, SourceBuffersAwareVisitor {
 
   private Charset charset;
+  private SourceBuffers sourceBuffers;
 
   @Override
   public void setCharset(Charset charset) {
     this.charset = charset;
   }
 
+  @Override
+  public void setSourceBuffers(SourceBuffers sourceBuffers) {
+    this.sourceBuffers = sourceBuffers;
+  }
+
   @Override
   public void visitFile(AstNode astNode) {
-    List<String> lines;
-    try {
-      lines = Files.readLines(getContext().getFile(), charset);
-    } catch (IOException e) {
-      throw new SonarException(e);
-    }
+    List<String> lines = sourceBuffers.get(getContext().getFile(), charset).lines();
     for (int i = 0; i < lines.size(); i++) {
       if (lines.get(i).contains("\t")) {
         getContext().createLineViolation(this, "Replace all tab characters in this file by sequences of white-spaces.", i + 1);
@@ -19,16 +19,16 @@
  */
 package org.sonar.javascript.checks;
 
-import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.List;
 import java.util.regex.Pattern;
 
 import org.sonar.api.server.rule.RulesDefinition;
-import org.sonar.api.utils.SonarException;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 import org.sonar.javascript.CharsetAwareVisitor;
+import org.sonar.javascript.SourceBuffers;
+import org.sonar.javascript.SourceBuffersAwareVisitor;
 import org.sonar.javascript.lexer.EcmaScriptLexer;
 import org.sonar.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.squidbridge.annotations.SqaleConstantRemediation;
@@ -36,7 +36,6 @@ import org.sonar.squidbridge.annotations.SqaleSubCharacteristic;
 import org.sonar.squidbridge.checks.SquidCheck;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
-import com.google.common.io.Files;
 import com.sonar.sslr.api.AstNode;
 
 @Rule(
@@ -47,23 +46,24 @@ import com.sonar.sslr.api.AstNode;
 @ActivatedByDefault
 @SqaleSubCharacteristic(RulesDefinition.SubCharacteristics.READABILITY)
 @SqaleConstantRemediation("1min")
-public class TrailingWhitespaceCheck extends SquidCheck<LexerlessGrammar> implements CharsetAwareVisitor {
+public class TrailingWhitespaceCheck extends SquidCheck<LexerlessGrammar> implements CharsetAwareVisitor, SourceBuffersAwareVisitor {
 
   private Charset charset;
+  private SourceBuffers sourceBuffers;
 
   @Override
   public void setCharset(Charset charset) {
     this.charset = charset;
   }
 
+  @Override
+  public void setSourceBuffers(SourceBuffers sourceBuffers) {
+    this.sourceBuffers = sourceBuffers;
+  }
+
   @Override
   public void visitFile(AstNode astNode) {
-    List<String> lines;
-    try {
-      lines = Files.readLines(getContext().getFile(), charset);
-    } catch (IOException e) {
-      throw new SonarException(e);
-    }
+    List<String> lines = sourceBuffers.get(getContext().getFile(), charset).lines();
     for (int i = 0; i < lines.size(); i++) {
       String line = lines.get(i);
       if (line.length() > 0 && Pattern.matches("[" + EcmaScriptLexer.WHITESPACE + "]", line.subSequence(line.length() - 1, line.length()))) {
@@ -35,6 +35,7 @@ import org.sonar.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.squidbridge.annotations.SqaleSubCharacteristic;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -109,7 +110,7 @@ public class UnusedFunctionArgumentCheck extends BaseTreeVisitor {
       return;
     }
 
-    List<Symbol> arguments = scope.getSymbols(Symbol.Kind.PARAMETER);
+    List<Symbol> arguments = new ArrayList<>(scope.getSymbols(Symbol.Kind.PARAMETER));
     List<Symbol> unusedArguments = getUnusedArguments(arguments);
 
     if (!unusedArguments.isEmpty()) {
@@ -32,11 +32,6 @@ import org.sonar.squidbridge.annotations.ActivatedByDefault;
 import org.sonar.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.squidbridge.annotations.SqaleSubCharacteristic;
 
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.LinkedList;
-import java.util.List;
-
 @Rule(
     key = "VariableDeclarationAfterUsage",
     name = "Variables should be declared before they are used",
@@ -57,31 +52,27 @@ public class VariableDeclarationAfterUsageCheck extends BaseTreeVisitor {
     }
   }
 
-  private class LineComparator implements Comparator<Usage> {
-    @Override
-    public int compare(Usage usage1, Usage usage2) {
-      return Integer.compare(getLine(usage1), getLine(usage2));
-    }
-  }
-
+  /**
+   * Usages are in source order. A declaration on the line of the first usage is considered to come first.
+   */
   private void visitSymbol(Symbol symbol) {
-    List<Usage> usages = new LinkedList<>(symbol.usages());
-
-    if (!usages.isEmpty()) {
+    Usage first = null;
+    boolean onFirstLine = true;
 
-      Collections.sort(usages, new LineComparator());
-
-      if (usages.get(0).isDeclaration() || usages.get(0).kind() == Usage.Kind.LEXICAL_DECLARATION){
-        return;
+    for (Usage usage : symbol.usages()) {
+      if (first == null) {
+        first = usage;
       }
+      onFirstLine = onFirstLine && getLine(usage) == getLine(first);
 
-      for (int i = 1; i < usages.size(); i++){
-        if (usages.get(i).isDeclaration()){
-          getContext().addIssue(this, usages.get(0).identifierTree(), String.format(MESSAGE, symbol.name()));
+      if (onFirstLine) {
+        if (usage.isDeclaration() || usage.kind() == Usage.Kind.LEXICAL_DECLARATION) {
           return;
         }
+      } else if (usage.isDeclaration()) {
+        getContext().addIssue(this, first.identifierTree(), String.format(MESSAGE, symbol.name()));
+        return;
       }
-
     }
   }
 
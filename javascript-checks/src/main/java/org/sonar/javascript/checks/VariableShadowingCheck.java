@@ -32,6 +32,7 @@ import org.sonar.plugins.javascript.api.visitors.BaseTreeVisitor;
 import org.sonar.squidbridge.annotations.SqaleConstantRemediation;
 import org.sonar.squidbridge.annotations.SqaleSubCharacteristic;
 
+import java.util.ArrayList;
 import java.util.Collection;
 
 @Rule(
@@ -54,7 +55,7 @@ public class VariableShadowingCheck extends BaseTreeVisitor {
 
   private Collection<Symbol> getSymbols() {
     SymbolModel symbolModel = getContext().getSymbolModel();
-    Collection<Symbol> symbols = symbolModel.getSymbols(Symbol.Kind.VARIABLE);
+    Collection<Symbol> symbols = new ArrayList<>(symbolModel.getSymbols(Symbol.Kind.VARIABLE));
     symbols.addAll(symbolModel.getSymbols(Symbol.Kind.PARAMETER));
     return symbols;
   }
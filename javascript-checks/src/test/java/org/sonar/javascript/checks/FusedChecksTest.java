@@ -0,0 +1,91 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.checks;
+
+import com.google.common.collect.Lists;
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.config.Settings;
+import org.sonar.javascript.JavaScriptAstScanner;
+import org.sonar.javascript.ast.resolve.type.JQuery;
+import org.sonar.javascript.ast.visitors.VisitorsBridge;
+import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
+import org.sonar.plugins.javascript.api.visitors.FusedTreeVisitor;
+import org.sonar.squidbridge.api.AnalysisException;
+import org.sonar.squidbridge.api.CheckMessage;
+import org.sonar.squidbridge.api.SourceFile;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class FusedChecksTest {
+
+  /**
+   * Enforces that fusable checks raise the same issues whether they share a traversal or not.
+   */
+  @Test
+  public void fused_checks_should_raise_same_issues() throws Exception {
+    List<File> files = (List<File>) FileUtils.listFiles(new File("src/test/resources/checks/"), new String[] {"js"}, false);
+    Collections.sort(files);
+
+    int issueCount = 0;
+    for (File file : files) {
+      List<String> fusedIssues = issues(file, true);
+      assertThat(fusedIssues).as(file.getName()).isEqualTo(issues(file, false));
+      issueCount += fusedIssues.size();
+    }
+    assertThat(issueCount).isGreaterThan(0);
+  }
+
+  private static List<String> issues(File file, boolean fused) throws Exception {
+    List<JavaScriptFileScanner> checks = Lists.newArrayList();
+    for (Class check : CheckList.getChecks()) {
+      Object instance = check.newInstance();
+      if (instance instanceof JavaScriptFileScanner && FusedTreeVisitor.canFuse((JavaScriptFileScanner) instance)) {
+        checks.add((JavaScriptFileScanner) instance);
+      }
+    }
+    assertThat(checks).isNotEmpty();
+
+    Settings settings = new Settings();
+    settings.setProperty(JQuery.JQUERY_OBJECT_ALIASES, JQuery.JQUERY_OBJECT_ALIASES_DEFAULT_VALUE);
+    settings.setProperty(VisitorsBridge.FUSED_VISITORS_KEY, fused);
+    SourceFile sourceFile;
+    try {
+      sourceFile = JavaScriptAstScanner.scanSingleFile(file, new VisitorsBridge(checks, null, new DefaultFileSystem(), settings));
+    } catch (AnalysisException e) {
+      // some checks fail on some of the test files, this must happen in both modes
+      return Collections.singletonList(e.getCause().toString());
+    }
+
+    List<String> issues = Lists.newArrayList();
+    for (CheckMessage message : sourceFile.getCheckMessages()) {
+      issues.add(message.getCheck().getClass().getSimpleName() + ":" + message.getLine() + ":" + message.getText(Locale.ENGLISH));
+    }
+    Collections.sort(issues);
+    return issues;
+  }
+
+}
@@ -25,3 +25,9 @@ function * ko() {
 
 function ok() {
 }
+
+function ok_with_nested_function() { // +1, the complexity of the nested function is not included
+    var nested = function() { // +1
+        a && b; // +1
+    };
+}
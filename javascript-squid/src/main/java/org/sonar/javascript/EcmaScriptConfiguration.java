@@ -20,13 +20,26 @@
 package org.sonar.javascript;
 
 
+import org.sonar.javascript.parser.sslr.ParseTreeCache;
+import org.sonar.javascript.profiling.AnalysisPhases;
+import org.sonar.javascript.profiling.AnalysisProfiler;
 import org.sonar.squidbridge.api.SquidConfiguration;
 
+import javax.annotation.Nullable;
+
+import java.io.FileFilter;
 import java.nio.charset.Charset;
 
 public class EcmaScriptConfiguration extends SquidConfiguration {
 
   private boolean ignoreHeaderComments;
+  private SourceBuffers sourceBuffers = new SourceBuffers();
+  private ParseTreeCache parseTreeCache;
+  private AnalysisProfiler profiler;
+  private AnalysisPhases analysisPhases = new AnalysisPhases();
+  private long fileTimeBudget = 0;
+  private SourceFileListener sourceFileListener;
+  private FileFilter fileFilter;
 
   public EcmaScriptConfiguration(Charset charset) {
     super(charset);
@@ -40,4 +53,76 @@ public class EcmaScriptConfiguration extends SquidConfiguration {
     return ignoreHeaderComments;
   }
 
+  public void setSourceBuffers(SourceBuffers sourceBuffers) {
+    this.sourceBuffers = sourceBuffers;
+  }
+
+  public SourceBuffers getSourceBuffers() {
+    return sourceBuffers;
+  }
+
+  public void setParseTreeCache(@Nullable ParseTreeCache parseTreeCache) {
+    this.parseTreeCache = parseTreeCache;
+  }
+
+  @Nullable
+  public ParseTreeCache getParseTreeCache() {
+    return parseTreeCache;
+  }
+
+  public void setProfiler(@Nullable AnalysisProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  @Nullable
+  public AnalysisProfiler getProfiler() {
+    return profiler;
+  }
+
+  public void setAnalysisPhases(AnalysisPhases analysisPhases) {
+    this.analysisPhases = analysisPhases;
+  }
+
+  public AnalysisPhases getAnalysisPhases() {
+    return analysisPhases;
+  }
+
+  /**
+   * @param fileTimeBudget maximum time in milliseconds spent analysing each file, see {@link FileTimeBudget}.
+   * Disabled when not positive, which is the default.
+   */
+  public void setFileTimeBudget(long fileTimeBudget) {
+    this.fileTimeBudget = fileTimeBudget;
+  }
+
+  public long getFileTimeBudget() {
+    return fileTimeBudget;
+  }
+
+  /**
+   * @param sourceFileListener when set, receives the source code of each file once it is scanned, and the source code
+   * is not kept in the index of the scanner: memory does not grow with the number of files
+   */
+  public void setSourceFileListener(@Nullable SourceFileListener sourceFileListener) {
+    this.sourceFileListener = sourceFileListener;
+  }
+
+  @Nullable
+  public SourceFileListener getSourceFileListener() {
+    return sourceFileListener;
+  }
+
+  /**
+   * @param fileFilter when set, called right before each file is scanned: the files it does not accept are not scanned,
+   * and their content is released
+   */
+  public void setFileFilter(@Nullable FileFilter fileFilter) {
+    this.fileFilter = fileFilter;
+  }
+
+  @Nullable
+  public FileFilter getFileFilter() {
+    return fileFilter;
+  }
+
 }
@@ -0,0 +1,89 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time budget of the analysis of a file, checked cooperatively by the parser, the walkers and the tree visitors
+ * through {@link #check()}.
+ * <p>
+ * The budget belongs to the current thread, since the compiled grammar and the checks run by the parser are shared
+ * by the threads analyzing files in parallel. When no budget is started in any thread, {@link #check()} costs a
+ * single volatile read.
+ */
+public final class FileTimeBudget {
+
+  /**
+   * Number of calls to {@link #check()} between two reads of the clock.
+   */
+  private static final int CHECK_INTERVAL = 256;
+
+  private static final AtomicInteger STARTED = new AtomicInteger();
+  private static final ThreadLocal<FileTimeBudget> CURRENT = new ThreadLocal<>();
+
+  private final long budgetMillis;
+  private final long deadline;
+  private int countdown = CHECK_INTERVAL;
+
+  private FileTimeBudget(long budgetMillis) {
+    this.budgetMillis = budgetMillis;
+    this.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+  }
+
+  /**
+   * Starts the budget of the file analyzed by the current thread, replacing the previous one if any.
+   * Does nothing when the budget is not positive.
+   */
+  public static void start(long budgetMillis) {
+    if (budgetMillis <= 0) {
+      return;
+    }
+    if (CURRENT.get() == null) {
+      STARTED.incrementAndGet();
+    }
+    CURRENT.set(new FileTimeBudget(budgetMillis));
+  }
+
+  public static void stop() {
+    if (CURRENT.get() != null) {
+      CURRENT.remove();
+      STARTED.decrementAndGet();
+    }
+  }
+
+  /**
+   * @throws TimeBudgetExceededException if the budget of the current thread is exhausted
+   */
+  public static void check() {
+    if (STARTED.get() == 0) {
+      return;
+    }
+    FileTimeBudget budget = CURRENT.get();
+    if (budget != null && --budget.countdown <= 0) {
+      budget.countdown = CHECK_INTERVAL;
+      if (System.nanoTime() - budget.deadline > 0) {
+        throw new TimeBudgetExceededException(budget.budgetMillis);
+      }
+    }
+  }
+
+}
@@ -23,11 +23,9 @@ import com.google.common.base.Charsets;
 import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.impl.Parser;
 import org.sonar.javascript.api.EcmaScriptMetric;
-import org.sonar.javascript.api.EcmaScriptTokenType;
 import org.sonar.javascript.metrics.ComplexityVisitor;
 import org.sonar.javascript.metrics.LinesOfCodeVisitor;
 import org.sonar.plugins.javascript.api.tree.Tree.Kind;
-import org.sonar.javascript.parser.EcmaScriptGrammar;
 import org.sonar.javascript.parser.EcmaScriptParser;
 import org.sonar.squidbridge.AstScanner;
 import org.sonar.squidbridge.SourceCodeBuilderCallback;
@@ -37,7 +35,6 @@ import org.sonar.squidbridge.SquidAstVisitorContextImpl;
 import org.sonar.squidbridge.api.SourceClass;
 import org.sonar.squidbridge.api.SourceCode;
 import org.sonar.squidbridge.api.SourceFile;
-import org.sonar.squidbridge.api.SourceFunction;
 import org.sonar.squidbridge.api.SourceProject;
 import org.sonar.squidbridge.indexer.QueryByType;
 import org.sonar.squidbridge.metrics.CommentsVisitor;
@@ -82,7 +79,14 @@ public final class JavaScriptAstScanner {
     final SquidAstVisitorContextImpl<LexerlessGrammar> context = new SquidAstVisitorContextImpl<LexerlessGrammar>(new SourceProject("JavaScript Project"));
     final Parser<LexerlessGrammar> parser = EcmaScriptParser.create(conf);
 
-    AstScanner.Builder<LexerlessGrammar> builder = new ProgressAstScanner.Builder(context).setBaseParser(parser);
+    ProgressAstScanner.Builder progressBuilder = new ProgressAstScanner.Builder(context);
+    progressBuilder.setProfiler(conf.getProfiler());
+    progressBuilder.setAnalysisPhases(conf.getAnalysisPhases());
+    progressBuilder.setFileTimeBudget(conf.getFileTimeBudget());
+    progressBuilder.setSourceBuffers(conf.getSourceBuffers(), conf.getCharset());
+    progressBuilder.setSourceFileListener(conf.getSourceFileListener());
+    progressBuilder.setFileFilter(conf.getFileFilter());
+    AstScanner.Builder<LexerlessGrammar> builder = progressBuilder.setBaseParser(parser);
 
     /* Metrics */
     builder.withMetrics(EcmaScriptMetric.values());
@@ -102,6 +106,9 @@ public final class JavaScriptAstScanner {
         seq++;
         SourceClass cls = new SourceClass("class:" + seq);
         cls.setStartAtLine(astNode.getTokenLine());
+        if (isNestedInFunction(astNode)) {
+          cls.addData(EcmaScriptMetric.NESTED_IN_FUNCTION, Boolean.TRUE);
+        }
         return cls;
       }
     }, Kind.CLASS_DECLARATION, Kind.CLASS_EXPRESSION));
@@ -116,18 +123,6 @@ public final class JavaScriptAstScanner {
         .subscribeTo(FUNCTION_NODES)
         .build());
 
-    builder.withSquidAstVisitor(new SourceCodeBuilderVisitor<LexerlessGrammar>(new SourceCodeBuilderCallback() {
-      @Override
-      public SourceCode createSourceCode(SourceCode parentSourceCode, AstNode astNode) {
-        AstNode identifier = astNode.getFirstChild(EcmaScriptTokenType.IDENTIFIER, EcmaScriptGrammar.PROPERTY_NAME, Kind.IDENTIFIER);
-        final String functionName = identifier == null ? "anonymous" : identifier.getTokenValue();
-        final String fileKey = parentSourceCode.isType(SourceFile.class) ? parentSourceCode.getKey() : parentSourceCode.getParent(SourceFile.class).getKey();
-        SourceFunction function = new SourceFunction(fileKey + ":" + functionName + ":" + astNode.getToken().getLine() + ":" + astNode.getToken().getColumn());
-        function.setStartAtLine(astNode.getTokenLine());
-        return function;
-      }
-    }, FUNCTION_NODES));
-
     /* Metrics */
     builder.withSquidAstVisitor(new LinesVisitor<LexerlessGrammar>(EcmaScriptMetric.LINES));
     builder.withSquidAstVisitor(new LinesOfCodeVisitor(EcmaScriptMetric.LINES_OF_CODE));
@@ -170,10 +165,22 @@ public final class JavaScriptAstScanner {
       if (visitor instanceof CharsetAwareVisitor) {
         ((CharsetAwareVisitor) visitor).setCharset(conf.getCharset());
       }
+      if (visitor instanceof SourceBuffersAwareVisitor) {
+        ((SourceBuffersAwareVisitor) visitor).setSourceBuffers(conf.getSourceBuffers());
+      }
       builder.withSquidAstVisitor(visitor);
     }
 
     return builder.build();
   }
 
+  private static boolean isNestedInFunction(AstNode node) {
+    for (AstNode parent = node.getParent(); parent != null; parent = parent.getParent()) {
+      if (ComplexityVisitor.isFunction(parent)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
 }
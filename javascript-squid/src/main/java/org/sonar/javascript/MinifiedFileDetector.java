@@ -0,0 +1,116 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recognizes minified and generated files from statistics on their raw content, before they are parsed:
+ * <ul>
+ *   <li>minified files are named *.min.js or *-min.js, or have long lines on average, or contain very little whitespace,</li>
+ *   <li>generated files contain one of the given markers, e.g. {@code @generated}, at their beginning.</li>
+ * </ul>
+ * Files shorter than {@link #MIN_LENGTH} characters are only recognized by their name and their markers.
+ */
+public class MinifiedFileDetector {
+
+  public enum Kind {
+    MINIFIED,
+    GENERATED
+  }
+
+  public static final int DEFAULT_MAX_AVERAGE_LINE_LENGTH = 200;
+  public static final double DEFAULT_MIN_WHITESPACE_RATIO = 0.05;
+  public static final String DEFAULT_GENERATED_MARKERS = "@generated,DO NOT EDIT";
+
+  static final int MIN_LENGTH = 1000;
+  static final int HEADER_LENGTH = 1000;
+
+  private final int maxAverageLineLength;
+  private final double minWhitespaceRatio;
+  private final List<String> generatedMarkers;
+
+  public MinifiedFileDetector() {
+    this(DEFAULT_MAX_AVERAGE_LINE_LENGTH, DEFAULT_MIN_WHITESPACE_RATIO, ImmutableList.copyOf(DEFAULT_GENERATED_MARKERS.split(",")));
+  }
+
+  /**
+   * @param generatedMarkers looked for, ignoring case, in the first {@link #HEADER_LENGTH} characters of the files
+   */
+  public MinifiedFileDetector(int maxAverageLineLength, double minWhitespaceRatio, List<String> generatedMarkers) {
+    this.maxAverageLineLength = maxAverageLineLength;
+    this.minWhitespaceRatio = minWhitespaceRatio;
+    ImmutableList.Builder<String> markers = ImmutableList.builder();
+    for (String marker : generatedMarkers) {
+      if (!marker.trim().isEmpty()) {
+        markers.add(marker.trim().toLowerCase(Locale.ENGLISH));
+      }
+    }
+    this.generatedMarkers = markers.build();
+  }
+
+  /**
+   * @return the kind of the file, or null if it is neither minified nor generated
+   */
+  @Nullable
+  public Kind detect(SourceBuffer buffer) {
+    String name = buffer.file().getName();
+    if (name.endsWith(".min.js") || name.endsWith("-min.js")) {
+      return Kind.MINIFIED;
+    }
+    if (hasGeneratedMarker(buffer.contents())) {
+      return Kind.GENERATED;
+    }
+    if (buffer.length() >= MIN_LENGTH
+      && (buffer.length() / buffer.lineCount() > maxAverageLineLength || whitespaceRatio(buffer.contents()) < minWhitespaceRatio)) {
+      return Kind.MINIFIED;
+    }
+    return null;
+  }
+
+  private boolean hasGeneratedMarker(char[] contents) {
+    if (generatedMarkers.isEmpty()) {
+      return false;
+    }
+    String header = new String(contents, 0, Math.min(contents.length, HEADER_LENGTH)).toLowerCase(Locale.ENGLISH);
+    for (String marker : generatedMarkers) {
+      if (header.contains(marker)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static double whitespaceRatio(char[] contents) {
+    int whitespaces = 0;
+    for (char c : contents) {
+      if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+        whitespaces++;
+      }
+    }
+    return (double) whitespaces / contents.length;
+  }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+/**
+ * Files may be analysed by several threads, whereas the platform is not thread-safe: its file system, perspectives,
+ * file lines contexts and sensor context are only accessed while holding {@link #LOCK}, by the visitors as well as by
+ * the sensor saving the files as soon as they are scanned.
+ */
+public final class PlatformAccess {
+
+  public static final Object LOCK = new Object();
+
+  private PlatformAccess() {
+  }
+
+}
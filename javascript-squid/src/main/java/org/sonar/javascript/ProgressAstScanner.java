@@ -19,49 +19,376 @@
  */
 package org.sonar.javascript;
 
+import com.google.common.collect.Lists;
 import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.RecognitionException;
+import com.sonar.sslr.impl.Parser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.javascript.api.EcmaScriptMetric;
+import org.sonar.javascript.ast.visitors.JavaScriptAstWalker;
+import org.sonar.javascript.profiling.AnalysisPhases;
+import org.sonar.javascript.profiling.AnalysisProfiler;
 import org.sonar.squidbridge.AstScanner;
+import org.sonar.squidbridge.AstScannerExceptionHandler;
 import org.sonar.squidbridge.SquidAstVisitor;
 import org.sonar.squidbridge.SquidAstVisitorContextImpl;
+import org.sonar.squidbridge.api.AnalysisException;
+import org.sonar.squidbridge.api.SourceCode;
+import org.sonar.squidbridge.api.SourceFile;
+import org.sonar.squidbridge.api.SourceProject;
+import org.sonar.squidbridge.measures.MetricDef;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
 import javax.annotation.Nullable;
 import java.io.File;
+import java.io.FileFilter;
+import java.nio.charset.Charset;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Scans the files like {@link AstScanner} does, except that each file is walked only once by a {@link JavaScriptAstWalker}
+ * for both the {@link SquidAstVisitor}s and the tree visitors.
+ * <p>
+ * When a time budget is set, the analysis of a file which exceeds it is aborted: the issues and measures computed
+ * so far are kept, the number of lines is taken from the source, and the next file is analysed.
+ * <p>
+ * When a {@link SourceFileListener} is set, the source code is not indexed: the metrics of each file are aggregated as
+ * soon as it is scanned, then the file is handed over to the listener and detached from the project.
+ * <p>
+ * When a {@link FileFilter} is set, it decides right before each file is scanned whether it is scanned at all.
+ */
 public class ProgressAstScanner extends AstScanner<LexerlessGrammar> {
 
+  private static final Logger LOG = LoggerFactory.getLogger(ProgressAstScanner.class);
+
   private final ProgressReport progressReport;
+  private final List<SquidAstVisitor<LexerlessGrammar>> visitors;
+  private final Parser<LexerlessGrammar> parser;
+  private final SquidAstVisitorContextImpl<LexerlessGrammar> context;
+  private final MetricDef filesMetric;
+  private final AnalysisProfiler profiler;
+  private final AnalysisPhases analysisPhases;
+  private final long fileTimeBudgetMillis;
+  private final SourceBuffers sourceBuffers;
+  private final Charset charset;
+  private final MetricDef[] metrics;
+  private final SourceFileListener sourceFileListener;
+  private final FileFilter fileFilter;
 
   protected ProgressAstScanner(Builder builder) {
     super(builder);
     this.progressReport = builder.progressReport;
+    this.visitors = Lists.newArrayList(builder.visitors);
+    this.parser = builder.parser;
+    this.context = builder.context;
+    this.filesMetric = builder.filesMetric;
+    this.profiler = builder.profiler;
+    this.analysisPhases = builder.analysisPhases;
+    this.fileTimeBudgetMillis = builder.fileTimeBudgetMillis;
+    this.sourceBuffers = builder.sourceBuffers;
+    this.charset = builder.charset;
+    this.metrics = builder.metrics;
+    this.sourceFileListener = builder.sourceFileListener;
+    this.fileFilter = builder.fileFilter;
+    if (sourceFileListener != null) {
+      context.getProject().setSourceCodeIndexer(null);
+    }
   }
 
   @Override
   public void scanFiles(Collection<File> files) {
     progressReport.start(files.size());
-    super.scanFiles(files);
+    for (SquidAstVisitor<LexerlessGrammar> visitor : visitors) {
+      visitor.init();
+    }
+
+    JavaScriptAstWalker astWalker = new JavaScriptAstWalker(visitors, profiler);
+    for (File file : files) {
+      progressReport.nextFile(file);
+      if (fileFilter != null && !fileFilter.accept(file)) {
+        sourceBuffers.release(file);
+        continue;
+      }
+      SourceFile sourceFile = scanFile(file, astWalker);
+      sourceBuffers.release(file);
+      if (sourceFileListener != null) {
+        handOver(file, sourceFile);
+      }
+    }
+
+    for (SquidAstVisitor<LexerlessGrammar> visitor : visitors) {
+      visitor.destroy();
+    }
+    decorateSquidTree();
     progressReport.stop();
   }
 
+  private SourceFile scanFile(File file, JavaScriptAstWalker astWalker) {
+    context.setFile(file, filesMetric);
+    SourceFile sourceFile = (SourceFile) context.peekSourceCode();
+    if (profiler != null) {
+      profiler.startFile(file);
+    }
+    FileTimeBudget.start(fileTimeBudgetMillis);
+
+    Exception parseException = null;
+    AstNode ast = null;
+    try {
+      ast = parse(file);
+    } catch (TimeBudgetExceededException e) {
+      abortFile(file, e, true);
+      return sourceFile;
+    } catch (RecognitionException e) {
+      parseException = e;
+      LOG.error("Unable to parse file: " + file.getAbsolutePath());
+      LOG.error(e.getMessage());
+    } catch (Exception e) {
+      parseException = e;
+      LOG.error("Unable to parse file: " + file.getAbsolutePath(), e);
+    } catch (Throwable e) {
+      FileTimeBudget.stop();
+      throw new AnalysisException("Unable to parse file: " + file.getAbsolutePath(), e);
+    }
+
+    try {
+      if (parseException == null) {
+        walkAndVisit(astWalker, ast);
+      } else {
+        visitFileWithParseError(parseException);
+      }
+      FileTimeBudget.stop();
+      popTillSourceProject();
+      if (profiler != null) {
+        profiler.endFile();
+      }
+    } catch (TimeBudgetExceededException e) {
+      abortFile(file, e, false);
+    } catch (Throwable e) {
+      FileTimeBudget.stop();
+      throw new AnalysisException("Unable to analyze file: " + file.getAbsolutePath(), e);
+    }
+    return sourceFile;
+  }
+
+  private void handOver(File file, SourceFile sourceFile) {
+    aggregateMetrics(sourceFile);
+    context.getProject().getChildren().remove(sourceFile);
+    sourceFileListener.fileScanned(file, sourceFile);
+  }
+
+  /**
+   * Same aggregation as the one of the whole project by {@link #decorateSquidTree()}, limited to a file.
+   */
+  private void aggregateMetrics(SourceCode sourceCode) {
+    if (!sourceCode.hasChildren()) {
+      return;
+    }
+    for (SourceCode child : sourceCode.getChildren()) {
+      aggregateMetrics(child);
+    }
+    for (MetricDef metric : metrics) {
+      if (!metric.isCalculatedMetric() && metric.isThereAggregationFormula()
+        && (metric.aggregateIfThereIsAlreadyAValue() || sourceCode.getDouble(metric) == 0)) {
+        for (SourceCode child : sourceCode.getChildren()) {
+          sourceCode.add(metric, child);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param duringParsing true when the file could not be parsed within the budget, in which case the visitors have not
+   * been called yet
+   */
+  private void abortFile(File file, TimeBudgetExceededException e, boolean duringParsing) {
+    FileTimeBudget.stop();
+    LOG.warn("Analysis of file " + file.getAbsolutePath() + " aborted after " + e.budgetMillis() + " ms while "
+      + (duringParsing ? "parsing it" : "visiting it") + ", results are partial");
+    analysisPhases.addFileOverTimeBudget();
+
+    try {
+      if (duringParsing) {
+        for (SquidAstVisitor<LexerlessGrammar> visitor : visitors) {
+          visitor.visitFile(null);
+        }
+        markOverTimeBudget(file);
+        for (SquidAstVisitor<LexerlessGrammar> visitor : visitors) {
+          visitor.leaveFile(null);
+        }
+      } else {
+        // The nodes being visited are not left: the source code of the functions visited so far is still on the stack.
+        // The file is, so that the visitors save what they computed so far and reset their state for the next file.
+        while (!(context.peekSourceCode() instanceof SourceFile) && !(context.peekSourceCode() instanceof SourceProject)) {
+          context.popSourceCode();
+        }
+        markOverTimeBudget(file);
+        for (int i = visitors.size() - 1; i >= 0; i--) {
+          visitors.get(i).leaveFile(null);
+        }
+      }
+      popTillSourceProject();
+      if (profiler != null) {
+        profiler.endFile();
+      }
+    } catch (Throwable t) {
+      throw new AnalysisException("Unable to analyze file: " + file.getAbsolutePath(), t);
+    }
+  }
+
+  /**
+   * The number of lines, otherwise only known once the last token has been visited, is read from the source.
+   */
+  private void markOverTimeBudget(File file) {
+    SourceCode sourceFile = context.peekSourceCode();
+    if (sourceFile instanceof SourceFile) {
+      sourceFile.setMeasure(EcmaScriptMetric.FILES_OVER_TIME_BUDGET, 1);
+      if (sourceFile.getInt(EcmaScriptMetric.LINES) == 0) {
+        sourceFile.setMeasure(EcmaScriptMetric.LINES, sourceBuffers.get(file, charset).lineCount());
+      }
+    }
+  }
+
+  private AstNode parse(File file) {
+    if (profiler == null) {
+      return parser.parse(file);
+    }
+    profiler.start(AnalysisProfiler.PARSER);
+    try {
+      return parser.parse(file);
+    } finally {
+      profiler.stop();
+    }
+  }
+
+  private void walkAndVisit(JavaScriptAstWalker astWalker, AstNode ast) {
+    analysisPhases.start();
+    try {
+      astWalker.walkAndVisit(ast);
+    } finally {
+      analysisPhases.stop(AnalysisPhases.Phase.VISITORS);
+    }
+  }
+
+  private void popTillSourceProject() {
+    while (!(context.peekSourceCode() instanceof SourceProject)) {
+      context.popSourceCode();
+    }
+  }
+
+  private void visitFileWithParseError(Exception parseException) {
+    for (SquidAstVisitor<LexerlessGrammar> visitor : visitors) {
+      visitor.visitFile(null);
+    }
+    for (SquidAstVisitor<LexerlessGrammar> visitor : visitors) {
+      if (visitor instanceof AstScannerExceptionHandler) {
+        if (parseException instanceof RecognitionException) {
+          ((AstScannerExceptionHandler) visitor).processRecognitionException((RecognitionException) parseException);
+        } else {
+          ((AstScannerExceptionHandler) visitor).processException(parseException);
+        }
+      }
+    }
+    for (SquidAstVisitor<LexerlessGrammar> visitor : visitors) {
+      visitor.leaveFile(null);
+    }
+  }
+
   public static class Builder extends AstScanner.Builder<LexerlessGrammar> {
 
-    private final ProgressReport progressReport = new ProgressReport("Report about progress of ActionScript analyzer", TimeUnit.SECONDS.toMillis(10));
+    private ProgressReport progressReport = new ProgressReport("Report about progress of ActionScript analyzer", TimeUnit.SECONDS.toMillis(10));
+    private final List<SquidAstVisitor<LexerlessGrammar>> visitors = Lists.newArrayList();
+    private final SquidAstVisitorContextImpl<LexerlessGrammar> context;
+    private Parser<LexerlessGrammar> parser;
+    private MetricDef filesMetric;
+    private AnalysisProfiler profiler;
+    private AnalysisPhases analysisPhases = new AnalysisPhases();
+    private long fileTimeBudgetMillis = 0;
+    private SourceBuffers sourceBuffers = new SourceBuffers();
+    private Charset charset = Charset.defaultCharset();
+    private MetricDef[] metrics = new MetricDef[0];
+    private SourceFileListener sourceFileListener;
+    private FileFilter fileFilter;
 
     public Builder(SquidAstVisitorContextImpl<LexerlessGrammar> context) {
       super(context);
+      this.context = context;
+    }
+
+    public Builder setProgressReport(ProgressReport progressReport) {
+      this.progressReport = progressReport;
+      return this;
+    }
+
+    public Builder setProfiler(@Nullable AnalysisProfiler profiler) {
+      this.profiler = profiler;
+      return this;
+    }
+
+    public Builder setAnalysisPhases(AnalysisPhases analysisPhases) {
+      this.analysisPhases = analysisPhases;
+      return this;
+    }
+
+    /**
+     * @param fileTimeBudgetMillis maximum time spent analysing each file, disabled when not positive
+     */
+    public Builder setFileTimeBudget(long fileTimeBudgetMillis) {
+      this.fileTimeBudgetMillis = fileTimeBudgetMillis;
+      return this;
+    }
+
+    /**
+     * Where the content of the files whose analysis is aborted is read from, and released from once they are scanned.
+     */
+    public Builder setSourceBuffers(SourceBuffers sourceBuffers, Charset charset) {
+      this.sourceBuffers = sourceBuffers;
+      this.charset = charset;
+      return this;
+    }
+
+    public Builder setSourceFileListener(@Nullable SourceFileListener sourceFileListener) {
+      this.sourceFileListener = sourceFileListener;
+      return this;
+    }
+
+    public Builder setFileFilter(@Nullable FileFilter fileFilter) {
+      this.fileFilter = fileFilter;
+      return this;
+    }
+
+    @Override
+    public AstScanner.Builder<LexerlessGrammar> withMetrics(MetricDef... metrics) {
+      super.withMetrics(metrics);
+      this.metrics = metrics;
+      return this;
+    }
+
+    @Override
+    public AstScanner.Builder<LexerlessGrammar> setBaseParser(Parser<LexerlessGrammar> baseParser) {
+      super.setBaseParser(baseParser);
+      this.parser = baseParser;
+      return this;
+    }
+
+    @Override
+    public AstScanner.Builder<LexerlessGrammar> withSquidAstVisitor(SquidAstVisitor<LexerlessGrammar> visitor) {
+      super.withSquidAstVisitor(visitor);
+      visitors.add(visitor);
+      return this;
+    }
+
+    @Override
+    public AstScanner.Builder<LexerlessGrammar> setFilesMetric(MetricDef filesMetric) {
+      super.setFilesMetric(filesMetric);
+      this.filesMetric = filesMetric;
+      return this;
     }
 
     @Override
     public AstScanner<LexerlessGrammar> build() {
-      super.withSquidAstVisitor(new SquidAstVisitor<LexerlessGrammar>() {
-        @Override
-        public void visitFile(@Nullable AstNode astNode) {
-          progressReport.nextFile(getContext().getFile());
-        }
-      });
       return new ProgressAstScanner(this);
     }
 
@@ -23,6 +23,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.concurrent.TimeUnit;
 
 public class ProgressReport implements Runnable {
 
@@ -31,6 +32,7 @@ public class ProgressReport implements Runnable {
   private int files;
   private int count;
   private File currentFile;
+  private long startTime;
   private final Thread thread;
 
   public ProgressReport(String threadName, long period, Logger logger) {
@@ -50,7 +52,7 @@ public class ProgressReport implements Runnable {
       try {
         Thread.sleep(period);
         synchronized (ProgressReport.this) {
-          logger.info(count + "/" + files + " files analyzed, current is " + currentFile.getAbsolutePath());
+          logger.info(count + "/" + files + " files analyzed, current is " + currentFile.getAbsolutePath() + remainingTime());
         }
       } catch (InterruptedException e) {
         thread.interrupt();
@@ -61,8 +63,24 @@ public class ProgressReport implements Runnable {
     }
   }
 
+  /**
+   * Estimated from the average time of the files analyzed so far, the current one excluded.
+   */
+  private String remainingTime() {
+    int analyzed = count - 1;
+    if (analyzed <= 0) {
+      return "";
+    }
+    long remaining = TimeUnit.NANOSECONDS.toSeconds((System.nanoTime() - startTime) / analyzed * (files - analyzed));
+    if (remaining >= 60) {
+      return String.format(", about %d min %02d s remaining", remaining / 60, remaining % 60);
+    }
+    return ", about " + remaining + " s remaining";
+  }
+
   public synchronized void start(int files) {
     this.files = files;
+    this.startTime = System.nanoTime();
     logger.info(files + " source files to be analyzed");
     thread.start();
   }
@@ -0,0 +1,138 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decoded content of a source file, along with the offsets of the beginning of its lines.
+ * The content is shared by all the consumers of the file and must not be modified.
+ */
+public class SourceBuffer {
+
+  private final File file;
+  private final char[] contents;
+  private final int[] lineStartOffsets;
+
+  public SourceBuffer(File file, char[] contents) {
+    this.file = file;
+    this.contents = contents;
+    this.lineStartOffsets = lineStartOffsets(contents);
+  }
+
+  public static SourceBuffer read(File file, Charset charset) {
+    try {
+      return new SourceBuffer(file, Files.toString(file, charset).toCharArray());
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read " + file, e);
+    }
+  }
+
+  private static int[] lineStartOffsets(char[] contents) {
+    int[] offsets = new int[16];
+    int count = 1;
+    int i = 0;
+    while (i < contents.length) {
+      char c = contents[i];
+      if (c == '\n' || c == '\r') {
+        if (c == '\r' && i < contents.length - 1 && contents[i + 1] == '\n') {
+          i++;
+        }
+        if (count == offsets.length) {
+          offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        offsets[count] = i + 1;
+        count++;
+      }
+      i++;
+    }
+    return Arrays.copyOf(offsets, count);
+  }
+
+  public File file() {
+    return file;
+  }
+
+  public char[] contents() {
+    return contents;
+  }
+
+  /**
+   * Copy of the content, which is not kept by the buffer.
+   */
+  public String text() {
+    return new String(contents);
+  }
+
+  public int length() {
+    return contents.length;
+  }
+
+  /**
+   * Number of lines, as counted by the lexer: content ending with a line terminator has a last empty line.
+   */
+  public int lineCount() {
+    return lineStartOffsets.length;
+  }
+
+  /**
+   * @param line 1-based line number
+   */
+  public int lineStartOffset(int line) {
+    return lineStartOffsets[line - 1];
+  }
+
+  /**
+   * Same result as {@link Files#readLines(File, Charset)}: lines without their terminators, without a last empty line.
+   */
+  public List<String> lines() {
+    int lines = lineStartOffsets.length;
+    if (lineStartOffsets[lines - 1] == contents.length) {
+      lines--;
+    }
+
+    List<String> result = Lists.newArrayListWithCapacity(lines);
+    for (int line = 1; line <= lines; line++) {
+      result.add(line(line));
+    }
+    return result;
+  }
+
+  /**
+   * @param line 1-based line number
+   * @return content of the line, without its terminator
+   */
+  public String line(int line) {
+    int start = lineStartOffsets[line - 1];
+    int end = line < lineStartOffsets.length ? lineStartOffsets[line] : contents.length;
+    while (end > start && (contents[end - 1] == '\n' || contents[end - 1] == '\r')) {
+      end--;
+    }
+    return new String(contents, start, end - start);
+  }
+
+}
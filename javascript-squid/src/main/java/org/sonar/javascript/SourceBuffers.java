@@ -0,0 +1,92 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+import com.google.common.collect.Maps;
+import org.sonar.api.BatchExtension;
+import org.sonar.javascript.profiling.AnalysisPhases;
+import org.sonar.javascript.profiling.AnalysisPhases.Phase;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads each source file once per analysis: the parser, the checks and the highlighters all get their content from
+ * the same {@link SourceBuffer}. A buffer is kept from the first time its file is read until it is {@link #release released},
+ * which the scanner does as soon as the file has been scanned.
+ */
+public class SourceBuffers implements BatchExtension {
+
+  private final ConcurrentMap<File, SourceBuffer> buffers = Maps.newConcurrentMap();
+  private final AtomicInteger reads = new AtomicInteger();
+
+  public SourceBuffer get(File file, Charset charset) {
+    return get(file, charset, null);
+  }
+
+  /**
+   * @param analysisPhases where the time spent reading the file is added, when it is not loaded yet
+   */
+  public SourceBuffer get(File file, Charset charset, @Nullable AnalysisPhases analysisPhases) {
+    File key = file.getAbsoluteFile();
+    SourceBuffer buffer = buffers.get(key);
+
+    if (buffer == null) {
+      buffer = read(key, charset, analysisPhases);
+      reads.incrementAndGet();
+      SourceBuffer previous = buffers.putIfAbsent(key, buffer);
+      if (previous != null) {
+        buffer = previous;
+      }
+    }
+    return buffer;
+  }
+
+  private static SourceBuffer read(File file, Charset charset, @Nullable AnalysisPhases analysisPhases) {
+    if (analysisPhases == null) {
+      return SourceBuffer.read(file, charset);
+    }
+    analysisPhases.start();
+    try {
+      return SourceBuffer.read(file, charset);
+    } finally {
+      analysisPhases.stop(Phase.READ);
+    }
+  }
+
+  /**
+   * Forgets the content of a file once it is no longer needed: the next call to {@link #get} reads it again.
+   */
+  public void release(File file) {
+    buffers.remove(file.getAbsoluteFile());
+  }
+
+  /**
+   * Number of times a file has been read from disk.
+   */
+  public int readCount() {
+    return reads.get();
+  }
+
+}
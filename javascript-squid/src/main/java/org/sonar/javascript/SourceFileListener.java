@@ -0,0 +1,37 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+import org.sonar.squidbridge.api.SourceFile;
+
+import java.io.File;
+
+/**
+ * Receives the source code of each file as soon as it has been scanned, see {@link EcmaScriptConfiguration#setSourceFileListener}.
+ */
+public interface SourceFileListener {
+
+  /**
+   * Called in the thread of the scanner, once the metrics of the file, its functions and its classes are complete.
+   * The source file is no longer referenced by the scanner when this method returns.
+   */
+  void fileScanned(File file, SourceFile sourceFile);
+
+}
@@ -0,0 +1,38 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+/**
+ * Thrown by {@link FileTimeBudget#check()} to abort the analysis of a file which takes too long.
+ */
+public class TimeBudgetExceededException extends RuntimeException {
+
+  private final long budgetMillis;
+
+  public TimeBudgetExceededException(long budgetMillis) {
+    super("Analysis of the file took more than " + budgetMillis + " ms");
+    this.budgetMillis = budgetMillis;
+  }
+
+  public long budgetMillis() {
+    return budgetMillis;
+  }
+
+}
@@ -31,7 +31,30 @@ public enum EcmaScriptMetric implements MetricDef {
   COMPLEXITY,
   FUNCTIONS,
   ACCESSORS,
-  CLASSES;
+  CLASSES,
+  /**
+   * Files whose analysis was aborted because it exceeded the {@link org.sonar.javascript.FileTimeBudget}.
+   */
+  FILES_OVER_TIME_BUDGET,
+  /**
+   * Data of the files, not aggregated: the {@link org.sonar.javascript.metrics.FunctionComplexities} of their functions.
+   */
+  FUNCTION_COMPLEXITIES {
+    @Override
+    public boolean isThereAggregationFormula() {
+      return false;
+    }
+  },
+  /**
+   * Data of the classes, not aggregated: {@link Boolean#TRUE} for the classes declared inside a function, which are not
+   * counted in the complexity in classes.
+   */
+  NESTED_IN_FUNCTION {
+    @Override
+    public boolean isThereAggregationFormula() {
+      return false;
+    }
+  };
 
   @Override
   public String getName() {
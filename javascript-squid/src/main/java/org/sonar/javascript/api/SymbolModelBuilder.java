@@ -21,7 +21,9 @@ package org.sonar.javascript.api;
 
 import org.sonar.javascript.ast.resolve.Scope;
 import org.sonar.plugins.javascript.api.symbols.Symbol;
+import org.sonar.plugins.javascript.api.tree.Tree;
 
+import javax.annotation.Nullable;
 import java.util.Set;
 
 public interface SymbolModelBuilder {
@@ -32,6 +34,12 @@ public interface SymbolModelBuilder {
 
   Set<Scope> getScopes();
 
+  /**
+   * @return the scope created for the given tree, or null if this tree does not create a scope
+   */
+  @Nullable
+  Scope getScope(Tree tree);
+
   Symbol declareSymbol(String name, Symbol.Kind kind, Scope scope);
 
   // todo remove declaration argument in future. We can infer declaration tree from scope
@@ -24,7 +24,9 @@ import org.sonar.plugins.javascript.api.symbols.Symbol;
 import org.sonar.plugins.javascript.api.tree.Tree;
 
 import javax.annotation.Nullable;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
@@ -33,6 +35,7 @@ public class Scope {
   private Scope outer;
   private final Tree tree;
   protected Map<String, Symbol> symbols = Maps.newHashMap();
+  private final Map<Symbol.Kind, List<Symbol>> symbolsByKind = new EnumMap<>(Symbol.Kind.class);
   public Scope(Scope outer, Tree tree) {
     this.outer = outer;
     this.tree = tree;
@@ -62,16 +65,11 @@ public class Scope {
   /**
    * @param kind of the symbols to look for
    *
-   * @return the symbols corresponding to the given kind
+   * @return read-only view of the symbols corresponding to the given kind, in declaration order
    */
   public List<Symbol> getSymbols(Symbol.Kind kind) {
-    List<Symbol> result = new LinkedList<>();
-    for (Symbol symbol : symbols.values()){
-      if (symbol.is(kind)){
-        result.add(symbol);
-      }
-    }
-    return result;
+    List<Symbol> result = symbolsByKind.get(kind);
+    return result == null ? Collections.<Symbol>emptyList() : Collections.unmodifiableList(result);
   }
 
   public boolean isGlobal() {
@@ -79,7 +77,16 @@ public class Scope {
   }
 
   public void addSymbol(Symbol symbol) {
-    symbols.put(symbol.name(), symbol);
+    Symbol previous = symbols.put(symbol.name(), symbol);
+    if (previous != null) {
+      symbolsByKind.get(previous.kind()).remove(previous);
+    }
+    List<Symbol> symbolsOfKind = symbolsByKind.get(symbol.kind());
+    if (symbolsOfKind == null) {
+      symbolsOfKind = new ArrayList<>();
+      symbolsByKind.put(symbol.kind(), symbolsOfKind);
+    }
+    symbolsOfKind.add(symbol);
   }
 
   @Nullable
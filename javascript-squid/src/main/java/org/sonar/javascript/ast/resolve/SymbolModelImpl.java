@@ -19,37 +19,75 @@
  */
 package org.sonar.javascript.ast.resolve;
 
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import org.sonar.api.config.Settings;
-import org.sonar.api.source.Symbolizable;
 import org.sonar.javascript.api.SymbolModelBuilder;
 import org.sonar.javascript.ast.resolve.type.TypeVisitor;
-import org.sonar.javascript.highlighter.SourceFileOffsets;
+import org.sonar.javascript.profiling.AnalysisPhases;
+import org.sonar.javascript.profiling.AnalysisPhases.Phase;
 import org.sonar.plugins.javascript.api.symbols.Symbol;
 import org.sonar.plugins.javascript.api.symbols.SymbolModel;
 import org.sonar.plugins.javascript.api.tree.ScriptTree;
+import org.sonar.plugins.javascript.api.tree.Tree;
 
 import javax.annotation.Nullable;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Set;
 
 public class SymbolModelImpl implements SymbolModel, SymbolModelBuilder {
 
-  private Map<Symbol, Scope> symbolScope = Maps.newHashMap();
+  private Map<Symbol, Scope> symbolScope = Maps.newLinkedHashMap();
+  private Map<Symbol.Kind, Set<Symbol>> symbolsByKind = new EnumMap<>(Symbol.Kind.class);
+  private SetMultimap<String, Symbol> symbolsByName = LinkedHashMultimap.create();
   private Set<Scope> scopes = Sets.newHashSet();
+  private Map<Tree, Scope> scopeByTree = Maps.newIdentityHashMap();
   private Scope globalScope;
 
-  public static SymbolModelImpl create(ScriptTree script, @Nullable Symbolizable symbolizable, @Nullable SourceFileOffsets sourceFileOffsets, @Nullable Settings settings) {
+  public static SymbolModelImpl create(ScriptTree script, @Nullable Settings settings) {
+    return create(script, settings, null);
+  }
+
+  /**
+   * @param analysisPhases where the time spent resolving the symbols and inferring the types is added, if any
+   */
+  public static SymbolModelImpl create(ScriptTree script, @Nullable Settings settings, @Nullable AnalysisPhases analysisPhases) {
     SymbolModelImpl symbolModel = new SymbolModelImpl();
-    new SymbolVisitor(symbolModel, symbolizable, sourceFileOffsets).visitScript(script);
-    new TypeVisitor(settings).visitScript(script);
+    if (analysisPhases == null) {
+      new SymbolVisitor(symbolModel).visitScript(script);
+      new TypeVisitor(settings).visitScript(script);
+      return symbolModel;
+    }
+
+    analysisPhases.start();
+    try {
+      new SymbolVisitor(symbolModel).visitScript(script);
+    } finally {
+      analysisPhases.stop(Phase.SYMBOL_RESOLUTION);
+    }
+    analysisPhases.start();
+    try {
+      new TypeVisitor(settings).visitScript(script);
+    } finally {
+      analysisPhases.stop(Phase.TYPE_INFERENCE);
+    }
     return symbolModel;
   }
 
   private void setScopeForSymbol(Symbol symbol, Scope scope) {
     symbolScope.put(symbol, scope);
+
+    Set<Symbol> symbolsOfKind = symbolsByKind.get(symbol.kind());
+    if (symbolsOfKind == null) {
+      symbolsOfKind = Sets.newLinkedHashSet();
+      symbolsByKind.put(symbol.kind(), symbolsOfKind);
+    }
+    symbolsOfKind.add(symbol);
+    symbolsByName.put(symbol.name(), symbol);
   }
 
   @Override
@@ -63,6 +101,7 @@ public class SymbolModelImpl implements SymbolModel, SymbolModelBuilder {
       globalScope = scope;
     }
     scopes.add(scope);
+    scopeByTree.put(scope.tree(), scope);
   }
 
   @Override
@@ -70,6 +109,12 @@ public class SymbolModelImpl implements SymbolModel, SymbolModelBuilder {
     return scopes;
   }
 
+  @Nullable
+  @Override
+  public Scope getScope(Tree tree) {
+    return scopeByTree.get(tree);
+  }
+
   @Override
   public Symbol declareSymbol(String name, Symbol.Kind kind, Scope scope) {
     Symbol symbol = scope.getSymbol(name);
@@ -94,43 +139,32 @@ public class SymbolModelImpl implements SymbolModel, SymbolModelBuilder {
   }
 
   /**
-   * Returns all symbols in script
+   * Returns a read-only view of all symbols in script
    */
   @Override
   public Set<Symbol> getSymbols() {
-    return symbolScope.keySet();
+    return Collections.unmodifiableSet(symbolScope.keySet());
   }
 
   /**
    *
    * @param kind kind of symbols to look for
-   * @return list of symbols with the given kind
+   * @return read-only view of the symbols with the given kind
    */
   @Override
   public Set<Symbol> getSymbols(Symbol.Kind kind) {
-    Set<Symbol> result = new HashSet<>();
-    for (Symbol symbol : getSymbols()){
-      if (kind.equals(symbol.kind())){
-        result.add(symbol);
-      }
-    }
-    return result;
+    Set<Symbol> result = symbolsByKind.get(kind);
+    return result == null ? Collections.<Symbol>emptySet() : Collections.unmodifiableSet(result);
   }
 
   /**
    *
    * @param name name of symbols to look for
-   * @return list of symbols with the given name
+   * @return read-only view of the symbols with the given name
    */
   @Override
   public Set<Symbol> getSymbols(String name) {
-    Set<Symbol> result = new HashSet<>();
-    for (Symbol symbol : getSymbols()){
-      if (name.equals(symbol.name())){
-        result.add(symbol);
-      }
-    }
-    return result;
+    return Collections.unmodifiableSet(symbolsByName.get(name));
   }
 
 }
@@ -19,17 +19,11 @@
  */
 package org.sonar.javascript.ast.resolve;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.sonar.api.source.Symbolizable;
 import org.sonar.javascript.api.EcmaScriptPunctuator;
 import org.sonar.plugins.javascript.api.symbols.Symbol;
-import org.sonar.plugins.javascript.api.symbols.SymbolModel;
 import org.sonar.javascript.api.SymbolModelBuilder;
 import org.sonar.plugins.javascript.api.symbols.Usage;
 import org.sonar.plugins.javascript.api.visitors.BaseTreeVisitor;
-import org.sonar.javascript.highlighter.HighlightSymbolTableBuilder;
-import org.sonar.javascript.highlighter.SourceFileOffsets;
 import org.sonar.plugins.javascript.api.tree.Tree;
 import org.sonar.plugins.javascript.api.tree.declaration.FunctionDeclarationTree;
 import org.sonar.plugins.javascript.api.tree.declaration.MethodDeclarationTree;
@@ -43,25 +37,14 @@ import org.sonar.plugins.javascript.api.tree.statement.CatchBlockTree;
 import org.sonar.plugins.javascript.api.tree.statement.ForInStatementTree;
 import org.sonar.plugins.javascript.api.tree.statement.ForOfStatementTree;
 
-import javax.annotation.Nullable;
-
 public class SymbolVisitor extends BaseTreeVisitor {
 
-  private static final Logger LOG = LoggerFactory.getLogger(SymbolVisitor.class);
-
-  private final Symbolizable symbolizable;
-  private final SourceFileOffsets sourceFileOffsets;
-
   private SymbolModelBuilder symbolModel;
   private Scope currentScope;
 
-  public SymbolVisitor(SymbolModelBuilder symbolModel, @Nullable Symbolizable symbolizable, @Nullable SourceFileOffsets sourceFileOffsets) {
+  public SymbolVisitor(SymbolModelBuilder symbolModel) {
     this.symbolModel = symbolModel;
     this.currentScope = null;
-
-    // Symbol highlighting
-    this.symbolizable = symbolizable;
-    this.sourceFileOffsets = sourceFileOffsets;
   }
 
   @Override
@@ -73,8 +56,6 @@ public class SymbolVisitor extends BaseTreeVisitor {
     // Record usage and implicit symbol declarations
     super.visitScript(tree);
     leaveScope();
-
-    highlightSymbols();
   }
 
   @Override
@@ -218,20 +199,11 @@ public class SymbolVisitor extends BaseTreeVisitor {
     return false;
   }
 
-  private void highlightSymbols() {
-    if (symbolizable != null) {
-      symbolizable.setSymbolTable(HighlightSymbolTableBuilder.build(symbolizable, (SymbolModel) symbolModel, sourceFileOffsets));
-    } else {
-      LOG.warn("Symbol in source view will not be highlighted.");
-    }
-  }
-
   private Scope getScopeFor(Tree tree) {
-    for (Scope scope : symbolModel.getScopes()) {
-      if (scope.tree().equals(tree)) {
-        return scope;
-      }
+    Scope scope = symbolModel.getScope(tree);
+    if (scope == null) {
+      throw new IllegalStateException("No scope found for the tree");
     }
-    throw new IllegalStateException("No scope found for the tree");
+    return scope;
   }
 }
@@ -0,0 +1,283 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.ast.visitors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.sonar.sslr.api.AstAndTokenVisitor;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.AstNodeType;
+import com.sonar.sslr.api.AstVisitor;
+import com.sonar.sslr.api.Token;
+import org.sonar.javascript.FileTimeBudget;
+import org.sonar.javascript.model.internal.JavaScriptTree;
+import org.sonar.javascript.profiling.AnalysisProfiler;
+import org.sonar.plugins.javascript.api.tree.Tree;
+
+import javax.annotation.Nullable;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Walks each file once for both kinds of visitors:
+ * <ul>
+ *   <li>the {@link AstVisitor}s (metrics, legacy checks), called like {@link com.sonar.sslr.impl.ast.AstWalker} does,
+ *   in the order of {@link AstNode#getChildren()},</li>
+ *   <li>the {@link SubscriptionAstTreeVisitor}s of all the {@link VisitorsBridge}s, called in the same order as
+ *   {@link SubscriptionAstTreeVisitor#scanFile} does, along {@link JavaScriptTree#childrenIterator()}.</li>
+ * </ul>
+ * Most nodes have their {@link JavaScriptTree#childrenIterator()} children among their {@link AstNode} children, in the
+ * same order: the subscription visitors are called for them while the {@link AstNode} children are walked. The few
+ * others, like arrays with elided elements, if statements with an else clause or do-while statements, have their
+ * subtree walked along {@link JavaScriptTree#childrenIterator()} for the subscription visitors, then along
+ * {@link AstNode#getChildren()} for the {@link AstVisitor}s.
+ * <p>
+ * When a profiler is given, each call to a visitor is measured.
+ * The {@link FileTimeBudget} is checked before each node.
+ */
+public class JavaScriptAstWalker {
+
+  private static final AstVisitor[] NO_VISITOR = new AstVisitor[0];
+
+  private final List<AstVisitor> visitors;
+  private final Map<AstNodeType, AstVisitor[]> visitorsByNodeType = new IdentityHashMap<>();
+  private final AstAndTokenVisitor[] tokenVisitors;
+  private final SubscriptionDispatcher[] dispatchers;
+  private final AnalysisProfiler profiler;
+  private Token lastVisitedToken = null;
+
+  public JavaScriptAstWalker(List<? extends AstVisitor> visitors) {
+    this(visitors, null);
+  }
+
+  public JavaScriptAstWalker(List<? extends AstVisitor> visitors, @Nullable AnalysisProfiler profiler) {
+    this.visitors = Lists.newArrayList(visitors);
+    this.profiler = profiler;
+
+    Map<AstNodeType, List<AstVisitor>> subscribers = Maps.newIdentityHashMap();
+    List<AstAndTokenVisitor> tokenVisitorList = Lists.newArrayList();
+    List<SubscriptionDispatcher> dispatcherList = Lists.newArrayList();
+    for (AstVisitor visitor : visitors) {
+      for (AstNodeType type : visitor.getAstNodeTypesToVisit()) {
+        List<AstVisitor> list = subscribers.get(type);
+        if (list == null) {
+          list = Lists.newArrayList();
+          subscribers.put(type, list);
+        }
+        list.add(visitor);
+      }
+      if (visitor instanceof AstAndTokenVisitor) {
+        tokenVisitorList.add((AstAndTokenVisitor) visitor);
+      }
+      if (visitor instanceof VisitorsBridge) {
+        ((VisitorsBridge) visitor).setProfiler(profiler);
+        SubscriptionDispatcher dispatcher = ((VisitorsBridge) visitor).delegateSubscriptionWalk();
+        if (!dispatcher.isEmpty()) {
+          dispatcherList.add(dispatcher);
+        }
+      }
+    }
+    for (Map.Entry<AstNodeType, List<AstVisitor>> entry : subscribers.entrySet()) {
+      visitorsByNodeType.put(entry.getKey(), entry.getValue().toArray(NO_VISITOR));
+    }
+    this.tokenVisitors = tokenVisitorList.toArray(new AstAndTokenVisitor[tokenVisitorList.size()]);
+    this.dispatchers = dispatcherList.toArray(new SubscriptionDispatcher[dispatcherList.size()]);
+  }
+
+  public void walkAndVisit(AstNode ast) {
+    for (AstVisitor visitor : visitors) {
+      visitFile(visitor, ast);
+    }
+    visit(ast, dispatchers.length > 0 && ast instanceof JavaScriptTree);
+    for (int i = visitors.size() - 1; i >= 0; i--) {
+      leaveFile(visitors.get(i), ast);
+    }
+  }
+
+  /**
+   * @param dispatch whether the node is to be visited by the subscription visitors, as a node of the tree of
+   * {@link JavaScriptTree#childrenIterator()} not visited yet
+   */
+  private void visit(AstNode ast, boolean dispatch) {
+    FileTimeBudget.check();
+    AstVisitor[] nodeVisitors = nodeVisitors(ast);
+    for (AstVisitor nodeVisitor : nodeVisitors) {
+      visitNode(nodeVisitor, ast);
+    }
+    visitToken(ast);
+    if (dispatch) {
+      visitDispatched((JavaScriptTree) ast);
+    } else {
+      for (AstNode child : ast.getChildren()) {
+        visit(child, false);
+      }
+    }
+    for (int i = nodeVisitors.length - 1; i >= 0; i--) {
+      leaveNode(nodeVisitors[i], ast);
+    }
+  }
+
+  private void visitDispatched(JavaScriptTree tree) {
+    for (SubscriptionDispatcher dispatcher : dispatchers) {
+      dispatcher.visitNode(tree);
+    }
+
+    if (!tree.isLeaf() && sameChildrenOrder(tree)) {
+      Iterator<Tree> treeChildren = tree.childrenIterator();
+      Tree nextTreeChild = nextChild(treeChildren);
+      for (AstNode child : tree.getChildren()) {
+        boolean treeChild = child == nextTreeChild;
+        if (treeChild) {
+          nextTreeChild = nextChild(treeChildren);
+        }
+        visit(child, treeChild);
+      }
+
+    } else {
+      visitTreeChildren(tree);
+      for (AstNode child : tree.getChildren()) {
+        visit(child, false);
+      }
+    }
+
+    for (SubscriptionDispatcher dispatcher : dispatchers) {
+      dispatcher.leaveNode(tree);
+    }
+  }
+
+  /**
+   * Whether the children of the tree are {@link AstNode} children of the tree, in the same order.
+   */
+  private static boolean sameChildrenOrder(JavaScriptTree tree) {
+    Iterator<Tree> treeChildren = tree.childrenIterator();
+    Tree nextTreeChild = nextChild(treeChildren);
+    for (AstNode child : tree.getChildren()) {
+      if (nextTreeChild == null) {
+        return true;
+      }
+      if (child == nextTreeChild) {
+        nextTreeChild = nextChild(treeChildren);
+      }
+    }
+    return nextTreeChild == null;
+  }
+
+  @Nullable
+  private static Tree nextChild(Iterator<Tree> treeChildren) {
+    while (treeChildren.hasNext()) {
+      Tree next = treeChildren.next();
+      if (next != null) {
+        return next;
+      }
+    }
+    return null;
+  }
+
+  private void visitTree(JavaScriptTree tree) {
+    FileTimeBudget.check();
+    for (SubscriptionDispatcher dispatcher : dispatchers) {
+      dispatcher.visitNode(tree);
+    }
+    visitTreeChildren(tree);
+    for (SubscriptionDispatcher dispatcher : dispatchers) {
+      dispatcher.leaveNode(tree);
+    }
+  }
+
+  private void visitTreeChildren(JavaScriptTree tree) {
+    if (!tree.isLeaf()) {
+      for (Iterator<Tree> iter = tree.childrenIterator(); iter.hasNext();) {
+        Tree next = iter.next();
+
+        if (next != null) {
+          visitTree((JavaScriptTree) next);
+        }
+      }
+    }
+  }
+
+  private void visitToken(AstNode ast) {
+    Token token = ast.getToken();
+    if (token != null && token != lastVisitedToken) {
+      lastVisitedToken = token;
+      for (AstAndTokenVisitor tokenVisitor : tokenVisitors) {
+        visitToken(tokenVisitor, token);
+      }
+    }
+  }
+
+  private void visitFile(AstVisitor visitor, AstNode ast) {
+    if (profiler == null) {
+      visitor.visitFile(ast);
+    } else {
+      profiler.start(visitor);
+      visitor.visitFile(ast);
+      profiler.stop();
+    }
+  }
+
+  private void leaveFile(AstVisitor visitor, AstNode ast) {
+    if (profiler == null) {
+      visitor.leaveFile(ast);
+    } else {
+      profiler.start(visitor);
+      visitor.leaveFile(ast);
+      profiler.stop();
+    }
+  }
+
+  private void visitNode(AstVisitor visitor, AstNode ast) {
+    if (profiler == null) {
+      visitor.visitNode(ast);
+    } else {
+      profiler.start(visitor);
+      visitor.visitNode(ast);
+      profiler.stop();
+    }
+  }
+
+  private void leaveNode(AstVisitor visitor, AstNode ast) {
+    if (profiler == null) {
+      visitor.leaveNode(ast);
+    } else {
+      profiler.start(visitor);
+      visitor.leaveNode(ast);
+      profiler.stop();
+    }
+  }
+
+  private void visitToken(AstAndTokenVisitor visitor, Token token) {
+    if (profiler == null) {
+      visitor.visitToken(token);
+    } else {
+      profiler.start(visitor);
+      visitor.visitToken(token);
+      profiler.stop();
+    }
+  }
+
+  private AstVisitor[] nodeVisitors(AstNode ast) {
+    AstVisitor[] nodeVisitors = visitorsByNodeType.get(ast.getType());
+    return nodeVisitors == null ? NO_VISITOR : nodeVisitors;
+  }
+
+}
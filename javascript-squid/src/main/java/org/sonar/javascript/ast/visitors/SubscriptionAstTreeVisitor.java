@@ -19,9 +19,10 @@
  */
 package org.sonar.javascript.ast.visitors;
 
-import java.util.Collection;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.sonar.plugins.javascript.api.AstTreeVisitorContext;
 import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
@@ -33,7 +34,7 @@ import org.sonar.plugins.javascript.api.tree.lexical.SyntaxTrivia;
 public abstract class SubscriptionAstTreeVisitor implements JavaScriptFileScanner {
 
   private AstTreeVisitorContext context;
-  private Collection<Tree.Kind> nodesToVisit;
+  private Set<Tree.Kind> nodesToVisit;
 
   public abstract List<Tree.Kind> nodesToVisit();
 
@@ -41,6 +42,10 @@ public abstract class SubscriptionAstTreeVisitor implements JavaScriptFileScanne
     return context;
   }
 
+  void setContext(AstTreeVisitorContext context) {
+    this.context = context;
+  }
+
   public void visitNode(Tree tree) {
     // Default behavior : do nothing.
   }
@@ -69,7 +74,8 @@ public abstract class SubscriptionAstTreeVisitor implements JavaScriptFileScanne
   }
 
   protected void scanTree(Tree tree) {
-    nodesToVisit = nodesToVisit();
+    nodesToVisit = EnumSet.noneOf(Tree.Kind.class);
+    nodesToVisit.addAll(nodesToVisit());
     visit(tree);
   }
 
@@ -78,12 +84,26 @@ public abstract class SubscriptionAstTreeVisitor implements JavaScriptFileScanne
     if (isSubscribed) {
       visitNode(tree);
     }
+    if (tree instanceof SyntaxToken) {
+      visitTokenAndTrivias((SyntaxToken) tree);
+    }
     visitChildren(tree);
     if (isSubscribed) {
       leaveNode(tree);
     }
   }
 
+  private void visitTokenAndTrivias(SyntaxToken token) {
+    if (nodesToVisit.contains(Tree.Kind.TOKEN)) {
+      visitToken(token);
+    }
+    if (nodesToVisit.contains(Tree.Kind.TRIVIA)) {
+      for (SyntaxTrivia trivia : token.trivias()) {
+        visitTrivia(trivia);
+      }
+    }
+  }
+
   protected boolean isSubscribed(Tree tree) {
     return nodesToVisit.contains(((JavaScriptTree) tree).getKind());
   }
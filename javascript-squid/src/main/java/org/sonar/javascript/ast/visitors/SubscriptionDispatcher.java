@@ -0,0 +1,206 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.ast.visitors;
+
+import com.google.common.collect.Lists;
+import com.sonar.sslr.api.AstNodeType;
+import org.sonar.javascript.FileTimeBudget;
+import org.sonar.javascript.model.internal.JavaScriptTree;
+import org.sonar.javascript.profiling.AnalysisProfiler;
+import org.sonar.plugins.javascript.api.AstTreeVisitorContext;
+import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
+import org.sonar.plugins.javascript.api.tree.Tree;
+import org.sonar.plugins.javascript.api.tree.Tree.Kind;
+import org.sonar.plugins.javascript.api.tree.lexical.SyntaxToken;
+import org.sonar.plugins.javascript.api.tree.lexical.SyntaxTrivia;
+
+import javax.annotation.Nullable;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs several {@link SubscriptionAstTreeVisitor}s with a single walk of the tree: for each kind of node,
+ * the visitors which subscribed to it are computed once, when the dispatcher is created.
+ */
+public class SubscriptionDispatcher {
+
+  private static final SubscriptionAstTreeVisitor[] NO_VISITOR = new SubscriptionAstTreeVisitor[0];
+
+  private final List<SubscriptionAstTreeVisitor> visitors;
+  private final SubscriptionAstTreeVisitor[][] visitorsByKind;
+  private final SubscriptionAstTreeVisitor[] tokenVisitors;
+  private final SubscriptionAstTreeVisitor[] triviaVisitors;
+  private AnalysisProfiler profiler;
+
+  public SubscriptionDispatcher(List<SubscriptionAstTreeVisitor> visitors) {
+    this.visitors = visitors;
+    this.visitorsByKind = new SubscriptionAstTreeVisitor[Kind.values().length][];
+
+    List<List<SubscriptionAstTreeVisitor>> subscribers = Lists.newArrayList();
+    for (int i = 0; i < visitorsByKind.length; i++) {
+      subscribers.add(Lists.<SubscriptionAstTreeVisitor>newArrayList());
+    }
+    for (SubscriptionAstTreeVisitor visitor : visitors) {
+      Set<Kind> kinds = EnumSet.noneOf(Kind.class);
+      kinds.addAll(visitor.nodesToVisit());
+      for (Kind kind : kinds) {
+        subscribers.get(kind.ordinal()).add(visitor);
+      }
+    }
+    for (int i = 0; i < visitorsByKind.length; i++) {
+      visitorsByKind[i] = subscribers.get(i).toArray(NO_VISITOR);
+    }
+
+    this.tokenVisitors = visitorsByKind[Kind.TOKEN.ordinal()];
+    this.triviaVisitors = visitorsByKind[Kind.TRIVIA.ordinal()];
+  }
+
+  public void setProfiler(@Nullable AnalysisProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  /**
+   * Visitors can be run by the dispatcher only if they rely on the default walk of {@link SubscriptionAstTreeVisitor}.
+   */
+  public static boolean canDispatch(JavaScriptFileScanner scanner) {
+    if (!(scanner instanceof SubscriptionAstTreeVisitor)) {
+      return false;
+    }
+    for (Class<?> c = scanner.getClass(); !c.equals(SubscriptionAstTreeVisitor.class); c = c.getSuperclass()) {
+      if (declares(c, "scanFile", AstTreeVisitorContext.class) || declares(c, "scanTree", Tree.class) || declares(c, "isSubscribed", Tree.class)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean declares(Class<?> c, String methodName, Class<?> parameterType) {
+    try {
+      c.getDeclaredMethod(methodName, parameterType);
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  public void scanFile(AstTreeVisitorContext context) {
+    visitFile(context);
+    visit(context.getTree());
+  }
+
+  /**
+   * Initialises the visitors for a new file, when the walk of the tree is driven by the caller through
+   * {@link #visitNode(Tree)} and {@link #leaveNode(Tree)}.
+   */
+  public void visitFile(AstTreeVisitorContext context) {
+    for (SubscriptionAstTreeVisitor visitor : visitors) {
+      visitor.setContext(context);
+      if (profiler == null) {
+        visitor.visitFile(context.getTree());
+      } else {
+        profiler.start(visitor);
+        visitor.visitFile(context.getTree());
+        profiler.stop();
+      }
+    }
+  }
+
+  public void visitNode(Tree tree) {
+    for (SubscriptionAstTreeVisitor visitor : subscribers(tree)) {
+      if (profiler == null) {
+        visitor.visitNode(tree);
+      } else {
+        profiler.start(visitor);
+        visitor.visitNode(tree);
+        profiler.stop();
+      }
+    }
+    if (tree instanceof SyntaxToken) {
+      visitTokenAndTrivias((SyntaxToken) tree);
+    }
+  }
+
+  public void leaveNode(Tree tree) {
+    for (SubscriptionAstTreeVisitor visitor : subscribers(tree)) {
+      if (profiler == null) {
+        visitor.leaveNode(tree);
+      } else {
+        profiler.start(visitor);
+        visitor.leaveNode(tree);
+        profiler.stop();
+      }
+    }
+  }
+
+  public boolean isEmpty() {
+    return visitors.isEmpty();
+  }
+
+  private SubscriptionAstTreeVisitor[] subscribers(Tree tree) {
+    AstNodeType kind = ((JavaScriptTree) tree).getKind();
+    return kind instanceof Kind ? visitorsByKind[((Kind) kind).ordinal()] : NO_VISITOR;
+  }
+
+  private void visit(Tree tree) {
+    FileTimeBudget.check();
+    JavaScriptTree javaScriptTree = (JavaScriptTree) tree;
+    visitNode(tree);
+
+    if (!javaScriptTree.isLeaf()) {
+      for (Iterator<Tree> iter = javaScriptTree.childrenIterator(); iter.hasNext();) {
+        Tree next = iter.next();
+
+        if (next != null) {
+          visit(next);
+        }
+      }
+    }
+
+    leaveNode(tree);
+  }
+
+  private void visitTokenAndTrivias(SyntaxToken token) {
+    for (SubscriptionAstTreeVisitor visitor : tokenVisitors) {
+      if (profiler == null) {
+        visitor.visitToken(token);
+      } else {
+        profiler.start(visitor);
+        visitor.visitToken(token);
+        profiler.stop();
+      }
+    }
+    if (triviaVisitors.length > 0) {
+      for (SyntaxTrivia trivia : token.trivias()) {
+        for (SubscriptionAstTreeVisitor visitor : triviaVisitors) {
+          if (profiler == null) {
+            visitor.visitTrivia(trivia);
+          } else {
+            profiler.start(visitor);
+            visitor.visitTrivia(trivia);
+            profiler.stop();
+          }
+        }
+      }
+    }
+  }
+
+}
@@ -19,6 +19,7 @@
  */
 package org.sonar.javascript.ast.visitors;
 
+import com.google.common.collect.Lists;
 import com.sonar.sslr.api.AstNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,10 +28,21 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.component.ResourcePerspectives;
 import org.sonar.api.config.Settings;
 import org.sonar.api.source.Symbolizable;
+import org.sonar.javascript.FileTimeBudget;
+import org.sonar.javascript.PlatformAccess;
+import org.sonar.javascript.SourceBuffer;
+import org.sonar.javascript.SourceBuffers;
+import org.sonar.javascript.SourceBuffersAwareVisitor;
 import org.sonar.javascript.ast.resolve.SymbolModelImpl;
+import org.sonar.javascript.highlighter.HighlightSymbolTableBuilder;
 import org.sonar.javascript.highlighter.SourceFileOffsets;
+import org.sonar.javascript.profiling.AnalysisPhases;
+import org.sonar.javascript.profiling.AnalysisProfiler;
+import org.sonar.plugins.javascript.api.AstTreeVisitorContext;
 import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
+import org.sonar.plugins.javascript.api.symbols.SymbolModel;
 import org.sonar.plugins.javascript.api.tree.ScriptTree;
+import org.sonar.plugins.javascript.api.visitors.FusedTreeVisitor;
 import org.sonar.squidbridge.SquidAstVisitor;
 import org.sonar.squidbridge.api.SourceFile;
 import org.sonar.sslr.parser.LexerlessGrammar;
@@ -39,19 +51,77 @@ import javax.annotation.Nullable;
 import java.io.File;
 import java.util.List;
 
-public class VisitorsBridge extends SquidAstVisitor<LexerlessGrammar> {
+public class VisitorsBridge extends SquidAstVisitor<LexerlessGrammar> implements SourceBuffersAwareVisitor {
+
+  public static final String FUSED_VISITORS_KEY = "sonar.javascript.analysis.fusedVisitors";
+  public static final String FUSED_VISITORS_DEFAULT_VALUE = "false";
+  public static final String SYMBOL_HIGHLIGHTING_KEY = "sonar.javascript.analysis.symbolHighlighting";
+  public static final String SYMBOL_HIGHLIGHTING_DEFAULT_VALUE = "true";
 
   private final List<JavaScriptFileScanner> scanners;
+  private final SubscriptionDispatcher subscriptionDispatcher;
+  private final FusedTreeVisitor fusedTreeVisitor;
   private final ResourcePerspectives resourcePerspectives;
   private final FileSystem fs;
   private static final Logger LOG = LoggerFactory.getLogger(VisitorsBridge.class);
   private final Settings settings;
+  private final boolean symbolHighlighting;
+  private final AnalysisPhases analysisPhases;
+  private SourceBuffers sourceBuffers = new SourceBuffers();
+  private boolean subscriptionWalkDelegated = false;
+  private AnalysisProfiler profiler;
 
   public VisitorsBridge(List<JavaScriptFileScanner> visitors, @Nullable ResourcePerspectives resourcePerspectives, FileSystem fs, Settings settings) {
-    this.scanners = visitors;
+    this(visitors, resourcePerspectives, fs, settings, new AnalysisPhases());
+  }
+
+  /**
+   * @param analysisPhases where the time spent computing and highlighting the symbol model is added
+   */
+  public VisitorsBridge(List<JavaScriptFileScanner> visitors, @Nullable ResourcePerspectives resourcePerspectives, FileSystem fs, Settings settings,
+    AnalysisPhases analysisPhases) {
+    List<SubscriptionAstTreeVisitor> subscriptionVisitors = Lists.newArrayList();
+    List<JavaScriptFileScanner> fusableVisitors = Lists.newArrayList();
+    this.scanners = Lists.newArrayList();
+    boolean fuseVisitors = settings != null && settings.getBoolean(FUSED_VISITORS_KEY);
+
+    for (JavaScriptFileScanner visitor : visitors) {
+      if (SubscriptionDispatcher.canDispatch(visitor)) {
+        subscriptionVisitors.add((SubscriptionAstTreeVisitor) visitor);
+      } else if (fuseVisitors && FusedTreeVisitor.canFuse(visitor)) {
+        fusableVisitors.add(visitor);
+      } else {
+        scanners.add(visitor);
+      }
+    }
+
+    this.subscriptionDispatcher = new SubscriptionDispatcher(subscriptionVisitors);
+    this.fusedTreeVisitor = new FusedTreeVisitor(fusableVisitors);
     this.resourcePerspectives = resourcePerspectives;
     this.fs = fs;
     this.settings = settings;
+    this.analysisPhases = analysisPhases;
+    this.symbolHighlighting = settings == null || !settings.hasKey(SYMBOL_HIGHLIGHTING_KEY) || settings.getBoolean(SYMBOL_HIGHLIGHTING_KEY);
+  }
+
+  @Override
+  public void setSourceBuffers(SourceBuffers sourceBuffers) {
+    this.sourceBuffers = sourceBuffers;
+  }
+
+  void setProfiler(@Nullable AnalysisProfiler profiler) {
+    this.profiler = profiler;
+    subscriptionDispatcher.setProfiler(profiler);
+    fusedTreeVisitor.setProfiler(profiler);
+  }
+
+  /**
+   * The subscription visitors are then called by the {@link JavaScriptAstWalker}, in a single walk of the tree shared
+   * with the subscription visitors of the other bridges.
+   */
+  SubscriptionDispatcher delegateSubscriptionWalk() {
+    subscriptionWalkDelegated = true;
+    return subscriptionDispatcher;
   }
 
   @Override
@@ -59,25 +129,76 @@ public class VisitorsBridge extends SquidAstVisitor<LexerlessGrammar> {
     if (astNode != null) {
       ScriptTree scriptTree = (ScriptTree) astNode;
       File file = getContext().getFile();
+      SourceBuffer sourceBuffer = sourceBuffers.get(file, fs.encoding());
+
+      // Symbol model and types are computed once per file and shared by all the scanners
+      if (profiler != null) {
+        profiler.start(AnalysisProfiler.SYMBOL_MODEL);
+      }
+      SymbolModelImpl symbolModel = SymbolModelImpl.create(scriptTree, settings, analysisPhases);
+      if (symbolHighlighting) {
+        highlightSymbols(file, sourceBuffer, symbolModel);
+      }
+      if (profiler != null) {
+        profiler.stop();
+      }
+
+      AstTreeVisitorContext context = new AstTreeVisitorContextImpl(
+        scriptTree,
+        (SourceFile) getContext().peekSourceCode(),
+        file,
+        symbolModel,
+        settings
+      );
+
+      if (subscriptionWalkDelegated) {
+        subscriptionDispatcher.visitFile(context);
+      } else {
+        subscriptionDispatcher.scanFile(context);
+      }
+      fusedTreeVisitor.scanFile(context);
 
       for (JavaScriptFileScanner scanner : scanners) {
-        scanner.scanFile(new AstTreeVisitorContextImpl(
-          scriptTree,
-          (SourceFile) getContext().peekSourceCode(),
-          file,
-          SymbolModelImpl.create(scriptTree, symbolizableFor(file), new SourceFileOffsets(file, fs.encoding()), settings),
-          settings
-        ));
+        FileTimeBudget.check();
+        if (profiler == null) {
+          scanner.scanFile(context);
+        } else {
+          profiler.start(scanner);
+          scanner.scanFile(context);
+          profiler.stop();
+        }
       }
     }
   }
 
-  @Nullable
-  private Symbolizable symbolizableFor(File file) {
+  /**
+   * The offsets of the symbols are computed without holding the {@link PlatformAccess#LOCK}, which is only held to report them.
+   */
+  private void highlightSymbols(File file, SourceBuffer sourceBuffer, SymbolModel symbolModel) {
     if (resourcePerspectives == null) {
-      return null;
+      LOG.warn("Symbol in source view will not be highlighted.");
+      return;
+    }
+    List<int[]> symbols;
+    analysisPhases.start();
+    try {
+      symbols = HighlightSymbolTableBuilder.symbols(symbolModel, new SourceFileOffsets(sourceBuffer));
+    } finally {
+      analysisPhases.stop(AnalysisPhases.Phase.SYMBOL_HIGHLIGHTING);
     }
 
+    synchronized (PlatformAccess.LOCK) {
+      Symbolizable symbolizable = symbolizableFor(file);
+      if (symbolizable != null) {
+        symbolizable.setSymbolTable(HighlightSymbolTableBuilder.build(symbolizable, symbols));
+      } else {
+        LOG.warn("Symbol in source view will not be highlighted.");
+      }
+    }
+  }
+
+  @Nullable
+  private Symbolizable symbolizableFor(File file) {
     InputFile inputFile = fs.inputFile(fs.predicates().hasAbsolutePath(file.getAbsolutePath()));
 
     if (inputFile != null) {
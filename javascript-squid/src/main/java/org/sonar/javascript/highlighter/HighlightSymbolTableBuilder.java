@@ -19,6 +19,7 @@
  */
 package org.sonar.javascript.highlighter;
 
+import com.google.common.collect.Lists;
 import com.sonar.sslr.api.Token;
 import org.sonar.api.source.Symbolizable;
 import org.sonar.plugins.javascript.api.symbols.Symbol;
@@ -27,7 +28,7 @@ import org.sonar.javascript.model.internal.lexical.InternalSyntaxToken;
 import org.sonar.plugins.javascript.api.symbols.SymbolModel;
 import org.sonar.plugins.javascript.api.tree.expression.IdentifierTree;
 
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
 
 public class HighlightSymbolTableBuilder {
@@ -36,30 +37,66 @@ public class HighlightSymbolTableBuilder {
   }
 
   public static Symbolizable.SymbolTable build(Symbolizable symbolizable, SymbolModel symbolModel, SourceFileOffsets sourceFileOffsets) {
+    return build(symbolizable, symbols(symbolModel, sourceFileOffsets));
+  }
+
+  /**
+   * Builds the symbol table from the offsets computed by {@link #symbols(SymbolModel, SourceFileOffsets)}: only this part
+   * accesses the platform.
+   */
+  public static Symbolizable.SymbolTable build(Symbolizable symbolizable, List<int[]> symbols) {
     Symbolizable.SymbolTableBuilder builder = symbolizable.newSymbolTableBuilder();
 
+    for (int[] offsets : symbols) {
+      org.sonar.api.source.Symbol reference = builder.newSymbol(offsets[0], offsets[1]);
+      for (int i = 2; i < offsets.length; i++) {
+        builder.newReference(reference, offsets[i]);
+      }
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * @return for each symbol which is used, the start and end offsets of its highlighted usage followed by the start offsets
+   * of its other usages
+   */
+  public static List<int[]> symbols(SymbolModel symbolModel, SourceFileOffsets sourceFileOffsets) {
+    List<int[]> symbols = Lists.newArrayList();
+
     for (Symbol symbol : symbolModel.getSymbols()) {
-      if (!symbol.usages().isEmpty()){
-        List<Usage> usagesList = new LinkedList<>(symbol.usages());
-        InternalSyntaxToken token = (InternalSyntaxToken) (usagesList.get(0).identifierTree()).identifierToken();
-        org.sonar.api.source.Symbol reference = getHighlightedSymbol(sourceFileOffsets, builder, token);
-        for (int i = 1; i < usagesList.size(); i++){
-          builder.newReference(
-              reference,
-              sourceFileOffsets.startOffset(getToken(usagesList.get(i).identifierTree()))
-          );
+      Collection<Usage> usages = symbol.usages();
+      if (!usages.isEmpty()){
+        Usage highlighted = highlightedUsage(usages);
+        InternalSyntaxToken token = (InternalSyntaxToken) (highlighted.identifierTree()).identifierToken();
+        int[] offsets = new int[usages.size() + 1];
+        offsets[0] = sourceFileOffsets.startOffset(token.getToken());
+        offsets[1] = offsets[0] + token.text().length();
+        int i = 2;
+        for (Usage usage : usages){
+          if (usage != highlighted) {
+            offsets[i] = sourceFileOffsets.startOffset(getToken(usage.identifierTree()));
+            i++;
+          }
         }
-
+        symbols.add(offsets);
       }
     }
 
-    return builder.build();
+    return symbols;
   }
 
-  private static org.sonar.api.source.Symbol getHighlightedSymbol(SourceFileOffsets sourceFileOffsets, Symbolizable.SymbolTableBuilder builder, InternalSyntaxToken token) {
-    int startOffset = sourceFileOffsets.startOffset(token.getToken());
-    int endOffset = sourceFileOffsets.endOffset(token.getToken());
-    return builder.newSymbol(startOffset, endOffset);
+  /**
+   * Usages are in source order, so a symbol used before it is declared, like a hoisted function, would otherwise be
+   * highlighted where it is first used: the highlighted symbol is its first declaration, if any, or else its first usage.
+   */
+  private static Usage highlightedUsage(Collection<Usage> usages) {
+    for (Usage usage : usages) {
+      if (usage.isDeclaration() || usage.kind() == Usage.Kind.LEXICAL_DECLARATION) {
+        return usage;
+      }
+    }
+    return usages.iterator().next();
   }
 
   private static Token getToken(IdentifierTree identifierTree) {
@@ -19,88 +19,162 @@
  */
 package org.sonar.javascript.highlighter;
 
+import com.sonar.sslr.api.AstAndTokenVisitor;
+import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.api.GenericTokenType;
 import com.sonar.sslr.api.Token;
-import com.sonar.sslr.api.TokenType;
 import com.sonar.sslr.api.Trivia;
 import com.sonar.sslr.impl.Lexer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.component.ResourcePerspectives;
 import org.sonar.api.source.Highlightable;
 import org.sonar.javascript.EcmaScriptConfiguration;
+import org.sonar.javascript.PlatformAccess;
+import org.sonar.javascript.SourceBuffer;
+import org.sonar.javascript.SourceBuffers;
+import org.sonar.javascript.SourceBuffersAwareVisitor;
 import org.sonar.javascript.api.EcmaScriptKeyword;
 import org.sonar.javascript.lexer.EcmaScriptLexer;
+import org.sonar.squidbridge.SquidAstVisitor;
+import org.sonar.sslr.parser.LexerlessGrammar;
 
+import javax.annotation.Nullable;
 import java.io.File;
-import java.nio.charset.Charset;
-import java.util.List;
+import java.util.Arrays;
 
-public class JavaScriptHighlighter {
+/**
+ * Highlights keywords, strings and comments from the tokens and trivia of the parsed file,
+ * while it is walked by the other visitors. A file which could not be parsed is lexed instead.
+ */
+public class JavaScriptHighlighter extends SquidAstVisitor<LexerlessGrammar> implements AstAndTokenVisitor, SourceBuffersAwareVisitor {
+
+  private static final Logger LOG = LoggerFactory.getLogger(JavaScriptHighlighter.class);
+
+  private final ResourcePerspectives resourcePerspectives;
+  private final FileSystem fs;
+  private SourceBuffers sourceBuffers = new SourceBuffers();
 
+  private Highlightable highlightable;
+  private SourceFileOffsets offsets;
+  /**
+   * Start and end offsets of the highlighted tokens of the file, and their type of text.
+   */
+  private int[] highlightOffsets = new int[512];
+  private String[] highlightCodes = new String[256];
+  private int highlightCount = 0;
   private Lexer lexer;
-  private Charset charset;
 
-  public JavaScriptHighlighter(EcmaScriptConfiguration conf){
-    this.lexer = EcmaScriptLexer.create(conf);
-    this.charset = conf.getCharset();
+  public JavaScriptHighlighter(ResourcePerspectives resourcePerspectives, FileSystem fs) {
+    this.resourcePerspectives = resourcePerspectives;
+    this.fs = fs;
   }
 
-  public void highlight(Highlightable highlightable, File file) {
-    SourceFileOffsets offsets = new SourceFileOffsets(file, charset);
-    List<Token> tokens = lexer.lex(file);
-    doHighlight(highlightable, tokens, offsets);
+  @Override
+  public void setSourceBuffers(SourceBuffers sourceBuffers) {
+    this.sourceBuffers = sourceBuffers;
   }
 
-  public void highlight(Highlightable highlightable, String string) {
-    SourceFileOffsets offsets = new SourceFileOffsets(string);
-    List<Token> tokens = lexer.lex(string);
-    doHighlight(highlightable, tokens, offsets);
+  @Override
+  public void init() {
+    subscribeTo(EcmaScriptKeyword.values());
   }
 
-  private void doHighlight(Highlightable highlightable, List<Token> tokens, SourceFileOffsets offsets) {
-    Highlightable.HighlightingBuilder highlighting = highlightable.newHighlighting();
-    highlightStringsAndKeywords(highlighting, tokens, offsets);
-    highlightComments(highlighting, tokens, offsets);
-    highlighting.done();
+  /**
+   * The highlighting is recorded during the walk, and only reported when the file is left: the platform is accessed while
+   * holding the {@link PlatformAccess#LOCK}, without keeping it for the whole walk.
+   */
+  @Override
+  public void visitFile(@Nullable AstNode astNode) {
+    highlightCount = 0;
+    File file = getContext().getFile();
+    synchronized (PlatformAccess.LOCK) {
+      highlightable = highlightableFor(file);
+    }
+    if (highlightable != null) {
+      SourceBuffer sourceBuffer = sourceBuffers.get(file, fs.encoding());
+      offsets = new SourceFileOffsets(sourceBuffer);
+      if (astNode == null) {
+        highlightLexedTokens(sourceBuffer);
+      }
+    }
   }
 
-  private void highlightComments(Highlightable.HighlightingBuilder highlighting, List<Token> tokens, SourceFileOffsets offsets) {
-    String code;
-    for (Token token : tokens) {
-      if (!token.getTrivia().isEmpty()) {
-        for (Trivia trivia : token.getTrivia()) {
-          if (trivia.getToken().getValue().startsWith("/**")) {
-            code = "j";
-          } else {
-            code = "cd";
-          }
-          highlight(highlighting, offsets.startOffset(trivia.getToken()), offsets.endOffset(trivia.getToken()), code);
-        }
+  private void highlightLexedTokens(SourceBuffer sourceBuffer) {
+    if (lexer == null) {
+      lexer = EcmaScriptLexer.create(new EcmaScriptConfiguration(fs.encoding()));
+    }
+    for (Token token : lexer.lex(sourceBuffer.text())) {
+      if (token.getType() instanceof EcmaScriptKeyword) {
+        highlight(token, "k");
       }
+      visitToken(token);
     }
   }
 
-  private void highlightStringsAndKeywords(Highlightable.HighlightingBuilder highlighting, List<Token> tokens, SourceFileOffsets offsets) {
-    for (Token token : tokens) {
-      if (GenericTokenType.LITERAL.equals(token.getType())) {
-        highlight(highlighting, offsets.startOffset(token), offsets.endOffset(token), "s");
-      }
-      if (isKeyword(token.getType())) {
-        highlight(highlighting, offsets.startOffset(token), offsets.endOffset(token), "k");
+  @Override
+  public void visitNode(AstNode astNode) {
+    if (highlightable != null) {
+      highlight(astNode.getToken(), "k");
+    }
+  }
+
+  @Override
+  public void visitToken(Token token) {
+    if (highlightable == null) {
+      return;
+    }
+    if (GenericTokenType.LITERAL.equals(token.getType())) {
+      highlight(token, "s");
+    }
+    for (Trivia trivia : token.getTrivia()) {
+      Token comment = trivia.getToken();
+      highlight(comment, comment.getValue().startsWith("/**") ? "j" : "cd");
+    }
+  }
+
+  @Override
+  public void leaveFile(@Nullable AstNode astNode) {
+    if (highlightable != null) {
+      synchronized (PlatformAccess.LOCK) {
+        Highlightable.HighlightingBuilder highlighting = highlightable.newHighlighting();
+        for (int i = 0; i < highlightCount; i++) {
+          highlighting.highlight(highlightOffsets[2 * i], highlightOffsets[2 * i + 1], highlightCodes[i]);
+        }
+        highlighting.done();
       }
+      Arrays.fill(highlightCodes, 0, highlightCount, null);
+      highlightCount = 0;
+      highlightable = null;
+      offsets = null;
     }
   }
 
-  private static void highlight(Highlightable.HighlightingBuilder highlighting, int startOffset, int endOffset, String code) {
+  private void highlight(Token token, String code) {
+    int startOffset = offsets.startOffset(token);
+    int endOffset = startOffset + token.getValue().length();
     if (endOffset > startOffset) {
-      highlighting.highlight(startOffset, endOffset, code);
+      if (highlightCount == highlightCodes.length) {
+        highlightOffsets = Arrays.copyOf(highlightOffsets, 4 * highlightCount);
+        highlightCodes = Arrays.copyOf(highlightCodes, 2 * highlightCount);
+      }
+      highlightOffsets[2 * highlightCount] = startOffset;
+      highlightOffsets[2 * highlightCount + 1] = endOffset;
+      highlightCodes[highlightCount] = code;
+      highlightCount++;
     }
   }
 
-  public boolean isKeyword(TokenType type) {
-    for (TokenType keywordType : EcmaScriptKeyword.values()) {
-      if (keywordType.equals(type)) {
-        return true;
-      }
+  @Nullable
+  private Highlightable highlightableFor(File file) {
+    InputFile inputFile = fs.inputFile(fs.predicates().hasAbsolutePath(file.getAbsolutePath()));
+    Highlightable highlightable = inputFile == null ? null : resourcePerspectives.as(Highlightable.class, inputFile);
+    if (highlightable == null) {
+      LOG.warn("Could not get " + Highlightable.class.getCanonicalName() + " for " + file);
     }
-    return false;
+    return highlightable;
   }
+
 }
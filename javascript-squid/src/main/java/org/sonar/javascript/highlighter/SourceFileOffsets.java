@@ -22,25 +22,33 @@ package org.sonar.javascript.highlighter;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
-import java.util.List;
+import java.util.Arrays;
 
-import com.google.common.collect.Lists;
 import com.google.common.io.Files;
 import com.sonar.sslr.api.Token;
+import org.sonar.javascript.SourceBuffer;
 
 public class SourceFileOffsets {
   private final int length;
-  private final List<Integer> lineStartOffsets = Lists.newArrayList();
+  private final int[] lineStartOffsets;
 
   public SourceFileOffsets(String content) {
     this.length = content.length();
-    initOffsets(content);
+    this.lineStartOffsets = initOffsets(content);
   }
 
   public SourceFileOffsets(File file, Charset charset) {
     this(fileContent(file, charset));
   }
 
+  public SourceFileOffsets(SourceBuffer sourceBuffer) {
+    this.length = sourceBuffer.length();
+    this.lineStartOffsets = new int[sourceBuffer.lineCount()];
+    for (int line = 1; line <= lineStartOffsets.length; line++) {
+      lineStartOffsets[line - 1] = sourceBuffer.lineStartOffset(line);
+    }
+  }
+
   private static String fileContent(File file, Charset charset) {
     String fileContent;
     try {
@@ -51,8 +59,9 @@ public class SourceFileOffsets {
     return fileContent;
   }
 
-  private void initOffsets(String toParse) {
-    lineStartOffsets.add(0);
+  private int[] initOffsets(String toParse) {
+    int[] offsets = new int[16];
+    int count = 1;
     int i = 0;
     while (i < length) {
       if (toParse.charAt(i) == '\n' || toParse.charAt(i) == '\r') {
@@ -61,16 +70,19 @@ public class SourceFileOffsets {
           nextLineStartOffset = i + 2;
           i++;
         }
-        lineStartOffsets.add(nextLineStartOffset);
+        if (count == offsets.length) {
+          offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        offsets[count] = nextLineStartOffset;
+        count++;
       }
       i++;
     }
+    return Arrays.copyOf(offsets, count);
   }
 
   public int startOffset(Token token) {
-    int lineStartOffset = lineStartOffsets.get(token.getLine() - 1);
-    int column = token.getColumn();
-    return lineStartOffset + column;
+    return lineStartOffsets[token.getLine() - 1] + token.getColumn();
   }
 
   public int endOffset(Token token) {
@@ -101,7 +101,15 @@ public final class EcmaScriptLexer {
   }
 
   public static Lexer create(EcmaScriptConfiguration conf) {
-    return Lexer.builder()
+    return create(conf, false);
+  }
+
+  /**
+   * @param templateLiterals whether template literals are split into tokens as the parser does, see {@link TemplateLiteralChannel}.
+   * Otherwise backticks are unknown characters, and the content of template literals is lexed as code.
+   */
+  public static Lexer create(EcmaScriptConfiguration conf, boolean templateLiterals) {
+    Lexer.Builder builder = Lexer.builder()
         .withCharset(conf.getCharset())
 
         .withFailIfNoChannelToConsumeOneCharacter(true)
@@ -114,8 +122,14 @@ public final class EcmaScriptLexer {
         .withChannel(commentRegexp(COMMENT))
 
         // String Literals
-        .withChannel(regexp(GenericTokenType.LITERAL, LITERAL))
+        .withChannel(regexp(GenericTokenType.LITERAL, LITERAL));
+
+    if (templateLiterals) {
+      // Before the punctuators, to track the curly braces of substitutions
+      builder.withChannel(new TemplateLiteralChannel());
+    }
 
+    return builder
         // Regular Expression Literals
         .withChannel(new EcmaScriptRegexpChannel())
 
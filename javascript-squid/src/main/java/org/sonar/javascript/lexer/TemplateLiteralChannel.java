@@ -0,0 +1,122 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.lexer;
+
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.TokenType;
+import com.sonar.sslr.impl.Lexer;
+import org.sonar.javascript.api.EcmaScriptPunctuator;
+import org.sonar.sslr.channel.Channel;
+import org.sonar.sslr.channel.CodeReader;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Lexes template literals like the parser splits them: backticks, the characters between them as a single literal,
+ * and the dollar sign and curly braces around each substitution, whose expression is lexed by the other channels.
+ * As in the grammar, template characters run until a backtick or the start of a substitution.
+ */
+public class TemplateLiteralChannel extends Channel<Lexer> {
+
+  /**
+   * Number of curly braces opened in each enclosing substitution, the innermost last.
+   */
+  private final Deque<Integer> openBraces = new ArrayDeque<>();
+
+  @Override
+  public boolean consume(CodeReader code, Lexer output) {
+    if (output.getTokens().isEmpty()) {
+      // lexer reused for another input
+      openBraces.clear();
+    }
+
+    int next = code.peek();
+    if (next == '`') {
+      addToken(code, output, GenericTokenType.UNKNOWN_CHAR, "`");
+      consumeTemplateCharacters(code, output);
+      return true;
+    }
+    if (openBraces.isEmpty()) {
+      return false;
+    }
+    if (next == '{') {
+      openBraces.push(openBraces.pop() + 1);
+      addToken(code, output, EcmaScriptPunctuator.LCURLYBRACE, "{");
+      return true;
+    }
+    if (next == '}') {
+      int braces = openBraces.pop();
+      addToken(code, output, EcmaScriptPunctuator.RCURLYBRACE, "}");
+      if (braces == 0) {
+        consumeTemplateCharacters(code, output);
+      } else {
+        openBraces.push(braces - 1);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Consumes the characters following a backtick or a substitution, up to the closing backtick or the next substitution included.
+   */
+  private void consumeTemplateCharacters(CodeReader code, Lexer output) {
+    int line = code.getLinePosition();
+    int column = code.getColumnPosition();
+    StringBuilder characters = new StringBuilder();
+    while (code.peek() != -1 && code.peek() != '`' && !isSubstitutionStart(code)) {
+      characters.append((char) code.pop());
+    }
+    if (characters.length() > 0) {
+      output.addToken(token(output, GenericTokenType.LITERAL, characters.toString(), line, column));
+    }
+
+    if (code.peek() == '`') {
+      addToken(code, output, GenericTokenType.UNKNOWN_CHAR, "`");
+    } else if (isSubstitutionStart(code)) {
+      addToken(code, output, GenericTokenType.UNKNOWN_CHAR, "$");
+      addToken(code, output, EcmaScriptPunctuator.LCURLYBRACE, "{");
+      openBraces.push(0);
+    }
+  }
+
+  private static boolean isSubstitutionStart(CodeReader code) {
+    char[] next = code.peek(2);
+    return next[0] == '$' && next[1] == '{';
+  }
+
+  private static void addToken(CodeReader code, Lexer output, TokenType type, String value) {
+    output.addToken(token(output, type, value, code.getLinePosition(), code.getColumnPosition()));
+    code.pop();
+  }
+
+  private static Token token(Lexer output, TokenType type, String value, int line, int column) {
+    return Token.builder()
+      .setType(type)
+      .setValueAndOriginalValue(value)
+      .setURI(output.getURI())
+      .setLine(line)
+      .setColumn(column)
+      .build();
+  }
+
+}
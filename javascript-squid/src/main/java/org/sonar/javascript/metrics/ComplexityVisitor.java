@@ -20,48 +20,104 @@
 package org.sonar.javascript.metrics;
 
 import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.AstNodeType;
 import org.sonar.javascript.api.EcmaScriptMetric;
 import org.sonar.javascript.api.EcmaScriptPunctuator;
 import org.sonar.plugins.javascript.api.tree.Tree.Kind;
 import org.sonar.squidbridge.SquidAstVisitor;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
+/**
+ * Adds the complexity to the file or class being visited, and the complexity of each function to the
+ * {@link FunctionComplexities} of the file, stored as its {@link EcmaScriptMetric#FUNCTION_COMPLEXITIES}. Like the
+ * aggregated complexity of a function, the complexity added for a function includes the one of the functions it contains.
+ */
 public class ComplexityVisitor extends SquidAstVisitor<LexerlessGrammar> {
 
+  private static final AstNodeType[] FUNCTION_NODES = {
+    Kind.FUNCTION_DECLARATION,
+    Kind.FUNCTION_EXPRESSION,
+    Kind.METHOD,
+    Kind.GENERATOR_METHOD,
+    Kind.GENERATOR_FUNCTION_EXPRESSION,
+    Kind.GENERATOR_DECLARATION};
+
+  private static final AstNodeType[] NODE_TYPES = {
+    // Functions
+    Kind.FUNCTION_DECLARATION,
+    Kind.FUNCTION_EXPRESSION,
+    Kind.METHOD,
+    Kind.GENERATOR_METHOD,
+    Kind.GENERATOR_FUNCTION_EXPRESSION,
+    Kind.GENERATOR_DECLARATION,
+    // Branching nodes
+    Kind.IF_STATEMENT,
+    Kind.DO_WHILE_STATEMENT,
+    Kind.WHILE_STATEMENT,
+    Kind.FOR_IN_STATEMENT,
+    Kind.FOR_OF_STATEMENT,
+    Kind.FOR_STATEMENT,
+    Kind.CASE_CLAUSE,
+    Kind.CATCH_BLOCK,
+    Kind.RETURN_STATEMENT,
+    Kind.THROW_STATEMENT,
+    // Expressions
+    EcmaScriptPunctuator.QUERY,
+    EcmaScriptPunctuator.ANDAND,
+    EcmaScriptPunctuator.OROR};
+
+  private final FunctionComplexityStack functionStack = new FunctionComplexityStack();
+  private FunctionComplexities functionComplexities;
+
   @Override
   public void init() {
-    subscribeTo(
-      // Functions
-      Kind.FUNCTION_DECLARATION,
-      Kind.FUNCTION_EXPRESSION,
-      Kind.METHOD,
-      Kind.GENERATOR_METHOD,
-      Kind.GENERATOR_FUNCTION_EXPRESSION,
-      Kind.GENERATOR_DECLARATION,
-      // Branching nodes
-      Kind.IF_STATEMENT,
-      Kind.DO_WHILE_STATEMENT,
-      Kind.WHILE_STATEMENT,
-      Kind.FOR_IN_STATEMENT,
-      Kind.FOR_OF_STATEMENT,
-      Kind.FOR_STATEMENT,
-      Kind.CASE_CLAUSE,
-      Kind.CATCH_BLOCK,
-      Kind.RETURN_STATEMENT,
-      Kind.THROW_STATEMENT,
-      // Expressions
-      EcmaScriptPunctuator.QUERY,
-      EcmaScriptPunctuator.ANDAND,
-      EcmaScriptPunctuator.OROR);
+    subscribeTo(NODE_TYPES);
+  }
+
+  /**
+   * The data is attached as soon as the file is visited, so that a file whose analysis is aborted keeps the complexities of
+   * the functions visited so far.
+   */
+  @Override
+  public void visitFile(AstNode astNode) {
+    functionStack.clear();
+    functionComplexities = new FunctionComplexities();
+    getContext().peekSourceCode().addData(EcmaScriptMetric.FUNCTION_COMPLEXITIES, functionComplexities);
   }
 
   @Override
   public void visitNode(AstNode astNode) {
+    boolean increasesComplexity = increasesComplexity(astNode);
+    if (increasesComplexity) {
+      getContext().peekSourceCode().add(EcmaScriptMetric.COMPLEXITY, 1);
+    }
+    functionStack.visitNode(astNode, increasesComplexity);
+  }
 
-    if (astNode.is(Kind.RETURN_STATEMENT) && isLastReturnStatement(astNode)) {
-      return;
+  @Override
+  public void leaveNode(AstNode astNode) {
+    if (isFunction(astNode)) {
+      functionStack.leaveFunction();
+      functionComplexities.add(functionStack.lastTotalComplexity());
     }
-    getContext().peekSourceCode().add(EcmaScriptMetric.COMPLEXITY, 1);
+  }
+
+  /**
+   * Types of the nodes which may increase the complexity, see {@link #increasesComplexity(AstNode)}.
+   */
+  public static AstNodeType[] nodeTypes() {
+    return NODE_TYPES.clone();
+  }
+
+  /**
+   * @param node one of the {@link #nodeTypes()}
+   */
+  public static boolean increasesComplexity(AstNode node) {
+    return !(node.is(Kind.RETURN_STATEMENT) && isLastReturnStatement(node));
+  }
+
+  public static boolean isFunction(AstNode node) {
+    return node.is(FUNCTION_NODES);
   }
 
   private static boolean isLastReturnStatement(AstNode returnNode) {
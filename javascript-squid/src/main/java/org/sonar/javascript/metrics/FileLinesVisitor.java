@@ -22,6 +22,8 @@ package org.sonar.javascript.metrics;
 import java.util.List;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.FileSystem;
@@ -30,6 +32,7 @@ import org.sonar.api.measures.FileLinesContext;
 import org.sonar.api.measures.FileLinesContextFactory;
 import org.sonar.api.resources.File;
 import org.sonar.api.scan.filesystem.PathResolver;
+import org.sonar.javascript.PlatformAccess;
 import org.sonar.javascript.api.EcmaScriptMetric;
 import org.sonar.squidbridge.SquidAstVisitor;
 import org.sonar.sslr.parser.LexerlessGrammar;
@@ -61,6 +64,12 @@ public class FileLinesVisitor extends SquidAstVisitor<LexerlessGrammar> implemen
     this.pathResolver = pathResolver;
   }
 
+  @Override
+  public void visitFile(@Nullable AstNode astNode) {
+    linesOfCode.clear();
+    linesOfComments.clear();
+  }
+
   @Override
   public void visitToken(Token token) {
     if (token.getType().equals(GenericTokenType.EOF)) {
@@ -78,19 +87,21 @@ public class FileLinesVisitor extends SquidAstVisitor<LexerlessGrammar> implemen
 
   @Override
   public void leaveFile(AstNode astNode) {
-    FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(File.create(pathResolver.relativePath(fileSystem.baseDir(), getContext().getFile().getAbsoluteFile())));
+    synchronized (PlatformAccess.LOCK) {
+      FileLinesContext fileLinesContext = fileLinesContextFactory.createFor(File.create(pathResolver.relativePath(fileSystem.baseDir(), getContext().getFile().getAbsoluteFile())));
 
-    if (fileLinesContext != null) {
+      if (fileLinesContext != null) {
 
-      int fileLength = getContext().peekSourceCode().getInt(EcmaScriptMetric.LINES);
-      for (int line = 1; line <= fileLength; line++) {
-        fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, linesOfCode.contains(line) ? 1 : 0);
-        fileLinesContext.setIntValue(CoreMetrics.COMMENT_LINES_DATA_KEY, line, linesOfComments.contains(line) ? 1 : 0);
-      }
-      fileLinesContext.save();
+        int fileLength = getContext().peekSourceCode().getInt(EcmaScriptMetric.LINES);
+        for (int line = 1; line <= fileLength; line++) {
+          fileLinesContext.setIntValue(CoreMetrics.NCLOC_DATA_KEY, line, linesOfCode.contains(line) ? 1 : 0);
+          fileLinesContext.setIntValue(CoreMetrics.COMMENT_LINES_DATA_KEY, line, linesOfComments.contains(line) ? 1 : 0);
+        }
+        fileLinesContext.save();
 
-    } else {
-      LOG.warn("Cannot save measures for DevCockpit for file {}. Unable to retrieve the associated sonar resource.", getContext().getFile().getName());
+      } else {
+        LOG.warn("Cannot save measures for DevCockpit for file {}. Unable to retrieve the associated sonar resource.", getContext().getFile().getName());
+      }
     }
 
     linesOfCode.clear();
@@ -0,0 +1,66 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.metrics;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Complexities of the functions of a file, reduced to what is saved: the number of functions in each range of
+ * {@link #BOTTOM_LIMITS}, and their total complexity.
+ */
+public final class FunctionComplexities implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final int[] BOTTOM_LIMITS = {1, 2, 4, 6, 8, 10, 12, 20, 30};
+
+  private final int[] functions = new int[BOTTOM_LIMITS.length];
+  private int total;
+
+  public void add(int complexity) {
+    total += complexity;
+    int range = Arrays.binarySearch(BOTTOM_LIMITS, complexity);
+    if (range < 0) {
+      range = -range - 2;
+    }
+    // Like in a range distribution, values lower than the first limit are ignored
+    if (range >= 0) {
+      functions[range]++;
+    }
+  }
+
+  public static int ranges() {
+    return BOTTOM_LIMITS.length;
+  }
+
+  public static int bottomLimit(int range) {
+    return BOTTOM_LIMITS[range];
+  }
+
+  public int functions(int range) {
+    return functions[range];
+  }
+
+  public int total() {
+    return total;
+  }
+
+}
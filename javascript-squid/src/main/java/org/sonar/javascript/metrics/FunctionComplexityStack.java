@@ -0,0 +1,87 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.metrics;
+
+import com.sonar.sslr.api.AstNode;
+
+import java.util.Arrays;
+
+/**
+ * Complexities of the functions being visited, the innermost one last. Each function has two complexities: its own one,
+ * which does not include the complexity of the functions it contains, and its total one, which does.
+ */
+public final class FunctionComplexityStack {
+
+  private int[] complexities = new int[16];
+  private int[] totalComplexities = new int[16];
+  private int depth = 0;
+  private int lastTotalComplexity = 0;
+
+  public void clear() {
+    depth = 0;
+  }
+
+  /**
+   * @param node one of the {@link ComplexityVisitor#nodeTypes()}, which starts a new function or adds to the complexity of
+   * the innermost one
+   * @param increasesComplexity the result of {@link ComplexityVisitor#increasesComplexity(AstNode)} for the node, computed
+   * once by the caller
+   */
+  public void visitNode(AstNode node, boolean increasesComplexity) {
+    if (!increasesComplexity) {
+      return;
+    }
+    if (ComplexityVisitor.isFunction(node)) {
+      if (depth == complexities.length) {
+        complexities = Arrays.copyOf(complexities, depth * 2);
+        totalComplexities = Arrays.copyOf(totalComplexities, depth * 2);
+      }
+      complexities[depth] = 1;
+      totalComplexities[depth] = 1;
+      depth++;
+    } else if (depth > 0) {
+      complexities[depth - 1]++;
+      totalComplexities[depth - 1]++;
+    }
+  }
+
+  /**
+   * Removes the innermost function from the stack, and adds its total complexity to the one of the function containing it.
+   *
+   * @return the own complexity of the innermost function
+   */
+  public int leaveFunction() {
+    depth--;
+    lastTotalComplexity = totalComplexities[depth];
+    if (depth > 0) {
+      totalComplexities[depth - 1] += lastTotalComplexity;
+    }
+    return complexities[depth];
+  }
+
+  /**
+   * @return the total complexity of the function last removed by {@link #leaveFunction()}, including the complexity of
+   * the functions it contains
+   */
+  public int lastTotalComplexity() {
+    return lastTotalComplexity;
+  }
+
+}
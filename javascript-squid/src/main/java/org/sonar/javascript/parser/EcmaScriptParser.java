@@ -23,20 +23,50 @@ import com.sonar.sslr.impl.Parser;
 import org.sonar.javascript.EcmaScriptConfiguration;
 import org.sonar.javascript.ast.parser.TreeFactory;
 import org.sonar.javascript.parser.sslr.ActionParser2;
+import org.sonar.javascript.parser.sslr.CompiledActionGrammar;
+import org.sonar.javascript.parser.sslr.ParseTreeCache;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
 public final class EcmaScriptParser {
 
+  /**
+   * Building the grammar is expensive, whereas it is immutable: it's done once and shared by all the parsers.
+   */
+  private static final CompiledActionGrammar GRAMMAR = CompiledActionGrammar.compile(
+    EcmaScriptGrammar.createGrammarBuilder(),
+    ActionGrammar.class,
+    new TreeFactory(),
+    EcmaScriptGrammar.SCRIPT);
+
   private EcmaScriptParser() {
   }
 
-  public static Parser<LexerlessGrammar> create(EcmaScriptConfiguration conf) {
-    return new ActionParser2(
-      conf.getCharset(),
+  /**
+   * Grammar checking the time budget of the file in each rule, only built when a budget is configured.
+   */
+  private static final class TimeBudgetGrammarHolder {
+
+    private static final CompiledActionGrammar GRAMMAR = CompiledActionGrammar.compileWithTimeBudget(
       EcmaScriptGrammar.createGrammarBuilder(),
       ActionGrammar.class,
       new TreeFactory(),
       EcmaScriptGrammar.SCRIPT);
+
+    private TimeBudgetGrammarHolder() {
+    }
+
+  }
+
+  public static Parser<LexerlessGrammar> create(EcmaScriptConfiguration conf) {
+    CompiledActionGrammar grammar = conf.getFileTimeBudget() > 0 ? TimeBudgetGrammarHolder.GRAMMAR : GRAMMAR;
+    return new ActionParser2(conf.getCharset(), conf.getSourceBuffers(), grammar, conf.getParseTreeCache(), conf.getAnalysisPhases());
+  }
+
+  /**
+   * Fingerprint of the grammar, to load a {@link ParseTreeCache} compatible with the parsers.
+   */
+  public static String grammarFingerprint() {
+    return GRAMMAR.fingerprint();
   }
 
 }
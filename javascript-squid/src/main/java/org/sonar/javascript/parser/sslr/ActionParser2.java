@@ -20,21 +20,21 @@
 package org.sonar.javascript.parser.sslr;
 
 import com.google.common.base.Preconditions;
-import com.google.common.base.Throwables;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 import com.google.common.collect.Sets;
-import com.google.common.io.Files;
 import com.sonar.sslr.api.AstNode;
 import com.sonar.sslr.api.Grammar;
 import com.sonar.sslr.api.RecognitionException;
 import com.sonar.sslr.api.Rule;
 import com.sonar.sslr.impl.Parser;
 import com.sonar.sslr.impl.matcher.RuleDefinition;
-import net.sf.cglib.proxy.Enhancer;
 import net.sf.cglib.proxy.MethodInterceptor;
 import net.sf.cglib.proxy.MethodProxy;
+import org.sonar.javascript.SourceBuffers;
 import org.sonar.javascript.ast.parser.AstNodeSanitizer;
+import org.sonar.javascript.profiling.AnalysisPhases;
+import org.sonar.javascript.profiling.AnalysisPhases.Phase;
 import org.sonar.javascript.parser.sslr.DelayedRuleInvocationExpression;
 import org.sonar.javascript.parser.sslr.GrammarBuilder;
 import org.sonar.javascript.parser.sslr.Input;
@@ -43,6 +43,7 @@ import org.sonar.javascript.parser.sslr.Optional;
 import org.sonar.sslr.grammar.GrammarRuleKey;
 import org.sonar.sslr.grammar.LexerlessGrammarBuilder;
 import org.sonar.sslr.internal.matchers.InputBuffer;
+import org.sonar.sslr.internal.matchers.ParseNode;
 import org.sonar.sslr.internal.vm.FirstOfExpression;
 import org.sonar.sslr.internal.vm.ParsingExpression;
 import org.sonar.sslr.internal.vm.SequenceExpression;
@@ -55,8 +56,6 @@ import org.sonar.sslr.parser.ParsingResult;
 import javax.annotation.Nullable;
 
 import java.io.File;
-import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.Charset;
 import java.util.ArrayDeque;
@@ -67,53 +66,56 @@ import java.util.Set;
 public class ActionParser2 extends Parser {
 
   private final Charset charset;
+  private final SourceBuffers sourceBuffers;
 
   private final AstNodeSanitizer astNodeSanitzer = new AstNodeSanitizer();
-  private final GrammarBuilderInterceptor grammarBuilderInterceptor;
   private final SyntaxTreeCreator<AstNode> syntaxTreeCreator;
   private final GrammarRuleKey rootRule;
   private final Grammar grammar;
   private final ParseRunner parseRunner;
+  private final ParseTreeCodec parseTreeCodec;
+  @Nullable
+  private final ParseTreeCache parseTreeCache;
+  private final AnalysisPhases analysisPhases;
 
   public ActionParser2(Charset charset, LexerlessGrammarBuilder b, Class grammarClass, Object treeFactory, GrammarRuleKey rootRule) {
-    super(null);
-
-    this.charset = charset;
-
-    this.grammarBuilderInterceptor = new GrammarBuilderInterceptor(b);
-    Enhancer grammarEnhancer = new Enhancer();
-    grammarEnhancer.setSuperclass(grammarClass);
-    grammarEnhancer.setCallback(grammarBuilderInterceptor);
-
-    ActionMethodInterceptor actionMethodInterceptor = new ActionMethodInterceptor(grammarBuilderInterceptor);
-    Enhancer actionEnhancer = new Enhancer();
-    actionEnhancer.setSuperclass(treeFactory.getClass());
-    actionEnhancer.setCallback(actionMethodInterceptor);
+    this(charset, new SourceBuffers(), b, grammarClass, treeFactory, rootRule);
+  }
 
-    Object grammar = grammarEnhancer.create(
-      new Class[] {GrammarBuilder.class, treeFactory.getClass()},
-      new Object[] {grammarBuilderInterceptor, actionEnhancer.create()});
+  public ActionParser2(Charset charset, SourceBuffers sourceBuffers, LexerlessGrammarBuilder b, Class grammarClass, Object treeFactory, GrammarRuleKey rootRule) {
+    this(charset, sourceBuffers, CompiledActionGrammar.compile(b, grammarClass, treeFactory, rootRule));
+  }
 
-    for (Method method : grammarClass.getMethods()) {
-      if (method.getDeclaringClass().equals(Object.class)) {
-        continue;
-      }
+  /**
+   * Cheap constructor: only the state required to parse one file at a time is created, the grammar is shared.
+   */
+  public ActionParser2(Charset charset, SourceBuffers sourceBuffers, CompiledActionGrammar compiledGrammar) {
+    this(charset, sourceBuffers, compiledGrammar, null);
+  }
 
-      try {
-        method.invoke(grammar);
-      } catch (InvocationTargetException e) {
-        throw Throwables.propagate(e);
-      } catch (IllegalAccessException e) {
-        throw Throwables.propagate(e);
-      }
-    }
+  /**
+   * @param parseTreeCache where the parse trees of the files are looked up before parsing them, and stored after
+   */
+  public ActionParser2(Charset charset, SourceBuffers sourceBuffers, CompiledActionGrammar compiledGrammar, @Nullable ParseTreeCache parseTreeCache) {
+    this(charset, sourceBuffers, compiledGrammar, parseTreeCache, new AnalysisPhases());
+  }
 
-    this.syntaxTreeCreator = new SyntaxTreeCreator<AstNode>(treeFactory, grammarBuilderInterceptor);
+  /**
+   * @param analysisPhases where the time spent reading, parsing and creating the tree of each file is added
+   */
+  public ActionParser2(Charset charset, SourceBuffers sourceBuffers, CompiledActionGrammar compiledGrammar, @Nullable ParseTreeCache parseTreeCache,
+    AnalysisPhases analysisPhases) {
+    super(null);
 
-    b.setRootRule(rootRule);
-    this.rootRule = rootRule;
-    this.grammar = b.build();
-    this.parseRunner = new ParseRunner(this.grammar.getRootRule());
+    this.charset = charset;
+    this.sourceBuffers = sourceBuffers;
+    this.rootRule = compiledGrammar.rootRule();
+    this.grammar = compiledGrammar.grammar();
+    this.parseRunner = compiledGrammar.parseRunner();
+    this.parseTreeCodec = compiledGrammar.parseTreeCodec();
+    this.parseTreeCache = parseTreeCache;
+    this.analysisPhases = analysisPhases;
+    this.syntaxTreeCreator = new SyntaxTreeCreator<AstNode>(compiledGrammar.treeFactory(), compiledGrammar.ruleDescriptors());
   }
 
   @Override
@@ -123,11 +125,8 @@ public class ActionParser2 extends Parser {
 
   @Override
   public AstNode parse(File file) {
-    try {
-      return parse(new Input(Files.toString(file, charset).toCharArray(), file.toURI()));
-    } catch (IOException e) {
-      throw Throwables.propagate(e);
-    }
+    char[] contents = sourceBuffers.get(file, charset, analysisPhases).contents();
+    return parse(new Input(contents, file.toURI()));
   }
 
   @Override
@@ -136,6 +135,55 @@ public class ActionParser2 extends Parser {
   }
 
   private AstNode parse(Input input) {
+    ParseNode parseTree;
+    analysisPhases.start();
+    try {
+      parseTree = parseOrDecode(input);
+    } finally {
+      analysisPhases.stop(Phase.PARSE);
+    }
+
+    AstNode astNode;
+    analysisPhases.start();
+    try {
+      astNode = syntaxTreeCreator.create(parseTree, input);
+    } finally {
+      analysisPhases.stop(Phase.TREE_CREATION);
+    }
+
+    analysisPhases.start();
+    try {
+      astNodeSanitzer.sanitize(astNode);
+    } finally {
+      analysisPhases.stop(Phase.SANITIZATION);
+    }
+    return astNode;
+  }
+
+  private ParseNode parseOrDecode(Input input) {
+    ParseNode parseTree = null;
+    byte[] cachedParseTree = parseTreeCache == null ? null : parseTreeCache.get(input.input());
+    if (cachedParseTree != null) {
+      try {
+        parseTree = parseTreeCodec.decode(cachedParseTree, input.input().length);
+      } catch (IllegalStateException e) {
+        parseTreeCache.discard(input.input(), e);
+      }
+    }
+
+    if (parseTree == null) {
+      parseTree = parseTree(input);
+      if (parseTreeCache != null) {
+        byte[] encodedParseTree = parseTreeCodec.encode(parseTree);
+        if (encodedParseTree != null) {
+          parseTreeCache.put(input.input(), encodedParseTree);
+        }
+      }
+    }
+    return parseTree;
+  }
+
+  private ParseNode parseTree(Input input) {
     ParsingResult result = parseRunner.parse(input.input());
 
     if (!result.isMatched()) {
@@ -146,9 +194,7 @@ public class ActionParser2 extends Parser {
       throw new RecognitionException(line, message);
     }
 
-    AstNode astNode = syntaxTreeCreator.create(result.getParseTreeRoot(), input);
-    astNodeSanitzer.sanitize(astNode);
-    return astNode;
+    return result.getParseTreeRoot();
   }
 
   @Override
@@ -321,6 +367,19 @@ public class ActionParser2 extends Parser {
       return mapping.get(method);
     }
 
+    /**
+     * All the rule keys created by the interceptor: delegating rules, actions, optional, oneOrMore and zeroOrMore rules.
+     */
+    public Set<GrammarRuleKey> ruleKeys() {
+      Set<GrammarRuleKey> ruleKeys = Sets.newHashSet();
+      ruleKeys.addAll(mapping.values());
+      ruleKeys.addAll(actions.values());
+      ruleKeys.addAll(optionals);
+      ruleKeys.addAll(oneOrMores);
+      ruleKeys.addAll(zeroOrMores);
+      return ruleKeys;
+    }
+
     public boolean hasMethodForRuleKey(Object ruleKey) {
       return mapping.containsValue(ruleKey);
     }
@@ -0,0 +1,167 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.parser.sslr;
+
+import com.google.common.base.Throwables;
+import com.sonar.sslr.api.Grammar;
+import net.sf.cglib.proxy.Enhancer;
+import org.sonar.javascript.parser.sslr.ActionParser2.ActionMethodInterceptor;
+import org.sonar.javascript.parser.sslr.ActionParser2.GrammarBuilderInterceptor;
+import org.sonar.sslr.grammar.GrammarRuleKey;
+import org.sonar.sslr.grammar.LexerlessGrammarBuilder;
+import org.sonar.sslr.internal.grammar.MutableParsingRule;
+import org.sonar.sslr.parser.ParseRunner;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Result of the expensive part of the construction of an {@link ActionParser2}: interception of the grammar and tree factory methods,
+ * build of the grammar, compilation of the parsing instructions and resolution of the actions.
+ * Instances are immutable and can be shared by any number of parsers, in any thread.
+ */
+public final class CompiledActionGrammar {
+
+  private final Object treeFactory;
+  private final GrammarRuleKey rootRule;
+  private final Grammar grammar;
+  private final ParseRunner parseRunner;
+  private final SyntaxTreeCreator.RuleDescriptor[] ruleDescriptors;
+  private final ParseTreeCodec parseTreeCodec;
+
+  private CompiledActionGrammar(Object treeFactory, GrammarRuleKey rootRule, Grammar grammar, SyntaxTreeCreator.RuleDescriptor[] ruleDescriptors,
+    ParseTreeCodec parseTreeCodec) {
+    this.treeFactory = treeFactory;
+    this.rootRule = rootRule;
+    this.grammar = grammar;
+    this.parseRunner = new ParseRunner(grammar.getRootRule());
+    this.ruleDescriptors = ruleDescriptors;
+    this.parseTreeCodec = parseTreeCodec;
+  }
+
+  public static CompiledActionGrammar compile(LexerlessGrammarBuilder b, Class grammarClass, Object treeFactory, GrammarRuleKey rootRule) {
+    return compile(b, grammarClass, treeFactory, rootRule, false);
+  }
+
+  /**
+   * Same as {@link #compile(LexerlessGrammarBuilder, Class, Object, GrammarRuleKey)}, but the parsing instructions also check the
+   * {@link org.sonar.javascript.FileTimeBudget} of the current thread. The checks slow the parse down, so this grammar should only be
+   * used when a budget is configured. Both grammars have the same fingerprint, since they produce the same trees.
+   */
+  public static CompiledActionGrammar compileWithTimeBudget(LexerlessGrammarBuilder b, Class grammarClass, Object treeFactory, GrammarRuleKey rootRule) {
+    return compile(b, grammarClass, treeFactory, rootRule, true);
+  }
+
+  private static CompiledActionGrammar compile(LexerlessGrammarBuilder b, Class grammarClass, Object treeFactory, GrammarRuleKey rootRule, boolean timeBudget) {
+    GrammarBuilderInterceptor grammarBuilderInterceptor = new GrammarBuilderInterceptor(b);
+    Enhancer grammarEnhancer = new Enhancer();
+    grammarEnhancer.setSuperclass(grammarClass);
+    grammarEnhancer.setCallback(grammarBuilderInterceptor);
+
+    ActionMethodInterceptor actionMethodInterceptor = new ActionMethodInterceptor(grammarBuilderInterceptor);
+    Enhancer actionEnhancer = new Enhancer();
+    actionEnhancer.setSuperclass(treeFactory.getClass());
+    actionEnhancer.setCallback(actionMethodInterceptor);
+
+    Object grammar = grammarEnhancer.create(
+      new Class[] {GrammarBuilder.class, treeFactory.getClass()},
+      new Object[] {grammarBuilderInterceptor, actionEnhancer.create()});
+
+    for (Method method : grammarClass.getMethods()) {
+      if (method.getDeclaringClass().equals(Object.class)) {
+        continue;
+      }
+
+      try {
+        method.invoke(grammar);
+      } catch (InvocationTargetException e) {
+        throw Throwables.propagate(e);
+      } catch (IllegalAccessException e) {
+        throw Throwables.propagate(e);
+      }
+    }
+
+    b.setRootRule(rootRule);
+    Grammar builtGrammar = b.build();
+
+    Map<GrammarRuleKey, MutableParsingRule> rules = DelayedRuleInvocationExpression.definitions(b);
+    int ruleCount = indexRules(rules, timeBudget);
+    SyntaxTreeCreator.RuleDescriptor[] ruleDescriptors = SyntaxTreeCreator.ruleDescriptors(treeFactory, grammarBuilderInterceptor, builtGrammar, ruleCount);
+    ParseTreeCodec parseTreeCodec = new ParseTreeCodec(rules, ruleDescriptors);
+
+    return new CompiledActionGrammar(
+      treeFactory,
+      rootRule,
+      builtGrammar,
+      ruleDescriptors,
+      parseTreeCodec);
+  }
+
+  /**
+   * Wraps the expression of each rule in an {@link IndexedRuleExpression}, which numbers the rule for the {@link SyntaxTreeCreator}.
+   * With a time budget, the {@link org.sonar.javascript.FileTimeBudget} is also checked each time a rule is tried, so that a parse
+   * which backtracks for too long is aborted. Neither changes the fingerprint, since the trees are the same.
+   *
+   * @return the number of rules
+   */
+  private static int indexRules(Map<GrammarRuleKey, MutableParsingRule> rules, boolean timeBudget) {
+    int index = 0;
+    for (MutableParsingRule rule : rules.values()) {
+      if (rule.getExpression() != null) {
+        rule.setExpression(new IndexedRuleExpression(index, rule.getExpression(), timeBudget));
+        index++;
+      }
+    }
+    return index;
+  }
+
+  Object treeFactory() {
+    return treeFactory;
+  }
+
+  GrammarRuleKey rootRule() {
+    return rootRule;
+  }
+
+  Grammar grammar() {
+    return grammar;
+  }
+
+  ParseRunner parseRunner() {
+    return parseRunner;
+  }
+
+  SyntaxTreeCreator.RuleDescriptor[] ruleDescriptors() {
+    return ruleDescriptors;
+  }
+
+  ParseTreeCodec parseTreeCodec() {
+    return parseTreeCodec;
+  }
+
+  /**
+   * Changes when the grammar changes: parse trees cached by a {@link ParseTreeCache} are only valid for the same fingerprint.
+   */
+  public String fingerprint() {
+    return parseTreeCodec.fingerprint();
+  }
+
+}
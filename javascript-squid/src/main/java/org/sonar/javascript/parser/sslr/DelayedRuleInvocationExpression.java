@@ -74,12 +74,17 @@ public class DelayedRuleInvocationExpression implements ParsingExpression {
       }
     }
 
+    // Ensure the MutableParsingRule is created in the definitions
+    b.rule(ruleKey);
+    return compiler.compile(definitions(b).get(ruleKey));
+  }
+
+  /**
+   * Rules defined so far in the builder, by rule key.
+   */
+  static Map<GrammarRuleKey, MutableParsingRule> definitions(LexerlessGrammarBuilder b) {
     try {
-      // Ensure the MutableParsingRule is created in the definitions
-      b.rule(ruleKey);
-      return compiler.compile((MutableParsingRule) ((Map) DEFINITIONS_FIELD.get(b)).get(ruleKey));
-    } catch (IllegalArgumentException e) {
-      throw Throwables.propagate(e);
+      return (Map<GrammarRuleKey, MutableParsingRule>) DEFINITIONS_FIELD.get(b);
     } catch (IllegalAccessException e) {
       throw Throwables.propagate(e);
     }
@@ -0,0 +1,73 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.parser.sslr;
+
+import org.sonar.sslr.internal.grammar.MutableParsingRule;
+import org.sonar.sslr.internal.vm.CompilationHandler;
+import org.sonar.sslr.internal.vm.Instruction;
+import org.sonar.sslr.internal.vm.ParsingExpression;
+import org.sonar.sslr.internal.vm.SequenceExpression;
+
+import javax.annotation.Nullable;
+
+/**
+ * Expression of a rule of a {@link CompiledActionGrammar}, which numbers the rules when it is compiled: the index lets
+ * {@link SyntaxTreeCreator} find what to do with the parse nodes of the rule in an array, without looking the rule up.
+ * The index does not change the parsing instructions, and neither does it change the {@link #toString()} of the expression.
+ */
+final class IndexedRuleExpression implements ParsingExpression {
+
+  private final int index;
+  private final ParsingExpression expression;
+  private final boolean checkTimeBudget;
+
+  /**
+   * @param checkTimeBudget whether the {@link TimeBudgetExpression} is checked each time the rule is tried
+   */
+  IndexedRuleExpression(int index, ParsingExpression expression, boolean checkTimeBudget) {
+    this.index = index;
+    this.expression = expression;
+    this.checkTimeBudget = checkTimeBudget;
+  }
+
+  /**
+   * @return the index of the rule, or -1 if the rule does not belong to a {@link CompiledActionGrammar}
+   */
+  static int indexOf(@Nullable Object matcher) {
+    if (matcher instanceof MutableParsingRule) {
+      ParsingExpression ruleExpression = ((MutableParsingRule) matcher).getExpression();
+      if (ruleExpression instanceof IndexedRuleExpression) {
+        return ((IndexedRuleExpression) ruleExpression).index;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public Instruction[] compile(CompilationHandler compiler) {
+    return compiler.compile(checkTimeBudget ? new SequenceExpression(TimeBudgetExpression.INSTANCE, expression) : expression);
+  }
+
+  @Override
+  public String toString() {
+    return expression.toString();
+  }
+
+}
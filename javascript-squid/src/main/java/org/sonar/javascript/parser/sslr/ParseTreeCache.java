@@ -0,0 +1,366 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.parser.sslr;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Closeables;
+import com.google.common.io.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parse trees of the files of a previous analysis, keyed by the SHA-1 of the content of the files.
+ * <p>
+ * The trees are stored in a single file: only its index is loaded, the trees are read when they are used.
+ * The file starts with the fingerprint of the grammar which produced the trees, the number of trees, then for each tree,
+ * sorted by key, its key, offset and length. The encoded trees follow.
+ * The file is ignored as a whole when the grammar changed, and a tree which can not be read is ignored.
+ * <p>
+ * The file stays open until {@link #save()}, which closes it before replacing it.
+ * <p>
+ * Instances can be used by any number of parsers, in any thread.
+ */
+public final class ParseTreeCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ParseTreeCache.class);
+
+  private static final int MAGIC = 0x4A535054;
+  private static final int KEY_LENGTH = 20;
+  private static final int INDEX_ENTRY_LENGTH = KEY_LENGTH + 8;
+
+  private final File file;
+  private final String fingerprint;
+  @Nullable
+  private final ByteBuffer previousIndex;
+  private final int previousTreeCount;
+  @Nullable
+  private volatile FileChannel previousTrees;
+  private final long previousTreesSize;
+
+  private final ConcurrentMap<Key, byte[]> trees = new ConcurrentHashMap<Key, byte[]>();
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+
+  private ParseTreeCache(File file, String fingerprint, @Nullable ByteBuffer previousIndex, int previousTreeCount, @Nullable FileChannel previousTrees,
+    long previousTreesSize) {
+    this.file = file;
+    this.fingerprint = fingerprint;
+    this.previousIndex = previousIndex;
+    this.previousTreeCount = previousTreeCount;
+    this.previousTrees = previousTrees;
+    this.previousTreesSize = previousTreesSize;
+  }
+
+  /**
+   * @param fingerprint of the grammar of the parsers using the cache, see {@link CompiledActionGrammar#fingerprint()}
+   */
+  public static ParseTreeCache load(File file, String fingerprint) {
+    if (file.isFile()) {
+      RandomAccessFile randomAccessFile = null;
+      try {
+        randomAccessFile = new RandomAccessFile(file, "r");
+        FileChannel channel = randomAccessFile.getChannel();
+        long size = channel.size();
+        byte[] fingerprintBytes = fingerprint.getBytes(Charsets.UTF_8);
+        int headerLength = 4 + 4 + fingerprintBytes.length + 4;
+        if (size >= headerLength) {
+          ByteBuffer header = read(channel, 0, headerLength);
+          if (header.getInt() == MAGIC && header.getInt() == fingerprintBytes.length && hasBytes(header, fingerprintBytes)) {
+            int treeCount = header.getInt();
+            if (treeCount < 0 || headerLength + (long) treeCount * INDEX_ENTRY_LENGTH > size) {
+              throw new IOException("Corrupted index of " + treeCount + " trees");
+            }
+            ByteBuffer index = read(channel, headerLength, treeCount * INDEX_ENTRY_LENGTH);
+            ParseTreeCache cache = new ParseTreeCache(file, fingerprint, index, treeCount, channel, size);
+            randomAccessFile = null;
+            return cache;
+          }
+        }
+        LOG.info("Parse tree cache is outdated, all the files will be parsed");
+      } catch (IOException | RuntimeException e) {
+        LOG.warn("Unable to read the parse tree cache " + file, e);
+      } finally {
+        Closeables.closeQuietly(randomAccessFile);
+      }
+    }
+    return new ParseTreeCache(file, fingerprint, null, 0, null, 0);
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException();
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private static boolean hasBytes(ByteBuffer buffer, byte[] bytes) {
+    if (buffer.remaining() < bytes.length) {
+      return false;
+    }
+    for (byte b : bytes) {
+      if (buffer.get() != b) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the encoded parse tree of a file with the given content, or null if there is none
+   */
+  @Nullable
+  byte[] get(char[] contents) {
+    Key key = new Key(sha1(contents));
+    byte[] tree = trees.get(key);
+    if (tree == null) {
+      tree = readPreviousTree(key.bytes);
+      if (tree != null) {
+        trees.putIfAbsent(key, tree);
+      }
+    }
+    if (tree == null) {
+      misses.incrementAndGet();
+    } else {
+      hits.incrementAndGet();
+    }
+    return tree;
+  }
+
+  void put(char[] contents, byte[] tree) {
+    trees.put(new Key(sha1(contents)), tree);
+  }
+
+  /**
+   * Forgets the tree returned by {@link #get(char[])} for a file with the given content, which could not be decoded:
+   * the file is parsed instead, so it's counted as a miss.
+   */
+  void discard(char[] contents, Exception cause) {
+    LOG.warn("Corrupted tree in the parse tree cache " + file + ", the file is parsed: " + cause.getMessage());
+    trees.remove(new Key(sha1(contents)));
+    hits.decrementAndGet();
+    misses.incrementAndGet();
+  }
+
+  /**
+   * Keeps the parse tree of a file which did not need to be parsed during this analysis, so that it is saved again.
+   */
+  public void retain(char[] contents) {
+    Key key = new Key(sha1(contents));
+    if (!trees.containsKey(key)) {
+      byte[] tree = readPreviousTree(key.bytes);
+      if (tree != null) {
+        trees.putIfAbsent(key, tree);
+      }
+    }
+  }
+
+  @Nullable
+  private byte[] readPreviousTree(byte[] key) {
+    FileChannel channel = previousTrees;
+    if (channel == null) {
+      return null;
+    }
+    int low = 0;
+    int high = previousTreeCount - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int entry = middle * INDEX_ENTRY_LENGTH;
+      int comparison = compareKey(entry, key);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return readPreviousTree(channel, previousIndex.getInt(entry + KEY_LENGTH), previousIndex.getInt(entry + KEY_LENGTH + 4));
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private byte[] readPreviousTree(FileChannel channel, int offset, int length) {
+    if (offset < 0 || length < 0 || (long) offset + length > previousTreesSize) {
+      LOG.warn("Corrupted index in the parse tree cache " + file + ": tree of " + length + " bytes at offset " + offset);
+      return null;
+    }
+    try {
+      return read(channel, offset, length).array();
+    } catch (IOException e) {
+      LOG.warn("Unable to read a tree of the parse tree cache " + file, e);
+      return null;
+    }
+  }
+
+  private int compareKey(int entry, byte[] key) {
+    for (int i = 0; i < KEY_LENGTH; i++) {
+      int comparison = (previousIndex.get(entry + i) & 0xFF) - (key[i] & 0xFF);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  public int hits() {
+    return hits.get();
+  }
+
+  public int misses() {
+    return misses.get();
+  }
+
+  /**
+   * Only the trees of the files parsed or retained since the cache was loaded are kept.
+   * The trees of the previous analysis which were not used can not be read anymore once the cache is saved.
+   */
+  public void save() {
+    closePreviousTrees();
+
+    List<Map.Entry<Key, byte[]>> entries = Lists.newArrayList(trees.entrySet());
+    Collections.sort(entries, new Comparator<Map.Entry<Key, byte[]>>() {
+      @Override
+      public int compare(Map.Entry<Key, byte[]> e1, Map.Entry<Key, byte[]> e2) {
+        return e1.getKey().compareTo(e2.getKey());
+      }
+    });
+
+    byte[] fingerprintBytes = fingerprint.getBytes(Charsets.UTF_8);
+    int offset = 4 + 4 + fingerprintBytes.length + 4 + entries.size() * INDEX_ENTRY_LENGTH;
+
+    File tmpFile = new File(file.getPath() + ".tmp");
+    DataOutputStream out = null;
+    try {
+      Files.createParentDirs(tmpFile);
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+      out.writeInt(MAGIC);
+      out.writeInt(fingerprintBytes.length);
+      out.write(fingerprintBytes);
+      out.writeInt(entries.size());
+      for (Map.Entry<Key, byte[]> entry : entries) {
+        out.write(entry.getKey().bytes);
+        out.writeInt(offset);
+        out.writeInt(entry.getValue().length);
+        offset += entry.getValue().length;
+      }
+      for (Map.Entry<Key, byte[]> entry : entries) {
+        out.write(entry.getValue());
+      }
+      out.close();
+      out = null;
+      Files.move(tmpFile, file);
+    } catch (IOException e) {
+      LOG.warn("Unable to save the parse tree cache to " + file, e);
+    } finally {
+      Closeables.closeQuietly(out);
+    }
+  }
+
+  private void closePreviousTrees() {
+    FileChannel channel = previousTrees;
+    previousTrees = null;
+    Closeables.closeQuietly(channel);
+  }
+
+  private static byte[] sha1(char[] contents) {
+    ByteBuffer bytes = Charsets.UTF_8.encode(CharBuffer.wrap(contents));
+    MessageDigest digest = sha1Digest();
+    digest.update(bytes);
+    return digest.digest();
+  }
+
+  static String sha1(String text) {
+    byte[] hash = sha1Digest().digest(text.getBytes(Charsets.UTF_8));
+    StringBuilder sb = new StringBuilder(hash.length * 2);
+    for (byte b : hash) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  private static MessageDigest sha1Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-1");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class Key implements Comparable<Key> {
+
+    private final byte[] bytes;
+    private final int hashCode;
+
+    Key(byte[] bytes) {
+      this.bytes = bytes;
+      this.hashCode = Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Key && Arrays.equals(bytes, ((Key) obj).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public int compareTo(Key other) {
+      for (int i = 0; i < KEY_LENGTH; i++) {
+        int comparison = (bytes[i] & 0xFF) - (other.bytes[i] & 0xFF);
+        if (comparison != 0) {
+          return comparison;
+        }
+      }
+      return 0;
+    }
+
+  }
+
+}
@@ -0,0 +1,413 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.parser.sslr;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.TokenType;
+import com.sonar.sslr.api.Trivia.TriviaKind;
+import org.sonar.sslr.grammar.GrammarRuleKey;
+import org.sonar.sslr.internal.grammar.MutableParsingRule;
+import org.sonar.sslr.internal.matchers.Matcher;
+import org.sonar.sslr.internal.matchers.ParseNode;
+import org.sonar.sslr.internal.vm.NothingExpression;
+import org.sonar.sslr.internal.vm.TokenExpression;
+import org.sonar.sslr.internal.vm.TriviaExpression;
+
+import javax.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compact binary form of the parse trees of a {@link CompiledActionGrammar}, from which {@link SyntaxTreeCreator} can create
+ * the syntax tree again without running the parsing machine.
+ * <p>
+ * Only what {@link SyntaxTreeCreator} makes use of is kept: rules are referenced by name, qualified by the enum declaring
+ * their key if any, and terminals by their trivia kind or token type. Nodes of delegating rules are replaced by their child,
+ * skipped text and the children of terminals are dropped.
+ * Instances are immutable and can be shared by any number of parsers, in any thread.
+ */
+final class ParseTreeCodec {
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final byte RULE = 0;
+  private static final byte TOKEN = 1;
+  private static final byte COMMENT = 2;
+  private static final byte SKIPPED_TEXT = 3;
+  private static final byte TERMINAL = 4;
+
+  private static final Matcher COMMENT_MATCHER = new TriviaExpression(TriviaKind.COMMENT, NothingExpression.INSTANCE);
+  private static final Matcher SKIPPED_TEXT_MATCHER = new TriviaExpression(TriviaKind.SKIPPED_TEXT, NothingExpression.INSTANCE);
+  private static final Matcher TERMINAL_MATCHER = new Matcher() {
+  };
+
+  private final SyntaxTreeCreator.RuleDescriptor[] descriptors;
+  private final Map<String, MutableParsingRule> rulesByName;
+  private final Set<String> ambiguousRuleNames;
+  private final Set<Object> rulesSkippedWhenEmpty = Sets.newIdentityHashSet();
+  private final ConcurrentMap<String, Matcher> tokenMatchers = new ConcurrentHashMap<String, Matcher>();
+  private final String fingerprint;
+
+  ParseTreeCodec(Map<GrammarRuleKey, MutableParsingRule> rules, SyntaxTreeCreator.RuleDescriptor[] descriptors) {
+    Map<String, MutableParsingRule> byName = Maps.newHashMap();
+    Set<String> ambiguous = Sets.newHashSet();
+    List<String> definitions = Lists.newArrayList();
+
+    for (MutableParsingRule rule : rules.values()) {
+      String name = name(rule);
+      MutableParsingRule other = byName.put(name, rule);
+      if (other != null && other != rule && !isEquivalent(SyntaxTreeCreator.descriptor(descriptors, rule), SyntaxTreeCreator.descriptor(descriptors, other))) {
+        ambiguous.add(name);
+      }
+      definitions.add(name + " = " + rule.getExpression());
+      if (SyntaxTreeCreator.descriptor(descriptors, rule) == null && rule.hasToBeSkippedFromAst(new AstNode(rule, rule.getName(), null))) {
+        rulesSkippedWhenEmpty.add(rule);
+      }
+    }
+    Collections.sort(definitions);
+
+    this.descriptors = descriptors;
+    this.rulesByName = byName;
+    this.ambiguousRuleNames = ambiguous;
+    this.fingerprint = ParseTreeCache.sha1(FORMAT_VERSION + "\n" + definitions);
+  }
+
+  /**
+   * Enums of different grammars or token types can have constants with the same name.
+   */
+  private static String name(MutableParsingRule rule) {
+    GrammarRuleKey ruleKey = rule.getRuleKey();
+    if (ruleKey instanceof Enum) {
+      return ((Enum) ruleKey).getDeclaringClass().getName() + "#" + ((Enum) ruleKey).name();
+    }
+    return rule.getName();
+  }
+
+  /**
+   * Two rules with the same name can be used one for the other if the syntax tree creator does the same thing with both.
+   */
+  private static boolean isEquivalent(@Nullable SyntaxTreeCreator.RuleDescriptor descriptor, @Nullable SyntaxTreeCreator.RuleDescriptor other) {
+    return descriptor != null && other != null && descriptor.isEquivalentTo(other);
+  }
+
+  /**
+   * Identifies the grammar: trees encoded with a codec can only be decoded by a codec with the same fingerprint.
+   */
+  String fingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * @return null when the tree contains nodes which cannot be referenced by name
+   */
+  @Nullable
+  byte[] encode(ParseNode root) {
+    Encoder symbols = new Encoder();
+    Encoder nodes = new Encoder();
+    if (!writeNode(root, false, new IdentityHashMap<Object, Integer>(), symbols, nodes)) {
+      return null;
+    }
+
+    Encoder result = new Encoder();
+    result.writeVarInt(symbols.symbolCount);
+    result.write(symbols);
+    result.write(nodes);
+    return result.toByteArray();
+  }
+
+  /**
+   * Nodes are written in pre-order: symbol, offset from the start of the previous node, length and, for rules, number of children.
+   */
+  private boolean writeNode(ParseNode node, boolean inOptional, Map<Object, Integer> symbolIds, Encoder symbols, Encoder nodes) {
+    Object matcher = node.getMatcher();
+    SyntaxTreeCreator.RuleDescriptor descriptor = SyntaxTreeCreator.descriptor(descriptors, matcher);
+    if (descriptor != null && descriptor.isDelegate()) {
+      return writeNode(node.getChildren().get(0), inOptional, symbolIds, symbols, nodes);
+    }
+
+    Integer symbol = symbolIds.get(matcher);
+    if (symbol == null) {
+      if (!writeSymbol(matcher, symbols)) {
+        return false;
+      }
+      symbol = symbolIds.size();
+      symbolIds.put(matcher, symbol);
+    }
+
+    nodes.writeVarInt(symbol);
+    nodes.writeVarInt(node.getStartIndex() - nodes.previousStart);
+    nodes.writeVarInt(node.getEndIndex() - node.getStartIndex());
+    nodes.previousStart = node.getStartIndex();
+
+    if (matcher instanceof MutableParsingRule) {
+      boolean optional = descriptor != null && descriptor.isOptional();
+      List<ParseNode> children = node.getChildren();
+      int childCount = 0;
+      for (ParseNode child : children) {
+        if (!isDropped(child, optional)) {
+          childCount++;
+        }
+      }
+
+      nodes.writeVarInt(childCount);
+      for (ParseNode child : children) {
+        if (!isDropped(child, optional) && !writeNode(child, optional, symbolIds, symbols, nodes)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Skipped text is ignored by the syntax tree creator, and so are the empty nodes skipped from the AST, like spacing without
+   * comments. Except in optional nodes, which would become present.
+   */
+  private boolean isDropped(ParseNode node, boolean inOptional) {
+    if (inOptional) {
+      return false;
+    }
+    Object matcher = node.getMatcher();
+    if (matcher instanceof TriviaExpression) {
+      return ((TriviaExpression) matcher).getTriviaKind() == TriviaKind.SKIPPED_TEXT;
+    }
+    if (rulesSkippedWhenEmpty.contains(matcher)) {
+      for (ParseNode child : node.getChildren()) {
+        if (!isDropped(child, false)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private boolean writeSymbol(Object matcher, Encoder out) {
+    if (matcher instanceof MutableParsingRule) {
+      String name = name((MutableParsingRule) matcher);
+      if (ambiguousRuleNames.contains(name) || !rulesByName.containsKey(name)) {
+        return false;
+      }
+      out.writeByte(RULE);
+      out.writeString(name);
+
+    } else if (matcher instanceof TriviaExpression) {
+      out.writeByte(((TriviaExpression) matcher).getTriviaKind() == TriviaKind.COMMENT ? COMMENT : SKIPPED_TEXT);
+
+    } else if (matcher instanceof TokenExpression) {
+      TokenType tokenType = ((TokenExpression) matcher).getTokenType();
+      if (!(tokenType instanceof Enum)) {
+        return false;
+      }
+      out.writeByte(TOKEN);
+      out.writeString(((Enum) tokenType).getDeclaringClass().getName() + "#" + ((Enum) tokenType).name());
+
+    } else {
+      out.writeByte(TERMINAL);
+    }
+    out.symbolCount++;
+    return true;
+  }
+
+  /**
+   * @param inputLength length of the input of the tree, which all the nodes must lie within
+   * @return null when the tree references rules or token types which do not exist anymore
+   * @throws IllegalStateException when the bytes are not a tree encoded by this codec for an input of this length
+   */
+  @Nullable
+  ParseNode decode(byte[] bytes, int inputLength) {
+    Decoder in = new Decoder(bytes, inputLength);
+    try {
+      Matcher[] matchers = new Matcher[in.readVarInt()];
+      for (int i = 0; i < matchers.length; i++) {
+        matchers[i] = readSymbol(in);
+        if (matchers[i] == null) {
+          return null;
+        }
+      }
+      ParseNode root = readNode(in, matchers);
+      if (in.position != bytes.length) {
+        throw new IllegalStateException("Corrupted parse tree, " + (bytes.length - in.position) + " unexpected trailing bytes");
+      }
+      return root;
+    } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+      throw new IllegalStateException("Corrupted parse tree", e);
+    }
+  }
+
+  private static ParseNode readNode(Decoder in, Matcher[] matchers) {
+    Matcher matcher = matchers[in.readVarInt()];
+    int startIndex = in.previousStart + in.readVarInt();
+    int endIndex = startIndex + in.readVarInt();
+    if (startIndex < 0 || endIndex < startIndex || endIndex > in.inputLength) {
+      throw new IllegalStateException("Corrupted parse tree, node [" + startIndex + ", " + endIndex + "] out of the input of length " + in.inputLength);
+    }
+    in.previousStart = startIndex;
+
+    if (!(matcher instanceof MutableParsingRule)) {
+      return new ParseNode(startIndex, endIndex, matcher);
+    }
+
+    ParseNode[] children = new ParseNode[in.readVarInt()];
+    for (int i = 0; i < children.length; i++) {
+      children[i] = readNode(in, matchers);
+    }
+    return new ParseNode(startIndex, endIndex, Arrays.asList(children), matcher);
+  }
+
+  @Nullable
+  private Matcher readSymbol(Decoder in) {
+    byte kind = in.readByte();
+    switch (kind) {
+      case RULE:
+        return rulesByName.get(in.readString());
+      case TOKEN:
+        return tokenMatcher(in.readString());
+      case COMMENT:
+        return COMMENT_MATCHER;
+      case SKIPPED_TEXT:
+        return SKIPPED_TEXT_MATCHER;
+      case TERMINAL:
+        return TERMINAL_MATCHER;
+      default:
+        throw new IllegalStateException("Corrupted parse tree, unknown kind of node: " + kind);
+    }
+  }
+
+  @Nullable
+  private Matcher tokenMatcher(String qualifiedName) {
+    Matcher matcher = tokenMatchers.get(qualifiedName);
+    if (matcher == null) {
+      TokenType tokenType = tokenType(qualifiedName);
+      if (tokenType == null) {
+        return null;
+      }
+      matcher = new TokenExpression(tokenType, NothingExpression.INSTANCE);
+      tokenMatchers.putIfAbsent(qualifiedName, matcher);
+    }
+    return matcher;
+  }
+
+  @Nullable
+  private static TokenType tokenType(String qualifiedName) {
+    int separator = qualifiedName.indexOf('#');
+    try {
+      Class enumClass = Class.forName(qualifiedName.substring(0, separator), false, ParseTreeCodec.class.getClassLoader());
+      return (TokenType) Enum.valueOf(enumClass, qualifiedName.substring(separator + 1));
+    } catch (ClassNotFoundException | IllegalArgumentException | ClassCastException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Growable array of bytes: unlike {@link java.io.DataOutputStream}, not synchronized and without checked exceptions.
+   */
+  private static final class Encoder {
+
+    private byte[] bytes = new byte[1024];
+    private int size;
+    private int previousStart;
+    private int symbolCount;
+
+    void writeByte(int b) {
+      if (size == bytes.length) {
+        bytes = Arrays.copyOf(bytes, size * 2);
+      }
+      bytes[size++] = (byte) b;
+    }
+
+    void writeVarInt(int value) {
+      int remaining = value;
+      while ((remaining & ~0x7F) != 0) {
+        writeByte((remaining & 0x7F) | 0x80);
+        remaining >>>= 7;
+      }
+      writeByte(remaining);
+    }
+
+    void writeString(String value) {
+      byte[] utf8 = value.getBytes(Charsets.UTF_8);
+      writeVarInt(utf8.length);
+      for (byte b : utf8) {
+        writeByte(b);
+      }
+    }
+
+    void write(Encoder other) {
+      for (int i = 0; i < other.size; i++) {
+        writeByte(other.bytes[i]);
+      }
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, size);
+    }
+
+  }
+
+  private static final class Decoder {
+
+    private final byte[] bytes;
+    private final int inputLength;
+    private int position;
+    private int previousStart;
+
+    Decoder(byte[] bytes, int inputLength) {
+      this.bytes = bytes;
+      this.inputLength = inputLength;
+    }
+
+    byte readByte() {
+      return bytes[position++];
+    }
+
+    int readVarInt() {
+      int value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = bytes[position++];
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+
+    String readString() {
+      int length = readVarInt();
+      String value = new String(bytes, position, length, Charsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+  }
+
+}
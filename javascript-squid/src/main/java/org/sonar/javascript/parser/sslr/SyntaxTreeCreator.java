@@ -23,19 +23,25 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Grammar;
 import com.sonar.sslr.api.GenericTokenType;
 import com.sonar.sslr.api.Token;
 import com.sonar.sslr.api.TokenType;
 import com.sonar.sslr.api.Trivia;
 import com.sonar.sslr.api.Trivia.TriviaKind;
+import net.sf.cglib.reflect.FastClass;
+import net.sf.cglib.reflect.FastMethod;
 import org.sonar.sslr.grammar.GrammarRuleKey;
 import org.sonar.sslr.internal.grammar.MutableParsingRule;
 import org.sonar.sslr.internal.matchers.ParseNode;
 import org.sonar.sslr.internal.vm.TokenExpression;
 import org.sonar.sslr.internal.vm.TriviaExpression;
 
+import javax.annotation.Nullable;
+
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -65,22 +71,87 @@ public class SyntaxTreeCreator<T> {
 
   };
 
+  private static final RuleDescriptor AST_NODE_RULE = new RuleDescriptor(RuleKind.AST_NODE, null);
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
   private final Object treeFactory;
-  private final ActionParser2.GrammarBuilderInterceptor mapping;
+  private final RuleDescriptor[] descriptors;
 
   private final Token.Builder tokenBuilder = Token.builder();
   private final List<Trivia> trivias = Lists.newArrayList();
 
+  /**
+   * Converted children of the nodes being visited, the ones of the innermost node last: the children of each node are
+   * pushed while it is visited, and popped once it is created.
+   */
+  private Object[] children = new Object[64];
+  private int childrenSize = 0;
+  /**
+   * Arguments of the actions, by number of arguments: they are only used during the invocation of an action, which
+   * does not create any other tree.
+   */
+  private Object[][] arguments = new Object[16][];
+
   private Input input;
 
-  public SyntaxTreeCreator(Object treeFactory, ActionParser2.GrammarBuilderInterceptor mapping) {
+  /**
+   * @param descriptors by index of the rules, see {@link #ruleDescriptors}
+   */
+  SyntaxTreeCreator(Object treeFactory, RuleDescriptor[] descriptors) {
     this.treeFactory = treeFactory;
-    this.mapping = mapping;
+    this.descriptors = descriptors;
+  }
+
+  /**
+   * Resolves once for all what has to be done with the parse nodes of each rule, stored at the index of the rule given by
+   * its {@link IndexedRuleExpression}, so that building the tree requires neither reflection nor lookups by rule.
+   *
+   * @param ruleCount number of rules indexed in the grammar
+   */
+  static RuleDescriptor[] ruleDescriptors(Object treeFactory, ActionParser2.GrammarBuilderInterceptor mapping, Grammar grammar, int ruleCount) {
+    FastClass fastTreeFactory = FastClass.create(treeFactory.getClass());
+    RuleDescriptor[] descriptors = new RuleDescriptor[ruleCount];
+
+    for (GrammarRuleKey ruleKey : mapping.ruleKeys()) {
+      RuleDescriptor descriptor;
+
+      if (mapping.hasMethodForRuleKey(ruleKey)) {
+        descriptor = new RuleDescriptor(RuleKind.DELEGATE, null);
+      } else if (mapping.isOptionalRule(ruleKey)) {
+        descriptor = new RuleDescriptor(RuleKind.OPTIONAL, null);
+      } else if (mapping.isOneOrMoreRule(ruleKey)) {
+        descriptor = new RuleDescriptor(RuleKind.ONE_OR_MORE, null);
+      } else if (mapping.isZeroOrMoreRule(ruleKey)) {
+        descriptor = new RuleDescriptor(RuleKind.ZERO_OR_MORE, null);
+      } else {
+        Method method = mapping.actionForRuleKey(ruleKey);
+        descriptor = method == null ? AST_NODE_RULE : new RuleDescriptor(RuleKind.ACTION, fastTreeFactory.getMethod(method));
+      }
+
+      int index = IndexedRuleExpression.indexOf(grammar.rule(ruleKey));
+      Preconditions.checkState(index >= 0, "Rule without index: %s", ruleKey);
+      descriptors[index] = descriptor;
+    }
+
+    return descriptors;
+  }
+
+  /**
+   * @return null for the rules which create {@link AstNode}s of their own type
+   */
+  @Nullable
+  static RuleDescriptor descriptor(RuleDescriptor[] descriptors, Object matcher) {
+    int index = IndexedRuleExpression.indexOf(matcher);
+    return index < 0 ? null : descriptors[index];
   }
 
   public T create(ParseNode node, Input input) {
     this.input = input;
     this.trivias.clear();
+    // Left by a previous creation which failed
+    Arrays.fill(children, 0, childrenSize, null);
+    childrenSize = 0;
     T result = (T) visit(node);
     if (result instanceof AstNode) {
       ((AstNode) result).hasToBeSkippedFromAst();
@@ -98,15 +169,16 @@ public class SyntaxTreeCreator<T> {
 
   private Object visitNonTerminal(ParseNode node) {
     MutableParsingRule rule = (MutableParsingRule) node.getMatcher();
-    GrammarRuleKey ruleKey = rule.getRuleKey();
+    RuleDescriptor descriptor = descriptor(descriptors, rule);
+    RuleKind kind = descriptor == null ? RuleKind.AST_NODE : descriptor.kind;
 
-    if (mapping.hasMethodForRuleKey(ruleKey)) {
+    if (kind == RuleKind.DELEGATE) {
       // TODO Drop useless intermediate nodes
       Preconditions.checkState(node.getChildren().size() == 1);
       return visit(node.getChildren().get(0));
     }
 
-    if (mapping.isOptionalRule(ruleKey)) {
+    if (kind == RuleKind.OPTIONAL) {
       Preconditions.checkState(node.getChildren().size() <= 1);
       if (node.getChildren().isEmpty()) {
         return Optional.absent();
@@ -119,49 +191,62 @@ public class SyntaxTreeCreator<T> {
       }
     }
 
-    List<ParseNode> children = node.getChildren();
-    List<Object> convertedChildren = Lists.newArrayList();
-    for (ParseNode child : children) {
+    int start = childrenSize;
+    for (ParseNode child : node.getChildren()) {
       Object result = visit(child);
 
       if (result != null) {
         // FIXME to remove aafter full migration: Allow to skip optional nodes that are supposed to bw skipped from the AST
         if ((result instanceof Optional && ((Optional) result).isPresent() && ((Optional) result).get() instanceof AstNode) && ((AstNode) ((Optional) result).get()).hasToBeSkippedFromAst()){
           for (AstNode resultChild : ((AstNode) ((Optional) result).get()).getChildren()) {
-            convertedChildren.add(resultChild);
+            pushChild(resultChild);
           }
 
         } else if (result instanceof AstNode && ((AstNode) result).hasToBeSkippedFromAst()) {
           for (AstNode resultChild : ((AstNode) result).getChildren()) {
-            convertedChildren.add(resultChild);
+            pushChild(resultChild);
           }
         } else {
-          convertedChildren.add(result);
+          pushChild(result);
         }
       }
     }
 
-    if (mapping.isOneOrMoreRule(ruleKey)) {
-      return Lists.newArrayList(convertedChildren);
+    try {
+      return createNonTerminal(node, rule, descriptor, kind, start);
+    } finally {
+      Arrays.fill(children, start, childrenSize, null);
+      childrenSize = start;
+    }
+  }
+
+  /**
+   * @param start index of the first converted child of the node in {@link #children}
+   */
+  private Object createNonTerminal(ParseNode node, MutableParsingRule rule, @Nullable RuleDescriptor descriptor, RuleKind kind, int start) {
+    int childCount = childrenSize - start;
+
+    if (kind == RuleKind.ONE_OR_MORE) {
+      return childrenList(start);
     }
 
-    if (mapping.isZeroOrMoreRule(ruleKey)) {
-      return convertedChildren.isEmpty() ? Optional.absent() : Optional.of(Lists.newArrayList(convertedChildren));
+    if (kind == RuleKind.ZERO_OR_MORE) {
+      return childCount == 0 ? Optional.absent() : Optional.of(childrenList(start));
     }
 
-    Method method = mapping.actionForRuleKey(ruleKey);
-    if (method == null) {
+    if (kind == RuleKind.AST_NODE) {
       Token token = null;
 
-      for (Object child : convertedChildren) {
+      for (int i = start; i < childrenSize; i++) {
+        Object child = children[i];
         if (child instanceof AstNode && ((AstNode) child).hasToken()) {
           token = ((AstNode) child).getToken();
           break;
         }
       }
       AstNode astNode = new AstNode(rule, rule.getName(), token);
-      for (Object child : convertedChildren) {
-        astNode.addChild((AstNode) child);
+      for (int i = start; i < childrenSize; i++) {
+        astNode.addChild((AstNode) children[i]);
       }
 
       astNode.setFromIndex(node.getStartIndex());
@@ -170,15 +255,47 @@ public class SyntaxTreeCreator<T> {
       return astNode;
     }
 
+    Object[] actionArguments = arguments(childCount);
+    System.arraycopy(children, start, actionArguments, 0, childCount);
     try {
-      return method.invoke(treeFactory, convertedChildren.toArray(new Object[convertedChildren.size()]));
-    } catch (IllegalAccessException e) {
-      throw Throwables.propagate(e);
-    } catch (IllegalArgumentException e) {
-      throw Throwables.propagate(e);
+      return descriptor.action.invoke(treeFactory, actionArguments);
     } catch (InvocationTargetException e) {
       throw Throwables.propagate(e);
+    } finally {
+      Arrays.fill(actionArguments, null);
+    }
+  }
+
+  private void pushChild(Object child) {
+    if (childrenSize == children.length) {
+      children = Arrays.copyOf(children, childrenSize * 2);
+    }
+    children[childrenSize] = child;
+    childrenSize++;
+  }
+
+  /**
+   * The list is the tree of the node, so it cannot be shared.
+   */
+  private List<Object> childrenList(int start) {
+    List<Object> list = Lists.newArrayListWithCapacity(childrenSize - start);
+    for (int i = start; i < childrenSize; i++) {
+      list.add(children[i]);
+    }
+    return list;
+  }
+
+  private Object[] arguments(int count) {
+    if (count == 0) {
+      return NO_ARGUMENTS;
+    }
+    if (count >= arguments.length) {
+      arguments = Arrays.copyOf(arguments, count + 1);
+    }
+    if (arguments[count] == null) {
+      arguments[count] = new Object[count];
     }
+    return arguments[count];
   }
 
   private AstNode visitTerminal(ParseNode node) {
@@ -226,4 +343,48 @@ public class SyntaxTreeCreator<T> {
     tokenBuilder.setValueAndOriginalValue(value);
   }
 
+  private enum RuleKind {
+    DELEGATE,
+    OPTIONAL,
+    ONE_OR_MORE,
+    ZERO_OR_MORE,
+    ACTION,
+    AST_NODE
+  }
+
+  static class RuleDescriptor {
+
+    private final RuleKind kind;
+    @Nullable
+    private final FastMethod action;
+
+    RuleDescriptor(RuleKind kind, @Nullable FastMethod action) {
+      this.kind = kind;
+      this.action = action;
+    }
+
+    /**
+     * Parse nodes of delegating rules have a single child, whose tree is the tree of the node.
+     */
+    boolean isDelegate() {
+      return kind == RuleKind.DELEGATE;
+    }
+
+    boolean isOptional() {
+      return kind == RuleKind.OPTIONAL;
+    }
+
+    /**
+     * Whether parse nodes of a rule with this descriptor are turned into the same tree as those of a rule with the other one.
+     * Not the case of rules creating {@link AstNode}s, as the rule becomes the type of the node.
+     */
+    boolean isEquivalentTo(RuleDescriptor other) {
+      if (kind != other.kind || kind == RuleKind.AST_NODE) {
+        return false;
+      }
+      return action == null ? other.action == null : other.action != null && action.getJavaMethod().equals(other.action.getJavaMethod());
+    }
+
+  }
+
 }
@@ -0,0 +1,49 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.parser.sslr;
+
+import org.sonar.javascript.FileTimeBudget;
+import org.sonar.sslr.internal.vm.Machine;
+import org.sonar.sslr.internal.vm.NativeExpression;
+
+/**
+ * Always matches, without consuming any character, after checking the {@link FileTimeBudget} of the current thread:
+ * prepended to each rule of a grammar compiled with
+ * {@link CompiledActionGrammar#compileWithTimeBudget}, it lets a parse which backtracks for too long be aborted.
+ */
+final class TimeBudgetExpression extends NativeExpression {
+
+  static final TimeBudgetExpression INSTANCE = new TimeBudgetExpression();
+
+  private TimeBudgetExpression() {
+  }
+
+  @Override
+  public void execute(Machine machine) {
+    FileTimeBudget.check();
+    machine.jump(1);
+  }
+
+  @Override
+  public String toString() {
+    return "TimeBudget";
+  }
+
+}
@@ -0,0 +1,274 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.profiling;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.BatchExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time spent and memory allocated in each phase of the analysis by all its threads, and amount of code analysed,
+ * so that the throughput of the analyzer can be followed from one version to the next.
+ * <p>
+ * Phases can be nested: the time of a phase does not include the time of the phases started by the same thread
+ * while it runs, e.g. the symbol model computed while the visitors walk a file. Measuring a phase costs two calls
+ * to {@link System#nanoTime()} and two reads of the bytes allocated by the thread, phases are measured once per file
+ * at most. The allocations are only measured on the JVMs which count them, and are 0 otherwise.
+ */
+public class AnalysisPhases implements BatchExtension {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AnalysisPhases.class);
+
+  public enum Phase {
+    READ("file read and decoding"),
+    PARSE("PEG parsing"),
+    TREE_CREATION("tree creation"),
+    SANITIZATION("AST sanitization"),
+    SYMBOL_RESOLUTION("symbol resolution"),
+    TYPE_INFERENCE("type inference"),
+    SYMBOL_HIGHLIGHTING("symbol highlighting"),
+    VISITORS("checks, metrics, highlighting and CPD tokens"),
+    SAVE("saving of measures and issues"),
+    LCOV("LCOV ingestion"),
+    TEST_REPORTS("test report ingestion");
+
+    private final String description;
+
+    Phase(String description) {
+      this.description = description;
+    }
+
+    public String description() {
+      return description;
+    }
+  }
+
+  private final AtomicLongArray nanos = new AtomicLongArray(Phase.values().length);
+  private final AtomicLongArray invocations = new AtomicLongArray(Phase.values().length);
+  private final AtomicLongArray allocatedBytes = new AtomicLongArray(Phase.values().length);
+  private final AtomicLong analysisNanos = new AtomicLong();
+  private final AtomicLong files = new AtomicLong();
+  private final AtomicLong linesOfCode = new AtomicLong();
+  private final AtomicLong bytes = new AtomicLong();
+  private final AtomicLong filesOverTimeBudget = new AtomicLong();
+
+  private final ThreadLocal<Measures> measures = new ThreadLocal<Measures>() {
+    @Override
+    protected Measures initialValue() {
+      return new Measures();
+    }
+  };
+
+  /**
+   * Starts measuring a phase on the current thread, until the next call to {@link #stop(Phase)} on this thread.
+   */
+  public void start() {
+    measures.get().start();
+  }
+
+  public void stop(Phase phase) {
+    Measures threadMeasures = measures.get();
+    threadMeasures.stop();
+    nanos.addAndGet(phase.ordinal(), threadMeasures.lastNanos);
+    allocatedBytes.addAndGet(phase.ordinal(), threadMeasures.lastAllocatedBytes);
+    invocations.incrementAndGet(phase.ordinal());
+  }
+
+  /**
+   * @param nanos wall clock time of the analysis of the source files, whatever the number of threads used
+   */
+  public void addAnalysisTime(long nanos) {
+    analysisNanos.addAndGet(nanos);
+  }
+
+  public void addFile(long linesOfCode, long bytes) {
+    files.incrementAndGet();
+    this.linesOfCode.addAndGet(linesOfCode);
+    this.bytes.addAndGet(bytes);
+  }
+
+  /**
+   * Counts a file whose analysis was aborted because it exceeded its {@link org.sonar.javascript.FileTimeBudget}.
+   */
+  public void addFileOverTimeBudget() {
+    filesOverTimeBudget.incrementAndGet();
+  }
+
+  public long nanos(Phase phase) {
+    return nanos.get(phase.ordinal());
+  }
+
+  public long invocations(Phase phase) {
+    return invocations.get(phase.ordinal());
+  }
+
+  public long allocatedBytes(Phase phase) {
+    return allocatedBytes.get(phase.ordinal());
+  }
+
+  /**
+   * @return false when the JVM does not count the bytes allocated by each thread, in which case they are all 0
+   */
+  public static boolean measuresAllocations() {
+    return ThreadAllocations.isSupported();
+  }
+
+  public long files() {
+    return files.get();
+  }
+
+  public long linesOfCode() {
+    return linesOfCode.get();
+  }
+
+  public long bytes() {
+    return bytes.get();
+  }
+
+  public long filesOverTimeBudget() {
+    return filesOverTimeBudget.get();
+  }
+
+  public boolean isEmpty() {
+    for (Phase phase : Phase.values()) {
+      if (invocations(phase) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private long totalNanos() {
+    long total = 0;
+    for (Phase phase : Phase.values()) {
+      total += nanos(phase);
+    }
+    return total;
+  }
+
+  private double perSecond(long amount) {
+    long analysis = analysisNanos.get();
+    return analysis == 0 ? 0 : (amount * 1e9 / analysis);
+  }
+
+  public void log() {
+    long total = totalNanos();
+    LOG.info("JavaScript analysis phases:");
+    LOG.info(String.format(Locale.ENGLISH, "%12s %10s %7s %15s  %s", "Time (ms)", "Count", "%", "Allocated (MB)", "Phase"));
+    for (Phase phase : Phase.values()) {
+      if (invocations(phase) > 0) {
+        LOG.info(String.format(Locale.ENGLISH, "%12.1f %10d %6.1f%% %15.1f  %s",
+          nanos(phase) / 1e6, invocations(phase), total == 0 ? 0.0 : (100.0 * nanos(phase) / total), allocatedBytes(phase) / 1e6,
+          phase.description()));
+      }
+    }
+    LOG.info(String.format(Locale.ENGLISH, "%d files, %d lines of code, %d bytes analysed in %d ms: %.0f lines of code/s, %.0f bytes/s",
+      files(), linesOfCode(), bytes(), TimeUnit.NANOSECONDS.toMillis(analysisNanos.get()), perSecond(linesOfCode()), perSecond(bytes())));
+    if (filesOverTimeBudget() > 0) {
+      LOG.warn(filesOverTimeBudget() + " files exceeded their time budget and were only partially analysed");
+    }
+  }
+
+  public void save(File file) {
+    try {
+      Files.createParentDirs(file);
+      Files.write(toJson(), file, Charsets.UTF_8);
+    } catch (IOException e) {
+      LOG.warn("Unable to write the analysis phases to " + file, e);
+    }
+  }
+
+  String toJson() {
+    StringBuilder sb = new StringBuilder("{\n  \"phases\": {");
+    Phase[] phases = Phase.values();
+    for (int i = 0; i < phases.length; i++) {
+      sb.append(i == 0 ? "\n" : ",\n")
+        .append("    \"").append(phases[i].name().toLowerCase(Locale.ENGLISH)).append("\": {\"timeMs\": ").append(millis(nanos(phases[i])))
+        .append(", \"count\": ").append(invocations(phases[i]))
+        .append(", \"allocatedBytes\": ").append(allocatedBytes(phases[i])).append('}');
+    }
+    return sb.append("\n  },\n")
+      .append("  \"analysisTimeMs\": ").append(millis(analysisNanos.get())).append(",\n")
+      .append("  \"files\": ").append(files()).append(",\n")
+      .append("  \"linesOfCode\": ").append(linesOfCode()).append(",\n")
+      .append("  \"bytes\": ").append(bytes()).append(",\n")
+      .append("  \"filesOverTimeBudget\": ").append(filesOverTimeBudget()).append(",\n")
+      .append("  \"linesOfCodePerSecond\": ").append(String.format(Locale.ENGLISH, "%.1f", perSecond(linesOfCode()))).append(",\n")
+      .append("  \"bytesPerSecond\": ").append(String.format(Locale.ENGLISH, "%.1f", perSecond(bytes()))).append("\n}\n")
+      .toString();
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ENGLISH, "%.3f", nanos / 1e6);
+  }
+
+  private static class Measures {
+
+    private long[] starts = new long[4];
+    private long[] nestedNanos = new long[4];
+    private long[] allocationStarts = new long[4];
+    private long[] nestedAllocations = new long[4];
+    private int depth = 0;
+
+    private long lastNanos;
+    private long lastAllocatedBytes;
+
+    void start() {
+      if (depth == starts.length) {
+        starts = Arrays.copyOf(starts, depth * 2);
+        nestedNanos = Arrays.copyOf(nestedNanos, depth * 2);
+        allocationStarts = Arrays.copyOf(allocationStarts, depth * 2);
+        nestedAllocations = Arrays.copyOf(nestedAllocations, depth * 2);
+      }
+      nestedNanos[depth] = 0;
+      nestedAllocations[depth] = 0;
+      allocationStarts[depth] = ThreadAllocations.currentThreadAllocatedBytes();
+      starts[depth] = System.nanoTime();
+      depth++;
+    }
+
+    /**
+     * Sets {@link #lastNanos} and {@link #lastAllocatedBytes} for the phase which was started last.
+     */
+    void stop() {
+      long elapsed = System.nanoTime() - starts[depth - 1];
+      long allocated = ThreadAllocations.currentThreadAllocatedBytes() - allocationStarts[depth - 1];
+      depth--;
+      if (depth > 0) {
+        nestedNanos[depth - 1] += elapsed;
+        nestedAllocations[depth - 1] += allocated;
+      }
+      lastNanos = elapsed - nestedNanos[depth];
+      lastAllocatedBytes = allocated - nestedAllocations[depth];
+    }
+
+  }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.profiling;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures the time spent by each visitor, and by the parser, while the files are analysed.
+ * <p>
+ * Measures can be nested: the time of a visitor does not include the time of the visitors it calls itself.
+ * Visitors are reported under their rule key when it was given by {@link #setName(Object, String)}, under their class name otherwise.
+ * <p>
+ * Not thread-safe: each scanner has its own profiler, the measures of several profilers are gathered by {@link ProfilingReport}.
+ */
+public class AnalysisProfiler {
+
+  public static final String PARSER = "(parser)";
+  public static final String SYMBOL_MODEL = "(symbol model)";
+
+  static final int SLOWEST_FILES = 5;
+
+  private final Map<Object, String> names = new IdentityHashMap<>();
+  private final Map<Object, Timing> timingsByVisitor = new IdentityHashMap<>();
+  private final Map<String, Timing> timingsByName = Maps.newLinkedHashMap();
+  private final List<Timing> timingsOfFile = Lists.newArrayList();
+
+  private Timing[] timings = new Timing[8];
+  private long[] starts = new long[8];
+  private long[] nestedNanos = new long[8];
+  private int depth = 0;
+  private File currentFile;
+
+  public void setName(Object visitor, String name) {
+    names.put(visitor, name);
+  }
+
+  public void startFile(File file) {
+    currentFile = file;
+    // measures left open by a visitor which failed on the previous file
+    depth = 0;
+  }
+
+  public void endFile() {
+    for (Timing timing : timingsOfFile) {
+      timing.endFile(currentFile);
+    }
+    timingsOfFile.clear();
+    currentFile = null;
+  }
+
+  /**
+   * Starts measuring the given visitor, or one of {@link #PARSER} and {@link #SYMBOL_MODEL}, until the next call to {@link #stop()}.
+   */
+  public void start(Object visitor) {
+    if (depth == timings.length) {
+      timings = Arrays.copyOf(timings, depth * 2);
+      starts = Arrays.copyOf(starts, depth * 2);
+      nestedNanos = Arrays.copyOf(nestedNanos, depth * 2);
+    }
+    timings[depth] = timing(visitor);
+    nestedNanos[depth] = 0;
+    starts[depth] = System.nanoTime();
+    depth++;
+  }
+
+  public void stop() {
+    long elapsed = System.nanoTime() - starts[depth - 1];
+    depth--;
+    Timing timing = timings[depth];
+    if (!timing.inFile) {
+      timing.inFile = true;
+      timingsOfFile.add(timing);
+    }
+    timing.add(elapsed - nestedNanos[depth]);
+    if (depth > 0) {
+      nestedNanos[depth - 1] += elapsed;
+    }
+  }
+
+  private Timing timing(Object visitor) {
+    Timing timing = timingsByVisitor.get(visitor);
+    if (timing == null) {
+      String name = nameOf(visitor);
+      timing = timingsByName.get(name);
+      if (timing == null) {
+        timing = new Timing(name);
+        timingsByName.put(name, timing);
+      }
+      timingsByVisitor.put(visitor, timing);
+    }
+    return timing;
+  }
+
+  private String nameOf(Object visitor) {
+    String name = names.get(visitor);
+    if (name != null) {
+      return name;
+    } else if (visitor instanceof String) {
+      return (String) visitor;
+    }
+    return visitor.getClass().getName();
+  }
+
+  public Collection<Timing> timings() {
+    return Collections.unmodifiableCollection(timingsByName.values());
+  }
+
+  public static final class Timing {
+
+    private final String name;
+    private long nanos = 0;
+    private long invocations = 0;
+    private long fileNanos = 0;
+    private boolean inFile = false;
+    private final List<FileTiming> slowestFiles = Lists.newArrayList();
+
+    Timing(String name) {
+      this.name = name;
+    }
+
+    private void add(long nanos) {
+      this.nanos += nanos;
+      this.fileNanos += nanos;
+      invocations++;
+    }
+
+    private void endFile(@Nullable File file) {
+      if (file != null) {
+        addSlowFile(new FileTiming(file, fileNanos));
+      }
+      fileNanos = 0;
+      inFile = false;
+    }
+
+    void addAll(Timing other) {
+      nanos += other.nanos;
+      invocations += other.invocations;
+      for (FileTiming fileTiming : other.slowestFiles) {
+        addSlowFile(fileTiming);
+      }
+    }
+
+    private void addSlowFile(FileTiming fileTiming) {
+      int index = slowestFiles.size();
+      while (index > 0 && slowestFiles.get(index - 1).nanos < fileTiming.nanos) {
+        index--;
+      }
+      if (index < SLOWEST_FILES) {
+        slowestFiles.add(index, fileTiming);
+        if (slowestFiles.size() > SLOWEST_FILES) {
+          slowestFiles.remove(SLOWEST_FILES);
+        }
+      }
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public long nanos() {
+      return nanos;
+    }
+
+    public long invocations() {
+      return invocations;
+    }
+
+    /**
+     * @return the files on which the most time was spent, slowest first
+     */
+    public List<FileTiming> slowestFiles() {
+      return Collections.unmodifiableList(slowestFiles);
+    }
+
+  }
+
+  public static final class FileTiming {
+
+    private final File file;
+    private final long nanos;
+
+    FileTiming(File file, long nanos) {
+      this.file = file;
+      this.nanos = nanos;
+    }
+
+    public File file() {
+      return file;
+    }
+
+    public long nanos() {
+      return nanos;
+    }
+
+  }
+
+}
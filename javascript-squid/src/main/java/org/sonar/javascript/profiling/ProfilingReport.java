@@ -0,0 +1,147 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.profiling;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.javascript.profiling.AnalysisProfiler.FileTiming;
+import org.sonar.javascript.profiling.AnalysisProfiler.Timing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Gathers the measures of the profilers of all the scanners of an analysis, and reports them in the logs and in a JSON file.
+ */
+public class ProfilingReport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ProfilingReport.class);
+
+  private final Map<String, Timing> timingsByName = Maps.newHashMap();
+
+  public void add(AnalysisProfiler profiler) {
+    for (Timing timing : profiler.timings()) {
+      Timing total = timingsByName.get(timing.name());
+      if (total == null) {
+        total = new Timing(timing.name());
+        timingsByName.put(timing.name(), total);
+      }
+      total.addAll(timing);
+    }
+  }
+
+  /**
+   * @return the timings, the slowest first
+   */
+  public List<Timing> timings() {
+    List<Timing> timings = Lists.newArrayList(timingsByName.values());
+    Collections.sort(timings, new Comparator<Timing>() {
+      @Override
+      public int compare(Timing t1, Timing t2) {
+        if (t1.nanos() != t2.nanos()) {
+          return t1.nanos() > t2.nanos() ? -1 : 1;
+        }
+        return t1.name().compareTo(t2.name());
+      }
+    });
+    return timings;
+  }
+
+  private long totalNanos() {
+    long total = 0;
+    for (Timing timing : timingsByName.values()) {
+      total += timing.nanos();
+    }
+    return total;
+  }
+
+  public void log(int top) {
+    List<Timing> timings = timings();
+    long total = totalNanos();
+    LOG.info("Time spent by the JavaScript rules and visitors, top {} of {}:", Math.min(top, timings.size()), timings.size());
+    LOG.info(String.format(Locale.ENGLISH, "%12s %12s %7s  %s", "Time (ms)", "Calls", "%", "Rule or visitor (slowest file)"));
+    for (Timing timing : timings.subList(0, Math.min(top, timings.size()))) {
+      String slowestFile = timing.slowestFiles().isEmpty() ? "" : (" (" + timing.slowestFiles().get(0).file().getPath() + ")");
+      LOG.info(String.format(Locale.ENGLISH, "%12.1f %12d %6.1f%%  %s%s",
+        timing.nanos() / 1e6, timing.invocations(), total == 0 ? 0.0 : (100.0 * timing.nanos() / total), timing.name(), slowestFile));
+    }
+  }
+
+  public void save(File file) {
+    try {
+      Files.createParentDirs(file);
+      Files.write(toJson(), file, Charsets.UTF_8);
+      LOG.info("JavaScript profiling report written to {}", file.getAbsolutePath());
+    } catch (IOException e) {
+      LOG.warn("Unable to write the profiling report to " + file, e);
+    }
+  }
+
+  String toJson() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{\n  \"totalMs\": ").append(millis(totalNanos())).append(",\n  \"timings\": [");
+    List<Timing> timings = timings();
+    for (int i = 0; i < timings.size(); i++) {
+      Timing timing = timings.get(i);
+      sb.append(i == 0 ? "\n" : ",\n")
+        .append("    {\"name\": ").append(quote(timing.name()))
+        .append(", \"timeMs\": ").append(millis(timing.nanos()))
+        .append(", \"invocations\": ").append(timing.invocations())
+        .append(", \"slowestFiles\": [");
+      List<FileTiming> files = timing.slowestFiles();
+      for (int j = 0; j < files.size(); j++) {
+        sb.append(j == 0 ? "" : ", ")
+          .append("{\"path\": ").append(quote(files.get(j).file().getPath()))
+          .append(", \"timeMs\": ").append(millis(files.get(j).nanos())).append('}');
+      }
+      sb.append("]}");
+    }
+    return sb.append("\n  ]\n}\n").toString();
+  }
+
+  private static String millis(long nanos) {
+    return String.format(Locale.ENGLISH, "%.3f", nanos / 1e6);
+  }
+
+  private static String quote(String value) {
+    StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+    for (char c : value.toCharArray()) {
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < ' ') {
+        sb.append("\\u").append(Strings.padStart(Integer.toHexString(c), 4, '0'));
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+}
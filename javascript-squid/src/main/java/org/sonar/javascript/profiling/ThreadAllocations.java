@@ -0,0 +1,74 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.profiling;
+
+import javax.annotation.Nullable;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+/**
+ * Bytes allocated by the current thread, as counted by the JVMs which support it, e.g. HotSpot.
+ * <p>
+ * The JVM specific API is called by reflection, as the analyzer must run on any Java 7 compliant JVM.
+ */
+public final class ThreadAllocations {
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+  private static final Method GET_THREAD_ALLOCATED_BYTES = getThreadAllocatedBytesMethod();
+
+  private ThreadAllocations() {
+  }
+
+  @Nullable
+  private static Method getThreadAllocatedBytesMethod() {
+    try {
+      Class<?> hotSpotThreadMXBean = Class.forName("com.sun.management.ThreadMXBean");
+      if (hotSpotThreadMXBean.isInstance(THREAD_MX_BEAN)
+        && (Boolean) hotSpotThreadMXBean.getMethod("isThreadAllocatedMemorySupported").invoke(THREAD_MX_BEAN)
+        && (Boolean) hotSpotThreadMXBean.getMethod("isThreadAllocatedMemoryEnabled").invoke(THREAD_MX_BEAN)) {
+        return hotSpotThreadMXBean.getMethod("getThreadAllocatedBytes", long.class);
+      }
+    } catch (ReflectiveOperationException | LinkageError e) {
+      // the JVM does not count the allocations of the threads
+    }
+    return null;
+  }
+
+  public static boolean isSupported() {
+    return GET_THREAD_ALLOCATED_BYTES != null;
+  }
+
+  /**
+   * @return bytes allocated so far by the current thread, always 0 when not {@link #isSupported() supported}
+   */
+  public static long currentThreadAllocatedBytes() {
+    if (GET_THREAD_ALLOCATED_BYTES == null) {
+      return 0;
+    }
+    try {
+      return (Long) GET_THREAD_ALLOCATED_BYTES.invoke(THREAD_MX_BEAN, Thread.currentThread().getId());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
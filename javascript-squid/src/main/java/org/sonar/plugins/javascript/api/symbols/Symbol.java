@@ -21,11 +21,14 @@ package org.sonar.plugins.javascript.api.symbols;
 
 import com.google.common.annotations.Beta;
 import com.google.common.collect.Sets;
+import com.sonar.sslr.api.Token;
 import org.sonar.javascript.ast.resolve.Scope;
+import org.sonar.javascript.model.internal.JavaScriptTree;
 import org.sonar.javascript.model.internal.expression.IdentifierTreeImpl;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -52,7 +55,8 @@ public class Symbol {
   private Kind kind;
   private boolean builtIn;
   private Scope scope;
-  private List<Usage> usages = new LinkedList<>();
+  private final List<Usage> usages = new ArrayList<>(2);
+  private final List<Usage> usagesView = Collections.unmodifiableList(usages);
   private Set<Type> types;
 
   public Symbol(String name, Kind kind, Scope scope) {
@@ -64,12 +68,29 @@ public class Symbol {
   }
 
   public void addUsage(Usage usage){
-    usages.add(usage);
+    // usages mostly come in source order: search the insertion point from the end
+    int index = usages.size();
+    while (index > 0 && isBefore(usage, usages.get(index - 1))) {
+      index--;
+    }
+    usages.add(index, usage);
     ((IdentifierTreeImpl)usage.identifierTree()).setSymbol(this);
   }
 
+  /**
+   * @return read-only view of the usages of this symbol, in source order
+   */
   public Collection<Usage> usages(){
-    return usages;
+    return usagesView;
+  }
+
+  private static boolean isBefore(Usage usage, Usage other) {
+    Token token = ((JavaScriptTree) usage.identifierTree()).getToken();
+    Token otherToken = ((JavaScriptTree) other.identifierTree()).getToken();
+    if (token == null || otherToken == null) {
+      return false;
+    }
+    return token.getLine() < otherToken.getLine() || (token.getLine() == otherToken.getLine() && token.getColumn() < otherToken.getColumn());
   }
 
   public Symbol setBuiltIn(boolean isBuiltIn){
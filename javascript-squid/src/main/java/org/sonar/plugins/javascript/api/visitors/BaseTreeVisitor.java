@@ -21,6 +21,7 @@ package org.sonar.plugins.javascript.api.visitors;
 
 import com.google.common.annotations.Beta;
 import com.google.common.base.Preconditions;
+import org.sonar.javascript.FileTimeBudget;
 import org.sonar.javascript.model.internal.expression.SuperTreeImpl;
 import org.sonar.javascript.parser.sslr.Optional;
 import org.sonar.plugins.javascript.api.AstTreeVisitorContext;
@@ -101,6 +102,7 @@ import java.util.List;
 public class BaseTreeVisitor implements TreeVisitor, JavaScriptFileScanner {
 
   private AstTreeVisitorContext context = null;
+  private boolean scanSubtrees = true;
 
   public AstTreeVisitorContext getContext() {
     Preconditions.checkState(context != null, "this#scanFile(context) should be called to initialised the context before accessing it");
@@ -114,11 +116,19 @@ public class BaseTreeVisitor implements TreeVisitor, JavaScriptFileScanner {
   }
 
   protected void scan(@Nullable Tree tree) {
-    if (tree != null) {
+    if (tree != null && scanSubtrees) {
+      FileTimeBudget.check();
       tree.accept(this);
     }
   }
 
+  /**
+   * When disabled, subtrees are not visited anymore: the traversal is driven by a {@link FusedTreeVisitor}.
+   */
+  void setScanSubtrees(boolean scanSubtrees) {
+    this.scanSubtrees = scanSubtrees;
+  }
+
   protected <T> void scan(List<T> trees) {
     for (T tree : trees) {
 
@@ -0,0 +1,35 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript.api.visitors;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * Marker for {@link BaseTreeVisitor} subclasses which can share a single tree traversal with other visitors.
+ * <p>
+ * A fusable visitor only looks at the node it is called for (and possibly at its descendants) before
+ * calling the corresponding {@code super.visitXxx} method, and always lets the default traversal reach
+ * every child: it must not call {@code scan} on selected subtrees, skip the {@code super} call of a node
+ * which has children, nor rely on code executed after the children have been visited.
+ */
+@Beta
+public interface FusableTreeVisitor {
+
+}
@@ -0,0 +1,160 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript.api.visitors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.sonar.javascript.FileTimeBudget;
+import org.sonar.javascript.profiling.AnalysisProfiler;
+import org.sonar.plugins.javascript.api.AstTreeVisitorContext;
+import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
+import org.sonar.plugins.javascript.api.tree.Tree;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs several {@link FusableTreeVisitor} in a single traversal of the tree.
+ * <p>
+ * The traversal is the one of {@link BaseTreeVisitor}. Each node is given to the fused visitors which override the
+ * {@code visitXxx} method this node dispatches to, while their own descent into subtrees is disabled.
+ */
+public class FusedTreeVisitor extends BaseTreeVisitor {
+
+  private static final BaseTreeVisitor[] NO_VISITORS = new BaseTreeVisitor[0];
+
+  private final List<BaseTreeVisitor> visitors;
+  private final Map<Class<?>, BaseTreeVisitor[]> visitorsByTreeClass = Maps.newHashMap();
+  private AnalysisProfiler profiler;
+
+  public FusedTreeVisitor(List<? extends JavaScriptFileScanner> visitors) {
+    ImmutableList.Builder<BaseTreeVisitor> builder = ImmutableList.builder();
+    for (JavaScriptFileScanner visitor : visitors) {
+      BaseTreeVisitor baseTreeVisitor = (BaseTreeVisitor) visitor;
+      baseTreeVisitor.setScanSubtrees(false);
+      builder.add(baseTreeVisitor);
+    }
+    this.visitors = builder.build();
+  }
+
+  public static boolean canFuse(JavaScriptFileScanner scanner) {
+    return scanner instanceof BaseTreeVisitor && scanner instanceof FusableTreeVisitor;
+  }
+
+  public List<BaseTreeVisitor> visitors() {
+    return visitors;
+  }
+
+  /**
+   * Measures the time of each fused visitor, the traversal itself is left to the caller's measure.
+   */
+  public void setProfiler(@Nullable AnalysisProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  @Override
+  public void scanFile(AstTreeVisitorContext context) {
+    if (visitors.isEmpty()) {
+      return;
+    }
+    for (BaseTreeVisitor visitor : visitors) {
+      // only initialises the context, subtrees are not scanned
+      visitor.scanFile(context);
+    }
+    super.scanFile(context);
+  }
+
+  @Override
+  protected void scan(@Nullable Tree tree) {
+    if (tree != null) {
+      FileTimeBudget.check();
+      for (BaseTreeVisitor visitor : visitorsFor(tree)) {
+        if (profiler == null) {
+          tree.accept(visitor);
+        } else {
+          profiler.start(visitor);
+          tree.accept(visitor);
+          profiler.stop();
+        }
+      }
+      tree.accept(this);
+    }
+  }
+
+  private BaseTreeVisitor[] visitorsFor(Tree tree) {
+    BaseTreeVisitor[] result = visitorsByTreeClass.get(tree.getClass());
+    if (result == null) {
+      result = interestedVisitors(visitMethod(tree));
+      visitorsByTreeClass.put(tree.getClass(), result);
+    }
+    return result;
+  }
+
+  private BaseTreeVisitor[] interestedVisitors(@Nullable Method visitMethod) {
+    if (visitMethod == null) {
+      return NO_VISITORS;
+    }
+    List<BaseTreeVisitor> result = Lists.newArrayList();
+    for (BaseTreeVisitor visitor : visitors) {
+      if (overrides(visitor, visitMethod)) {
+        result.add(visitor);
+      }
+    }
+    return result.toArray(new BaseTreeVisitor[result.size()]);
+  }
+
+  private static boolean overrides(BaseTreeVisitor visitor, Method visitMethod) {
+    try {
+      return visitor.getClass().getMethod(visitMethod.getName(), visitMethod.getParameterTypes()).getDeclaringClass() != BaseTreeVisitor.class;
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException("Unable to find " + visitMethod.getName() + " in " + visitor.getClass().getName(), e);
+    }
+  }
+
+  /**
+   * Returns the method of {@link TreeVisitor} called by {@code tree.accept(visitor)}, if any.
+   */
+  @Nullable
+  private static Method visitMethod(Tree tree) {
+    MethodRecorder recorder = new MethodRecorder();
+    tree.accept((TreeVisitor) Proxy.newProxyInstance(TreeVisitor.class.getClassLoader(), new Class[] {TreeVisitor.class}, recorder));
+    return recorder.method;
+  }
+
+  private static class MethodRecorder implements InvocationHandler {
+
+    private Method method;
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      if (this.method == null) {
+        this.method = method;
+      }
+      return null;
+    }
+
+  }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class FileTimeBudgetTest {
+
+  @After
+  public void stop() {
+    FileTimeBudget.stop();
+  }
+
+  @Test
+  public void no_budget() {
+    checkRepeatedly();
+  }
+
+  @Test
+  public void not_positive_budget_is_disabled() throws Exception {
+    FileTimeBudget.start(0);
+    Thread.sleep(5);
+    checkRepeatedly();
+  }
+
+  @Test
+  public void budget_not_exceeded() {
+    FileTimeBudget.start(60000);
+    checkRepeatedly();
+  }
+
+  @Test
+  public void budget_exceeded() throws Exception {
+    FileTimeBudget.start(1);
+    Thread.sleep(5);
+    try {
+      checkRepeatedly();
+      throw new AssertionError("The budget should be exceeded");
+    } catch (TimeBudgetExceededException e) {
+      assertThat(e.budgetMillis()).isEqualTo(1);
+      assertThat(e.getMessage()).isEqualTo("Analysis of the file took more than 1 ms");
+    }
+  }
+
+  @Test
+  public void stopped_budget() throws Exception {
+    FileTimeBudget.start(1);
+    Thread.sleep(5);
+    FileTimeBudget.stop();
+    checkRepeatedly();
+  }
+
+  @Test
+  public void budget_of_another_thread_is_ignored() throws Exception {
+    final AtomicReference<Exception> exception = new AtomicReference<>();
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        FileTimeBudget.start(1);
+        try {
+          Thread.sleep(5);
+          checkRepeatedly();
+        } catch (TimeBudgetExceededException | InterruptedException e) {
+          exception.set(e);
+        }
+        FileTimeBudget.stop();
+      }
+    });
+    FileTimeBudget.start(60000);
+    thread.start();
+    thread.join();
+
+    checkRepeatedly();
+    assertThat(exception.get()).isInstanceOf(TimeBudgetExceededException.class);
+  }
+
+  private static void checkRepeatedly() {
+    for (int i = 0; i < 1000; i++) {
+      FileTimeBudget.check();
+    }
+  }
+
+}
@@ -21,17 +21,41 @@ package org.sonar.javascript;
 
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.sonar.sslr.api.AstNode;
 import org.junit.Test;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.measures.CoreMetrics;
+import org.sonar.api.measures.FileLinesContext;
+import org.sonar.api.measures.FileLinesContextFactory;
+import org.sonar.api.resources.Resource;
+import org.sonar.api.scan.filesystem.PathResolver;
 import org.sonar.javascript.api.EcmaScriptMetric;
+import org.sonar.javascript.metrics.ComplexityVisitor;
+import org.sonar.javascript.metrics.FileLinesVisitor;
+import org.sonar.javascript.profiling.AnalysisPhases;
+import org.sonar.javascript.profiling.AnalysisProfiler;
+import org.sonar.plugins.javascript.api.tree.Tree.Kind;
 import org.sonar.squidbridge.AstScanner;
+import org.sonar.squidbridge.SquidAstVisitor;
 import org.sonar.squidbridge.api.SourceFile;
 import org.sonar.squidbridge.api.SourceProject;
 import org.sonar.squidbridge.indexer.QueryByType;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
 import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class JavaScriptAstScannerTest {
 
@@ -43,6 +67,167 @@ public class JavaScriptAstScannerTest {
     assertThat(project.getInt(EcmaScriptMetric.FILES)).isEqualTo(2);
   }
 
+  @Test
+  public void profiler() {
+    EcmaScriptConfiguration conf = new EcmaScriptConfiguration(Charsets.UTF_8);
+    AnalysisProfiler profiler = new AnalysisProfiler();
+    conf.setProfiler(profiler);
+    JavaScriptAstScanner.create(conf).scanFiles(ImmutableList.of(new File("src/test/resources/metrics/lines.js")));
+
+    Map<String, AnalysisProfiler.Timing> timings = Maps.newHashMap();
+    for (AnalysisProfiler.Timing timing : profiler.timings()) {
+      timings.put(timing.name(), timing);
+    }
+    assertThat(timings.get(AnalysisProfiler.PARSER).invocations()).isEqualTo(1);
+    assertThat(timings.get(ComplexityVisitor.class.getName()).invocations()).isGreaterThan(1);
+    assertThat(timings.get(ComplexityVisitor.class.getName()).slowestFiles().get(0).file()).isEqualTo(new File("src/test/resources/metrics/lines.js"));
+  }
+
+  @Test
+  public void analysis_phases() {
+    EcmaScriptConfiguration conf = new EcmaScriptConfiguration(Charsets.UTF_8);
+    JavaScriptAstScanner.create(conf).scanFiles(ImmutableList.of(new File("src/test/resources/metrics/lines.js"), new File("src/test/resources/metrics/lines_of_code.js")));
+
+    AnalysisPhases phases = conf.getAnalysisPhases();
+    assertThat(phases.invocations(AnalysisPhases.Phase.READ)).isEqualTo(2);
+    assertThat(phases.invocations(AnalysisPhases.Phase.PARSE)).isEqualTo(2);
+    assertThat(phases.invocations(AnalysisPhases.Phase.TREE_CREATION)).isEqualTo(2);
+    assertThat(phases.invocations(AnalysisPhases.Phase.SANITIZATION)).isEqualTo(2);
+    assertThat(phases.invocations(AnalysisPhases.Phase.VISITORS)).isEqualTo(2);
+  }
+
+  @Test
+  public void adversarial_files_are_aborted_within_time_budget() {
+    EcmaScriptConfiguration conf = new EcmaScriptConfiguration(Charsets.UTF_8);
+    conf.setFileTimeBudget(200);
+    AstScanner<LexerlessGrammar> scanner = JavaScriptAstScanner.create(conf);
+
+    long start = System.nanoTime();
+    scanner.scanFiles(ImmutableList.of(
+      new File("src/test/resources/adversarial/unclosed_parentheses.js"),
+      new File("src/test/resources/adversarial/unclosed_brackets.js"),
+      new File("src/test/resources/metrics/lines.js")));
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(10000);
+
+    SourceFile parentheses = sourceFile(scanner, "src/test/resources/adversarial/unclosed_parentheses.js");
+    assertThat(parentheses.getInt(EcmaScriptMetric.FILES_OVER_TIME_BUDGET)).isEqualTo(1);
+    assertThat(parentheses.getInt(EcmaScriptMetric.LINES)).isEqualTo(11);
+    SourceFile brackets = sourceFile(scanner, "src/test/resources/adversarial/unclosed_brackets.js");
+    assertThat(brackets.getInt(EcmaScriptMetric.FILES_OVER_TIME_BUDGET)).isEqualTo(1);
+    assertThat(brackets.getInt(EcmaScriptMetric.LINES)).isEqualTo(5);
+    SourceFile lines = sourceFile(scanner, "src/test/resources/metrics/lines.js");
+    assertThat(lines.getInt(EcmaScriptMetric.FILES_OVER_TIME_BUDGET)).isEqualTo(0);
+    assertThat(lines.getInt(EcmaScriptMetric.LINES)).isEqualTo(5);
+
+    assertThat(conf.getAnalysisPhases().filesOverTimeBudget()).isEqualTo(2);
+  }
+
+  @Test
+  public void slow_visitors_are_aborted_within_time_budget() {
+    // The budget is large enough for the parsing on any machine: it's the visitor which exhausts it
+    EcmaScriptConfiguration conf = new EcmaScriptConfiguration(Charsets.UTF_8);
+    conf.setFileTimeBudget(60000);
+    BlockingStatementVisitor blockingVisitor = new BlockingStatementVisitor(10);
+    AstScanner<LexerlessGrammar> scanner = JavaScriptAstScanner.create(conf, blockingVisitor);
+
+    scanner.scanFiles(ImmutableList.of(new File("src/test/resources/adversarial/many_statements.js")));
+
+    SourceFile file = sourceFile(scanner, "src/test/resources/adversarial/many_statements.js");
+    assertThat(file.getInt(EcmaScriptMetric.FILES_OVER_TIME_BUDGET)).isEqualTo(1);
+    assertThat(file.getInt(EcmaScriptMetric.LINES)).isEqualTo(1002);
+    // measures computed before the analysis was aborted are kept
+    assertThat(file.getInt(EcmaScriptMetric.STATEMENTS)).isGreaterThanOrEqualTo(10).isLessThan(1000);
+    assertThat(blockingVisitor.visitedStatements).isGreaterThanOrEqualTo(10).isLessThan(1000);
+    assertThat(conf.getAnalysisPhases().filesOverTimeBudget()).isEqualTo(1);
+  }
+
+  @Test
+  public void visitors_leave_files_aborted_while_visiting_them() {
+    EcmaScriptConfiguration conf = new EcmaScriptConfiguration(Charsets.UTF_8);
+    conf.setFileTimeBudget(60000);
+    FileLinesContextFactory fileLinesContextFactory = mock(FileLinesContextFactory.class);
+    FileLinesContext abortedFileContext = mock(FileLinesContext.class);
+    FileLinesContext nextFileContext = mock(FileLinesContext.class);
+    when(fileLinesContextFactory.createFor(any(Resource.class))).thenReturn(abortedFileContext, nextFileContext);
+    DefaultFileSystem fs = new DefaultFileSystem();
+    fs.setBaseDir(new File("src/test/resources").getAbsoluteFile());
+    FileLinesVisitor fileLinesVisitor = new FileLinesVisitor(fileLinesContextFactory, fs, new PathResolver());
+    AstScanner<LexerlessGrammar> scanner = JavaScriptAstScanner.create(conf, fileLinesVisitor, new BlockingStatementVisitor(10));
+
+    scanner.scanFiles(ImmutableList.of(new File("src/test/resources/adversarial/many_statements.js"), new File("src/test/resources/metrics/lines.js")));
+
+    assertThat(sourceFile(scanner, "src/test/resources/adversarial/many_statements.js").getInt(EcmaScriptMetric.FILES_OVER_TIME_BUDGET)).isEqualTo(1);
+    verify(abortedFileContext).save();
+    // the lines of the aborted file don't leak into the next one
+    verify(nextFileContext, times(3)).setIntValue(eq(CoreMetrics.NCLOC_DATA_KEY), anyInt(), eq(1));
+    verify(nextFileContext, times(2)).setIntValue(eq(CoreMetrics.NCLOC_DATA_KEY), anyInt(), eq(0));
+    verify(nextFileContext).save();
+  }
+
+  @Test
+  public void source_file_listener_receives_aggregated_files_which_are_not_indexed() {
+    List<File> files = ImmutableList.of(new File("src/test/resources/metrics/complexity.js"), new File("src/test/resources/metrics/classes.js"));
+    AstScanner<LexerlessGrammar> indexingScanner = JavaScriptAstScanner.create(new EcmaScriptConfiguration(Charsets.UTF_8));
+    indexingScanner.scanFiles(files);
+
+    final Map<File, SourceFile> scannedFiles = Maps.newLinkedHashMap();
+    EcmaScriptConfiguration conf = new EcmaScriptConfiguration(Charsets.UTF_8);
+    conf.setSourceFileListener(new SourceFileListener() {
+      @Override
+      public void fileScanned(File file, SourceFile sourceFile) {
+        scannedFiles.put(file, sourceFile);
+      }
+    });
+    AstScanner<LexerlessGrammar> scanner = JavaScriptAstScanner.create(conf);
+    scanner.scanFiles(files);
+
+    assertThat(ImmutableList.copyOf(scannedFiles.keySet())).isEqualTo(files);
+    for (File file : files) {
+      SourceFile indexedFile = sourceFile(indexingScanner, file.getPath());
+      for (EcmaScriptMetric metric : EcmaScriptMetric.values()) {
+        assertThat(scannedFiles.get(file).getDouble(metric)).as(file + " " + metric).isEqualTo(indexedFile.getDouble(metric));
+      }
+    }
+    assertThat(scanner.getIndex().search(new QueryByType(SourceFile.class))).isEmpty();
+  }
+
+  private static SourceFile sourceFile(AstScanner<LexerlessGrammar> scanner, String path) {
+    return (SourceFile) scanner.getIndex().search(new File(path).getAbsolutePath());
+  }
+
+  /**
+   * Exhausts the budget of the file when visiting the given statement: the budget is replaced by a budget of 1 ms,
+   * and the visitor blocks until it's exceeded.
+   */
+  private static class BlockingStatementVisitor extends SquidAstVisitor<LexerlessGrammar> {
+
+    private final int blockingStatement;
+    private int visitedStatements = 0;
+
+    BlockingStatementVisitor(int blockingStatement) {
+      this.blockingStatement = blockingStatement;
+    }
+
+    @Override
+    public void init() {
+      subscribeTo(Kind.EXPRESSION_STATEMENT);
+    }
+
+    @Override
+    public void visitNode(AstNode astNode) {
+      visitedStatements++;
+      if (visitedStatements == blockingStatement) {
+        FileTimeBudget.start(1);
+        try {
+          Thread.sleep(5);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+
+  }
+
   @Test
   public void comments() {
     SourceFile file = JavaScriptAstScanner.scanSingleFile(new File("src/test/resources/metrics/comments.js"));
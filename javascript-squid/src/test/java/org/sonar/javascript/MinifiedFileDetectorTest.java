@@ -0,0 +1,85 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.sonar.javascript.MinifiedFileDetector.Kind;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class MinifiedFileDetectorTest {
+
+  private static final String REGULAR_LINE = "  var total = compute(first, second) + 1;\n";
+
+  private final MinifiedFileDetector detector = new MinifiedFileDetector();
+
+  @Test
+  public void regular_file() {
+    assertThat(detector.detect(buffer("file.js", Strings.repeat(REGULAR_LINE, 100)))).isNull();
+  }
+
+  @Test
+  public void minified_by_name() {
+    assertThat(detector.detect(buffer("file.min.js", REGULAR_LINE))).isEqualTo(Kind.MINIFIED);
+    assertThat(detector.detect(buffer("file-min.js", REGULAR_LINE))).isEqualTo(Kind.MINIFIED);
+  }
+
+  @Test
+  public void minified_by_average_line_length() {
+    String longLines = Strings.repeat(Strings.repeat("var a = b + c; ", 20) + "\n", 10);
+    assertThat(detector.detect(buffer("file.js", longLines))).isEqualTo(Kind.MINIFIED);
+    assertThat(new MinifiedFileDetector(1000, 0.05, ImmutableList.<String>of()).detect(buffer("file.js", longLines))).isNull();
+  }
+
+  @Test
+  public void minified_by_whitespace_ratio() {
+    String denseLines = Strings.repeat(Strings.repeat("a=b+c;", 15) + "\n", 20);
+    assertThat(detector.detect(buffer("file.js", denseLines))).isEqualTo(Kind.MINIFIED);
+    assertThat(new MinifiedFileDetector(200, 0.01, ImmutableList.<String>of()).detect(buffer("file.js", denseLines))).isNull();
+  }
+
+  @Test
+  public void short_files_are_only_detected_by_name_and_markers() {
+    assertThat(detector.detect(buffer("file.js", "a=b+c;"))).isNull();
+  }
+
+  @Test
+  public void generated_by_marker_at_the_beginning() {
+    assertThat(detector.detect(buffer("file.js", "// @Generated by a tool\n" + Strings.repeat(REGULAR_LINE, 100)))).isEqualTo(Kind.GENERATED);
+    assertThat(detector.detect(buffer("file.js", "/* DO NOT EDIT */\n" + REGULAR_LINE))).isEqualTo(Kind.GENERATED);
+    assertThat(detector.detect(buffer("file.js", Strings.repeat(REGULAR_LINE, 100) + "// @generated\n"))).isNull();
+  }
+
+  @Test
+  public void custom_markers() {
+    MinifiedFileDetector customDetector = new MinifiedFileDetector(200, 0.05, ImmutableList.of(" Compiled by CoffeeScript ", ""));
+    assertThat(customDetector.detect(buffer("file.js", "// compiled by coffeescript\n" + REGULAR_LINE))).isEqualTo(Kind.GENERATED);
+    assertThat(customDetector.detect(buffer("file.js", "// @generated\n" + REGULAR_LINE))).isNull();
+  }
+
+  private static SourceBuffer buffer(String fileName, String contents) {
+    return new SourceBuffer(new File(fileName), contents.toCharArray());
+  }
+
+}
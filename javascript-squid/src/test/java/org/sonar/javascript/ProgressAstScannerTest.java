@@ -0,0 +1,58 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.sonar.javascript.api.EcmaScriptMetric;
+import org.sonar.javascript.parser.EcmaScriptParser;
+import org.sonar.squidbridge.SquidAstVisitorContextImpl;
+import org.sonar.squidbridge.api.SourceProject;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import java.io.File;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+public class ProgressAstScannerTest {
+
+  @Test
+  public void progress_is_reported_for_each_file() {
+    File lines = new File("src/test/resources/metrics/lines.js");
+    File linesOfCode = new File("src/test/resources/metrics/lines_of_code.js");
+    ProgressReport progressReport = mock(ProgressReport.class);
+
+    ProgressAstScanner.Builder builder = new ProgressAstScanner.Builder(new SquidAstVisitorContextImpl<LexerlessGrammar>(new SourceProject("JavaScript Project")));
+    builder.setProgressReport(progressReport);
+    builder.setBaseParser(EcmaScriptParser.create(new EcmaScriptConfiguration(Charsets.UTF_8)));
+    builder.setFilesMetric(EcmaScriptMetric.FILES);
+    builder.build().scanFiles(ImmutableList.of(lines, linesOfCode));
+
+    InOrder inOrder = inOrder(progressReport);
+    inOrder.verify(progressReport).start(2);
+    inOrder.verify(progressReport).nextFile(lines);
+    inOrder.verify(progressReport).nextFile(linesOfCode);
+    inOrder.verify(progressReport).stop();
+  }
+
+}
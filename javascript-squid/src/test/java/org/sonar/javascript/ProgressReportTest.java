@@ -64,4 +64,24 @@ public class ProgressReportTest {
     assertThat(messages.get(messages.size() - 1)).isEqualTo("42/42" + " source files analyzed");
   }
 
+  @Test
+  public void should_estimate_remaining_time() throws Exception {
+    Logger logger = mock(Logger.class);
+
+    ProgressReport report = new ProgressReport(ProgressReport.class.getName(), 500, logger);
+    File file = mock(File.class);
+    when(file.getAbsolutePath()).thenReturn("foo");
+    report.start(42);
+    report.nextFile(file);
+    report.nextFile(file);
+    report.nextFile(file);
+    Thread.sleep(800);
+    report.stop();
+    Thread.sleep(300);
+
+    ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+    verify(logger, atLeast(3)).info(captor.capture());
+    assertThat(captor.getAllValues().get(1)).matches("3/42 files analyzed, current is foo, about (\\d+ min )?\\d+ s remaining");
+  }
+
 }
@@ -0,0 +1,120 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Test;
+import org.sonar.javascript.profiling.AnalysisPhases;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class SourceBufferTest {
+
+  @Test
+  public void lines() {
+    assertThat(buffer("").lines()).isEmpty();
+    assertThat(buffer("a").lines()).containsExactly("a");
+    assertThat(buffer("a\n").lines()).containsExactly("a");
+    assertThat(buffer("a\r\nb\rc\n\nd").lines()).containsExactly("a", "b", "c", "", "d");
+  }
+
+  @Test
+  public void same_lines_as_files_read_lines() throws Exception {
+    File file = new File("src/test/resources/metrics/lines.js");
+    assertThat(SourceBuffer.read(file, Charsets.UTF_8).lines()).isEqualTo(Files.readLines(file, Charsets.UTF_8));
+  }
+
+  @Test
+  public void line_start_offsets() {
+    SourceBuffer buffer = buffer("ab\r\ncd\ne");
+    assertThat(buffer.lineCount()).isEqualTo(3);
+    assertThat(buffer.lineStartOffset(1)).isEqualTo(0);
+    assertThat(buffer.lineStartOffset(2)).isEqualTo(4);
+    assertThat(buffer.lineStartOffset(3)).isEqualTo(7);
+    assertThat(buffer.line(2)).isEqualTo("cd");
+  }
+
+  @Test
+  public void text() {
+    assertThat(buffer("var a;").text()).isEqualTo("var a;");
+  }
+
+  @Test
+  public void file_is_read_once() {
+    SourceBuffers sourceBuffers = new SourceBuffers();
+    File file = new File("src/test/resources/metrics/lines.js");
+
+    SourceBuffer buffer = sourceBuffers.get(file, Charsets.UTF_8);
+    assertThat(sourceBuffers.get(file.getAbsoluteFile(), Charsets.UTF_8)).isSameAs(buffer);
+    assertThat(sourceBuffers.readCount()).isEqualTo(1);
+
+    sourceBuffers.get(new File("src/test/resources/metrics/lines_of_code.js"), Charsets.UTF_8);
+    assertThat(sourceBuffers.readCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void only_reads_from_disk_are_measured() {
+    SourceBuffers sourceBuffers = new SourceBuffers();
+    AnalysisPhases phases = new AnalysisPhases();
+    File file = new File("src/test/resources/metrics/lines.js");
+
+    sourceBuffers.get(file, Charsets.UTF_8, phases);
+    sourceBuffers.get(file, Charsets.UTF_8, phases);
+    assertThat(phases.invocations(AnalysisPhases.Phase.READ)).isEqualTo(1);
+
+    sourceBuffers.release(file);
+    sourceBuffers.get(file, Charsets.UTF_8, phases);
+    assertThat(phases.invocations(AnalysisPhases.Phase.READ)).isEqualTo(2);
+  }
+
+  @Test
+  public void released_file_is_read_again() {
+    SourceBuffers sourceBuffers = new SourceBuffers();
+    File file = new File("src/test/resources/metrics/lines.js");
+
+    SourceBuffer buffer = sourceBuffers.get(file, Charsets.UTF_8);
+    sourceBuffers.release(file.getAbsoluteFile());
+    assertThat(sourceBuffers.get(file, Charsets.UTF_8)).isNotSameAs(buffer);
+    assertThat(sourceBuffers.readCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void scanner_reads_file_once() {
+    SourceBuffers sourceBuffers = new SourceBuffers();
+    EcmaScriptConfiguration configuration = new EcmaScriptConfiguration(Charsets.UTF_8);
+    configuration.setSourceBuffers(sourceBuffers);
+
+    JavaScriptAstScanner.create(configuration).scanFile(new File("src/test/resources/metrics/lines.js"));
+
+    assertThat(sourceBuffers.readCount()).isEqualTo(1);
+
+    // the content is released once the file is scanned
+    sourceBuffers.get(new File("src/test/resources/metrics/lines.js"), Charsets.UTF_8);
+    assertThat(sourceBuffers.readCount()).isEqualTo(2);
+  }
+
+  private static SourceBuffer buffer(String content) {
+    return new SourceBuffer(new File("file.js"), content.toCharArray());
+  }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript;
+
+/**
+ * Generators of synthetic JavaScript sources, each one growing along a single dimension with its size.
+ */
+enum SyntheticSource {
+
+  /**
+   * Sequence of small functions, with the statements usually found in real code.
+   */
+  FILE_LENGTH {
+    @Override
+    String generate(int functions) {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < functions; i++) {
+        sb.append("function f").append(i).append("(a, b) {\n")
+          .append("  var result = [];\n")
+          .append("  for (var i = 0; i < a.length; i++) {\n")
+          .append("    if (a[i] !== b && a[i] > ").append(i).append(") {\n")
+          .append("      result.push(a[i] * 2);\n")
+          .append("    } else {\n")
+          .append("      result.push(\"value").append(i).append("\");\n")
+          .append("    }\n")
+          .append("  }\n")
+          .append("  return result;\n")
+          .append("}\n");
+      }
+      return sb.toString();
+    }
+  },
+
+  /**
+   * Statements nested into each other: conditions, loops and functions.
+   */
+  NESTING_DEPTH {
+    @Override
+    String generate(int depth) {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < depth; i++) {
+        if (i % 3 == 0) {
+          sb.append("if (a").append(i).append(") {\n");
+        } else if (i % 3 == 1) {
+          sb.append("for (var i").append(i).append(" = 0; i").append(i).append(" < n; i").append(i).append("++) {\n");
+        } else {
+          sb.append("var f").append(i).append(" = function () {\n");
+        }
+      }
+      sb.append("x = 1;\n");
+      for (int i = depth - 1; i >= 0; i--) {
+        sb.append(i % 3 == 2 ? "};\n" : "}\n");
+      }
+      return sb.toString();
+    }
+  },
+
+  /**
+   * Sibling closures, each one with its own scopes and variables captured from the enclosing scope.
+   */
+  CLOSURES {
+    @Override
+    String generate(int closures) {
+      StringBuilder sb = new StringBuilder("var shared = 0;\n");
+      for (int i = 0; i < closures; i++) {
+        sb.append("var c").append(i).append(" = (function (p) {\n")
+          .append("  var v = p + shared;\n")
+          .append("  return function () { return v + p; };\n")
+          .append("})(").append(i).append(");\n");
+      }
+      return sb.toString();
+    }
+  },
+
+  /**
+   * A single chain of member accesses and calls.
+   */
+  EXPRESSION_CHAIN {
+    @Override
+    String generate(int calls) {
+      StringBuilder sb = new StringBuilder("var chain = object");
+      for (int i = 0; i < calls; i++) {
+        sb.append("\n  .m").append(i).append("(").append(i).append(")");
+      }
+      return sb.append(";\n").toString();
+    }
+  },
+
+  /**
+   * Arrow functions with parenthesized parameters, each one in the parenthesized body of the previous one:
+   * the parser does not know whether a parenthesis starts an arrow function before reaching its end.
+   */
+  PARENTHESIZED_ARROW_FUNCTIONS {
+    @Override
+    String generate(int functions) {
+      StringBuilder sb = new StringBuilder("var arrow = ");
+      for (int i = 0; i < functions; i++) {
+        sb.append("(p").append(i).append(") => (\n");
+      }
+      sb.append("0");
+      for (int i = 0; i < functions; i++) {
+        sb.append(")");
+      }
+      return sb.append(";\n").toString();
+    }
+  },
+
+  /**
+   * A single concatenation of string literals.
+   */
+  STRING_CONCATENATION {
+    @Override
+    String generate(int strings) {
+      StringBuilder sb = new StringBuilder("var text = \"\"");
+      for (int i = 0; i < strings; i++) {
+        sb.append("\n  + \"line ").append(i).append("\"");
+      }
+      return sb.append(";\n").toString();
+    }
+  },
+
+  /**
+   * A single object literal, whose properties are array literals.
+   */
+  LITERALS {
+    @Override
+    String generate(int properties) {
+      StringBuilder sb = new StringBuilder("var data = {\n");
+      for (int i = 0; i < properties; i++) {
+        sb.append("  key").append(i).append(": [").append(i).append(", \"").append(i).append("\", true, null]")
+          .append(i < properties - 1 ? ",\n" : "\n");
+      }
+      return sb.append("};\n").toString();
+    }
+  },
+
+  /**
+   * Comments of all kinds, with a statement every ten lines.
+   */
+  COMMENTS {
+    @Override
+    String generate(int lines) {
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < lines; i++) {
+        int kind = i % 10;
+        if (kind == 0) {
+          sb.append("var v").append(i).append(" = ").append(i).append("; // trailing comment\n");
+        } else if (kind == 1) {
+          sb.append("/**\n * Documentation comment ").append(i).append("\n */\n");
+        } else if (kind == 2) {
+          sb.append("/* block comment ").append(i).append(" */\n");
+        } else {
+          sb.append("// line comment ").append(i).append("\n");
+        }
+      }
+      return sb.toString();
+    }
+  };
+
+  abstract String generate(int size);
+
+}
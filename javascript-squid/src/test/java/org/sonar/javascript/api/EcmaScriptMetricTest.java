@@ -27,12 +27,12 @@ public class EcmaScriptMetricTest {
 
   @Test
   public void test() {
-    assertThat(EcmaScriptMetric.values()).hasSize(9);
+    assertThat(EcmaScriptMetric.values()).hasSize(12);
 
     for (EcmaScriptMetric metric : EcmaScriptMetric.values()) {
       assertThat(metric.getName()).isEqualTo(metric.name());
       assertThat(metric.isCalculatedMetric()).isFalse();
-      assertThat(metric.isThereAggregationFormula()).isTrue();
+      assertThat(metric.isThereAggregationFormula()).isEqualTo(metric != EcmaScriptMetric.FUNCTION_COMPLEXITIES && metric != EcmaScriptMetric.NESTED_IN_FUNCTION);
       assertThat(metric.getCalculatedMetricFormula()).isNull();
       assertThat(metric.aggregateIfThereIsAlreadyAValue()).isTrue();
     }
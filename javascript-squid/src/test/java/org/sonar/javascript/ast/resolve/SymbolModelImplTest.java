@@ -28,8 +28,11 @@ import org.sonar.plugins.javascript.api.tree.Tree;
 import org.sonar.plugins.javascript.api.tree.ScriptTree;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.Set;
 
 import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.fail;
 
 public class SymbolModelImplTest extends JavaScriptTreeModelTest {
 
@@ -38,7 +41,7 @@ public class SymbolModelImplTest extends JavaScriptTreeModelTest {
   @Before
   public void setUp() throws Exception {
     AstNode root = p.parse(new File("src/test/resources/ast/resolve/symbolModel.js"));
-    SYMBOL_MODEL = SymbolModelImpl.create((ScriptTree) root, null, null, null);
+    SYMBOL_MODEL = SymbolModelImpl.create((ScriptTree) root, null);
   }
 
   @Test
@@ -52,6 +55,30 @@ public class SymbolModelImplTest extends JavaScriptTreeModelTest {
     assertThat(SYMBOL_MODEL.getSymbols("arguments")).hasSize(2);
   }
 
+  @Test
+  public void symbols_queries_return_read_only_views() {
+    assertThat(SYMBOL_MODEL.getSymbols("unknown")).isEmpty();
+    assertThat(SYMBOL_MODEL.getSymbols(Symbol.Kind.CLASS)).isEmpty();
+    assertThat(SYMBOL_MODEL.globalScope().getSymbols(Symbol.Kind.PARAMETER)).isEmpty();
+
+    Symbol a = SYMBOL_MODEL.getSymbols("a").iterator().next();
+    assertThat(SYMBOL_MODEL.getSymbols(a.kind())).contains(a);
+    assertThat(a.scope().getSymbols(a.kind())).contains(a);
+    assertReadOnly(SYMBOL_MODEL.getSymbols(), a);
+    assertReadOnly(SYMBOL_MODEL.getSymbols("a"), a);
+    assertReadOnly(SYMBOL_MODEL.getSymbols(a.kind()), a);
+    assertReadOnly(a.scope().getSymbols(a.kind()), a);
+  }
+
+  private static void assertReadOnly(Collection<Symbol> symbols, Symbol symbol) {
+    try {
+      symbols.add(symbol);
+      fail("Collection of symbols should be read-only");
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+  }
+
   @Test
   public void symbols_scope(){
     Symbol f = (Symbol)SYMBOL_MODEL.getSymbols("f").toArray()[0];
@@ -60,6 +87,53 @@ public class SymbolModelImplTest extends JavaScriptTreeModelTest {
     assertThat(e.scope().tree().is(Tree.Kind.CATCH_BLOCK)).isTrue();
   }
 
+  @Test
+  public void scope_by_tree() {
+    for (Scope scope : SYMBOL_MODEL.getScopes()) {
+      assertThat(SYMBOL_MODEL.getScope(scope.tree())).isSameAs(scope);
+    }
+    assertThat(SYMBOL_MODEL.getScope(SYMBOL_MODEL.globalScope().tree())).isSameAs(SYMBOL_MODEL.globalScope());
+  }
+
+  /**
+   * Entering a scope used to go through all the scopes of the file, which made the creation quadratic in the number of functions.
+   */
+  @Test
+  public void scope_of_each_function_is_looked_up_once_by_tree() throws Exception {
+    ScriptTree tree = functions(1000);
+    CountingSymbolModel symbolModel = new CountingSymbolModel();
+    new SymbolVisitor(symbolModel).visitScript(tree);
 
+    assertThat(symbolModel.scopeIterations).isEqualTo(0);
+    assertThat(symbolModel.scopeLookups).isEqualTo(1001);
+    assertThat(symbolModel.getScopes()).hasSize(1001);
+  }
+
+  private static ScriptTree functions(int count) throws Exception {
+    StringBuilder source = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      source.append("function f").append(i).append("(p) { return p; }\n");
+    }
+    return (ScriptTree) p.parse(source.toString());
+  }
+
+  private static class CountingSymbolModel extends SymbolModelImpl {
+
+    private int scopeLookups = 0;
+    private int scopeIterations = 0;
+
+    @Override
+    public Set<Scope> getScopes() {
+      scopeIterations++;
+      return super.getScopes();
+    }
+
+    @Override
+    public Scope getScope(Tree tree) {
+      scopeLookups++;
+      return super.getScope(tree);
+    }
+
+  }
 
 }
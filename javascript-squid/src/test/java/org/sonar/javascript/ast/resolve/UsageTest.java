@@ -19,10 +19,13 @@
  */
 package org.sonar.javascript.ast.resolve;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.sonar.sslr.api.AstNode;
 import org.junit.Before;
 import org.junit.Test;
 import org.sonar.javascript.model.JavaScriptTreeModelTest;
+import org.sonar.javascript.model.internal.JavaScriptTree;
 import org.sonar.plugins.javascript.api.symbols.Symbol;
 import org.sonar.plugins.javascript.api.symbols.Usage;
 import org.sonar.plugins.javascript.api.tree.Tree;
@@ -31,6 +34,7 @@ import org.sonar.plugins.javascript.api.tree.ScriptTree;
 import java.io.File;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import static org.fest.assertions.Assertions.assertThat;
 
@@ -42,7 +46,7 @@ public class UsageTest extends JavaScriptTreeModelTest {
   @Before
   public void setUp() throws Exception {
     ROOT_NODE = p.parse(new File("src/test/resources/ast/resolve/usage.js"));
-    SYMBOL_MODEL = SymbolModelImpl.create((ScriptTree) ROOT_NODE, null, null, null);
+    SYMBOL_MODEL = SymbolModelImpl.create((ScriptTree) ROOT_NODE, null);
   }
 
   @Test
@@ -120,6 +124,23 @@ public class UsageTest extends JavaScriptTreeModelTest {
     assertThat(declarationCounter).isEqualTo(2);
   }
 
+  @Test
+  public void usages_in_source_order() throws Exception {
+    Collection<Usage> usages = symbol("f").usages();
+    List<Integer> lines = Lists.newArrayList();
+    for (Usage usage : usages) {
+      lines.add(((JavaScriptTree) usage.identifierTree()).getLine());
+    }
+    // declaration is hoisted but comes last
+    assertThat(lines).containsExactly(4, 5, 9);
+    assertThat(Iterables.getLast(usages).isDeclaration()).isTrue();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void usages_are_read_only() throws Exception {
+    symbol("f").usages().clear();
+  }
+
   public Collection<Usage> usagesFor(String name) {
     return symbol(name).usages();
   }
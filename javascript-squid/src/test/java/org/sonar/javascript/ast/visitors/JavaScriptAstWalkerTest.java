@@ -0,0 +1,233 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.ast.visitors;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.sonar.sslr.api.AstAndTokenVisitor;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.ast.AstWalker;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.config.Settings;
+import org.sonar.javascript.JavaScriptAstScanner;
+import org.sonar.javascript.model.JavaScriptTreeModelTest;
+import org.sonar.javascript.model.internal.JavaScriptTree;
+import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
+import org.sonar.plugins.javascript.api.tree.Tree;
+import org.sonar.plugins.javascript.api.tree.Tree.Kind;
+import org.sonar.plugins.javascript.api.tree.lexical.SyntaxToken;
+import org.sonar.plugins.javascript.api.tree.lexical.SyntaxTrivia;
+import org.sonar.squidbridge.SquidAstVisitor;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class JavaScriptAstWalkerTest extends JavaScriptTreeModelTest {
+
+  private static final String SOURCE = "class C { m() { do { a(); } while (b); } }\n"
+    + "function f(a) { if (a) { return a + 1; } else { return /* comment */ 0; } }\n"
+    + "var x = [a,, b, , ];";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void ast_visitors_get_same_callbacks_as_with_sslr_walker() throws Exception {
+    AstNode ast = parse(SOURCE);
+
+    AstCallsRecorder expected = new AstCallsRecorder();
+    new AstWalker(expected).walkAndVisit(ast);
+    AstCallsRecorder actual = new AstCallsRecorder();
+    new JavaScriptAstWalker(ImmutableList.of(actual)).walkAndVisit(ast);
+
+    assertThat(actual.calls).isEqualTo(expected.calls);
+    assertThat(actual.calls).contains("visitNode IF_STATEMENT", "leaveNode CLASS_DECLARATION", "visitToken class");
+  }
+
+  @Test
+  public void subscription_visitors_are_called_during_the_single_walk() throws Exception {
+    File file = temporaryFolder.newFile("file.js");
+    Files.write(SOURCE, file, Charsets.UTF_8);
+
+    TreeCallsRecorder walked = new TreeCallsRecorder();
+    JavaScriptAstScanner.scanSingleFile(file, new VisitorsBridge(ImmutableList.<JavaScriptFileScanner>of(walked), null, new DefaultFileSystem(), new Settings()));
+
+    TreeCallsRecorder alone = new TreeCallsRecorder();
+    alone.scanFile(walked.getContext());
+
+    assertThat(walked.calls).isEqualTo(alone.calls);
+    assertThat(walked.calls).contains("visitNode CLASS_DECLARATION", "visitNode DO_WHILE_STATEMENT", "leaveNode ELSE_CLAUSE", "visitTrivia /* comment */");
+  }
+
+  /**
+   * Elided array elements and the brackets recreated by the tree factory are not {@link AstNode} children of the array,
+   * the else clause and the condition of a do-while are not in the same order as the {@link AstNode} children.
+   */
+  @Test
+  public void subscription_visitors_are_called_in_the_order_of_their_own_walk() throws Exception {
+    File file = temporaryFolder.newFile("file.js");
+    Files.write(SOURCE, file, Charsets.UTF_8);
+
+    TreeCallsRecorder walked = new TreeCallsRecorder();
+    JavaScriptAstScanner.scanSingleFile(file, new VisitorsBridge(ImmutableList.<JavaScriptFileScanner>of(walked), null, new DefaultFileSystem(), new Settings()));
+
+    TreeCallsRecorder alone = new TreeCallsRecorder();
+    alone.scanFile(walked.getContext());
+
+    assertThat(walked.kinds()).isEqualTo(alone.kinds());
+    assertThat(walked.kinds()).containsSequence("visitNode ARRAY_LITERAL", "visitNode IDENTIFIER_REFERENCE", "leaveNode IDENTIFIER_REFERENCE",
+      "visitNode UNDEFINED", "leaveNode UNDEFINED");
+    assertThat(walked.kinds()).containsSequence("visitNode IF_STATEMENT", "visitNode IDENTIFIER_REFERENCE", "leaveNode IDENTIFIER_REFERENCE",
+      "visitNode ELSE_CLAUSE");
+    assertThat(walked.kinds()).containsSequence("visitNode DO_WHILE_STATEMENT", "visitNode IDENTIFIER_REFERENCE", "leaveNode IDENTIFIER_REFERENCE",
+      "visitNode IDENTIFIER_REFERENCE");
+    assertThat(walked.calls).contains("visitToken [", "visitToken ]");
+  }
+
+  @Test
+  public void both_kinds_of_visitors_are_called_during_the_same_walk() throws Exception {
+    File file = temporaryFolder.newFile("file.js");
+    Files.write("function f() {}\nfunction g() {}\n", file, Charsets.UTF_8);
+
+    final List<String> calls = Lists.newArrayList();
+    SquidAstVisitor<LexerlessGrammar> astVisitor = new SquidAstVisitor<LexerlessGrammar>() {
+      @Override
+      public void init() {
+        subscribeTo(Kind.FUNCTION_DECLARATION);
+      }
+
+      @Override
+      public void visitNode(AstNode astNode) {
+        calls.add("ast " + astNode.getTokenLine());
+      }
+    };
+    SubscriptionAstTreeVisitor treeVisitor = new SubscriptionAstTreeVisitor() {
+      @Override
+      public List<Kind> nodesToVisit() {
+        return ImmutableList.of(Kind.FUNCTION_DECLARATION);
+      }
+
+      @Override
+      public void visitNode(Tree tree) {
+        calls.add("tree " + ((JavaScriptTree) tree).getLine());
+      }
+    };
+    JavaScriptAstScanner.scanSingleFile(file, astVisitor,
+      new VisitorsBridge(ImmutableList.<JavaScriptFileScanner>of(treeVisitor), null, new DefaultFileSystem(), new Settings()));
+
+    assertThat(calls).containsExactly("ast 1", "tree 1", "ast 2", "tree 2");
+  }
+
+  private static class AstCallsRecorder extends SquidAstVisitor<LexerlessGrammar> implements AstAndTokenVisitor {
+
+    private final List<String> calls = Lists.newArrayList();
+
+    AstCallsRecorder() {
+      subscribeTo(Kind.IF_STATEMENT, Kind.CLASS_DECLARATION, Kind.BLOCK);
+    }
+
+    @Override
+    public void visitFile(@Nullable AstNode astNode) {
+      calls.add("visitFile");
+    }
+
+    @Override
+    public void visitNode(AstNode astNode) {
+      calls.add("visitNode " + astNode.getType());
+    }
+
+    @Override
+    public void visitToken(Token token) {
+      calls.add("visitToken " + token.getValue());
+    }
+
+    @Override
+    public void leaveNode(AstNode astNode) {
+      calls.add("leaveNode " + astNode.getType());
+    }
+
+    @Override
+    public void leaveFile(@Nullable AstNode astNode) {
+      calls.add("leaveFile");
+    }
+
+  }
+
+  private static class TreeCallsRecorder extends SubscriptionAstTreeVisitor {
+
+    private final List<String> calls = Lists.newArrayList();
+
+    @Override
+    public List<Kind> nodesToVisit() {
+      return ImmutableList.of(Kind.CLASS_DECLARATION, Kind.DO_WHILE_STATEMENT, Kind.IF_STATEMENT, Kind.ELSE_CLAUSE, Kind.IDENTIFIER_REFERENCE,
+        Kind.ARRAY_LITERAL, Kind.UNDEFINED, Kind.TOKEN, Kind.TRIVIA);
+    }
+
+    /**
+     * Calls to visitNode and leaveNode only.
+     */
+    List<String> kinds() {
+      List<String> kinds = Lists.newArrayList();
+      for (String call : calls) {
+        if (call.startsWith("visitNode ") || call.startsWith("leaveNode ")) {
+          kinds.add(call);
+        }
+      }
+      return kinds;
+    }
+
+    @Override
+    public void visitFile(Tree scriptTree) {
+      calls.add("visitFile");
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      calls.add("visitNode " + ((JavaScriptTree) tree).getKind());
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      calls.add("leaveNode " + ((JavaScriptTree) tree).getKind());
+    }
+
+    @Override
+    public void visitToken(SyntaxToken syntaxToken) {
+      calls.add("visitToken " + syntaxToken.text());
+    }
+
+    @Override
+    public void visitTrivia(SyntaxTrivia syntaxTrivia) {
+      calls.add("visitTrivia " + syntaxTrivia.comment());
+    }
+
+  }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.ast.visitors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.sonar.javascript.model.JavaScriptTreeModelTest;
+import org.sonar.javascript.model.internal.JavaScriptTree;
+import org.sonar.plugins.javascript.api.AstTreeVisitorContext;
+import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
+import org.sonar.plugins.javascript.api.tree.ScriptTree;
+import org.sonar.plugins.javascript.api.tree.Tree;
+import org.sonar.plugins.javascript.api.tree.Tree.Kind;
+import org.sonar.plugins.javascript.api.tree.lexical.SyntaxToken;
+import org.sonar.plugins.javascript.api.tree.lexical.SyntaxTrivia;
+
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SubscriptionDispatcherTest extends JavaScriptTreeModelTest {
+
+  private static final String SOURCE = "function f(a) { if (a) { return a + 1; } }\n/* comment */ var b = f(1);";
+
+  @Test
+  public void dispatch_same_callbacks_as_separate_walks() throws Exception {
+    AstTreeVisitorContext context = context();
+
+    CallsRecorder functions = new CallsRecorder(Kind.FUNCTION_DECLARATION, Kind.IDENTIFIER_REFERENCE);
+    CallsRecorder statements = new CallsRecorder(Kind.IF_STATEMENT, Kind.RETURN_STATEMENT, Kind.VARIABLE_STATEMENT);
+    CallsRecorder tokens = new CallsRecorder(Kind.TOKEN, Kind.TRIVIA);
+    new SubscriptionDispatcher(ImmutableList.<SubscriptionAstTreeVisitor>of(functions, statements, tokens)).scanFile(context);
+
+    for (CallsRecorder recorder : ImmutableList.of(functions, statements, tokens)) {
+      CallsRecorder alone = new CallsRecorder(recorder.kinds);
+      alone.scanFile(context);
+      assertThat(recorder.calls).isEqualTo(alone.calls);
+      assertThat(recorder.getContext()).isSameAs(context);
+    }
+
+    assertThat(functions.calls).contains("visitFile", "visitNode FUNCTION_DECLARATION", "leaveNode FUNCTION_DECLARATION");
+    assertThat(statements.calls).excludes("visitNode FUNCTION_DECLARATION");
+    assertThat(tokens.calls).contains("visitToken var", "visitTrivia /* comment */");
+  }
+
+  @Test
+  public void can_dispatch() {
+    assertThat(SubscriptionDispatcher.canDispatch(new CallsRecorder())).isTrue();
+    assertThat(SubscriptionDispatcher.canDispatch(new CustomWalk())).isFalse();
+    assertThat(SubscriptionDispatcher.canDispatch(mock(JavaScriptFileScanner.class))).isFalse();
+  }
+
+  private AstTreeVisitorContext context() throws Exception {
+    AstTreeVisitorContext context = mock(AstTreeVisitorContext.class);
+    when(context.getTree()).thenReturn((ScriptTree) parse(SOURCE));
+    return context;
+  }
+
+  private static class CallsRecorder extends SubscriptionAstTreeVisitor {
+
+    private final List<Kind> kinds;
+    private final List<String> calls = Lists.newArrayList();
+
+    CallsRecorder(Kind... kinds) {
+      this(ImmutableList.copyOf(kinds));
+    }
+
+    CallsRecorder(List<Kind> kinds) {
+      this.kinds = kinds;
+    }
+
+    @Override
+    public List<Kind> nodesToVisit() {
+      return kinds;
+    }
+
+    @Override
+    public void visitFile(Tree scriptTree) {
+      calls.add("visitFile");
+    }
+
+    @Override
+    public void visitNode(Tree tree) {
+      calls.add("visitNode " + ((JavaScriptTree) tree).getKind());
+    }
+
+    @Override
+    public void leaveNode(Tree tree) {
+      calls.add("leaveNode " + ((JavaScriptTree) tree).getKind());
+    }
+
+    @Override
+    public void visitToken(SyntaxToken syntaxToken) {
+      calls.add("visitToken " + syntaxToken.text());
+    }
+
+    @Override
+    public void visitTrivia(SyntaxTrivia syntaxTrivia) {
+      calls.add("visitTrivia " + syntaxTrivia.comment());
+    }
+
+  }
+
+  private static class CustomWalk extends CallsRecorder {
+
+    @Override
+    protected void scanTree(Tree tree) {
+      // only the root
+      visitNode(tree);
+    }
+
+  }
+
+}
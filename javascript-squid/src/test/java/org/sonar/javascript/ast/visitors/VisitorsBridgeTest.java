@@ -0,0 +1,109 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.ast.visitors;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.component.ResourcePerspectives;
+import org.sonar.api.config.Settings;
+import org.sonar.api.source.Symbol;
+import org.sonar.api.source.Symbolizable;
+import org.sonar.javascript.JavaScriptAstScanner;
+import org.sonar.plugins.javascript.api.AstTreeVisitorContext;
+import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
+
+import java.io.File;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class VisitorsBridgeTest {
+
+  @Test
+  public void symbol_model_is_built_once_per_file() throws Exception {
+    File file = new File("src/test/resources/highlighter/symbolHighlighting.js");
+    DefaultFileSystem fs = new DefaultFileSystem();
+    fs.setEncoding(Charsets.UTF_8);
+    DefaultInputFile inputFile = new DefaultInputFile("symbolHighlighting.js").setAbsolutePath(file.getAbsolutePath());
+    fs.add(inputFile);
+
+    Symbolizable symbolizable = mock(Symbolizable.class);
+    Symbolizable.SymbolTableBuilder symbolTableBuilder = mock(Symbolizable.SymbolTableBuilder.class);
+    when(symbolizable.newSymbolTableBuilder()).thenReturn(symbolTableBuilder);
+    ResourcePerspectives perspectives = mock(ResourcePerspectives.class);
+    when(perspectives.as(Symbolizable.class, inputFile)).thenReturn(symbolizable);
+
+    List<JavaScriptFileScanner> scanners = Lists.newArrayList();
+    for (int i = 0; i < 10; i++) {
+      scanners.add(new ContextRecorder());
+    }
+
+    JavaScriptAstScanner.scanSingleFile(file, new VisitorsBridge(scanners, perspectives, fs, new Settings()));
+
+    AstTreeVisitorContext context = ((ContextRecorder) scanners.get(0)).context;
+    assertThat(context).isNotNull();
+    for (JavaScriptFileScanner scanner : scanners) {
+      assertThat(((ContextRecorder) scanner).context).isSameAs(context);
+    }
+
+    verify(symbolizable, times(1)).setSymbolTable(any(Symbolizable.SymbolTable.class));
+    // 5 symbols declared in the file, whatever the number of scanners
+    verify(symbolTableBuilder, times(5)).newSymbol(anyInt(), anyInt());
+    verify(symbolTableBuilder, times(8)).newReference(any(Symbol.class), anyInt());
+  }
+
+  @Test
+  public void symbol_highlighting_can_be_disabled() throws Exception {
+    File file = new File("src/test/resources/highlighter/symbolHighlighting.js");
+    DefaultFileSystem fs = new DefaultFileSystem();
+    fs.setEncoding(Charsets.UTF_8);
+    ResourcePerspectives perspectives = mock(ResourcePerspectives.class);
+    Settings settings = new Settings();
+    settings.setProperty(VisitorsBridge.SYMBOL_HIGHLIGHTING_KEY, "false");
+
+    ContextRecorder scanner = new ContextRecorder();
+    JavaScriptAstScanner.scanSingleFile(file, new VisitorsBridge(Lists.<JavaScriptFileScanner>newArrayList(scanner), perspectives, fs, settings));
+
+    assertThat(scanner.context.getSymbolModel().getSymbols()).isNotEmpty();
+    verifyZeroInteractions(perspectives);
+  }
+
+  private static class ContextRecorder implements JavaScriptFileScanner {
+
+    private AstTreeVisitorContext context;
+
+    @Override
+    public void scanFile(AstTreeVisitorContext context) {
+      this.context = context;
+    }
+
+  }
+
+}
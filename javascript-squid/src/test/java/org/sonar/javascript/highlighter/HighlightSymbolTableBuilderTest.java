@@ -58,7 +58,7 @@ public class HighlightSymbolTableBuilderTest extends JavaScriptTreeModelTest {
   public void sonar_symbol_table() throws Exception {
     File file = new File("src/test/resources/highlighter/symbolHighlighting.js");
     lines = Files.readLines(file, Charsets.UTF_8);
-    SymbolModelImpl.create((ScriptTree) p.parse(file), symbolizable, new SourceFileOffsets(file, Charset.defaultCharset()), null);
+    HighlightSymbolTableBuilder.build(symbolizable, SymbolModelImpl.create((ScriptTree) p.parse(file), null), new SourceFileOffsets(file, Charset.defaultCharset()));
 
     // variable
     verify(symbolTableBuilder).newSymbol(offset(1, 5), offset(1, 6));
@@ -87,10 +87,28 @@ public class HighlightSymbolTableBuilderTest extends JavaScriptTreeModelTest {
     verifyNoMoreInteractions(symbolTableBuilder);
   }
 
+  @Test
+  public void symbols_used_before_declaration_are_highlighted_at_declaration() throws Exception {
+    File file = new File("src/test/resources/highlighter/symbolHighlightingHoisting.js");
+    lines = Files.readLines(file, Charsets.UTF_8);
+    HighlightSymbolTableBuilder.build(symbolizable, SymbolModelImpl.create((ScriptTree) p.parse(file), null), new SourceFileOffsets(file, Charset.defaultCharset()));
+
+    // hoisted function
+    verify(symbolTableBuilder).newSymbol(offset(3, 10), offset(3, 11));
+    verify(symbolTableBuilder).newReference(any(org.sonar.api.source.Symbol.class), eq(offset(1, 1)));
+
+    // hoisted variable
+    verify(symbolTableBuilder).newSymbol(offset(7, 5), offset(7, 6));
+    verify(symbolTableBuilder).newReference(any(org.sonar.api.source.Symbol.class), eq(offset(4, 10)));
+
+    verify(symbolTableBuilder).build();
+    verifyNoMoreInteractions(symbolTableBuilder);
+  }
+
   @Test
   public void sonar_symbol_table_built_in() throws Exception {
     File file = new File("src/test/resources/highlighter/symbolHighlightingBuiltIn.js");
-    SymbolModelImpl.create((ScriptTree) p.parse(file), symbolizable, new SourceFileOffsets(file, Charset.defaultCharset()), null);
+    HighlightSymbolTableBuilder.build(symbolizable, SymbolModelImpl.create((ScriptTree) p.parse(file), null), new SourceFileOffsets(file, Charset.defaultCharset()));
 
     // no offsets are used as there is uncertainty about the order of usages of built-in symbols (and first usage used for newSymbol)
     verify(symbolTableBuilder, times(3)).newSymbol(anyInt(), anyInt());
@@ -20,24 +20,46 @@
 package org.sonar.javascript.highlighter;
 
 import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.component.ResourcePerspectives;
 import org.sonar.api.source.Highlightable;
-import org.sonar.javascript.EcmaScriptConfiguration;
+import org.sonar.javascript.JavaScriptAstScanner;
 
+import java.io.File;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 public class JavaScriptHighlighterTest {
 
-  private final JavaScriptHighlighter highlighter = new JavaScriptHighlighter(new EcmaScriptConfiguration(Charsets.UTF_8));
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
 
   private Highlightable.HighlightingBuilder highlight(String string) throws Exception{
+    File file = temp.newFile("file.js");
+    Files.write(string, file, Charsets.UTF_8);
+    DefaultFileSystem fs = new DefaultFileSystem();
+    fs.setEncoding(Charsets.UTF_8);
+    DefaultInputFile inputFile = new DefaultInputFile("file.js").setAbsolutePath(file.getAbsolutePath());
+    fs.add(inputFile);
+
     Highlightable highlightable = mock(Highlightable.class);
     Highlightable.HighlightingBuilder builder = mock(Highlightable.HighlightingBuilder.class);
     when(highlightable.newHighlighting()).thenReturn(builder);
-    highlighter.highlight(highlightable, string);
+    ResourcePerspectives perspectives = mock(ResourcePerspectives.class);
+    when(perspectives.as(Highlightable.class, inputFile)).thenReturn(highlightable);
+
+    JavaScriptAstScanner.scanSingleFile(file, new JavaScriptHighlighter(perspectives, fs));
     verify(builder).done();
     return builder;
   }
@@ -85,4 +107,36 @@ public class JavaScriptHighlighterTest {
     verify(builder).highlight(8, 11, "s");
   }
 
+  @Test
+  public void keywords_in_nested_code() throws Exception {
+    Highlightable.HighlightingBuilder builder = highlight("if (a) {\n  return this;\n} else {\n  throw null;\n}");
+    verify(builder).highlight(0, 2, "k");
+    verify(builder).highlight(11, 17, "k");
+    verify(builder).highlight(18, 22, "k");
+    verify(builder).highlight(26, 30, "k");
+    verify(builder).highlight(35, 40, "k");
+    verify(builder).highlight(41, 45, "k");
+  }
+
+  @Test
+  public void keyword_used_as_property_name() throws Exception {
+    Highlightable.HighlightingBuilder builder = highlight("a.delete()");
+    verify(builder, never()).highlight(anyInt(), anyInt(), anyString());
+  }
+
+  @Test
+  public void comment_at_end_of_file() throws Exception {
+    Highlightable.HighlightingBuilder builder = highlight("x;\n// end");
+    verify(builder).highlight(3, 9, "cd");
+  }
+
+  @Test
+  public void unparseable_file_is_highlighted_from_its_tokens() throws Exception {
+    Highlightable.HighlightingBuilder builder = highlight("var x = \"a\";\n/** doc */ if (");
+    verify(builder).highlight(0, 3, "k");
+    verify(builder).highlight(8, 11, "s");
+    verify(builder).highlight(13, 23, "j");
+    verify(builder).highlight(24, 26, "k");
+  }
+
 }
@@ -152,4 +152,19 @@ public class EcmaScriptLexerTest {
     assertThat(lexer.lex(Character.toString((char) BomCharacterChannel.BOM_CHAR)), hasTokens("EOF"));
   }
 
+  @Test
+  public void template_literals() {
+    assertThat(lexer.lex("`it's`"), hasTokens("`", "it", "'", "s", "`", "EOF"));
+
+    Lexer templateLexer = EcmaScriptLexer.create(new EcmaScriptConfiguration(Charsets.UTF_8), true);
+    assertThat(templateLexer.lex("`it's`"), hasToken("it's", GenericTokenType.LITERAL));
+    assertThat(templateLexer.lex("``"), hasTokens("`", "`", "EOF"));
+    assertThat(templateLexer.lex("`$5`"), hasTokens("`", "$5", "`", "EOF"));
+    assertThat(templateLexer.lex("`a ${ {b: `c${d}`}.b } e`"),
+      hasTokens("`", "a ", "$", "{", "{", "b", ":", "`", "c", "$", "{", "d", "}", "`", "}", ".", "b", "}", " e", "`", "EOF"));
+    // the lexer can be reused after an unterminated substitution
+    assertThat(templateLexer.lex("`${a"), hasTokens("`", "$", "{", "a", "EOF"));
+    assertThat(templateLexer.lex("{}"), hasTokens("{", "}", "EOF"));
+  }
+
 }
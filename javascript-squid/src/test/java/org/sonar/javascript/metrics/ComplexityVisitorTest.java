@@ -0,0 +1,79 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.metrics;
+
+import org.junit.Test;
+import org.sonar.javascript.JavaScriptAstScanner;
+import org.sonar.javascript.TestUtils;
+import org.sonar.javascript.api.EcmaScriptMetric;
+import org.sonar.squidbridge.api.SourceFile;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ComplexityVisitorTest {
+
+  @Test
+  public void function_complexities() throws Exception {
+    SourceFile file = JavaScriptAstScanner.scanSingleFile(TestUtils.getResource("/metrics/complexity.js"));
+    FunctionComplexities complexities = (FunctionComplexities) file.getData(EcmaScriptMetric.FUNCTION_COMPLEXITIES);
+
+    // the complexity of "example" includes the one of the function expression it contains
+    assertThat(complexities.total()).isEqualTo(24);
+    assertThat(complexities.functions(0)).isEqualTo(4);
+    assertThat(complexities.functions(1)).isEqualTo(2);
+    assertThat(complexities.functions(6)).isEqualTo(1);
+    assertThat(FunctionComplexities.bottomLimit(6)).isEqualTo(12);
+  }
+
+  /**
+   * Same values as the ones saved from the aggregated complexities of the SourceFunctions: 7 for "outer", 4 for
+   * "middle" and 2 for "inner".
+   */
+  @Test
+  public void complexities_of_nested_functions_include_the_ones_of_the_functions_they_contain() throws Exception {
+    SourceFile file = JavaScriptAstScanner.scanSingleFile(TestUtils.getResource("/metrics/nestedFunctions.js"));
+    FunctionComplexities complexities = (FunctionComplexities) file.getData(EcmaScriptMetric.FUNCTION_COMPLEXITIES);
+
+    assertThat(file.getInt(EcmaScriptMetric.COMPLEXITY)).isEqualTo(7);
+    assertThat(complexities.total()).isEqualTo(7 + 4 + 2);
+    int[] functions = new int[FunctionComplexities.ranges()];
+    for (int range = 0; range < functions.length; range++) {
+      functions[range] = complexities.functions(range);
+    }
+    assertThat(functions).isEqualTo(new int[] {0, 1, 1, 1, 0, 0, 0, 0, 0});
+  }
+
+  @Test
+  public void ranges_of_function_complexities() {
+    FunctionComplexities complexities = new FunctionComplexities();
+    complexities.add(0);
+    complexities.add(3);
+    complexities.add(4);
+    complexities.add(100);
+
+    assertThat(complexities.total()).isEqualTo(107);
+    int[] functions = new int[FunctionComplexities.ranges()];
+    for (int range = 0; range < functions.length; range++) {
+      functions[range] = complexities.functions(range);
+    }
+    assertThat(functions).isEqualTo(new int[] {0, 1, 1, 0, 0, 0, 0, 0, 1});
+  }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.parser;
+
+import com.google.common.base.Charsets;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.impl.Parser;
+import org.junit.Test;
+import org.sonar.javascript.EcmaScriptConfiguration;
+import org.sonar.plugins.javascript.api.tree.Tree.Kind;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class EcmaScriptParserTest {
+
+  @Test
+  public void parsers_share_the_grammar() {
+    Parser parser1 = EcmaScriptParser.create(new EcmaScriptConfiguration(Charsets.UTF_8));
+    Parser parser2 = EcmaScriptParser.create(new EcmaScriptConfiguration(Charsets.UTF_8));
+
+    assertThat(parser1).isNotSameAs(parser2);
+    assertThat(parser1.getGrammar()).isSameAs(parser2.getGrammar());
+
+    AstNode tree1 = parser1.parse("var a = 1;");
+    AstNode tree2 = parser2.parse("var a = 1;");
+    assertThat(tree1).isNotSameAs(tree2);
+    assertThat(tree1.is(Kind.SCRIPT)).isTrue();
+    assertThat(tree2.getTokenValue()).isEqualTo(tree1.getTokenValue());
+  }
+
+  @Test
+  public void only_parsers_with_time_budget_check_it() {
+    EcmaScriptConfiguration conf = new EcmaScriptConfiguration(Charsets.UTF_8);
+    conf.setFileTimeBudget(60000);
+    Parser budgetParser1 = EcmaScriptParser.create(conf);
+    Parser budgetParser2 = EcmaScriptParser.create(conf);
+    Parser parser = EcmaScriptParser.create(new EcmaScriptConfiguration(Charsets.UTF_8));
+
+    assertThat(budgetParser1.getGrammar()).isSameAs(budgetParser2.getGrammar());
+    assertThat(budgetParser1.getGrammar()).isNotSameAs(parser.getGrammar());
+
+    AstNode budgetTree = budgetParser1.parse("var a = 1;");
+    AstNode tree = parser.parse("var a = 1;");
+    assertThat(budgetTree.is(Kind.SCRIPT)).isTrue();
+    assertThat(budgetTree.getTokenValue()).isEqualTo(tree.getTokenValue());
+    assertThat(budgetTree.getLastToken().getValue()).isEqualTo(tree.getLastToken().getValue());
+  }
+
+}
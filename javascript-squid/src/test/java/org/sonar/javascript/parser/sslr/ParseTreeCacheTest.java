@@ -0,0 +1,292 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.parser.sslr;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.RecognitionException;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.Trivia;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.javascript.EcmaScriptConfiguration;
+import org.sonar.javascript.parser.EcmaScriptParser;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ParseTreeCacheTest {
+
+  private static final String SOURCE = "/* header */\n" +
+    "var a = 1, b = \"two\"; // comment\n" +
+    "function f(x) {\n" +
+    "  return x ? /re+gex/g.test(`template ${x} literal`) : a[b] + 0x1F;\n" +
+    "}\n" +
+    "for (var i in { p: f, get q() { return 1; } }) { label: while (false) break label; }\n";
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void cached_parse_tree_should_give_same_syntax_tree() throws Exception {
+    File cacheFile = new File(temp.newFolder(), "parse-trees.bin");
+    File file = temp.newFile("file.js");
+    Files.write(SOURCE, file, Charsets.UTF_8);
+
+    AstNode parsed = EcmaScriptParser.create(new EcmaScriptConfiguration(Charsets.UTF_8)).parse(file);
+
+    ParseTreeCache cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    parse(file, cache);
+    assertThat(cache.misses()).isEqualTo(1);
+    cache.save();
+
+    cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    AstNode restored = parse(file, cache);
+    assertThat(cache.hits()).isEqualTo(1);
+    assertThat(cache.misses()).isEqualTo(0);
+
+    assertSameTree(restored, parsed);
+  }
+
+  @Test
+  public void modified_file_should_be_parsed() throws Exception {
+    File cacheFile = new File(temp.newFolder(), "parse-trees.bin");
+    File file = temp.newFile("file.js");
+    Files.write(SOURCE, file, Charsets.UTF_8);
+
+    ParseTreeCache cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    parse(file, cache);
+    cache.save();
+
+    File modifiedFile = temp.newFile("modified.js");
+    Files.write(SOURCE + "a++;\n", modifiedFile, Charsets.UTF_8);
+    cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    AstNode tree = parse(modifiedFile, cache);
+    assertThat(cache.hits()).isEqualTo(0);
+    assertThat(cache.misses()).isEqualTo(1);
+    assertThat(tree.getLastToken().getLine()).isEqualTo(8);
+  }
+
+  @Test
+  public void cache_of_other_grammar_should_be_ignored() throws Exception {
+    File cacheFile = new File(temp.newFolder(), "parse-trees.bin");
+    File file = temp.newFile("file.js");
+    Files.write(SOURCE, file, Charsets.UTF_8);
+
+    ParseTreeCache cache = ParseTreeCache.load(cacheFile, "other grammar");
+    parse(file, cache);
+    cache.save();
+
+    cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    parse(file, cache);
+    assertThat(cache.hits()).isEqualTo(0);
+  }
+
+  @Test
+  public void corrupted_cache_should_be_ignored() throws Exception {
+    File cacheFile = temp.newFile("parse-trees.bin");
+    Files.write(new byte[] {1, 2, 3}, cacheFile);
+    File file = temp.newFile("file.js");
+    Files.write(SOURCE, file, Charsets.UTF_8);
+
+    ParseTreeCache cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    parse(file, cache);
+    assertThat(cache.misses()).isEqualTo(1);
+  }
+
+  @Test
+  public void corrupted_tree_should_be_parsed() throws Exception {
+    File cacheFile = new File(temp.newFolder(), "parse-trees.bin");
+    File file = temp.newFile("file.js");
+    Files.write(SOURCE, file, Charsets.UTF_8);
+
+    ParseTreeCache cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    AstNode parsed = parse(file, cache);
+    cache.save();
+    // The last bytes of the single tree become unterminated numbers
+    overwrite(cacheFile, cacheFile.length() - 10, new byte[] {-1, -1, -1, -1, -1, -1, -1, -1, -1, -1});
+
+    cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    AstNode tree = parse(file, cache);
+    assertThat(cache.hits()).isEqualTo(0);
+    assertThat(cache.misses()).isEqualTo(1);
+    assertSameTree(tree, parsed);
+
+    cache.save();
+    cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    assertSameTree(parse(file, cache), parsed);
+    assertThat(cache.hits()).isEqualTo(1);
+  }
+
+  @Test
+  public void tree_out_of_cache_should_be_parsed() throws Exception {
+    File cacheFile = new File(temp.newFolder(), "parse-trees.bin");
+    File file = temp.newFile("file.js");
+    Files.write(SOURCE, file, Charsets.UTF_8);
+
+    ParseTreeCache cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    AstNode parsed = parse(file, cache);
+    cache.save();
+    // Offset of the single tree, after the header and its key
+    int offsetPosition = 4 + 4 + EcmaScriptParser.grammarFingerprint().length() + 4 + 20;
+    overwrite(cacheFile, offsetPosition, new byte[] {0x7F, -1, -1, -1});
+
+    cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    AstNode tree = parse(file, cache);
+    assertThat(cache.hits()).isEqualTo(0);
+    assertThat(cache.misses()).isEqualTo(1);
+    assertSameTree(tree, parsed);
+  }
+
+  @Test
+  public void saved_cache_should_replace_loaded_one() throws Exception {
+    File cacheFile = new File(temp.newFolder(), "parse-trees.bin");
+    File file = temp.newFile("file.js");
+    Files.write(SOURCE, file, Charsets.UTF_8);
+    File modifiedFile = temp.newFile("modified.js");
+    Files.write(SOURCE + "a++;\n", modifiedFile, Charsets.UTF_8);
+
+    ParseTreeCache cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    parse(file, cache);
+    cache.save();
+
+    cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    parse(modifiedFile, cache);
+    cache.save();
+
+    cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    parse(modifiedFile, cache);
+    parse(file, cache);
+    assertThat(cache.hits()).isEqualTo(1);
+    assertThat(cache.misses()).isEqualTo(1);
+  }
+
+  /**
+   * Round trip of the files of the repository and of the benchmark corpus: each tree restored from the cache must be the same
+   * as the parsed one, node by node.
+   */
+  @Test
+  public void cached_parse_trees_of_corpus_should_give_same_syntax_trees() throws Exception {
+    List<File> files = Lists.newArrayList();
+    files.addAll(jsFiles(new File("src/test/resources/ast")));
+    files.addAll(jsFiles(new File("src/test/resources/metrics")));
+    files.addAll(jsFiles(new File("src/test/resources/highlighter")));
+    files.addAll(jsFiles(new File("../javascript-checks/src/test/resources")));
+    files.addAll(jsFiles(new File("../javascript-benchmarks/src/main/resources/org/sonar/javascript/benchmarks/corpus")));
+    assertThat(files.size()).isGreaterThan(100);
+
+    File cacheFile = new File(temp.newFolder(), "parse-trees.bin");
+    ParseTreeCache cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    List<File> parsedFiles = Lists.newArrayList();
+    List<AstNode> parsedTrees = Lists.newArrayList();
+    for (File file : files) {
+      try {
+        parsedTrees.add(parse(file, cache));
+        parsedFiles.add(file);
+      } catch (RecognitionException e) {
+        // Some of the files of the checks are not valid JavaScript on purpose
+      }
+    }
+    cache.save();
+
+    cache = ParseTreeCache.load(cacheFile, EcmaScriptParser.grammarFingerprint());
+    for (int i = 0; i < parsedFiles.size(); i++) {
+      assertSameTree(parse(parsedFiles.get(i), cache), parsedTrees.get(i));
+    }
+    assertThat(cache.hits()).isEqualTo(parsedFiles.size());
+    assertThat(cache.misses()).isEqualTo(0);
+  }
+
+  @Test
+  public void grammar_fingerprint_should_be_stable() {
+    assertThat(EcmaScriptParser.grammarFingerprint()).hasSize(40);
+    assertThat(EcmaScriptParser.grammarFingerprint()).isEqualTo(EcmaScriptParser.grammarFingerprint());
+  }
+
+  private static List<File> jsFiles(File dir) {
+    assertThat(dir).isDirectory();
+    List<File> files = Lists.newArrayList();
+    File[] children = dir.listFiles();
+    Arrays.sort(children);
+    for (File child : children) {
+      if (child.isDirectory()) {
+        files.addAll(jsFiles(child));
+      } else if (child.getName().endsWith(".js")) {
+        files.add(child);
+      }
+    }
+    return files;
+  }
+
+  private static void overwrite(File file, long position, byte[] bytes) throws Exception {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+    try {
+      randomAccessFile.seek(position);
+      randomAccessFile.write(bytes);
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  private static AstNode parse(File file, ParseTreeCache cache) {
+    EcmaScriptConfiguration configuration = new EcmaScriptConfiguration(Charsets.UTF_8);
+    configuration.setParseTreeCache(cache);
+    return EcmaScriptParser.create(configuration).parse(file);
+  }
+
+  private static void assertSameTree(AstNode actual, AstNode expected) {
+    assertThat(actual.getClass()).isEqualTo(expected.getClass());
+    assertThat(actual.getType()).isEqualTo(expected.getType());
+    assertThat(actual.getFromIndex()).isEqualTo(expected.getFromIndex());
+    assertThat(actual.getToIndex()).isEqualTo(expected.getToIndex());
+    if (expected.hasToken()) {
+      assertSameToken(actual.getToken(), expected.getToken());
+    }
+
+    List<AstNode> actualChildren = actual.getChildren();
+    List<AstNode> expectedChildren = expected.getChildren();
+    assertThat(actualChildren).hasSize(expectedChildren.size());
+    for (int i = 0; i < expectedChildren.size(); i++) {
+      assertSameTree(actualChildren.get(i), expectedChildren.get(i));
+    }
+  }
+
+  private static void assertSameToken(Token actual, Token expected) {
+    assertThat(actual.getValue()).isEqualTo(expected.getValue());
+    assertThat(actual.getType()).isEqualTo(expected.getType());
+    assertThat(actual.getLine()).isEqualTo(expected.getLine());
+    assertThat(actual.getColumn()).isEqualTo(expected.getColumn());
+
+    List<Trivia> actualTrivia = actual.getTrivia();
+    List<Trivia> expectedTrivia = expected.getTrivia();
+    assertThat(actualTrivia).hasSize(expectedTrivia.size());
+    for (int i = 0; i < expectedTrivia.size(); i++) {
+      assertSameToken(actualTrivia.get(i).getToken(), expectedTrivia.get(i).getToken());
+    }
+  }
+
+}
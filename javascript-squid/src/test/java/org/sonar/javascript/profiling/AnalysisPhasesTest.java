@@ -0,0 +1,107 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.profiling;
+
+import org.junit.Test;
+import org.sonar.javascript.profiling.AnalysisPhases.Phase;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class AnalysisPhasesTest {
+
+  private final AnalysisPhases phases = new AnalysisPhases();
+  private byte[][] retained;
+
+  @Test
+  public void time_of_nested_phases_is_not_counted_twice() throws Exception {
+    assertThat(phases.isEmpty()).isTrue();
+
+    phases.start();
+    phases.start();
+    Thread.sleep(20);
+    phases.stop(Phase.SYMBOL_RESOLUTION);
+    phases.stop(Phase.VISITORS);
+
+    assertThat(phases.isEmpty()).isFalse();
+    assertThat(phases.invocations(Phase.SYMBOL_RESOLUTION)).isEqualTo(1);
+    assertThat(phases.invocations(Phase.VISITORS)).isEqualTo(1);
+    assertThat(phases.nanos(Phase.SYMBOL_RESOLUTION)).isGreaterThanOrEqualTo(20000000L);
+    assertThat(phases.nanos(Phase.VISITORS)).isLessThan(phases.nanos(Phase.SYMBOL_RESOLUTION));
+  }
+
+  @Test
+  public void allocations_of_nested_phases_are_not_counted_twice() {
+    assumeTrue(AnalysisPhases.measuresAllocations());
+
+    retained = new byte[2][];
+    phases.start();
+    retained[0] = new byte[1000000];
+    phases.start();
+    retained[1] = new byte[2000000];
+    phases.stop(Phase.SYMBOL_RESOLUTION);
+    phases.stop(Phase.VISITORS);
+
+    assertThat(phases.allocatedBytes(Phase.SYMBOL_RESOLUTION)).isGreaterThanOrEqualTo(2000000L).isLessThan(2100000L);
+    assertThat(phases.allocatedBytes(Phase.VISITORS)).isGreaterThanOrEqualTo(1000000L).isLessThan(1100000L);
+    assertThat(phases.allocatedBytes(Phase.PARSE)).isEqualTo(0);
+  }
+
+  @Test
+  public void phases_of_several_threads_are_added() throws Exception {
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        phases.start();
+        phases.stop(Phase.PARSE);
+      }
+    };
+    thread.start();
+    phases.start();
+    thread.join();
+    phases.stop(Phase.PARSE);
+
+    assertThat(phases.invocations(Phase.PARSE)).isEqualTo(2);
+  }
+
+  @Test
+  public void should_report_throughput() {
+    phases.addFile(100, 4000);
+    phases.addFile(50, 2000);
+    phases.addAnalysisTime(500000000L);
+    phases.start();
+    phases.stop(Phase.LCOV);
+    phases.addFileOverTimeBudget();
+
+    assertThat(phases.files()).isEqualTo(2);
+    assertThat(phases.filesOverTimeBudget()).isEqualTo(1);
+    assertThat(phases.linesOfCode()).isEqualTo(150);
+    assertThat(phases.bytes()).isEqualTo(6000);
+    String json = phases.toJson();
+    assertThat(json).contains("\"lcov\": {\"timeMs\": ");
+    assertThat(json).contains("\"parse\": {\"timeMs\": 0.000, \"count\": 0, \"allocatedBytes\": 0}");
+    assertThat(json).contains("\"analysisTimeMs\": 500.000,");
+    assertThat(json).contains("\"filesOverTimeBudget\": 1,");
+    assertThat(json).contains("\"linesOfCodePerSecond\": 300.0,");
+    assertThat(json).contains("\"bytesPerSecond\": 12000.0\n");
+    phases.log();
+  }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.profiling;
+
+import com.google.common.collect.Maps;
+import org.junit.Test;
+import org.sonar.javascript.profiling.AnalysisProfiler.FileTiming;
+import org.sonar.javascript.profiling.AnalysisProfiler.Timing;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class AnalysisProfilerTest {
+
+  private final AnalysisProfiler profiler = new AnalysisProfiler();
+
+  @Test
+  public void visitors_are_named_by_rule_key_or_class() {
+    Object check = new Object();
+    profiler.setName(check, "javascript:S1");
+    profiler.startFile(new File("a.js"));
+    measure(check);
+    measure(check);
+    measure(new StringBuilder());
+    measure(AnalysisProfiler.PARSER);
+    profiler.endFile();
+
+    Map<String, Timing> timings = timingsByName(profiler);
+    assertThat(timings.keySet()).containsOnly("javascript:S1", StringBuilder.class.getName(), AnalysisProfiler.PARSER);
+    assertThat(timings.get("javascript:S1").invocations()).isEqualTo(2);
+    assertThat(timings.get("javascript:S1").slowestFiles()).hasSize(1);
+    assertThat(timings.get("javascript:S1").slowestFiles().get(0).file()).isEqualTo(new File("a.js"));
+  }
+
+  @Test
+  public void time_of_nested_visitors_is_not_counted_twice() throws Exception {
+    profiler.startFile(new File("a.js"));
+    profiler.start("outer");
+    profiler.start("inner");
+    Thread.sleep(20);
+    profiler.stop();
+    profiler.stop();
+    profiler.endFile();
+
+    Map<String, Timing> timings = timingsByName(profiler);
+    assertThat(timings.get("inner").nanos()).isGreaterThanOrEqualTo(20000000L);
+    assertThat(timings.get("outer").nanos()).isLessThan(timings.get("inner").nanos());
+  }
+
+  @Test
+  public void only_slowest_files_are_kept() {
+    for (int i = 0; i < 10; i++) {
+      profiler.startFile(new File(i + ".js"));
+      measure("visitor");
+      profiler.endFile();
+    }
+
+    List<FileTiming> slowestFiles = timingsByName(profiler).get("visitor").slowestFiles();
+    assertThat(slowestFiles).hasSize(AnalysisProfiler.SLOWEST_FILES);
+    for (int i = 1; i < slowestFiles.size(); i++) {
+      assertThat(slowestFiles.get(i).nanos()).isLessThanOrEqualTo(slowestFiles.get(i - 1).nanos());
+    }
+  }
+
+  private void measure(Object visitor) {
+    profiler.start(visitor);
+    profiler.stop();
+  }
+
+  static Map<String, Timing> timingsByName(AnalysisProfiler profiler) {
+    Map<String, Timing> result = Maps.newHashMap();
+    for (Timing timing : profiler.timings()) {
+      result.put(timing.name(), timing);
+    }
+    return result;
+  }
+
+}
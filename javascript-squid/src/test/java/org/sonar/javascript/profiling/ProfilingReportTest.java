@@ -0,0 +1,79 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.javascript.profiling;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.javascript.profiling.AnalysisProfiler.Timing;
+
+import java.io.File;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ProfilingReportTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void should_gather_timings_of_all_profilers() {
+    ProfilingReport report = new ProfilingReport();
+    report.add(profiler("a.js", "javascript:S1", "javascript:S2"));
+    report.add(profiler("b.js", "javascript:S1"));
+
+    List<Timing> timings = report.timings();
+    assertThat(timings).hasSize(2);
+    Timing s1 = timings.get(0).name().equals("javascript:S1") ? timings.get(0) : timings.get(1);
+    assertThat(s1.invocations()).isEqualTo(2);
+    assertThat(s1.slowestFiles()).hasSize(2);
+    assertThat(timings.get(0).nanos()).isGreaterThanOrEqualTo(timings.get(1).nanos());
+    report.log(1);
+  }
+
+  @Test
+  public void should_write_json() throws Exception {
+    ProfilingReport report = new ProfilingReport();
+    report.add(profiler("dir\"quoted\".js", "javascript:S1"));
+    File file = new File(temp.newFolder(), "report.json");
+
+    report.save(file);
+
+    String json = Files.toString(file, Charsets.UTF_8);
+    assertThat(json).startsWith("{\n  \"totalMs\": ");
+    assertThat(json).contains("{\"name\": \"javascript:S1\", \"timeMs\": ");
+    assertThat(json).contains("\"invocations\": 1, \"slowestFiles\": [{\"path\": \"dir\\\"quoted\\\".js\"");
+  }
+
+  private static AnalysisProfiler profiler(String fileName, String... visitors) {
+    AnalysisProfiler profiler = new AnalysisProfiler();
+    profiler.startFile(new File(fileName));
+    for (String visitor : visitors) {
+      profiler.start(visitor);
+      profiler.stop();
+    }
+    profiler.endFile();
+    return profiler;
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript.api.visitors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.sonar.javascript.model.JavaScriptTreeModelTest;
+import org.sonar.plugins.javascript.api.AstTreeVisitorContext;
+import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
+import org.sonar.plugins.javascript.api.tree.ScriptTree;
+import org.sonar.plugins.javascript.api.tree.expression.BinaryExpressionTree;
+import org.sonar.plugins.javascript.api.tree.expression.IdentifierTree;
+import org.sonar.plugins.javascript.api.tree.statement.IfStatementTree;
+
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FusedTreeVisitorTest extends JavaScriptTreeModelTest {
+
+  private static final String SOURCE = "function f(a) { if (a) { if (a == 1) { return a + 1; } } }\nvar b = f(1) != f(2);";
+
+  @Test
+  public void fused_visitors_see_same_nodes_as_separate_walks() throws Exception {
+    AstTreeVisitorContext context = context();
+
+    IdentifiersRecorder identifiers = new IdentifiersRecorder();
+    StatementsRecorder statements = new StatementsRecorder();
+    FusedTreeVisitor fusedTreeVisitor = new FusedTreeVisitor(ImmutableList.of(identifiers, statements));
+    fusedTreeVisitor.scanFile(context);
+
+    IdentifiersRecorder identifiersAlone = new IdentifiersRecorder();
+    identifiersAlone.scanFile(context);
+    StatementsRecorder statementsAlone = new StatementsRecorder();
+    statementsAlone.scanFile(context);
+
+    assertThat(identifiers.calls).isEqualTo(identifiersAlone.calls);
+    assertThat(statements.calls).isEqualTo(statementsAlone.calls);
+    assertThat(identifiers.calls).containsOnly("a", "f", "b");
+    assertThat(statements.calls).containsExactly("if", "if", "==", "+", "!=");
+    assertThat(identifiers.getContext()).isSameAs(context);
+    assertThat(fusedTreeVisitor.visitors()).containsExactly(identifiers, statements);
+  }
+
+  @Test
+  public void can_fuse() {
+    assertThat(FusedTreeVisitor.canFuse(new StatementsRecorder())).isTrue();
+    assertThat(FusedTreeVisitor.canFuse(new BaseTreeVisitor())).isFalse();
+    assertThat(FusedTreeVisitor.canFuse(mock(JavaScriptFileScanner.class))).isFalse();
+  }
+
+  @Test
+  public void no_traversal_without_visitors() {
+    FusedTreeVisitor fusedTreeVisitor = new FusedTreeVisitor(ImmutableList.<JavaScriptFileScanner>of());
+    fusedTreeVisitor.scanFile(mock(AstTreeVisitorContext.class));
+    assertThat(fusedTreeVisitor.visitors()).isEmpty();
+  }
+
+  private AstTreeVisitorContext context() throws Exception {
+    AstTreeVisitorContext context = mock(AstTreeVisitorContext.class);
+    when(context.getTree()).thenReturn((ScriptTree) parse(SOURCE));
+    return context;
+  }
+
+  private static class IdentifiersRecorder extends BaseTreeVisitor implements FusableTreeVisitor {
+
+    private final List<String> calls = Lists.newArrayList();
+
+    @Override
+    public void visitIdentifier(IdentifierTree tree) {
+      calls.add(tree.name());
+      super.visitIdentifier(tree);
+    }
+
+  }
+
+  private static class StatementsRecorder extends BaseTreeVisitor implements FusableTreeVisitor {
+
+    private final List<String> calls = Lists.newArrayList();
+
+    @Override
+    public void visitIfStatement(IfStatementTree tree) {
+      calls.add("if");
+      super.visitIfStatement(tree);
+    }
+
+    @Override
+    public void visitBinaryExpression(BinaryExpressionTree tree) {
+      calls.add(tree.operator().text());
+      super.visitBinaryExpression(tree);
+    }
+
+  }
+
+}
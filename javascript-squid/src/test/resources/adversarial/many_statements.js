@@ -0,0 +1,1001 @@
+// Generated: many statements, to check that slow visitors are interrupted
+a0 = b0 + c0 * (d0 - 0);
+a1 = b1 + c1 * (d1 - 1);
+a2 = b2 + c2 * (d2 - 2);
+a3 = b3 + c3 * (d3 - 3);
+a4 = b4 + c4 * (d4 - 4);
+a5 = b5 + c5 * (d5 - 5);
+a6 = b6 + c6 * (d6 - 6);
+a7 = b7 + c7 * (d7 - 7);
+a8 = b8 + c8 * (d8 - 8);
+a9 = b9 + c9 * (d9 - 9);
+a10 = b10 + c10 * (d10 - 10);
+a11 = b11 + c11 * (d11 - 11);
+a12 = b12 + c12 * (d12 - 12);
+a13 = b13 + c13 * (d13 - 13);
+a14 = b14 + c14 * (d14 - 14);
+a15 = b15 + c15 * (d15 - 15);
+a16 = b16 + c16 * (d16 - 16);
+a17 = b17 + c17 * (d17 - 17);
+a18 = b18 + c18 * (d18 - 18);
+a19 = b19 + c19 * (d19 - 19);
+a20 = b20 + c20 * (d20 - 20);
+a21 = b21 + c21 * (d21 - 21);
+a22 = b22 + c22 * (d22 - 22);
+a23 = b23 + c23 * (d23 - 23);
+a24 = b24 + c24 * (d24 - 24);
+a25 = b25 + c25 * (d25 - 25);
+a26 = b26 + c26 * (d26 - 26);
+a27 = b27 + c27 * (d27 - 27);
+a28 = b28 + c28 * (d28 - 28);
+a29 = b29 + c29 * (d29 - 29);
+a30 = b30 + c30 * (d30 - 30);
+a31 = b31 + c31 * (d31 - 31);
+a32 = b32 + c32 * (d32 - 32);
+a33 = b33 + c33 * (d33 - 33);
+a34 = b34 + c34 * (d34 - 34);
+a35 = b35 + c35 * (d35 - 35);
+a36 = b36 + c36 * (d36 - 36);
+a37 = b37 + c37 * (d37 - 37);
+a38 = b38 + c38 * (d38 - 38);
+a39 = b39 + c39 * (d39 - 39);
+a40 = b40 + c40 * (d40 - 40);
+a41 = b41 + c41 * (d41 - 41);
+a42 = b42 + c42 * (d42 - 42);
+a43 = b43 + c43 * (d43 - 43);
+a44 = b44 + c44 * (d44 - 44);
+a45 = b45 + c45 * (d45 - 45);
+a46 = b46 + c46 * (d46 - 46);
+a47 = b47 + c47 * (d47 - 47);
+a48 = b48 + c48 * (d48 - 48);
+a49 = b49 + c49 * (d49 - 49);
+a50 = b50 + c50 * (d50 - 50);
+a51 = b51 + c51 * (d51 - 51);
+a52 = b52 + c52 * (d52 - 52);
+a53 = b53 + c53 * (d53 - 53);
+a54 = b54 + c54 * (d54 - 54);
+a55 = b55 + c55 * (d55 - 55);
+a56 = b56 + c56 * (d56 - 56);
+a57 = b57 + c57 * (d57 - 57);
+a58 = b58 + c58 * (d58 - 58);
+a59 = b59 + c59 * (d59 - 59);
+a60 = b60 + c60 * (d60 - 60);
+a61 = b61 + c61 * (d61 - 61);
+a62 = b62 + c62 * (d62 - 62);
+a63 = b63 + c63 * (d63 - 63);
+a64 = b64 + c64 * (d64 - 64);
+a65 = b65 + c65 * (d65 - 65);
+a66 = b66 + c66 * (d66 - 66);
+a67 = b67 + c67 * (d67 - 67);
+a68 = b68 + c68 * (d68 - 68);
+a69 = b69 + c69 * (d69 - 69);
+a70 = b70 + c70 * (d70 - 70);
+a71 = b71 + c71 * (d71 - 71);
+a72 = b72 + c72 * (d72 - 72);
+a73 = b73 + c73 * (d73 - 73);
+a74 = b74 + c74 * (d74 - 74);
+a75 = b75 + c75 * (d75 - 75);
+a76 = b76 + c76 * (d76 - 76);
+a77 = b77 + c77 * (d77 - 77);
+a78 = b78 + c78 * (d78 - 78);
+a79 = b79 + c79 * (d79 - 79);
+a80 = b80 + c80 * (d80 - 80);
+a81 = b81 + c81 * (d81 - 81);
+a82 = b82 + c82 * (d82 - 82);
+a83 = b83 + c83 * (d83 - 83);
+a84 = b84 + c84 * (d84 - 84);
+a85 = b85 + c85 * (d85 - 85);
+a86 = b86 + c86 * (d86 - 86);
+a87 = b87 + c87 * (d87 - 87);
+a88 = b88 + c88 * (d88 - 88);
+a89 = b89 + c89 * (d89 - 89);
+a90 = b90 + c90 * (d90 - 90);
+a91 = b91 + c91 * (d91 - 91);
+a92 = b92 + c92 * (d92 - 92);
+a93 = b93 + c93 * (d93 - 93);
+a94 = b94 + c94 * (d94 - 94);
+a95 = b95 + c95 * (d95 - 95);
+a96 = b96 + c96 * (d96 - 96);
+a97 = b97 + c97 * (d97 - 97);
+a98 = b98 + c98 * (d98 - 98);
+a99 = b99 + c99 * (d99 - 99);
+a100 = b100 + c100 * (d100 - 100);
+a101 = b101 + c101 * (d101 - 101);
+a102 = b102 + c102 * (d102 - 102);
+a103 = b103 + c103 * (d103 - 103);
+a104 = b104 + c104 * (d104 - 104);
+a105 = b105 + c105 * (d105 - 105);
+a106 = b106 + c106 * (d106 - 106);
+a107 = b107 + c107 * (d107 - 107);
+a108 = b108 + c108 * (d108 - 108);
+a109 = b109 + c109 * (d109 - 109);
+a110 = b110 + c110 * (d110 - 110);
+a111 = b111 + c111 * (d111 - 111);
+a112 = b112 + c112 * (d112 - 112);
+a113 = b113 + c113 * (d113 - 113);
+a114 = b114 + c114 * (d114 - 114);
+a115 = b115 + c115 * (d115 - 115);
+a116 = b116 + c116 * (d116 - 116);
+a117 = b117 + c117 * (d117 - 117);
+a118 = b118 + c118 * (d118 - 118);
+a119 = b119 + c119 * (d119 - 119);
+a120 = b120 + c120 * (d120 - 120);
+a121 = b121 + c121 * (d121 - 121);
+a122 = b122 + c122 * (d122 - 122);
+a123 = b123 + c123 * (d123 - 123);
+a124 = b124 + c124 * (d124 - 124);
+a125 = b125 + c125 * (d125 - 125);
+a126 = b126 + c126 * (d126 - 126);
+a127 = b127 + c127 * (d127 - 127);
+a128 = b128 + c128 * (d128 - 128);
+a129 = b129 + c129 * (d129 - 129);
+a130 = b130 + c130 * (d130 - 130);
+a131 = b131 + c131 * (d131 - 131);
+a132 = b132 + c132 * (d132 - 132);
+a133 = b133 + c133 * (d133 - 133);
+a134 = b134 + c134 * (d134 - 134);
+a135 = b135 + c135 * (d135 - 135);
+a136 = b136 + c136 * (d136 - 136);
+a137 = b137 + c137 * (d137 - 137);
+a138 = b138 + c138 * (d138 - 138);
+a139 = b139 + c139 * (d139 - 139);
+a140 = b140 + c140 * (d140 - 140);
+a141 = b141 + c141 * (d141 - 141);
+a142 = b142 + c142 * (d142 - 142);
+a143 = b143 + c143 * (d143 - 143);
+a144 = b144 + c144 * (d144 - 144);
+a145 = b145 + c145 * (d145 - 145);
+a146 = b146 + c146 * (d146 - 146);
+a147 = b147 + c147 * (d147 - 147);
+a148 = b148 + c148 * (d148 - 148);
+a149 = b149 + c149 * (d149 - 149);
+a150 = b150 + c150 * (d150 - 150);
+a151 = b151 + c151 * (d151 - 151);
+a152 = b152 + c152 * (d152 - 152);
+a153 = b153 + c153 * (d153 - 153);
+a154 = b154 + c154 * (d154 - 154);
+a155 = b155 + c155 * (d155 - 155);
+a156 = b156 + c156 * (d156 - 156);
+a157 = b157 + c157 * (d157 - 157);
+a158 = b158 + c158 * (d158 - 158);
+a159 = b159 + c159 * (d159 - 159);
+a160 = b160 + c160 * (d160 - 160);
+a161 = b161 + c161 * (d161 - 161);
+a162 = b162 + c162 * (d162 - 162);
+a163 = b163 + c163 * (d163 - 163);
+a164 = b164 + c164 * (d164 - 164);
+a165 = b165 + c165 * (d165 - 165);
+a166 = b166 + c166 * (d166 - 166);
+a167 = b167 + c167 * (d167 - 167);
+a168 = b168 + c168 * (d168 - 168);
+a169 = b169 + c169 * (d169 - 169);
+a170 = b170 + c170 * (d170 - 170);
+a171 = b171 + c171 * (d171 - 171);
+a172 = b172 + c172 * (d172 - 172);
+a173 = b173 + c173 * (d173 - 173);
+a174 = b174 + c174 * (d174 - 174);
+a175 = b175 + c175 * (d175 - 175);
+a176 = b176 + c176 * (d176 - 176);
+a177 = b177 + c177 * (d177 - 177);
+a178 = b178 + c178 * (d178 - 178);
+a179 = b179 + c179 * (d179 - 179);
+a180 = b180 + c180 * (d180 - 180);
+a181 = b181 + c181 * (d181 - 181);
+a182 = b182 + c182 * (d182 - 182);
+a183 = b183 + c183 * (d183 - 183);
+a184 = b184 + c184 * (d184 - 184);
+a185 = b185 + c185 * (d185 - 185);
+a186 = b186 + c186 * (d186 - 186);
+a187 = b187 + c187 * (d187 - 187);
+a188 = b188 + c188 * (d188 - 188);
+a189 = b189 + c189 * (d189 - 189);
+a190 = b190 + c190 * (d190 - 190);
+a191 = b191 + c191 * (d191 - 191);
+a192 = b192 + c192 * (d192 - 192);
+a193 = b193 + c193 * (d193 - 193);
+a194 = b194 + c194 * (d194 - 194);
+a195 = b195 + c195 * (d195 - 195);
+a196 = b196 + c196 * (d196 - 196);
+a197 = b197 + c197 * (d197 - 197);
+a198 = b198 + c198 * (d198 - 198);
+a199 = b199 + c199 * (d199 - 199);
+a200 = b200 + c200 * (d200 - 200);
+a201 = b201 + c201 * (d201 - 201);
+a202 = b202 + c202 * (d202 - 202);
+a203 = b203 + c203 * (d203 - 203);
+a204 = b204 + c204 * (d204 - 204);
+a205 = b205 + c205 * (d205 - 205);
+a206 = b206 + c206 * (d206 - 206);
+a207 = b207 + c207 * (d207 - 207);
+a208 = b208 + c208 * (d208 - 208);
+a209 = b209 + c209 * (d209 - 209);
+a210 = b210 + c210 * (d210 - 210);
+a211 = b211 + c211 * (d211 - 211);
+a212 = b212 + c212 * (d212 - 212);
+a213 = b213 + c213 * (d213 - 213);
+a214 = b214 + c214 * (d214 - 214);
+a215 = b215 + c215 * (d215 - 215);
+a216 = b216 + c216 * (d216 - 216);
+a217 = b217 + c217 * (d217 - 217);
+a218 = b218 + c218 * (d218 - 218);
+a219 = b219 + c219 * (d219 - 219);
+a220 = b220 + c220 * (d220 - 220);
+a221 = b221 + c221 * (d221 - 221);
+a222 = b222 + c222 * (d222 - 222);
+a223 = b223 + c223 * (d223 - 223);
+a224 = b224 + c224 * (d224 - 224);
+a225 = b225 + c225 * (d225 - 225);
+a226 = b226 + c226 * (d226 - 226);
+a227 = b227 + c227 * (d227 - 227);
+a228 = b228 + c228 * (d228 - 228);
+a229 = b229 + c229 * (d229 - 229);
+a230 = b230 + c230 * (d230 - 230);
+a231 = b231 + c231 * (d231 - 231);
+a232 = b232 + c232 * (d232 - 232);
+a233 = b233 + c233 * (d233 - 233);
+a234 = b234 + c234 * (d234 - 234);
+a235 = b235 + c235 * (d235 - 235);
+a236 = b236 + c236 * (d236 - 236);
+a237 = b237 + c237 * (d237 - 237);
+a238 = b238 + c238 * (d238 - 238);
+a239 = b239 + c239 * (d239 - 239);
+a240 = b240 + c240 * (d240 - 240);
+a241 = b241 + c241 * (d241 - 241);
+a242 = b242 + c242 * (d242 - 242);
+a243 = b243 + c243 * (d243 - 243);
+a244 = b244 + c244 * (d244 - 244);
+a245 = b245 + c245 * (d245 - 245);
+a246 = b246 + c246 * (d246 - 246);
+a247 = b247 + c247 * (d247 - 247);
+a248 = b248 + c248 * (d248 - 248);
+a249 = b249 + c249 * (d249 - 249);
+a250 = b250 + c250 * (d250 - 250);
+a251 = b251 + c251 * (d251 - 251);
+a252 = b252 + c252 * (d252 - 252);
+a253 = b253 + c253 * (d253 - 253);
+a254 = b254 + c254 * (d254 - 254);
+a255 = b255 + c255 * (d255 - 255);
+a256 = b256 + c256 * (d256 - 256);
+a257 = b257 + c257 * (d257 - 257);
+a258 = b258 + c258 * (d258 - 258);
+a259 = b259 + c259 * (d259 - 259);
+a260 = b260 + c260 * (d260 - 260);
+a261 = b261 + c261 * (d261 - 261);
+a262 = b262 + c262 * (d262 - 262);
+a263 = b263 + c263 * (d263 - 263);
+a264 = b264 + c264 * (d264 - 264);
+a265 = b265 + c265 * (d265 - 265);
+a266 = b266 + c266 * (d266 - 266);
+a267 = b267 + c267 * (d267 - 267);
+a268 = b268 + c268 * (d268 - 268);
+a269 = b269 + c269 * (d269 - 269);
+a270 = b270 + c270 * (d270 - 270);
+a271 = b271 + c271 * (d271 - 271);
+a272 = b272 + c272 * (d272 - 272);
+a273 = b273 + c273 * (d273 - 273);
+a274 = b274 + c274 * (d274 - 274);
+a275 = b275 + c275 * (d275 - 275);
+a276 = b276 + c276 * (d276 - 276);
+a277 = b277 + c277 * (d277 - 277);
+a278 = b278 + c278 * (d278 - 278);
+a279 = b279 + c279 * (d279 - 279);
+a280 = b280 + c280 * (d280 - 280);
+a281 = b281 + c281 * (d281 - 281);
+a282 = b282 + c282 * (d282 - 282);
+a283 = b283 + c283 * (d283 - 283);
+a284 = b284 + c284 * (d284 - 284);
+a285 = b285 + c285 * (d285 - 285);
+a286 = b286 + c286 * (d286 - 286);
+a287 = b287 + c287 * (d287 - 287);
+a288 = b288 + c288 * (d288 - 288);
+a289 = b289 + c289 * (d289 - 289);
+a290 = b290 + c290 * (d290 - 290);
+a291 = b291 + c291 * (d291 - 291);
+a292 = b292 + c292 * (d292 - 292);
+a293 = b293 + c293 * (d293 - 293);
+a294 = b294 + c294 * (d294 - 294);
+a295 = b295 + c295 * (d295 - 295);
+a296 = b296 + c296 * (d296 - 296);
+a297 = b297 + c297 * (d297 - 297);
+a298 = b298 + c298 * (d298 - 298);
+a299 = b299 + c299 * (d299 - 299);
+a300 = b300 + c300 * (d300 - 300);
+a301 = b301 + c301 * (d301 - 301);
+a302 = b302 + c302 * (d302 - 302);
+a303 = b303 + c303 * (d303 - 303);
+a304 = b304 + c304 * (d304 - 304);
+a305 = b305 + c305 * (d305 - 305);
+a306 = b306 + c306 * (d306 - 306);
+a307 = b307 + c307 * (d307 - 307);
+a308 = b308 + c308 * (d308 - 308);
+a309 = b309 + c309 * (d309 - 309);
+a310 = b310 + c310 * (d310 - 310);
+a311 = b311 + c311 * (d311 - 311);
+a312 = b312 + c312 * (d312 - 312);
+a313 = b313 + c313 * (d313 - 313);
+a314 = b314 + c314 * (d314 - 314);
+a315 = b315 + c315 * (d315 - 315);
+a316 = b316 + c316 * (d316 - 316);
+a317 = b317 + c317 * (d317 - 317);
+a318 = b318 + c318 * (d318 - 318);
+a319 = b319 + c319 * (d319 - 319);
+a320 = b320 + c320 * (d320 - 320);
+a321 = b321 + c321 * (d321 - 321);
+a322 = b322 + c322 * (d322 - 322);
+a323 = b323 + c323 * (d323 - 323);
+a324 = b324 + c324 * (d324 - 324);
+a325 = b325 + c325 * (d325 - 325);
+a326 = b326 + c326 * (d326 - 326);
+a327 = b327 + c327 * (d327 - 327);
+a328 = b328 + c328 * (d328 - 328);
+a329 = b329 + c329 * (d329 - 329);
+a330 = b330 + c330 * (d330 - 330);
+a331 = b331 + c331 * (d331 - 331);
+a332 = b332 + c332 * (d332 - 332);
+a333 = b333 + c333 * (d333 - 333);
+a334 = b334 + c334 * (d334 - 334);
+a335 = b335 + c335 * (d335 - 335);
+a336 = b336 + c336 * (d336 - 336);
+a337 = b337 + c337 * (d337 - 337);
+a338 = b338 + c338 * (d338 - 338);
+a339 = b339 + c339 * (d339 - 339);
+a340 = b340 + c340 * (d340 - 340);
+a341 = b341 + c341 * (d341 - 341);
+a342 = b342 + c342 * (d342 - 342);
+a343 = b343 + c343 * (d343 - 343);
+a344 = b344 + c344 * (d344 - 344);
+a345 = b345 + c345 * (d345 - 345);
+a346 = b346 + c346 * (d346 - 346);
+a347 = b347 + c347 * (d347 - 347);
+a348 = b348 + c348 * (d348 - 348);
+a349 = b349 + c349 * (d349 - 349);
+a350 = b350 + c350 * (d350 - 350);
+a351 = b351 + c351 * (d351 - 351);
+a352 = b352 + c352 * (d352 - 352);
+a353 = b353 + c353 * (d353 - 353);
+a354 = b354 + c354 * (d354 - 354);
+a355 = b355 + c355 * (d355 - 355);
+a356 = b356 + c356 * (d356 - 356);
+a357 = b357 + c357 * (d357 - 357);
+a358 = b358 + c358 * (d358 - 358);
+a359 = b359 + c359 * (d359 - 359);
+a360 = b360 + c360 * (d360 - 360);
+a361 = b361 + c361 * (d361 - 361);
+a362 = b362 + c362 * (d362 - 362);
+a363 = b363 + c363 * (d363 - 363);
+a364 = b364 + c364 * (d364 - 364);
+a365 = b365 + c365 * (d365 - 365);
+a366 = b366 + c366 * (d366 - 366);
+a367 = b367 + c367 * (d367 - 367);
+a368 = b368 + c368 * (d368 - 368);
+a369 = b369 + c369 * (d369 - 369);
+a370 = b370 + c370 * (d370 - 370);
+a371 = b371 + c371 * (d371 - 371);
+a372 = b372 + c372 * (d372 - 372);
+a373 = b373 + c373 * (d373 - 373);
+a374 = b374 + c374 * (d374 - 374);
+a375 = b375 + c375 * (d375 - 375);
+a376 = b376 + c376 * (d376 - 376);
+a377 = b377 + c377 * (d377 - 377);
+a378 = b378 + c378 * (d378 - 378);
+a379 = b379 + c379 * (d379 - 379);
+a380 = b380 + c380 * (d380 - 380);
+a381 = b381 + c381 * (d381 - 381);
+a382 = b382 + c382 * (d382 - 382);
+a383 = b383 + c383 * (d383 - 383);
+a384 = b384 + c384 * (d384 - 384);
+a385 = b385 + c385 * (d385 - 385);
+a386 = b386 + c386 * (d386 - 386);
+a387 = b387 + c387 * (d387 - 387);
+a388 = b388 + c388 * (d388 - 388);
+a389 = b389 + c389 * (d389 - 389);
+a390 = b390 + c390 * (d390 - 390);
+a391 = b391 + c391 * (d391 - 391);
+a392 = b392 + c392 * (d392 - 392);
+a393 = b393 + c393 * (d393 - 393);
+a394 = b394 + c394 * (d394 - 394);
+a395 = b395 + c395 * (d395 - 395);
+a396 = b396 + c396 * (d396 - 396);
+a397 = b397 + c397 * (d397 - 397);
+a398 = b398 + c398 * (d398 - 398);
+a399 = b399 + c399 * (d399 - 399);
+a400 = b400 + c400 * (d400 - 400);
+a401 = b401 + c401 * (d401 - 401);
+a402 = b402 + c402 * (d402 - 402);
+a403 = b403 + c403 * (d403 - 403);
+a404 = b404 + c404 * (d404 - 404);
+a405 = b405 + c405 * (d405 - 405);
+a406 = b406 + c406 * (d406 - 406);
+a407 = b407 + c407 * (d407 - 407);
+a408 = b408 + c408 * (d408 - 408);
+a409 = b409 + c409 * (d409 - 409);
+a410 = b410 + c410 * (d410 - 410);
+a411 = b411 + c411 * (d411 - 411);
+a412 = b412 + c412 * (d412 - 412);
+a413 = b413 + c413 * (d413 - 413);
+a414 = b414 + c414 * (d414 - 414);
+a415 = b415 + c415 * (d415 - 415);
+a416 = b416 + c416 * (d416 - 416);
+a417 = b417 + c417 * (d417 - 417);
+a418 = b418 + c418 * (d418 - 418);
+a419 = b419 + c419 * (d419 - 419);
+a420 = b420 + c420 * (d420 - 420);
+a421 = b421 + c421 * (d421 - 421);
+a422 = b422 + c422 * (d422 - 422);
+a423 = b423 + c423 * (d423 - 423);
+a424 = b424 + c424 * (d424 - 424);
+a425 = b425 + c425 * (d425 - 425);
+a426 = b426 + c426 * (d426 - 426);
+a427 = b427 + c427 * (d427 - 427);
+a428 = b428 + c428 * (d428 - 428);
+a429 = b429 + c429 * (d429 - 429);
+a430 = b430 + c430 * (d430 - 430);
+a431 = b431 + c431 * (d431 - 431);
+a432 = b432 + c432 * (d432 - 432);
+a433 = b433 + c433 * (d433 - 433);
+a434 = b434 + c434 * (d434 - 434);
+a435 = b435 + c435 * (d435 - 435);
+a436 = b436 + c436 * (d436 - 436);
+a437 = b437 + c437 * (d437 - 437);
+a438 = b438 + c438 * (d438 - 438);
+a439 = b439 + c439 * (d439 - 439);
+a440 = b440 + c440 * (d440 - 440);
+a441 = b441 + c441 * (d441 - 441);
+a442 = b442 + c442 * (d442 - 442);
+a443 = b443 + c443 * (d443 - 443);
+a444 = b444 + c444 * (d444 - 444);
+a445 = b445 + c445 * (d445 - 445);
+a446 = b446 + c446 * (d446 - 446);
+a447 = b447 + c447 * (d447 - 447);
+a448 = b448 + c448 * (d448 - 448);
+a449 = b449 + c449 * (d449 - 449);
+a450 = b450 + c450 * (d450 - 450);
+a451 = b451 + c451 * (d451 - 451);
+a452 = b452 + c452 * (d452 - 452);
+a453 = b453 + c453 * (d453 - 453);
+a454 = b454 + c454 * (d454 - 454);
+a455 = b455 + c455 * (d455 - 455);
+a456 = b456 + c456 * (d456 - 456);
+a457 = b457 + c457 * (d457 - 457);
+a458 = b458 + c458 * (d458 - 458);
+a459 = b459 + c459 * (d459 - 459);
+a460 = b460 + c460 * (d460 - 460);
+a461 = b461 + c461 * (d461 - 461);
+a462 = b462 + c462 * (d462 - 462);
+a463 = b463 + c463 * (d463 - 463);
+a464 = b464 + c464 * (d464 - 464);
+a465 = b465 + c465 * (d465 - 465);
+a466 = b466 + c466 * (d466 - 466);
+a467 = b467 + c467 * (d467 - 467);
+a468 = b468 + c468 * (d468 - 468);
+a469 = b469 + c469 * (d469 - 469);
+a470 = b470 + c470 * (d470 - 470);
+a471 = b471 + c471 * (d471 - 471);
+a472 = b472 + c472 * (d472 - 472);
+a473 = b473 + c473 * (d473 - 473);
+a474 = b474 + c474 * (d474 - 474);
+a475 = b475 + c475 * (d475 - 475);
+a476 = b476 + c476 * (d476 - 476);
+a477 = b477 + c477 * (d477 - 477);
+a478 = b478 + c478 * (d478 - 478);
+a479 = b479 + c479 * (d479 - 479);
+a480 = b480 + c480 * (d480 - 480);
+a481 = b481 + c481 * (d481 - 481);
+a482 = b482 + c482 * (d482 - 482);
+a483 = b483 + c483 * (d483 - 483);
+a484 = b484 + c484 * (d484 - 484);
+a485 = b485 + c485 * (d485 - 485);
+a486 = b486 + c486 * (d486 - 486);
+a487 = b487 + c487 * (d487 - 487);
+a488 = b488 + c488 * (d488 - 488);
+a489 = b489 + c489 * (d489 - 489);
+a490 = b490 + c490 * (d490 - 490);
+a491 = b491 + c491 * (d491 - 491);
+a492 = b492 + c492 * (d492 - 492);
+a493 = b493 + c493 * (d493 - 493);
+a494 = b494 + c494 * (d494 - 494);
+a495 = b495 + c495 * (d495 - 495);
+a496 = b496 + c496 * (d496 - 496);
+a497 = b497 + c497 * (d497 - 497);
+a498 = b498 + c498 * (d498 - 498);
+a499 = b499 + c499 * (d499 - 499);
+a500 = b500 + c500 * (d500 - 500);
+a501 = b501 + c501 * (d501 - 501);
+a502 = b502 + c502 * (d502 - 502);
+a503 = b503 + c503 * (d503 - 503);
+a504 = b504 + c504 * (d504 - 504);
+a505 = b505 + c505 * (d505 - 505);
+a506 = b506 + c506 * (d506 - 506);
+a507 = b507 + c507 * (d507 - 507);
+a508 = b508 + c508 * (d508 - 508);
+a509 = b509 + c509 * (d509 - 509);
+a510 = b510 + c510 * (d510 - 510);
+a511 = b511 + c511 * (d511 - 511);
+a512 = b512 + c512 * (d512 - 512);
+a513 = b513 + c513 * (d513 - 513);
+a514 = b514 + c514 * (d514 - 514);
+a515 = b515 + c515 * (d515 - 515);
+a516 = b516 + c516 * (d516 - 516);
+a517 = b517 + c517 * (d517 - 517);
+a518 = b518 + c518 * (d518 - 518);
+a519 = b519 + c519 * (d519 - 519);
+a520 = b520 + c520 * (d520 - 520);
+a521 = b521 + c521 * (d521 - 521);
+a522 = b522 + c522 * (d522 - 522);
+a523 = b523 + c523 * (d523 - 523);
+a524 = b524 + c524 * (d524 - 524);
+a525 = b525 + c525 * (d525 - 525);
+a526 = b526 + c526 * (d526 - 526);
+a527 = b527 + c527 * (d527 - 527);
+a528 = b528 + c528 * (d528 - 528);
+a529 = b529 + c529 * (d529 - 529);
+a530 = b530 + c530 * (d530 - 530);
+a531 = b531 + c531 * (d531 - 531);
+a532 = b532 + c532 * (d532 - 532);
+a533 = b533 + c533 * (d533 - 533);
+a534 = b534 + c534 * (d534 - 534);
+a535 = b535 + c535 * (d535 - 535);
+a536 = b536 + c536 * (d536 - 536);
+a537 = b537 + c537 * (d537 - 537);
+a538 = b538 + c538 * (d538 - 538);
+a539 = b539 + c539 * (d539 - 539);
+a540 = b540 + c540 * (d540 - 540);
+a541 = b541 + c541 * (d541 - 541);
+a542 = b542 + c542 * (d542 - 542);
+a543 = b543 + c543 * (d543 - 543);
+a544 = b544 + c544 * (d544 - 544);
+a545 = b545 + c545 * (d545 - 545);
+a546 = b546 + c546 * (d546 - 546);
+a547 = b547 + c547 * (d547 - 547);
+a548 = b548 + c548 * (d548 - 548);
+a549 = b549 + c549 * (d549 - 549);
+a550 = b550 + c550 * (d550 - 550);
+a551 = b551 + c551 * (d551 - 551);
+a552 = b552 + c552 * (d552 - 552);
+a553 = b553 + c553 * (d553 - 553);
+a554 = b554 + c554 * (d554 - 554);
+a555 = b555 + c555 * (d555 - 555);
+a556 = b556 + c556 * (d556 - 556);
+a557 = b557 + c557 * (d557 - 557);
+a558 = b558 + c558 * (d558 - 558);
+a559 = b559 + c559 * (d559 - 559);
+a560 = b560 + c560 * (d560 - 560);
+a561 = b561 + c561 * (d561 - 561);
+a562 = b562 + c562 * (d562 - 562);
+a563 = b563 + c563 * (d563 - 563);
+a564 = b564 + c564 * (d564 - 564);
+a565 = b565 + c565 * (d565 - 565);
+a566 = b566 + c566 * (d566 - 566);
+a567 = b567 + c567 * (d567 - 567);
+a568 = b568 + c568 * (d568 - 568);
+a569 = b569 + c569 * (d569 - 569);
+a570 = b570 + c570 * (d570 - 570);
+a571 = b571 + c571 * (d571 - 571);
+a572 = b572 + c572 * (d572 - 572);
+a573 = b573 + c573 * (d573 - 573);
+a574 = b574 + c574 * (d574 - 574);
+a575 = b575 + c575 * (d575 - 575);
+a576 = b576 + c576 * (d576 - 576);
+a577 = b577 + c577 * (d577 - 577);
+a578 = b578 + c578 * (d578 - 578);
+a579 = b579 + c579 * (d579 - 579);
+a580 = b580 + c580 * (d580 - 580);
+a581 = b581 + c581 * (d581 - 581);
+a582 = b582 + c582 * (d582 - 582);
+a583 = b583 + c583 * (d583 - 583);
+a584 = b584 + c584 * (d584 - 584);
+a585 = b585 + c585 * (d585 - 585);
+a586 = b586 + c586 * (d586 - 586);
+a587 = b587 + c587 * (d587 - 587);
+a588 = b588 + c588 * (d588 - 588);
+a589 = b589 + c589 * (d589 - 589);
+a590 = b590 + c590 * (d590 - 590);
+a591 = b591 + c591 * (d591 - 591);
+a592 = b592 + c592 * (d592 - 592);
+a593 = b593 + c593 * (d593 - 593);
+a594 = b594 + c594 * (d594 - 594);
+a595 = b595 + c595 * (d595 - 595);
+a596 = b596 + c596 * (d596 - 596);
+a597 = b597 + c597 * (d597 - 597);
+a598 = b598 + c598 * (d598 - 598);
+a599 = b599 + c599 * (d599 - 599);
+a600 = b600 + c600 * (d600 - 600);
+a601 = b601 + c601 * (d601 - 601);
+a602 = b602 + c602 * (d602 - 602);
+a603 = b603 + c603 * (d603 - 603);
+a604 = b604 + c604 * (d604 - 604);
+a605 = b605 + c605 * (d605 - 605);
+a606 = b606 + c606 * (d606 - 606);
+a607 = b607 + c607 * (d607 - 607);
+a608 = b608 + c608 * (d608 - 608);
+a609 = b609 + c609 * (d609 - 609);
+a610 = b610 + c610 * (d610 - 610);
+a611 = b611 + c611 * (d611 - 611);
+a612 = b612 + c612 * (d612 - 612);
+a613 = b613 + c613 * (d613 - 613);
+a614 = b614 + c614 * (d614 - 614);
+a615 = b615 + c615 * (d615 - 615);
+a616 = b616 + c616 * (d616 - 616);
+a617 = b617 + c617 * (d617 - 617);
+a618 = b618 + c618 * (d618 - 618);
+a619 = b619 + c619 * (d619 - 619);
+a620 = b620 + c620 * (d620 - 620);
+a621 = b621 + c621 * (d621 - 621);
+a622 = b622 + c622 * (d622 - 622);
+a623 = b623 + c623 * (d623 - 623);
+a624 = b624 + c624 * (d624 - 624);
+a625 = b625 + c625 * (d625 - 625);
+a626 = b626 + c626 * (d626 - 626);
+a627 = b627 + c627 * (d627 - 627);
+a628 = b628 + c628 * (d628 - 628);
+a629 = b629 + c629 * (d629 - 629);
+a630 = b630 + c630 * (d630 - 630);
+a631 = b631 + c631 * (d631 - 631);
+a632 = b632 + c632 * (d632 - 632);
+a633 = b633 + c633 * (d633 - 633);
+a634 = b634 + c634 * (d634 - 634);
+a635 = b635 + c635 * (d635 - 635);
+a636 = b636 + c636 * (d636 - 636);
+a637 = b637 + c637 * (d637 - 637);
+a638 = b638 + c638 * (d638 - 638);
+a639 = b639 + c639 * (d639 - 639);
+a640 = b640 + c640 * (d640 - 640);
+a641 = b641 + c641 * (d641 - 641);
+a642 = b642 + c642 * (d642 - 642);
+a643 = b643 + c643 * (d643 - 643);
+a644 = b644 + c644 * (d644 - 644);
+a645 = b645 + c645 * (d645 - 645);
+a646 = b646 + c646 * (d646 - 646);
+a647 = b647 + c647 * (d647 - 647);
+a648 = b648 + c648 * (d648 - 648);
+a649 = b649 + c649 * (d649 - 649);
+a650 = b650 + c650 * (d650 - 650);
+a651 = b651 + c651 * (d651 - 651);
+a652 = b652 + c652 * (d652 - 652);
+a653 = b653 + c653 * (d653 - 653);
+a654 = b654 + c654 * (d654 - 654);
+a655 = b655 + c655 * (d655 - 655);
+a656 = b656 + c656 * (d656 - 656);
+a657 = b657 + c657 * (d657 - 657);
+a658 = b658 + c658 * (d658 - 658);
+a659 = b659 + c659 * (d659 - 659);
+a660 = b660 + c660 * (d660 - 660);
+a661 = b661 + c661 * (d661 - 661);
+a662 = b662 + c662 * (d662 - 662);
+a663 = b663 + c663 * (d663 - 663);
+a664 = b664 + c664 * (d664 - 664);
+a665 = b665 + c665 * (d665 - 665);
+a666 = b666 + c666 * (d666 - 666);
+a667 = b667 + c667 * (d667 - 667);
+a668 = b668 + c668 * (d668 - 668);
+a669 = b669 + c669 * (d669 - 669);
+a670 = b670 + c670 * (d670 - 670);
+a671 = b671 + c671 * (d671 - 671);
+a672 = b672 + c672 * (d672 - 672);
+a673 = b673 + c673 * (d673 - 673);
+a674 = b674 + c674 * (d674 - 674);
+a675 = b675 + c675 * (d675 - 675);
+a676 = b676 + c676 * (d676 - 676);
+a677 = b677 + c677 * (d677 - 677);
+a678 = b678 + c678 * (d678 - 678);
+a679 = b679 + c679 * (d679 - 679);
+a680 = b680 + c680 * (d680 - 680);
+a681 = b681 + c681 * (d681 - 681);
+a682 = b682 + c682 * (d682 - 682);
+a683 = b683 + c683 * (d683 - 683);
+a684 = b684 + c684 * (d684 - 684);
+a685 = b685 + c685 * (d685 - 685);
+a686 = b686 + c686 * (d686 - 686);
+a687 = b687 + c687 * (d687 - 687);
+a688 = b688 + c688 * (d688 - 688);
+a689 = b689 + c689 * (d689 - 689);
+a690 = b690 + c690 * (d690 - 690);
+a691 = b691 + c691 * (d691 - 691);
+a692 = b692 + c692 * (d692 - 692);
+a693 = b693 + c693 * (d693 - 693);
+a694 = b694 + c694 * (d694 - 694);
+a695 = b695 + c695 * (d695 - 695);
+a696 = b696 + c696 * (d696 - 696);
+a697 = b697 + c697 * (d697 - 697);
+a698 = b698 + c698 * (d698 - 698);
+a699 = b699 + c699 * (d699 - 699);
+a700 = b700 + c700 * (d700 - 700);
+a701 = b701 + c701 * (d701 - 701);
+a702 = b702 + c702 * (d702 - 702);
+a703 = b703 + c703 * (d703 - 703);
+a704 = b704 + c704 * (d704 - 704);
+a705 = b705 + c705 * (d705 - 705);
+a706 = b706 + c706 * (d706 - 706);
+a707 = b707 + c707 * (d707 - 707);
+a708 = b708 + c708 * (d708 - 708);
+a709 = b709 + c709 * (d709 - 709);
+a710 = b710 + c710 * (d710 - 710);
+a711 = b711 + c711 * (d711 - 711);
+a712 = b712 + c712 * (d712 - 712);
+a713 = b713 + c713 * (d713 - 713);
+a714 = b714 + c714 * (d714 - 714);
+a715 = b715 + c715 * (d715 - 715);
+a716 = b716 + c716 * (d716 - 716);
+a717 = b717 + c717 * (d717 - 717);
+a718 = b718 + c718 * (d718 - 718);
+a719 = b719 + c719 * (d719 - 719);
+a720 = b720 + c720 * (d720 - 720);
+a721 = b721 + c721 * (d721 - 721);
+a722 = b722 + c722 * (d722 - 722);
+a723 = b723 + c723 * (d723 - 723);
+a724 = b724 + c724 * (d724 - 724);
+a725 = b725 + c725 * (d725 - 725);
+a726 = b726 + c726 * (d726 - 726);
+a727 = b727 + c727 * (d727 - 727);
+a728 = b728 + c728 * (d728 - 728);
+a729 = b729 + c729 * (d729 - 729);
+a730 = b730 + c730 * (d730 - 730);
+a731 = b731 + c731 * (d731 - 731);
+a732 = b732 + c732 * (d732 - 732);
+a733 = b733 + c733 * (d733 - 733);
+a734 = b734 + c734 * (d734 - 734);
+a735 = b735 + c735 * (d735 - 735);
+a736 = b736 + c736 * (d736 - 736);
+a737 = b737 + c737 * (d737 - 737);
+a738 = b738 + c738 * (d738 - 738);
+a739 = b739 + c739 * (d739 - 739);
+a740 = b740 + c740 * (d740 - 740);
+a741 = b741 + c741 * (d741 - 741);
+a742 = b742 + c742 * (d742 - 742);
+a743 = b743 + c743 * (d743 - 743);
+a744 = b744 + c744 * (d744 - 744);
+a745 = b745 + c745 * (d745 - 745);
+a746 = b746 + c746 * (d746 - 746);
+a747 = b747 + c747 * (d747 - 747);
+a748 = b748 + c748 * (d748 - 748);
+a749 = b749 + c749 * (d749 - 749);
+a750 = b750 + c750 * (d750 - 750);
+a751 = b751 + c751 * (d751 - 751);
+a752 = b752 + c752 * (d752 - 752);
+a753 = b753 + c753 * (d753 - 753);
+a754 = b754 + c754 * (d754 - 754);
+a755 = b755 + c755 * (d755 - 755);
+a756 = b756 + c756 * (d756 - 756);
+a757 = b757 + c757 * (d757 - 757);
+a758 = b758 + c758 * (d758 - 758);
+a759 = b759 + c759 * (d759 - 759);
+a760 = b760 + c760 * (d760 - 760);
+a761 = b761 + c761 * (d761 - 761);
+a762 = b762 + c762 * (d762 - 762);
+a763 = b763 + c763 * (d763 - 763);
+a764 = b764 + c764 * (d764 - 764);
+a765 = b765 + c765 * (d765 - 765);
+a766 = b766 + c766 * (d766 - 766);
+a767 = b767 + c767 * (d767 - 767);
+a768 = b768 + c768 * (d768 - 768);
+a769 = b769 + c769 * (d769 - 769);
+a770 = b770 + c770 * (d770 - 770);
+a771 = b771 + c771 * (d771 - 771);
+a772 = b772 + c772 * (d772 - 772);
+a773 = b773 + c773 * (d773 - 773);
+a774 = b774 + c774 * (d774 - 774);
+a775 = b775 + c775 * (d775 - 775);
+a776 = b776 + c776 * (d776 - 776);
+a777 = b777 + c777 * (d777 - 777);
+a778 = b778 + c778 * (d778 - 778);
+a779 = b779 + c779 * (d779 - 779);
+a780 = b780 + c780 * (d780 - 780);
+a781 = b781 + c781 * (d781 - 781);
+a782 = b782 + c782 * (d782 - 782);
+a783 = b783 + c783 * (d783 - 783);
+a784 = b784 + c784 * (d784 - 784);
+a785 = b785 + c785 * (d785 - 785);
+a786 = b786 + c786 * (d786 - 786);
+a787 = b787 + c787 * (d787 - 787);
+a788 = b788 + c788 * (d788 - 788);
+a789 = b789 + c789 * (d789 - 789);
+a790 = b790 + c790 * (d790 - 790);
+a791 = b791 + c791 * (d791 - 791);
+a792 = b792 + c792 * (d792 - 792);
+a793 = b793 + c793 * (d793 - 793);
+a794 = b794 + c794 * (d794 - 794);
+a795 = b795 + c795 * (d795 - 795);
+a796 = b796 + c796 * (d796 - 796);
+a797 = b797 + c797 * (d797 - 797);
+a798 = b798 + c798 * (d798 - 798);
+a799 = b799 + c799 * (d799 - 799);
+a800 = b800 + c800 * (d800 - 800);
+a801 = b801 + c801 * (d801 - 801);
+a802 = b802 + c802 * (d802 - 802);
+a803 = b803 + c803 * (d803 - 803);
+a804 = b804 + c804 * (d804 - 804);
+a805 = b805 + c805 * (d805 - 805);
+a806 = b806 + c806 * (d806 - 806);
+a807 = b807 + c807 * (d807 - 807);
+a808 = b808 + c808 * (d808 - 808);
+a809 = b809 + c809 * (d809 - 809);
+a810 = b810 + c810 * (d810 - 810);
+a811 = b811 + c811 * (d811 - 811);
+a812 = b812 + c812 * (d812 - 812);
+a813 = b813 + c813 * (d813 - 813);
+a814 = b814 + c814 * (d814 - 814);
+a815 = b815 + c815 * (d815 - 815);
+a816 = b816 + c816 * (d816 - 816);
+a817 = b817 + c817 * (d817 - 817);
+a818 = b818 + c818 * (d818 - 818);
+a819 = b819 + c819 * (d819 - 819);
+a820 = b820 + c820 * (d820 - 820);
+a821 = b821 + c821 * (d821 - 821);
+a822 = b822 + c822 * (d822 - 822);
+a823 = b823 + c823 * (d823 - 823);
+a824 = b824 + c824 * (d824 - 824);
+a825 = b825 + c825 * (d825 - 825);
+a826 = b826 + c826 * (d826 - 826);
+a827 = b827 + c827 * (d827 - 827);
+a828 = b828 + c828 * (d828 - 828);
+a829 = b829 + c829 * (d829 - 829);
+a830 = b830 + c830 * (d830 - 830);
+a831 = b831 + c831 * (d831 - 831);
+a832 = b832 + c832 * (d832 - 832);
+a833 = b833 + c833 * (d833 - 833);
+a834 = b834 + c834 * (d834 - 834);
+a835 = b835 + c835 * (d835 - 835);
+a836 = b836 + c836 * (d836 - 836);
+a837 = b837 + c837 * (d837 - 837);
+a838 = b838 + c838 * (d838 - 838);
+a839 = b839 + c839 * (d839 - 839);
+a840 = b840 + c840 * (d840 - 840);
+a841 = b841 + c841 * (d841 - 841);
+a842 = b842 + c842 * (d842 - 842);
+a843 = b843 + c843 * (d843 - 843);
+a844 = b844 + c844 * (d844 - 844);
+a845 = b845 + c845 * (d845 - 845);
+a846 = b846 + c846 * (d846 - 846);
+a847 = b847 + c847 * (d847 - 847);
+a848 = b848 + c848 * (d848 - 848);
+a849 = b849 + c849 * (d849 - 849);
+a850 = b850 + c850 * (d850 - 850);
+a851 = b851 + c851 * (d851 - 851);
+a852 = b852 + c852 * (d852 - 852);
+a853 = b853 + c853 * (d853 - 853);
+a854 = b854 + c854 * (d854 - 854);
+a855 = b855 + c855 * (d855 - 855);
+a856 = b856 + c856 * (d856 - 856);
+a857 = b857 + c857 * (d857 - 857);
+a858 = b858 + c858 * (d858 - 858);
+a859 = b859 + c859 * (d859 - 859);
+a860 = b860 + c860 * (d860 - 860);
+a861 = b861 + c861 * (d861 - 861);
+a862 = b862 + c862 * (d862 - 862);
+a863 = b863 + c863 * (d863 - 863);
+a864 = b864 + c864 * (d864 - 864);
+a865 = b865 + c865 * (d865 - 865);
+a866 = b866 + c866 * (d866 - 866);
+a867 = b867 + c867 * (d867 - 867);
+a868 = b868 + c868 * (d868 - 868);
+a869 = b869 + c869 * (d869 - 869);
+a870 = b870 + c870 * (d870 - 870);
+a871 = b871 + c871 * (d871 - 871);
+a872 = b872 + c872 * (d872 - 872);
+a873 = b873 + c873 * (d873 - 873);
+a874 = b874 + c874 * (d874 - 874);
+a875 = b875 + c875 * (d875 - 875);
+a876 = b876 + c876 * (d876 - 876);
+a877 = b877 + c877 * (d877 - 877);
+a878 = b878 + c878 * (d878 - 878);
+a879 = b879 + c879 * (d879 - 879);
+a880 = b880 + c880 * (d880 - 880);
+a881 = b881 + c881 * (d881 - 881);
+a882 = b882 + c882 * (d882 - 882);
+a883 = b883 + c883 * (d883 - 883);
+a884 = b884 + c884 * (d884 - 884);
+a885 = b885 + c885 * (d885 - 885);
+a886 = b886 + c886 * (d886 - 886);
+a887 = b887 + c887 * (d887 - 887);
+a888 = b888 + c888 * (d888 - 888);
+a889 = b889 + c889 * (d889 - 889);
+a890 = b890 + c890 * (d890 - 890);
+a891 = b891 + c891 * (d891 - 891);
+a892 = b892 + c892 * (d892 - 892);
+a893 = b893 + c893 * (d893 - 893);
+a894 = b894 + c894 * (d894 - 894);
+a895 = b895 + c895 * (d895 - 895);
+a896 = b896 + c896 * (d896 - 896);
+a897 = b897 + c897 * (d897 - 897);
+a898 = b898 + c898 * (d898 - 898);
+a899 = b899 + c899 * (d899 - 899);
+a900 = b900 + c900 * (d900 - 900);
+a901 = b901 + c901 * (d901 - 901);
+a902 = b902 + c902 * (d902 - 902);
+a903 = b903 + c903 * (d903 - 903);
+a904 = b904 + c904 * (d904 - 904);
+a905 = b905 + c905 * (d905 - 905);
+a906 = b906 + c906 * (d906 - 906);
+a907 = b907 + c907 * (d907 - 907);
+a908 = b908 + c908 * (d908 - 908);
+a909 = b909 + c909 * (d909 - 909);
+a910 = b910 + c910 * (d910 - 910);
+a911 = b911 + c911 * (d911 - 911);
+a912 = b912 + c912 * (d912 - 912);
+a913 = b913 + c913 * (d913 - 913);
+a914 = b914 + c914 * (d914 - 914);
+a915 = b915 + c915 * (d915 - 915);
+a916 = b916 + c916 * (d916 - 916);
+a917 = b917 + c917 * (d917 - 917);
+a918 = b918 + c918 * (d918 - 918);
+a919 = b919 + c919 * (d919 - 919);
+a920 = b920 + c920 * (d920 - 920);
+a921 = b921 + c921 * (d921 - 921);
+a922 = b922 + c922 * (d922 - 922);
+a923 = b923 + c923 * (d923 - 923);
+a924 = b924 + c924 * (d924 - 924);
+a925 = b925 + c925 * (d925 - 925);
+a926 = b926 + c926 * (d926 - 926);
+a927 = b927 + c927 * (d927 - 927);
+a928 = b928 + c928 * (d928 - 928);
+a929 = b929 + c929 * (d929 - 929);
+a930 = b930 + c930 * (d930 - 930);
+a931 = b931 + c931 * (d931 - 931);
+a932 = b932 + c932 * (d932 - 932);
+a933 = b933 + c933 * (d933 - 933);
+a934 = b934 + c934 * (d934 - 934);
+a935 = b935 + c935 * (d935 - 935);
+a936 = b936 + c936 * (d936 - 936);
+a937 = b937 + c937 * (d937 - 937);
+a938 = b938 + c938 * (d938 - 938);
+a939 = b939 + c939 * (d939 - 939);
+a940 = b940 + c940 * (d940 - 940);
+a941 = b941 + c941 * (d941 - 941);
+a942 = b942 + c942 * (d942 - 942);
+a943 = b943 + c943 * (d943 - 943);
+a944 = b944 + c944 * (d944 - 944);
+a945 = b945 + c945 * (d945 - 945);
+a946 = b946 + c946 * (d946 - 946);
+a947 = b947 + c947 * (d947 - 947);
+a948 = b948 + c948 * (d948 - 948);
+a949 = b949 + c949 * (d949 - 949);
+a950 = b950 + c950 * (d950 - 950);
+a951 = b951 + c951 * (d951 - 951);
+a952 = b952 + c952 * (d952 - 952);
+a953 = b953 + c953 * (d953 - 953);
+a954 = b954 + c954 * (d954 - 954);
+a955 = b955 + c955 * (d955 - 955);
+a956 = b956 + c956 * (d956 - 956);
+a957 = b957 + c957 * (d957 - 957);
+a958 = b958 + c958 * (d958 - 958);
+a959 = b959 + c959 * (d959 - 959);
+a960 = b960 + c960 * (d960 - 960);
+a961 = b961 + c961 * (d961 - 961);
+a962 = b962 + c962 * (d962 - 962);
+a963 = b963 + c963 * (d963 - 963);
+a964 = b964 + c964 * (d964 - 964);
+a965 = b965 + c965 * (d965 - 965);
+a966 = b966 + c966 * (d966 - 966);
+a967 = b967 + c967 * (d967 - 967);
+a968 = b968 + c968 * (d968 - 968);
+a969 = b969 + c969 * (d969 - 969);
+a970 = b970 + c970 * (d970 - 970);
+a971 = b971 + c971 * (d971 - 971);
+a972 = b972 + c972 * (d972 - 972);
+a973 = b973 + c973 * (d973 - 973);
+a974 = b974 + c974 * (d974 - 974);
+a975 = b975 + c975 * (d975 - 975);
+a976 = b976 + c976 * (d976 - 976);
+a977 = b977 + c977 * (d977 - 977);
+a978 = b978 + c978 * (d978 - 978);
+a979 = b979 + c979 * (d979 - 979);
+a980 = b980 + c980 * (d980 - 980);
+a981 = b981 + c981 * (d981 - 981);
+a982 = b982 + c982 * (d982 - 982);
+a983 = b983 + c983 * (d983 - 983);
+a984 = b984 + c984 * (d984 - 984);
+a985 = b985 + c985 * (d985 - 985);
+a986 = b986 + c986 * (d986 - 986);
+a987 = b987 + c987 * (d987 - 987);
+a988 = b988 + c988 * (d988 - 988);
+a989 = b989 + c989 * (d989 - 989);
+a990 = b990 + c990 * (d990 - 990);
+a991 = b991 + c991 * (d991 - 991);
+a992 = b992 + c992 * (d992 - 992);
+a993 = b993 + c993 * (d993 - 993);
+a994 = b994 + c994 * (d994 - 994);
+a995 = b995 + c995 * (d995 - 995);
+a996 = b996 + c996 * (d996 - 996);
+a997 = b997 + c997 * (d997 - 997);
+a998 = b998 + c998 * (d998 - 998);
+a999 = b999 + c999 * (d999 - 999);
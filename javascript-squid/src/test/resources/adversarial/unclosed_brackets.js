@@ -0,0 +1,4 @@
+var before = [1, 2, 3];
+
+// Each unclosed bracket multiplies the backtracking of the parser
+var x = [[[[[[[[[[[[[[[[[[[[[[[[a;
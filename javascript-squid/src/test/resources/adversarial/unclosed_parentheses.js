@@ -0,0 +1,10 @@
+function before() {
+  return 1;
+}
+
+// Each unclosed parenthesis multiplies the backtracking of the parser
+var x = ((((((((((((((((((((((((a;
+
+function after() {
+  return 2;
+}
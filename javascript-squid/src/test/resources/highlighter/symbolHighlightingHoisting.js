@@ -0,0 +1,7 @@
+h();
+
+function h() {
+  return g;
+}
+
+var g;
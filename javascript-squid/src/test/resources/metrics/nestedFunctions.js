@@ -0,0 +1,15 @@
+function outer() { // +1 functionDeclaration
+  if (a) { // +1 ifStatement
+  }
+
+  function middle() { // +1 functionDeclaration
+    while (b) { // +1 iterationStatement
+    }
+
+    var inner = function() { // +1 functionExpression
+      a && b; // +1
+    };
+  }
+
+  c ? 1 : 2; // +1
+}
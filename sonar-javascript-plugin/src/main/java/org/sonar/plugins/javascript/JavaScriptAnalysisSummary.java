@@ -0,0 +1,62 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript;
+
+import org.sonar.api.batch.PostJob;
+import org.sonar.api.batch.SensorContext;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.resources.Project;
+import org.sonar.javascript.profiling.AnalysisPhases;
+
+import java.io.File;
+
+/**
+ * Publishes the time spent in each phase of the JavaScript analysis and its throughput, once all the sensors ran:
+ * in the logs, and in a JSON file of the working directory which can be collected by build dashboards.
+ */
+public class JavaScriptAnalysisSummary implements PostJob {
+
+  static final String FILE_NAME = "javascript-analysis-phases.json";
+
+  private final AnalysisPhases analysisPhases;
+  private final FileSystem fileSystem;
+
+  public JavaScriptAnalysisSummary(AnalysisPhases analysisPhases, FileSystem fileSystem) {
+    this.analysisPhases = analysisPhases;
+    this.fileSystem = fileSystem;
+  }
+
+  @Override
+  public void executeOn(Project project, SensorContext context) {
+    if (analysisPhases.isEmpty()) {
+      return;
+    }
+    analysisPhases.log();
+    if (fileSystem.workDir() != null) {
+      analysisPhases.save(new File(fileSystem.workDir(), FILE_NAME));
+    }
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName();
+  }
+
+}
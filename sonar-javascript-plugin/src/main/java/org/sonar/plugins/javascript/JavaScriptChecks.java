@@ -37,7 +37,7 @@ import java.util.Set;
 public class JavaScriptChecks {
 
   private final CheckFactory checkFactory;
-  private Set<Checks<CodeVisitor>> checksByRepository = Sets.newHashSet();
+  private Set<Checks<CodeVisitor>> checksByRepository = Sets.newLinkedHashSet();
 
   private JavaScriptChecks(CheckFactory checkFactory) {
     this.checkFactory = checkFactory;
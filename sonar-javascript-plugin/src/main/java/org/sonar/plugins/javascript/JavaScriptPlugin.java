@@ -24,8 +24,13 @@ import org.sonar.api.PropertyType;
 import org.sonar.api.SonarPlugin;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
+import org.sonar.javascript.MinifiedFileDetector;
+import org.sonar.javascript.SourceBuffers;
 import org.sonar.javascript.ast.resolve.type.JQuery;
+import org.sonar.javascript.ast.visitors.VisitorsBridge;
+import org.sonar.javascript.profiling.AnalysisPhases;
 import org.sonar.plugins.javascript.core.JavaScript;
+import org.sonar.plugins.javascript.cpd.CpdTokens;
 import org.sonar.plugins.javascript.cpd.JavaScriptCpdMapping;
 import org.sonar.plugins.javascript.lcov.ITCoverageSensor;
 import org.sonar.plugins.javascript.lcov.UTCoverageSensor;
@@ -62,10 +67,52 @@ public class JavaScriptPlugin extends SonarPlugin {
   public static final String JQUERY_OBJECT_ALIASES = JQuery.JQUERY_OBJECT_ALIASES;
   public static final String JQUERY_OBJECT_ALIASES_DEFAULT_VALUE = JQuery.JQUERY_OBJECT_ALIASES_DEFAULT_VALUE;
 
+  public static final String ANALYSIS_THREADS_KEY = PROPERTY_PREFIX + ".analysis.threads";
+  public static final String ANALYSIS_THREADS_DEFAULT_VALUE = "1";
+
+  public static final String FUSED_VISITORS_KEY = VisitorsBridge.FUSED_VISITORS_KEY;
+  public static final String FUSED_VISITORS_DEFAULT_VALUE = VisitorsBridge.FUSED_VISITORS_DEFAULT_VALUE;
+
+  public static final String SYMBOL_HIGHLIGHTING_KEY = VisitorsBridge.SYMBOL_HIGHLIGHTING_KEY;
+  public static final String SYMBOL_HIGHLIGHTING_DEFAULT_VALUE = VisitorsBridge.SYMBOL_HIGHLIGHTING_DEFAULT_VALUE;
+
+  public static final String ANALYSIS_CACHE_KEY = PROPERTY_PREFIX + ".analysis.cache";
+  public static final String ANALYSIS_CACHE_DEFAULT_VALUE = "false";
+
+  public static final String PARSE_TREE_CACHE_KEY = PROPERTY_PREFIX + ".analysis.parseTreeCache";
+  public static final String PARSE_TREE_CACHE_DEFAULT_VALUE = "false";
+
+  public static final String STREAMING_SAVE_KEY = PROPERTY_PREFIX + ".analysis.streamingSave";
+  public static final String STREAMING_SAVE_DEFAULT_VALUE = "false";
+
+  public static final String PROFILING_KEY = PROPERTY_PREFIX + ".profiling";
+  public static final String PROFILING_DEFAULT_VALUE = "false";
+
+  public static final String FILE_TIME_BUDGET_KEY = PROPERTY_PREFIX + ".analysis.fileTimeBudget";
+  public static final String FILE_TIME_BUDGET_DEFAULT_VALUE = "0";
+
+  public static final String MINIFIED_FILES_KEY = PROPERTY_PREFIX + ".analysis.minifiedFiles";
+  public static final String MINIFIED_FILES_ANALYZE = "analyze";
+  public static final String MINIFIED_FILES_METRICS_ONLY = "metrics";
+  public static final String MINIFIED_FILES_SKIP = "skip";
+  public static final String MINIFIED_FILES_DEFAULT_VALUE = MINIFIED_FILES_ANALYZE;
+
+  public static final String MINIFIED_AVERAGE_LINE_LENGTH_KEY = MINIFIED_FILES_KEY + ".averageLineLength";
+  public static final String MINIFIED_AVERAGE_LINE_LENGTH_DEFAULT_VALUE = String.valueOf(MinifiedFileDetector.DEFAULT_MAX_AVERAGE_LINE_LENGTH);
+
+  public static final String MINIFIED_WHITESPACE_RATIO_KEY = MINIFIED_FILES_KEY + ".whitespaceRatio";
+  public static final String MINIFIED_WHITESPACE_RATIO_DEFAULT_VALUE = String.valueOf(MinifiedFileDetector.DEFAULT_MIN_WHITESPACE_RATIO);
+
+  public static final String GENERATED_FILES_MARKERS_KEY = PROPERTY_PREFIX + ".analysis.generatedFiles.markers";
+  public static final String GENERATED_FILES_MARKERS_DEFAULT_VALUE = MinifiedFileDetector.DEFAULT_GENERATED_MARKERS;
+
   @Override
   public List getExtensions() {
     return ImmutableList.of(
         JavaScript.class,
+        SourceBuffers.class,
+        CpdTokens.class,
+        AnalysisPhases.class,
         JavaScriptCpdMapping.class,
 
         JavaScriptSquidSensor.class,
@@ -80,6 +127,8 @@ public class JavaScriptPlugin extends SonarPlugin {
         UTCoverageSensor.class,
         ITCoverageSensor.class,
 
+        JavaScriptAnalysisSummary.class,
+
         PropertyDefinition.builder(FILE_SUFFIXES_KEY)
           .defaultValue(FILE_SUFFIXES_DEFVALUE)
           .name("File Suffixes")
@@ -127,6 +176,111 @@ public class JavaScriptPlugin extends SonarPlugin {
           .name("jQuery object aliases")
           .description("Comma-separated list of names used to address jQuery object.")
           .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .build(),
+
+        PropertyDefinition.builder(ANALYSIS_THREADS_KEY)
+          .defaultValue(ANALYSIS_THREADS_DEFAULT_VALUE)
+          .name("Analysis threads")
+          .description("Number of threads used to analyze files. Each thread uses its own parser and check instances.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.INTEGER)
+          .build(),
+
+        PropertyDefinition.builder(FUSED_VISITORS_KEY)
+          .defaultValue(FUSED_VISITORS_DEFAULT_VALUE)
+          .name("Fused visitors")
+          .description("Run the checks which do not depend on a custom traversal order in one combined traversal of each file.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.BOOLEAN)
+          .build(),
+
+        PropertyDefinition.builder(SYMBOL_HIGHLIGHTING_KEY)
+          .defaultValue(SYMBOL_HIGHLIGHTING_DEFAULT_VALUE)
+          .name("Symbol highlighting")
+          .description("Compute the symbol table used to highlight the usages of a symbol in the source viewer. "
+            + "Can be disabled when nobody browses the sources, e.g. on continuous integration runs.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.BOOLEAN)
+          .build(),
+
+        PropertyDefinition.builder(ANALYSIS_CACHE_KEY)
+          .defaultValue(ANALYSIS_CACHE_DEFAULT_VALUE)
+          .name("Analysis cache")
+          .description("Keep the results of each file in the working directory, and reuse them in the next analyses as long as the content of the file, "
+            + "the plugin, the active rules and the JavaScript settings do not change.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.BOOLEAN)
+          .build(),
+
+        PropertyDefinition.builder(PARSE_TREE_CACHE_KEY)
+          .defaultValue(PARSE_TREE_CACHE_DEFAULT_VALUE)
+          .name("Parse tree cache")
+          .description("Keep the parse tree of each file in the working directory, and reuse it in the next analyses as long as the content of the file "
+            + "and the grammar do not change, even when the active rules change.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.BOOLEAN)
+          .build(),
+
+        PropertyDefinition.builder(STREAMING_SAVE_KEY)
+          .defaultValue(STREAMING_SAVE_DEFAULT_VALUE)
+          .name("Streaming save")
+          .description("Save the measures and issues of each file as soon as it is analyzed, instead of once all the files are analyzed, "
+            + "so that memory does not grow with the size of the project. Files analyzed by different threads are then saved in no particular order.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.BOOLEAN)
+          .build(),
+
+        PropertyDefinition.builder(PROFILING_KEY)
+          .defaultValue(PROFILING_DEFAULT_VALUE)
+          .name("Profiling")
+          .description("Measure the time spent by each rule, log the slowest rules at the end of the analysis "
+            + "and write the detailed measures to javascript-profiling.json in the working directory.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.BOOLEAN)
+          .build(),
+
+        PropertyDefinition.builder(FILE_TIME_BUDGET_KEY)
+          .defaultValue(FILE_TIME_BUDGET_DEFAULT_VALUE)
+          .name("File time budget")
+          .description("Maximum time in seconds spent analyzing each file, 0 for no limit. The analysis of a file which takes longer, "
+            + "e.g. because the parser backtracks too much, is aborted with a warning: the lines are counted and the issues "
+            + "and measures computed so far are kept.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.INTEGER)
+          .build(),
+
+        PropertyDefinition.builder(MINIFIED_FILES_KEY)
+          .defaultValue(MINIFIED_FILES_DEFAULT_VALUE)
+          .name("Minified and generated files")
+          .description("How minified and generated files, recognized before being parsed, are analyzed: like the other files (\"analyze\"), "
+            + "for their measures only, without issues, highlighting nor duplications (\"metrics\"), or not at all (\"skip\").")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.SINGLE_SELECT_LIST)
+          .options(MINIFIED_FILES_ANALYZE, MINIFIED_FILES_METRICS_ONLY, MINIFIED_FILES_SKIP)
+          .build(),
+
+        PropertyDefinition.builder(MINIFIED_AVERAGE_LINE_LENGTH_KEY)
+          .defaultValue(MINIFIED_AVERAGE_LINE_LENGTH_DEFAULT_VALUE)
+          .name("Minified files average line length")
+          .description("Files whose lines are longer than this number of characters on average are considered as minified. "
+            + "Files named *.min.js or *-min.js always are.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.INTEGER)
+          .build(),
+
+        PropertyDefinition.builder(MINIFIED_WHITESPACE_RATIO_KEY)
+          .defaultValue(MINIFIED_WHITESPACE_RATIO_DEFAULT_VALUE)
+          .name("Minified files whitespace ratio")
+          .description("Files in which whitespace characters are less frequent than this ratio are considered as minified.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
+          .type(PropertyType.FLOAT)
+          .build(),
+
+        PropertyDefinition.builder(GENERATED_FILES_MARKERS_KEY)
+          .defaultValue(GENERATED_FILES_MARKERS_DEFAULT_VALUE)
+          .name("Generated files markers")
+          .description("Comma-separated list of texts which, found at the beginning of a file, mark it as generated. Case is ignored.")
+          .onQualifiers(Qualifiers.MODULE, Qualifiers.PROJECT)
           .build()
     );
   }
@@ -19,8 +19,15 @@
  */
 package org.sonar.plugins.javascript;
 
+import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.DependedUpon;
@@ -45,16 +52,32 @@ import org.sonar.api.resources.Project;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.scan.filesystem.PathResolver;
 import org.sonar.api.source.Highlightable;
+import org.sonar.api.source.Symbolizable;
 import org.sonar.javascript.EcmaScriptConfiguration;
 import org.sonar.javascript.JavaScriptAstScanner;
+import org.sonar.javascript.MinifiedFileDetector;
+import org.sonar.javascript.PlatformAccess;
+import org.sonar.javascript.SourceBuffers;
+import org.sonar.javascript.SourceFileListener;
 import org.sonar.javascript.api.EcmaScriptMetric;
 import org.sonar.javascript.ast.visitors.VisitorsBridge;
 import org.sonar.javascript.checks.CheckList;
 import org.sonar.javascript.highlighter.JavaScriptHighlighter;
 import org.sonar.javascript.metrics.FileLinesVisitor;
+import org.sonar.javascript.metrics.FunctionComplexities;
+import org.sonar.javascript.parser.EcmaScriptParser;
+import org.sonar.javascript.parser.sslr.ParseTreeCache;
+import org.sonar.javascript.profiling.AnalysisPhases;
+import org.sonar.javascript.profiling.AnalysisProfiler;
+import org.sonar.javascript.profiling.ProfilingReport;
 import org.sonar.plugins.javascript.api.CustomJavaScriptRulesDefinition;
 import org.sonar.plugins.javascript.api.JavaScriptFileScanner;
+import org.sonar.plugins.javascript.cache.AnalysisCache;
+import org.sonar.plugins.javascript.cache.FileResult;
+import org.sonar.plugins.javascript.cache.PlatformRecorder;
 import org.sonar.plugins.javascript.core.JavaScript;
+import org.sonar.plugins.javascript.cpd.CpdTokens;
+import org.sonar.plugins.javascript.cpd.CpdTokensVisitor;
 import org.sonar.squidbridge.AstScanner;
 import org.sonar.squidbridge.SquidAstVisitor;
 import org.sonar.squidbridge.api.CheckMessage;
@@ -62,16 +85,25 @@ import org.sonar.squidbridge.api.CodeVisitor;
 import org.sonar.squidbridge.api.SourceClass;
 import org.sonar.squidbridge.api.SourceCode;
 import org.sonar.squidbridge.api.SourceFile;
-import org.sonar.squidbridge.api.SourceFunction;
-import org.sonar.squidbridge.indexer.QueryByParent;
 import org.sonar.squidbridge.indexer.QueryByType;
 import org.sonar.sslr.parser.LexerlessGrammar;
 
 import javax.annotation.Nullable;
+import java.io.FileFilter;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public class JavaScriptSquidSensor implements Sensor {
 
@@ -82,9 +114,15 @@ public class JavaScriptSquidSensor implements Sensor {
   }
 
   private static final Logger LOG = LoggerFactory.getLogger(JavaScriptSquidSensor.class);
-  private static final Number[] FUNCTIONS_DISTRIB_BOTTOM_LIMITS = {1, 2, 4, 6, 8, 10, 12, 20, 30};
+  private static final String PARSE_TREE_CACHE_FILE_NAME = "javascript-parse-trees.bin";
+  private static final String PROFILING_REPORT_FILE_NAME = "javascript-profiling.json";
+  private static final int PROFILING_LOGGED_TIMINGS = 10;
+  private static final CpdTokens.FileTokens NO_CPD_TOKENS = new CpdTokens.FileTokens(new String[0], new int[0]);
+  private static final Number[] FUNCTIONS_DISTRIB_BOTTOM_LIMITS = functionsDistributionBottomLimits();
   private static final Number[] FILES_DISTRIB_BOTTOM_LIMITS = {0, 5, 10, 20, 30, 60, 90};
 
+  private final CheckFactory checkFactory;
+  private final CustomJavaScriptRulesDefinition[] customRulesDefinition;
   private final JavaScriptChecks checks;
   private final FileLinesContextFactory fileLinesContextFactory;
   private final ResourcePerspectives resourcePerspectives;
@@ -93,22 +131,33 @@ public class JavaScriptSquidSensor implements Sensor {
   private final FilePredicate mainFilePredicate;
   private final PathResolver pathResolver;
   private final Settings settings;
+  private final SourceBuffers sourceBuffers;
+  private final CpdTokens cpdTokens;
+  private final AnalysisPhases analysisPhases;
+  private final Map<java.io.File, String> contentHashes = Maps.newConcurrentMap();
+  private final Set<java.io.File> minifiedFiles = Collections.newSetFromMap(Maps.<java.io.File, Boolean>newConcurrentMap());
 
   private SensorContext context;
-  private AstScanner<LexerlessGrammar> scanner;
+  private ResourcePerspectives analysisPerspectives;
+  private FileLinesContextFactory analysisFileLinesContextFactory;
+  private StreamingSave streamingSave;
+  private ParseTreeCache parseTreeCache;
+  private MinifiedFileDetector minifiedFileDetector;
 
   public JavaScriptSquidSensor(CheckFactory checkFactory, FileLinesContextFactory fileLinesContextFactory,
-                               ResourcePerspectives resourcePerspectives, FileSystem fileSystem, NoSonarFilter noSonarFilter, PathResolver pathResolver, Settings settings) {
-    this(checkFactory, fileLinesContextFactory, resourcePerspectives, fileSystem, noSonarFilter, pathResolver, settings, null);
+                               ResourcePerspectives resourcePerspectives, FileSystem fileSystem, NoSonarFilter noSonarFilter, PathResolver pathResolver, Settings settings,
+                               SourceBuffers sourceBuffers, CpdTokens cpdTokens, AnalysisPhases analysisPhases) {
+    this(checkFactory, fileLinesContextFactory, resourcePerspectives, fileSystem, noSonarFilter, pathResolver, settings, sourceBuffers, cpdTokens, analysisPhases, null);
   }
 
   public JavaScriptSquidSensor(CheckFactory checkFactory, FileLinesContextFactory fileLinesContextFactory,
                                ResourcePerspectives resourcePerspectives, FileSystem fileSystem, NoSonarFilter noSonarFilter,
-                               PathResolver pathResolver, Settings settings, @Nullable CustomJavaScriptRulesDefinition[] customRulesDefinition) {
+                               PathResolver pathResolver, Settings settings, SourceBuffers sourceBuffers, CpdTokens cpdTokens, AnalysisPhases analysisPhases,
+                               @Nullable CustomJavaScriptRulesDefinition[] customRulesDefinition) {
 
-    this.checks = JavaScriptChecks.createJavaScriptCheck(checkFactory)
-      .addChecks(CheckList.REPOSITORY_KEY, CheckList.getChecks())
-      .addCustomChecks(customRulesDefinition);
+    this.checkFactory = checkFactory;
+    this.customRulesDefinition = customRulesDefinition;
+    this.checks = createChecks();
     this.fileLinesContextFactory = fileLinesContextFactory;
     this.resourcePerspectives = resourcePerspectives;
     this.fileSystem = fileSystem;
@@ -118,6 +167,15 @@ public class JavaScriptSquidSensor implements Sensor {
       fileSystem.predicates().hasType(InputFile.Type.MAIN),
       fileSystem.predicates().hasLanguage(JavaScript.KEY));
     this.settings = settings;
+    this.sourceBuffers = sourceBuffers;
+    this.cpdTokens = cpdTokens;
+    this.analysisPhases = analysisPhases;
+  }
+
+  private JavaScriptChecks createChecks() {
+    return JavaScriptChecks.createJavaScriptCheck(checkFactory)
+      .addChecks(CheckList.REPOSITORY_KEY, CheckList.getChecks())
+      .addCustomChecks(customRulesDefinition);
   }
 
   @Override
@@ -128,11 +186,242 @@ public class JavaScriptSquidSensor implements Sensor {
   @Override
   public void analyse(Project project, SensorContext context) {
     this.context = context;
+    contentHashes.clear();
+    minifiedFiles.clear();
+    minifiedFileDetector = createMinifiedFileDetector();
+
+    List<java.io.File> files = Lists.newArrayList(fileSystem.files(mainFilePredicate));
+
+    parseTreeCache = null;
+    if (settings.getBoolean(JavaScriptPlugin.PARSE_TREE_CACHE_KEY) && fileSystem.workDir() != null) {
+      parseTreeCache = ParseTreeCache.load(new java.io.File(fileSystem.workDir(), PARSE_TREE_CACHE_FILE_NAME), EcmaScriptParser.grammarFingerprint());
+    }
+
+    AnalysisCache cache = null;
+    PlatformRecorder recorder = null;
+    List<java.io.File> filesToAnalyse = Lists.newArrayList();
+
+    if (settings.getBoolean(JavaScriptPlugin.ANALYSIS_CACHE_KEY) && fileSystem.workDir() != null) {
+      cache = AnalysisCache.load(fileSystem.workDir(), cacheFingerprint());
+      recorder = new PlatformRecorder(resourcePerspectives, fileLinesContextFactory);
+      // Minified files are never cached, so they are analysed again
+      for (java.io.File file : files) {
+        if (cache.get(cacheKey(file), contentHash(file)) == null) {
+          filesToAnalyse.add(file);
+        } else {
+          restored(file);
+        }
+      }
+      LOG.info("{} JavaScript files restored from the analysis cache", files.size() - filesToAnalyse.size());
+    } else {
+      filesToAnalyse.addAll(files);
+    }
+
+    analysisPerspectives = recorder == null ? resourcePerspectives : recorder.perspectives();
+    analysisFileLinesContextFactory = recorder == null ? fileLinesContextFactory : recorder.fileLinesContextFactory();
+    streamingSave = settings.getBoolean(JavaScriptPlugin.STREAMING_SAVE_KEY) ? new StreamingSave(cache, recorder) : null;
+
+    int threads = analysisThreads();
+    List<ScanResult> results = Lists.newArrayList();
+    long start = System.nanoTime();
+    if (threads > 1 && filesToAnalyse.size() > 1) {
+      results.addAll(analyseInParallel(filesToAnalyse, threads));
+    } else if (!filesToAnalyse.isEmpty()) {
+      results.addAll(scan(checks, filesToAnalyse));
+    }
+    analysisPhases.addAnalysisTime(System.nanoTime() - start);
+    logMinifiedFiles();
+
+    analysisPhases.start();
+    try {
+      save(files, filesToAnalyse, results, cache, recorder);
+    } finally {
+      analysisPhases.stop(AnalysisPhases.Phase.SAVE);
+    }
+    if (settings.getBoolean(JavaScriptPlugin.PROFILING_KEY)) {
+      reportProfiling(results);
+    }
+
+    if (cache != null) {
+      cache.save();
+    }
+    if (parseTreeCache != null) {
+      LOG.info("{} JavaScript files restored from the parse tree cache", parseTreeCache.hits());
+      parseTreeCache.save();
+    }
+  }
+
+  /**
+   * A file restored from the analysis cache is not scanned: its parse tree is kept for the next analyses, and its content
+   * is no longer needed.
+   */
+  private void restored(java.io.File file) {
+    if (parseTreeCache != null) {
+      parseTreeCache.retain(sourceBuffers.get(file, fileSystem.encoding(), analysisPhases).contents());
+    }
+    sourceBuffers.release(file);
+  }
+
+  @Nullable
+  private MinifiedFileDetector createMinifiedFileDetector() {
+    if (JavaScriptPlugin.MINIFIED_FILES_ANALYZE.equals(minifiedFilesMode())) {
+      return null;
+    }
+    return new MinifiedFileDetector(
+      settings.hasKey(JavaScriptPlugin.MINIFIED_AVERAGE_LINE_LENGTH_KEY)
+        ? settings.getInt(JavaScriptPlugin.MINIFIED_AVERAGE_LINE_LENGTH_KEY) : MinifiedFileDetector.DEFAULT_MAX_AVERAGE_LINE_LENGTH,
+      settings.hasKey(JavaScriptPlugin.MINIFIED_WHITESPACE_RATIO_KEY)
+        ? settings.getDouble(JavaScriptPlugin.MINIFIED_WHITESPACE_RATIO_KEY) : MinifiedFileDetector.DEFAULT_MIN_WHITESPACE_RATIO,
+      Arrays.asList(settings.hasKey(JavaScriptPlugin.GENERATED_FILES_MARKERS_KEY)
+        ? settings.getStringArray(JavaScriptPlugin.GENERATED_FILES_MARKERS_KEY) : MinifiedFileDetector.DEFAULT_GENERATED_MARKERS.split(",")));
+  }
+
+  /**
+   * Minified and generated files are recognized from their raw content, by the worker about to scan them, so that the files
+   * are read once and only kept in memory while they are scanned. They are excluded from the detection of duplications, and
+   * added to the given list when they are to be scanned for their measures only.
+   */
+  @Nullable
+  private FileFilter minifiedFilesFilter(final List<java.io.File> metricsOnlyFiles) {
+    if (minifiedFileDetector == null) {
+      return null;
+    }
+    final boolean skip = JavaScriptPlugin.MINIFIED_FILES_SKIP.equals(minifiedFilesMode());
+    return new FileFilter() {
+      @Override
+      public boolean accept(java.io.File file) {
+        if (minifiedFileDetector.detect(sourceBuffers.get(file, fileSystem.encoding(), analysisPhases)) == null) {
+          return true;
+        }
+        minifiedFiles.add(file);
+        cpdTokens.put(file, NO_CPD_TOKENS);
+        if (!skip) {
+          metricsOnlyFiles.add(file);
+        }
+        return false;
+      }
+    };
+  }
+
+  private void logMinifiedFiles() {
+    if (!minifiedFiles.isEmpty()) {
+      long bytes = 0;
+      for (java.io.File file : minifiedFiles) {
+        bytes += file.length();
+      }
+      LOG.info(minifiedFiles.size() + " minified or generated JavaScript files (" + bytes + " bytes) "
+        + (JavaScriptPlugin.MINIFIED_FILES_SKIP.equals(minifiedFilesMode()) ? "skipped" : "analyzed for their measures only"));
+    }
+  }
+
+  private String minifiedFilesMode() {
+    return Objects.firstNonNull(settings.getString(JavaScriptPlugin.MINIFIED_FILES_KEY), JavaScriptPlugin.MINIFIED_FILES_DEFAULT_VALUE);
+  }
+
+  private void reportProfiling(List<ScanResult> results) {
+    ProfilingReport report = new ProfilingReport();
+    for (ScanResult result : results) {
+      if (result.profiler != null) {
+        report.add(result.profiler);
+      }
+    }
+    report.log(PROFILING_LOGGED_TIMINGS);
+    if (fileSystem.workDir() != null) {
+      report.save(new java.io.File(fileSystem.workDir(), PROFILING_REPORT_FILE_NAME));
+    }
+  }
+
+  private String cacheKey(java.io.File file) {
+    return pathResolver.relativePath(fileSystem.baseDir(), file);
+  }
+
+  /**
+   * The hash of a file is computed from a streamed read before it is scanned, so that the content of the files is not all
+   * in memory after the lookup in the cache, and kept for when its results are saved, once its content has been released.
+   */
+  private String contentHash(java.io.File file) {
+    String hash = contentHashes.get(file);
+    if (hash == null) {
+      hash = AnalysisCache.contentHash(file, fileSystem.encoding());
+      contentHashes.put(file, hash);
+    }
+    return hash;
+  }
+
+  /**
+   * Cached results are only valid for the same plugin, the same active rules with the same parameters and the same settings.
+   */
+  private String cacheFingerprint() {
+    List<String> parts = Lists.newArrayList(
+      AnalysisCache.implementationFingerprint(this),
+      fileSystem.encoding().name(),
+      JavaScriptPlugin.JQUERY_OBJECT_ALIASES + "=" + settings.getString(JavaScriptPlugin.JQUERY_OBJECT_ALIASES),
+      JavaScriptPlugin.SYMBOL_HIGHLIGHTING_KEY + "=" + settings.getString(JavaScriptPlugin.SYMBOL_HIGHLIGHTING_KEY),
+      // Restored files are not checked for minification: their results depend on how minified files are analysed
+      JavaScriptPlugin.MINIFIED_FILES_KEY + "=" + minifiedFilesMode(),
+      JavaScriptPlugin.MINIFIED_AVERAGE_LINE_LENGTH_KEY + "=" + settings.getString(JavaScriptPlugin.MINIFIED_AVERAGE_LINE_LENGTH_KEY),
+      JavaScriptPlugin.MINIFIED_WHITESPACE_RATIO_KEY + "=" + settings.getString(JavaScriptPlugin.MINIFIED_WHITESPACE_RATIO_KEY),
+      JavaScriptPlugin.GENERATED_FILES_MARKERS_KEY + "=" + settings.getString(JavaScriptPlugin.GENERATED_FILES_MARKERS_KEY));
+
+    for (CodeVisitor check : checks.all()) {
+      parts.add(checks.ruleKeyFor(check) + "=" + AnalysisCache.implementationFingerprint(check));
+    }
+    Collections.sort(parts);
+    return AnalysisCache.sha1(Joiner.on('\n').join(parts));
+  }
+
+  private int analysisThreads() {
+    return Math.max(1, settings.getInt(JavaScriptPlugin.ANALYSIS_THREADS_KEY));
+  }
+
+  /**
+   * Each worker gets its own parser, metric visitors and check instances, and scans every n-th file of the list.
+   */
+  private List<ScanResult> analyseInParallel(List<java.io.File> files, int threads) {
+    int workers = Math.min(threads, files.size());
+    LOG.info("Analyzing {} files with {} threads", files.size(), workers);
+
+    ExecutorService executor = Executors.newFixedThreadPool(workers);
+    try {
+      List<Future<List<ScanResult>>> futures = Lists.newArrayList();
+      for (int worker = 0; worker < workers; worker++) {
+        final List<java.io.File> partition = Lists.newArrayList();
+        for (int i = worker; i < files.size(); i += workers) {
+          partition.add(files.get(i));
+        }
+        final JavaScriptChecks workerChecks = worker == 0 ? checks : createChecks();
+        futures.add(executor.submit(new Callable<List<ScanResult>>() {
+          @Override
+          public List<ScanResult> call() {
+            return scan(workerChecks, partition);
+          }
+        }));
+      }
 
+      List<ScanResult> results = Lists.newArrayList();
+      for (Future<List<ScanResult>> future : futures) {
+        results.addAll(future.get());
+      }
+      return results;
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted during JavaScript analysis", e);
+    } catch (ExecutionException e) {
+      throw Throwables.propagate(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * The minified files met by the scan are scanned afterwards, for their measures only: their content is read again.
+   */
+  private List<ScanResult> scan(JavaScriptChecks scanChecks, List<java.io.File> files) {
     List<CodeVisitor> astNodeVisitors = Lists.newArrayList();
     List<JavaScriptFileScanner> treeVisitors = Lists.newArrayList();
 
-    for (CodeVisitor visitor : checks.all()) {
+    for (CodeVisitor visitor : scanChecks.all()) {
       if (visitor instanceof JavaScriptFileScanner) {
         treeVisitors.add((JavaScriptFileScanner) visitor);
       } else {
@@ -140,124 +429,299 @@ public class JavaScriptSquidSensor implements Sensor {
       }
     }
 
-    astNodeVisitors.add(new VisitorsBridge(treeVisitors, resourcePerspectives, fileSystem, settings));
-    astNodeVisitors.add(new FileLinesVisitor(fileLinesContextFactory, fileSystem, pathResolver));
+    astNodeVisitors.add(new VisitorsBridge(treeVisitors, analysisPerspectives, fileSystem, settings, analysisPhases));
+    astNodeVisitors.add(new FileLinesVisitor(analysisFileLinesContextFactory, fileSystem, pathResolver));
+    astNodeVisitors.add(new JavaScriptHighlighter(analysisPerspectives, fileSystem));
+    astNodeVisitors.add(new CpdTokensVisitor(cpdTokens));
 
-    scanner = JavaScriptAstScanner.create(createConfiguration(), astNodeVisitors.toArray(new SquidAstVisitor[astNodeVisitors.size()]));
-    scanner.scanFiles(Lists.newArrayList(fileSystem.files(mainFilePredicate)));
+    AnalysisProfiler profiler = settings.getBoolean(JavaScriptPlugin.PROFILING_KEY) ? createProfiler(scanChecks) : null;
+    List<java.io.File> metricsOnlyFiles = Lists.newArrayList();
+    AstScanner<LexerlessGrammar> scanner = JavaScriptAstScanner.create(createConfiguration(scanChecks, profiler, minifiedFilesFilter(metricsOnlyFiles)),
+      astNodeVisitors.toArray(new SquidAstVisitor[astNodeVisitors.size()]));
+    scanner.scanFiles(files);
 
-    Collection<SourceCode> squidSourceFiles = scanner.getIndex().search(new QueryByType(SourceFile.class));
-    save(squidSourceFiles);
+    List<ScanResult> results = Lists.newArrayList(new ScanResult(scanChecks, scanner, profiler));
+    if (!metricsOnlyFiles.isEmpty()) {
+      results.add(scanMetricsOnly(scanChecks, metricsOnlyFiles));
+    }
+    return results;
+  }
 
-    highlight();
+  /**
+   * No check nor highlighting: only the measures of the files are computed.
+   */
+  private ScanResult scanMetricsOnly(JavaScriptChecks scanChecks, List<java.io.File> files) {
+    AstScanner<LexerlessGrammar> scanner = JavaScriptAstScanner.create(createConfiguration(scanChecks, null, null),
+      new FileLinesVisitor(analysisFileLinesContextFactory, fileSystem, pathResolver));
+    scanner.scanFiles(files);
+    return new ScanResult(scanChecks, scanner, null);
   }
 
-  private void highlight() {
-    JavaScriptHighlighter highlighter = new JavaScriptHighlighter(createConfiguration());
+  /**
+   * Checks are reported under their rule key, so that the measures of the check instances of all the workers are gathered.
+   */
+  private static AnalysisProfiler createProfiler(JavaScriptChecks scanChecks) {
+    AnalysisProfiler profiler = new AnalysisProfiler();
+    for (CodeVisitor check : scanChecks.all()) {
+      RuleKey ruleKey = scanChecks.ruleKeyFor(check);
+      if (ruleKey != null) {
+        profiler.setName(check, ruleKey.toString());
+      }
+    }
+    return profiler;
+  }
 
-    for (InputFile inputFile : fileSystem.inputFiles(mainFilePredicate)) {
-      Highlightable perspective = resourcePerspectives.as(Highlightable.class, inputFile);
+  private EcmaScriptConfiguration createConfiguration(JavaScriptChecks scanChecks, @Nullable AnalysisProfiler profiler, @Nullable FileFilter fileFilter) {
+    EcmaScriptConfiguration configuration = new EcmaScriptConfiguration(fileSystem.encoding());
+    configuration.setSourceBuffers(sourceBuffers);
+    configuration.setParseTreeCache(parseTreeCache);
+    configuration.setProfiler(profiler);
+    configuration.setAnalysisPhases(analysisPhases);
+    configuration.setFileTimeBudget(TimeUnit.SECONDS.toMillis(settings.getInt(JavaScriptPlugin.FILE_TIME_BUDGET_KEY)));
+    configuration.setSourceFileListener(streamingSave == null ? null : streamingSave.listenerFor(scanChecks));
+    configuration.setFileFilter(fileFilter);
+    return configuration;
+  }
 
-      if (perspective != null) {
-        highlighter.highlight(perspective, inputFile.file());
+  /**
+   * Results are saved following the order of the analysed files, whatever the number of threads used to compute them
+   * and whether they come from the cache. Files already saved by the {@link StreamingSave} are no longer in the index of the scanners.
+   */
+  private void save(List<java.io.File> files, List<java.io.File> analysedFiles, List<ScanResult> results,
+    @Nullable AnalysisCache cache, @Nullable PlatformRecorder recorder) {
+    Set<java.io.File> scannedFiles = Sets.newHashSet(analysedFiles);
+    Map<String, SourceFile> squidFiles = Maps.newHashMap();
+    Map<String, ScanResult> resultByFile = Maps.newHashMap();
+
+    for (ScanResult result : results) {
+      for (SourceCode squidSourceFile : result.scanner.getIndex().search(new QueryByType(SourceFile.class))) {
+        squidFiles.put(squidSourceFile.getKey(), (SourceFile) squidSourceFile);
+        resultByFile.put(squidSourceFile.getKey(), result);
+      }
+    }
 
-      } else {
-        LOG.warn("Could not get " + Highlightable.class.getCanonicalName() + " for " + inputFile.file());
+    for (java.io.File file : files) {
+      SourceFile squidFile = squidFiles.get(file.getAbsolutePath());
+
+      if (squidFile != null) {
+        save(file, squidFile, resultByFile.get(squidFile.getKey()).checks, cache, recorder);
+
+      } else if (cache != null && !scannedFiles.contains(file)) {
+        FileResult cachedResult = cache.get(cacheKey(file), contentHash(file));
+        if (cachedResult != null) {
+          replay(file, cachedResult);
+        }
       }
     }
   }
 
-  private EcmaScriptConfiguration createConfiguration() {
-    return new EcmaScriptConfiguration(fileSystem.encoding());
+  private void save(java.io.File file, SourceFile squidFile, JavaScriptChecks scanChecks, @Nullable AnalysisCache cache,
+    @Nullable PlatformRecorder recorder) {
+    String key = cacheKey(file);
+    FileResult fileResult = fileResult(squidFile, scanChecks, recorder == null ? new FileResult() : recorder.removeResultFor(key));
+    save(file, fileResult);
+    analysisPhases.addFile(squidFile.getInt(EcmaScriptMetric.LINES_OF_CODE), file.length());
+
+    // Partial results of a file over its time budget are not cached, so that it is analysed again next time
+    if (cache != null && squidFile.getInt(EcmaScriptMetric.FILES_OVER_TIME_BUDGET) == 0 && !minifiedFiles.contains(file)) {
+      CpdTokens.FileTokens fileTokens = cpdTokens.get(file);
+      if (fileTokens != null) {
+        fileResult.setCpdTokens(fileTokens.images(), fileTokens.lines());
+      }
+      cache.put(key, contentHash(file), fileResult);
+    }
   }
 
-  private void save(Collection<SourceCode> squidSourceFiles) {
-    for (SourceCode squidSourceFile : squidSourceFiles) {
-      SourceFile squidFile = (SourceFile) squidSourceFile;
+  private FileResult fileResult(SourceFile squidFile, JavaScriptChecks scanChecks, FileResult fileResult) {
+    fileResult.addNoSonarLines(squidFile.getNoSonarTagLines());
+
+    fileResult.addMeasure(CoreMetrics.LINES_KEY, squidFile.getDouble(EcmaScriptMetric.LINES));
+    fileResult.addMeasure(CoreMetrics.NCLOC_KEY, squidFile.getDouble(EcmaScriptMetric.LINES_OF_CODE));
+    fileResult.addMeasure(CoreMetrics.CLASSES_KEY, squidFile.getDouble(EcmaScriptMetric.CLASSES));
+    fileResult.addMeasure(CoreMetrics.FUNCTIONS_KEY, squidFile.getDouble(EcmaScriptMetric.FUNCTIONS));
+    fileResult.addMeasure(CoreMetrics.ACCESSORS_KEY, squidFile.getDouble(EcmaScriptMetric.ACCESSORS));
+    fileResult.addMeasure(CoreMetrics.STATEMENTS_KEY, squidFile.getDouble(EcmaScriptMetric.STATEMENTS));
+    fileResult.addMeasure(CoreMetrics.COMPLEXITY_KEY, squidFile.getDouble(EcmaScriptMetric.COMPLEXITY));
+    fileResult.addMeasure(CoreMetrics.COMMENT_LINES_KEY, squidFile.getDouble(EcmaScriptMetric.COMMENT_LINES));
+    fileResult.addMeasure(CoreMetrics.COMPLEXITY_IN_CLASSES_KEY, classComplexity(squidFile));
+
+    FunctionComplexities functionComplexities = (FunctionComplexities) squidFile.getData(EcmaScriptMetric.FUNCTION_COMPLEXITIES);
+    if (functionComplexities != null) {
+      fileResult.setFunctionComplexities(functionComplexities);
+    }
+
+    Collection<CheckMessage> messages = squidFile.getCheckMessages();
+    if (messages != null) {
+      for (CheckMessage message : sortedMessages(messages)) {
+        RuleKey ruleKey = scanChecks.ruleKeyFor((CodeVisitor) message.getCheck());
+        if (ruleKey != null) {
+          fileResult.addIssue(ruleKey.toString(), message.getLine(), message.getText(Locale.ENGLISH));
+        }
+      }
+    }
+    return fileResult;
+  }
 
-      File sonarFile = context.getResource(File.create(pathResolver.relativePath(fileSystem.baseDir(), new java.io.File(squidFile.getKey()))));
+  private void save(java.io.File file, FileResult fileResult) {
+    File sonarFile = context.getResource(File.create(cacheKey(file)));
 
-      if (sonarFile != null) {
-        noSonarFilter.addResource(sonarFile, squidFile.getNoSonarTagLines());
-        saveClassComplexity(sonarFile, squidFile);
-        saveFilesComplexityDistribution(sonarFile, squidFile);
-        saveFunctionsComplexityAndDistribution(sonarFile, squidFile);
-        saveMeasures(sonarFile, squidFile);
-        saveIssues(sonarFile, squidFile);
+    if (sonarFile != null) {
+      noSonarFilter.addResource(sonarFile, Sets.newHashSet(fileResult.noSonarLines()));
+      saveFilesComplexityDistribution(sonarFile, fileResult);
+      saveFunctionsComplexityAndDistribution(sonarFile, fileResult);
+      saveMeasures(sonarFile, fileResult);
+      saveIssues(sonarFile, fileResult);
 
-      } else {
-        LOG.warn("Cannot save analysis information for file {}. Unable to retrieve the associated sonar resource.", squidFile.getKey());
-      }
+    } else {
+      LOG.warn("Cannot save analysis information for file {}. Unable to retrieve the associated sonar resource.", file.getAbsolutePath());
     }
   }
 
-  private void saveMeasures(File sonarFile, SourceFile squidFile) {
-    context.saveMeasure(sonarFile, CoreMetrics.LINES, squidFile.getDouble(EcmaScriptMetric.LINES));
-    context.saveMeasure(sonarFile, CoreMetrics.NCLOC, squidFile.getDouble(EcmaScriptMetric.LINES_OF_CODE));
-    context.saveMeasure(sonarFile, CoreMetrics.CLASSES, squidFile.getDouble(EcmaScriptMetric.CLASSES));
-    context.saveMeasure(sonarFile, CoreMetrics.FUNCTIONS, squidFile.getDouble(EcmaScriptMetric.FUNCTIONS));
-    context.saveMeasure(sonarFile, CoreMetrics.ACCESSORS, squidFile.getDouble(EcmaScriptMetric.ACCESSORS));
-    context.saveMeasure(sonarFile, CoreMetrics.STATEMENTS, squidFile.getDouble(EcmaScriptMetric.STATEMENTS));
-    context.saveMeasure(sonarFile, CoreMetrics.COMPLEXITY, squidFile.getDouble(EcmaScriptMetric.COMPLEXITY));
-    context.saveMeasure(sonarFile, CoreMetrics.COMMENT_LINES, squidFile.getDouble(EcmaScriptMetric.COMMENT_LINES));
+  /**
+   * Reports the result of the previous analysis of a file, including what the visitors reported while walking it.
+   */
+  private void replay(java.io.File file, FileResult fileResult) {
+    save(file, fileResult);
+
+    InputFile inputFile = fileSystem.inputFile(fileSystem.predicates().hasAbsolutePath(file.getAbsolutePath()));
+    PlatformRecorder.replay(
+      fileResult,
+      inputFile == null ? null : resourcePerspectives.as(Highlightable.class, inputFile),
+      inputFile == null ? null : resourcePerspectives.as(Symbolizable.class, inputFile),
+      fileLinesContextFactory.createFor(File.create(cacheKey(file))));
+
+    if (fileResult.cpdImages() != null) {
+      cpdTokens.put(file, new CpdTokens.FileTokens(fileResult.cpdImages(), fileResult.cpdLines()));
+    }
   }
 
-  private void saveClassComplexity(org.sonar.api.resources.File sonarFile, SourceFile squidFile) {
+  private void saveMeasures(File sonarFile, FileResult fileResult) {
+    for (Map.Entry<String, Double> measure : fileResult.measures().entrySet()) {
+      context.saveMeasure(sonarFile, CoreMetrics.getMetric(measure.getKey()), measure.getValue());
+    }
+  }
+
+  private static double classComplexity(SourceFile squidFile) {
     double complexityInClasses = 0;
     Set<SourceCode> children = squidFile.getChildren();
 
     if (children != null) {
       for (SourceCode sourceCode : squidFile.getChildren()) {
-        if (sourceCode.isType(SourceClass.class)) {
+        if (sourceCode.isType(SourceClass.class) && sourceCode.getData(EcmaScriptMetric.NESTED_IN_FUNCTION) == null) {
           complexityInClasses += sourceCode.getDouble(EcmaScriptMetric.COMPLEXITY);
         }
       }
     }
-    context.saveMeasure(sonarFile, CoreMetrics.COMPLEXITY_IN_CLASSES, complexityInClasses);
+    return complexityInClasses;
   }
 
-  private void saveFunctionsComplexityAndDistribution(File sonarFile, SourceFile squidFile) {
-    Collection<SourceCode> squidFunctionsInFile = scanner.getIndex().search(new QueryByParent(squidFile), new QueryByType(SourceFunction.class));
+  private void saveFunctionsComplexityAndDistribution(File sonarFile, FileResult fileResult) {
+    FunctionComplexities functionComplexities = fileResult.functionComplexities();
     RangeDistributionBuilder complexityDistribution = new RangeDistributionBuilder(CoreMetrics.FUNCTION_COMPLEXITY_DISTRIBUTION, FUNCTIONS_DISTRIB_BOTTOM_LIMITS);
-    double complexityInFunction = 0;
-    for (SourceCode squidFunction : squidFunctionsInFile) {
-      double functionComplexity = squidFunction.getDouble(EcmaScriptMetric.COMPLEXITY);
-      complexityDistribution.add(functionComplexity);
-      complexityInFunction += functionComplexity;
+    for (int range = 0; range < FunctionComplexities.ranges(); range++) {
+      complexityDistribution.add(FunctionComplexities.bottomLimit(range), functionComplexities.functions(range));
     }
     context.saveMeasure(sonarFile, complexityDistribution.build().setPersistenceMode(PersistenceMode.MEMORY));
-    context.saveMeasure(sonarFile, CoreMetrics.COMPLEXITY_IN_FUNCTIONS, complexityInFunction);
+    context.saveMeasure(sonarFile, CoreMetrics.COMPLEXITY_IN_FUNCTIONS, (double) functionComplexities.total());
   }
 
-  private void saveFilesComplexityDistribution(File sonarFile, SourceFile squidFile) {
+  private static Number[] functionsDistributionBottomLimits() {
+    Number[] bottomLimits = new Number[FunctionComplexities.ranges()];
+    for (int range = 0; range < bottomLimits.length; range++) {
+      bottomLimits[range] = FunctionComplexities.bottomLimit(range);
+    }
+    return bottomLimits;
+  }
+
+  private void saveFilesComplexityDistribution(File sonarFile, FileResult fileResult) {
     RangeDistributionBuilder complexityDistribution = new RangeDistributionBuilder(CoreMetrics.FILE_COMPLEXITY_DISTRIBUTION, FILES_DISTRIB_BOTTOM_LIMITS);
-    complexityDistribution.add(squidFile.getDouble(EcmaScriptMetric.COMPLEXITY));
+    complexityDistribution.add(fileResult.measures().get(CoreMetrics.COMPLEXITY_KEY));
     context.saveMeasure(sonarFile, complexityDistribution.build().setPersistenceMode(PersistenceMode.MEMORY));
   }
 
-  private void saveIssues(File sonarFile, SourceFile squidFile) {
-    Collection<CheckMessage> messages = squidFile.getCheckMessages();
-    if (messages != null) {
-
-      for (CheckMessage message : messages) {
-        RuleKey ruleKey = checks.ruleKeyFor((CodeVisitor) message.getCheck());
-        Issuable issuable = resourcePerspectives.as(Issuable.class, sonarFile);
-
-        if (issuable != null && ruleKey != null) {
-          Issue issue = issuable.newIssueBuilder()
-            .ruleKey(ruleKey)
-            .line(message.getLine())
-            .message(message.getText(Locale.ENGLISH))
-            .build();
-          issuable.addIssue(issue);
-        }
+  private void saveIssues(File sonarFile, FileResult fileResult) {
+    Issuable issuable = resourcePerspectives.as(Issuable.class, sonarFile);
+
+    if (issuable != null) {
+      for (FileResult.IssueData issueData : fileResult.issues()) {
+        Issue issue = issuable.newIssueBuilder()
+          .ruleKey(RuleKey.parse(issueData.ruleKey()))
+          .line(issueData.line())
+          .message(issueData.message())
+          .build();
+        issuable.addIssue(issue);
       }
     }
   }
 
+  /**
+   * Check messages are stored in a hash set: sort them so that issues are always reported in the same order.
+   */
+  private static List<CheckMessage> sortedMessages(Collection<CheckMessage> messages) {
+    List<CheckMessage> sorted = Lists.newArrayList(messages);
+    Collections.sort(sorted, new Comparator<CheckMessage>() {
+      @Override
+      public int compare(CheckMessage m1, CheckMessage m2) {
+        return ComparisonChain.start()
+          .compare(m1.getLine(), m2.getLine(), Ordering.natural().nullsFirst())
+          .compare(m1.getCheck().getClass().getName(), m2.getCheck().getClass().getName())
+          .compare(m1.getText(Locale.ENGLISH), m2.getText(Locale.ENGLISH))
+          .result();
+      }
+    });
+    return sorted;
+  }
+
   @Override
   public String toString() {
     return getClass().getSimpleName();
   }
 
+  /**
+   * Saves each file as soon as it is scanned, so that the source code of the previous files, their measures and their issues
+   * are not kept until the end of the analysis. Files scanned by different threads are saved one at a time, while holding the
+   * {@link PlatformAccess#LOCK} also held by the visitors accessing the platform.
+   */
+  private class StreamingSave {
+
+    private final AnalysisCache cache;
+    private final PlatformRecorder recorder;
+
+    StreamingSave(@Nullable AnalysisCache cache, @Nullable PlatformRecorder recorder) {
+      this.cache = cache;
+      this.recorder = recorder;
+    }
+
+    SourceFileListener listenerFor(final JavaScriptChecks scanChecks) {
+      return new SourceFileListener() {
+        @Override
+        public void fileScanned(java.io.File file, SourceFile sourceFile) {
+          synchronized (PlatformAccess.LOCK) {
+            analysisPhases.start();
+            try {
+              save(file, sourceFile, scanChecks, cache, recorder);
+            } finally {
+              analysisPhases.stop(AnalysisPhases.Phase.SAVE);
+            }
+          }
+        }
+      };
+    }
+
+  }
+
+  private static class ScanResult {
+
+    private final JavaScriptChecks checks;
+    private final AstScanner<LexerlessGrammar> scanner;
+    private final AnalysisProfiler profiler;
+
+    ScanResult(JavaScriptChecks checks, AstScanner<LexerlessGrammar> scanner, @Nullable AnalysisProfiler profiler) {
+      this.checks = checks;
+      this.scanner = scanner;
+      this.profiler = profiler;
+    }
+
+  }
+
 }
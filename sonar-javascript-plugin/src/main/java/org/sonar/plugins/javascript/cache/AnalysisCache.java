@@ -0,0 +1,282 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript.cache;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Maps;
+import com.google.common.io.Closeables;
+import com.google.common.io.Files;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.check.RuleProperty;
+import org.sonar.javascript.SourceBuffer;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.security.MessageDigest;
+import java.security.CodeSource;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Results of the previous analyses, stored in the working directory and reused for the files whose content did not change.
+ * The whole cache is dropped as soon as its fingerprint (plugin, rules and their parameters, settings) differs from
+ * the one of the current analysis.
+ */
+public class AnalysisCache {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AnalysisCache.class);
+
+  static final String CACHE_FILE_NAME = "javascript-analysis-cache.bin";
+  private static final int ENCODING_CHUNK_SIZE = 8192;
+
+  private final File cacheFile;
+  private final String fingerprint;
+  private final Map<String, Entry> previousEntries;
+  private final Map<String, Entry> entries = Maps.newHashMap();
+
+  private AnalysisCache(File cacheFile, String fingerprint, Map<String, Entry> previousEntries) {
+    this.cacheFile = cacheFile;
+    this.fingerprint = fingerprint;
+    this.previousEntries = previousEntries;
+  }
+
+  public static AnalysisCache load(File workDir, String fingerprint) {
+    File cacheFile = new File(workDir, CACHE_FILE_NAME);
+    Map<String, Entry> previousEntries = new HashMap<String, Entry>();
+
+    if (cacheFile.isFile()) {
+      Content content = read(cacheFile);
+      if (content != null && fingerprint.equals(content.fingerprint)) {
+        previousEntries = content.entries;
+      } else {
+        LOG.info("JavaScript analysis cache is outdated, all the files will be analysed");
+      }
+    }
+    return new AnalysisCache(cacheFile, fingerprint, previousEntries);
+  }
+
+  /**
+   * @return the result of the previous analysis of the file if its content did not change, null otherwise
+   */
+  @Nullable
+  public FileResult get(String key, String contentHash) {
+    Entry entry = previousEntries.get(key);
+    if (entry != null && entry.contentHash.equals(contentHash)) {
+      entries.put(key, entry);
+      return entry.result;
+    }
+    return null;
+  }
+
+  public void put(String key, String contentHash, FileResult result) {
+    entries.put(key, new Entry(contentHash, result));
+  }
+
+  /**
+   * Only the files seen during this analysis are kept.
+   */
+  public void save() {
+    File tmpFile = new File(cacheFile.getPath() + ".tmp");
+    ObjectOutputStream out = null;
+    try {
+      Files.createParentDirs(tmpFile);
+      out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile))));
+      out.writeObject(new Content(fingerprint, new HashMap<String, Entry>(entries)));
+      out.close();
+      out = null;
+      Files.move(tmpFile, cacheFile);
+    } catch (IOException e) {
+      LOG.warn("Unable to save the JavaScript analysis cache to " + cacheFile, e);
+    } finally {
+      Closeables.closeQuietly(out);
+    }
+  }
+
+  @Nullable
+  private static Content read(File cacheFile) {
+    ObjectInputStream in = null;
+    try {
+      in = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(cacheFile))));
+      return (Content) in.readObject();
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      LOG.warn("Unable to read the JavaScript analysis cache from " + cacheFile + ": " + e.getMessage());
+      return null;
+    } finally {
+      Closeables.closeQuietly(in);
+    }
+  }
+
+  /**
+   * Same hash as {@link #sha1(String)} of the content, computed without copying it: the content is encoded a chunk at a time.
+   */
+  public static String contentHash(SourceBuffer sourceBuffer) {
+    MessageDigest digest = sha1Digest();
+    CharsetEncoder encoder = utf8Encoder();
+    ByteBuffer bytes = ByteBuffer.allocate(ENCODING_CHUNK_SIZE);
+    encode(encoder, CharBuffer.wrap(sourceBuffer.contents()), true, bytes, digest);
+    return finish(encoder, bytes, digest);
+  }
+
+  /**
+   * Same hash as {@link #contentHash(SourceBuffer)} of the file read with the given charset, computed while the file is
+   * streamed: its whole content is never in memory.
+   */
+  public static String contentHash(File file, Charset charset) {
+    MessageDigest digest = sha1Digest();
+    CharsetEncoder encoder = utf8Encoder();
+    CharBuffer chars = CharBuffer.allocate(ENCODING_CHUNK_SIZE);
+    ByteBuffer bytes = ByteBuffer.allocate(ENCODING_CHUNK_SIZE);
+    Reader reader = null;
+    try {
+      reader = new InputStreamReader(new FileInputStream(file), charset);
+      boolean endOfInput = false;
+      while (!endOfInput) {
+        endOfInput = reader.read(chars) < 0;
+        chars.flip();
+        encode(encoder, chars, endOfInput, bytes, digest);
+        // The high surrogate ending a chunk is encoded with the next one
+        chars.compact();
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not read " + file, e);
+    } finally {
+      Closeables.closeQuietly(reader);
+    }
+    return finish(encoder, bytes, digest);
+  }
+
+  private static CharsetEncoder utf8Encoder() {
+    return Charsets.UTF_8.newEncoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  }
+
+  private static void encode(CharsetEncoder encoder, CharBuffer chars, boolean endOfInput, ByteBuffer bytes, MessageDigest digest) {
+    CoderResult result;
+    do {
+      result = encoder.encode(chars, bytes, endOfInput);
+      bytes.flip();
+      digest.update(bytes);
+      bytes.clear();
+    } while (result.isOverflow());
+  }
+
+  private static String finish(CharsetEncoder encoder, ByteBuffer bytes, MessageDigest digest) {
+    encoder.flush(bytes);
+    bytes.flip();
+    digest.update(bytes);
+    return hex(digest.digest());
+  }
+
+  public static String sha1(String text) {
+    return hex(sha1Digest().digest(text.getBytes(Charsets.UTF_8)));
+  }
+
+  private static MessageDigest sha1Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-1");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String hex(byte[] hash) {
+    return String.format("%040x", new BigInteger(1, hash));
+  }
+
+  /**
+   * Identifies the implementation and the configuration of a component: its class, the location and date of the
+   * jar it comes from, and the values of its rule properties.
+   */
+  public static String implementationFingerprint(Object component) {
+    StringBuilder fingerprint = new StringBuilder(component.getClass().getName());
+
+    CodeSource codeSource = component.getClass().getProtectionDomain().getCodeSource();
+    if (codeSource != null && codeSource.getLocation() != null) {
+      File location = new File(codeSource.getLocation().getFile());
+      fingerprint.append('@').append(location.getPath()).append(':').append(location.length()).append(':').append(location.lastModified());
+    }
+
+    for (Class<?> type = component.getClass(); type != null; type = type.getSuperclass()) {
+      for (Field field : type.getDeclaredFields()) {
+        if (field.isAnnotationPresent(RuleProperty.class)) {
+          field.setAccessible(true);
+          try {
+            fingerprint.append(';').append(field.getName()).append('=').append(field.get(component));
+          } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+          }
+        }
+      }
+    }
+    return fingerprint.toString();
+  }
+
+  private static class Entry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String contentHash;
+    private final FileResult result;
+
+    Entry(String contentHash, FileResult result) {
+      this.contentHash = contentHash;
+      this.result = result;
+    }
+
+  }
+
+  private static class Content implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String fingerprint;
+    private final HashMap<String, Entry> entries;
+
+    Content(String fingerprint, HashMap<String, Entry> entries) {
+      this.fingerprint = fingerprint;
+      this.entries = entries;
+    }
+
+  }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript.cache;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.sonar.javascript.metrics.FunctionComplexities;
+
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Everything the analysis of a file reports to the platform, so that it can be reported again without analysing the file.
+ */
+public class FileResult implements Serializable {
+
+  private static final long serialVersionUID = 2L;
+
+  private final Map<String, Double> measures = Maps.newLinkedHashMap();
+  private FunctionComplexities functionComplexities = new FunctionComplexities();
+  private final Set<Integer> noSonarLines = Sets.newHashSet();
+  private final List<IssueData> issues = Lists.newArrayList();
+  private Map<String, Map<Integer, Integer>> lineData;
+  private List<Highlighting> highlightings;
+  private List<int[]> symbols;
+  private String[] cpdImages;
+  private int[] cpdLines;
+
+  public void addMeasure(String metricKey, double value) {
+    measures.put(metricKey, value);
+  }
+
+  public Map<String, Double> measures() {
+    return Collections.unmodifiableMap(measures);
+  }
+
+  public void setFunctionComplexities(FunctionComplexities functionComplexities) {
+    this.functionComplexities = functionComplexities;
+  }
+
+  public FunctionComplexities functionComplexities() {
+    return functionComplexities;
+  }
+
+  public void addNoSonarLines(Set<Integer> lines) {
+    noSonarLines.addAll(lines);
+  }
+
+  public Set<Integer> noSonarLines() {
+    return Collections.unmodifiableSet(noSonarLines);
+  }
+
+  public void addIssue(String ruleKey, @Nullable Integer line, String message) {
+    issues.add(new IssueData(ruleKey, line, message));
+  }
+
+  public List<IssueData> issues() {
+    return Collections.unmodifiableList(issues);
+  }
+
+  /**
+   * Values of the line metrics saved with the {@link org.sonar.api.measures.FileLinesContext} of the file.
+   */
+  void setLineData(Map<String, Map<Integer, Integer>> lineData) {
+    this.lineData = lineData;
+  }
+
+  @Nullable
+  Map<String, Map<Integer, Integer>> lineData() {
+    return lineData;
+  }
+
+  void setHighlightings(List<Highlighting> highlightings) {
+    this.highlightings = highlightings;
+  }
+
+  @Nullable
+  List<Highlighting> highlightings() {
+    return highlightings;
+  }
+
+  /**
+   * @param symbols for each symbol, the start and end offsets of its declaration followed by the offsets of its references
+   */
+  void setSymbols(List<int[]> symbols) {
+    this.symbols = symbols;
+  }
+
+  @Nullable
+  List<int[]> symbols() {
+    return symbols;
+  }
+
+  public void setCpdTokens(String[] images, int[] lines) {
+    this.cpdImages = images;
+    this.cpdLines = lines;
+  }
+
+  @Nullable
+  public String[] cpdImages() {
+    return cpdImages;
+  }
+
+  @Nullable
+  public int[] cpdLines() {
+    return cpdLines;
+  }
+
+  public static class IssueData implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String ruleKey;
+    private final Integer line;
+    private final String message;
+
+    IssueData(String ruleKey, @Nullable Integer line, String message) {
+      this.ruleKey = ruleKey;
+      this.line = line;
+      this.message = message;
+    }
+
+    public String ruleKey() {
+      return ruleKey;
+    }
+
+    @Nullable
+    public Integer line() {
+      return line;
+    }
+
+    public String message() {
+      return message;
+    }
+
+  }
+
+  static class Highlighting implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    final int startOffset;
+    final int endOffset;
+    final String code;
+
+    Highlighting(int startOffset, int endOffset, String code) {
+      this.startOffset = startOffset;
+      this.endOffset = endOffset;
+      this.code = code;
+    }
+
+  }
+
+}
@@ -0,0 +1,312 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript.cache;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.InputPath;
+import org.sonar.api.component.Component;
+import org.sonar.api.component.Perspective;
+import org.sonar.api.component.ResourcePerspectives;
+import org.sonar.api.measures.FileLinesContext;
+import org.sonar.api.measures.FileLinesContextFactory;
+import org.sonar.api.resources.Resource;
+import org.sonar.api.source.Highlightable;
+import org.sonar.api.source.Symbol;
+import org.sonar.api.source.Symbolizable;
+
+import javax.annotation.Nullable;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records what the visitors report to the platform for each file (highlighting, symbol table and line measures),
+ * while forwarding it, so that it can be cached and replayed.
+ * Files are identified by their path relative to the base directory.
+ */
+public class PlatformRecorder {
+
+  private final ConcurrentMap<String, FileResult> results = Maps.newConcurrentMap();
+  private final ResourcePerspectives perspectives;
+  private final FileLinesContextFactory fileLinesContextFactory;
+
+  public PlatformRecorder(final ResourcePerspectives perspectives, final FileLinesContextFactory fileLinesContextFactory) {
+    this.perspectives = new ResourcePerspectives() {
+      @Override
+      public <P extends Perspective> P as(Class<P> perspectiveClass, Resource resource) {
+        return record(perspectiveClass, perspectives.as(perspectiveClass, resource), resource.getPath());
+      }
+
+      @Override
+      public <P extends Perspective> P as(Class<P> perspectiveClass, InputPath inputPath) {
+        return record(perspectiveClass, perspectives.as(perspectiveClass, inputPath), inputPath.relativePath());
+      }
+
+      @Override
+      public <P extends Perspective> P as(Class<P> perspectiveClass, Component component) {
+        return perspectives.as(perspectiveClass, component);
+      }
+    };
+    this.fileLinesContextFactory = new FileLinesContextFactory() {
+      @Override
+      public FileLinesContext createFor(Resource resource) {
+        return record(fileLinesContextFactory.createFor(resource), resource.getPath());
+      }
+
+      @Override
+      public FileLinesContext createFor(InputFile inputFile) {
+        return record(fileLinesContextFactory.createFor(inputFile), inputFile.relativePath());
+      }
+    };
+  }
+
+  public ResourcePerspectives perspectives() {
+    return perspectives;
+  }
+
+  public FileLinesContextFactory fileLinesContextFactory() {
+    return fileLinesContextFactory;
+  }
+
+  public FileResult resultFor(String relativePath) {
+    FileResult result = results.get(relativePath);
+    if (result == null) {
+      result = new FileResult();
+      FileResult previous = results.putIfAbsent(relativePath, result);
+      if (previous != null) {
+        result = previous;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns what has been recorded for a file and forgets it, once the file has been saved.
+   */
+  public FileResult removeResultFor(String relativePath) {
+    FileResult result = results.remove(relativePath);
+    return result == null ? new FileResult() : result;
+  }
+
+  @Nullable
+  private <P extends Perspective> P record(Class<P> perspectiveClass, @Nullable P perspective, String relativePath) {
+    if (perspective instanceof Highlightable) {
+      return perspectiveClass.cast(new RecordingHighlightable((Highlightable) perspective, resultFor(relativePath)));
+    }
+    if (perspective instanceof Symbolizable) {
+      return perspectiveClass.cast(new RecordingSymbolizable((Symbolizable) perspective, resultFor(relativePath)));
+    }
+    return perspective;
+  }
+
+  @Nullable
+  private FileLinesContext record(@Nullable FileLinesContext fileLinesContext, String relativePath) {
+    return fileLinesContext == null ? null : new RecordingFileLinesContext(fileLinesContext, resultFor(relativePath));
+  }
+
+  /**
+   * Reports again to the platform what has been recorded for a file.
+   */
+  public static void replay(FileResult result, @Nullable Highlightable highlightable, @Nullable Symbolizable symbolizable, @Nullable FileLinesContext fileLinesContext) {
+    List<FileResult.Highlighting> highlightings = result.highlightings();
+    if (highlightable != null && highlightings != null) {
+      Highlightable.HighlightingBuilder builder = highlightable.newHighlighting();
+      for (FileResult.Highlighting highlighting : highlightings) {
+        builder.highlight(highlighting.startOffset, highlighting.endOffset, highlighting.code);
+      }
+      builder.done();
+    }
+
+    List<int[]> symbols = result.symbols();
+    if (symbolizable != null && symbols != null) {
+      Symbolizable.SymbolTableBuilder builder = symbolizable.newSymbolTableBuilder();
+      for (int[] offsets : symbols) {
+        Symbol symbol = builder.newSymbol(offsets[0], offsets[1]);
+        for (int i = 2; i < offsets.length; i++) {
+          builder.newReference(symbol, offsets[i]);
+        }
+      }
+      symbolizable.setSymbolTable(builder.build());
+    }
+
+    Map<String, Map<Integer, Integer>> lineData = result.lineData();
+    if (fileLinesContext != null && lineData != null) {
+      for (Map.Entry<String, Map<Integer, Integer>> metric : lineData.entrySet()) {
+        for (Map.Entry<Integer, Integer> line : metric.getValue().entrySet()) {
+          fileLinesContext.setIntValue(metric.getKey(), line.getKey(), line.getValue());
+        }
+      }
+      fileLinesContext.save();
+    }
+  }
+
+  private static class RecordingHighlightable implements Highlightable {
+
+    private final Highlightable delegate;
+    private final FileResult result;
+
+    RecordingHighlightable(Highlightable delegate, FileResult result) {
+      this.delegate = delegate;
+      this.result = result;
+    }
+
+    @Override
+    public HighlightingBuilder newHighlighting() {
+      final HighlightingBuilder builder = delegate.newHighlighting();
+      final List<FileResult.Highlighting> highlightings = Lists.newArrayList();
+
+      return new HighlightingBuilder() {
+        @Override
+        public HighlightingBuilder highlight(int startOffset, int endOffset, String typeOfText) {
+          highlightings.add(new FileResult.Highlighting(startOffset, endOffset, typeOfText));
+          builder.highlight(startOffset, endOffset, typeOfText);
+          return this;
+        }
+
+        @Override
+        public void done() {
+          result.setHighlightings(highlightings);
+          builder.done();
+        }
+      };
+    }
+
+    @Override
+    public Component component() {
+      return delegate.component();
+    }
+
+  }
+
+  private static class RecordingSymbolizable implements Symbolizable {
+
+    private final Symbolizable delegate;
+    private final FileResult result;
+    private final Map<SymbolTable, List<int[]>> builtTables = new IdentityHashMap<SymbolTable, List<int[]>>();
+
+    RecordingSymbolizable(Symbolizable delegate, FileResult result) {
+      this.delegate = delegate;
+      this.result = result;
+    }
+
+    @Override
+    public SymbolTableBuilder newSymbolTableBuilder() {
+      final SymbolTableBuilder builder = delegate.newSymbolTableBuilder();
+      final Map<Symbol, List<Integer>> offsetsBySymbol = new IdentityHashMap<Symbol, List<Integer>>();
+      final List<List<Integer>> symbols = Lists.newArrayList();
+
+      return new SymbolTableBuilder() {
+        @Override
+        public Symbol newSymbol(int fromOffset, int toOffset) {
+          Symbol symbol = builder.newSymbol(fromOffset, toOffset);
+          List<Integer> offsets = Lists.newArrayList(fromOffset, toOffset);
+          offsetsBySymbol.put(symbol, offsets);
+          symbols.add(offsets);
+          return symbol;
+        }
+
+        @Override
+        public void newReference(Symbol symbol, int fromOffset) {
+          offsetsBySymbol.get(symbol).add(fromOffset);
+          builder.newReference(symbol, fromOffset);
+        }
+
+        @Override
+        public SymbolTable build() {
+          SymbolTable table = builder.build();
+          List<int[]> recorded = Lists.newArrayListWithCapacity(symbols.size());
+          for (List<Integer> offsets : symbols) {
+            int[] array = new int[offsets.size()];
+            for (int i = 0; i < array.length; i++) {
+              array[i] = offsets.get(i);
+            }
+            recorded.add(array);
+          }
+          builtTables.put(table, recorded);
+          return table;
+        }
+      };
+    }
+
+    @Override
+    public void setSymbolTable(SymbolTable symbolTable) {
+      List<int[]> recorded = builtTables.remove(symbolTable);
+      if (recorded != null) {
+        result.setSymbols(recorded);
+      }
+      delegate.setSymbolTable(symbolTable);
+    }
+
+    @Override
+    public Component component() {
+      return delegate.component();
+    }
+
+  }
+
+  private static class RecordingFileLinesContext implements FileLinesContext {
+
+    private final FileLinesContext delegate;
+    private final FileResult result;
+    private final Map<String, Map<Integer, Integer>> lineData = Maps.newLinkedHashMap();
+
+    RecordingFileLinesContext(FileLinesContext delegate, FileResult result) {
+      this.delegate = delegate;
+      this.result = result;
+    }
+
+    @Override
+    public void setIntValue(String metricKey, int line, int value) {
+      Map<Integer, Integer> values = lineData.get(metricKey);
+      if (values == null) {
+        values = Maps.newLinkedHashMap();
+        lineData.put(metricKey, values);
+      }
+      values.put(line, value);
+      delegate.setIntValue(metricKey, line, value);
+    }
+
+    @Override
+    public Integer getIntValue(String metricKey, int line) {
+      return delegate.getIntValue(metricKey, line);
+    }
+
+    @Override
+    public void setStringValue(String metricKey, int line, String value) {
+      delegate.setStringValue(metricKey, line, value);
+    }
+
+    @Override
+    public String getStringValue(String metricKey, int line) {
+      return delegate.getStringValue(metricKey, line);
+    }
+
+    @Override
+    public void save() {
+      result.setLineData(lineData);
+      delegate.save();
+    }
+
+  }
+
+}
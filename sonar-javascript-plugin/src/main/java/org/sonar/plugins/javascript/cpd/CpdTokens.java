@@ -0,0 +1,93 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript.cpd;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.collect.Maps;
+import org.sonar.api.BatchExtension;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CPD tokens of the files parsed by the analysis, so that the CPD tokenizer does not have to lex them again.
+ * Each file is handed over once and then forgotten.
+ */
+public class CpdTokens implements BatchExtension {
+
+  private final ConcurrentMap<File, FileTokens> tokensByFile = Maps.newConcurrentMap();
+  private final Interner<String> images = Interners.newStrongInterner();
+
+  String intern(String image) {
+    return images.intern(image);
+  }
+
+  public void put(File file, FileTokens tokens) {
+    tokensByFile.put(file.getAbsoluteFile(), tokens);
+  }
+
+  @Nullable
+  public FileTokens get(File file) {
+    return tokensByFile.get(file.getAbsoluteFile());
+  }
+
+  @Nullable
+  FileTokens remove(File file) {
+    return tokensByFile.remove(file.getAbsoluteFile());
+  }
+
+  /**
+   * Normalised token images and their line numbers, in file order.
+   */
+  public static final class FileTokens {
+
+    private final String[] images;
+    private final int[] lines;
+
+    public FileTokens(String[] images, int[] lines) {
+      this.images = images;
+      this.lines = lines;
+    }
+
+    public String[] images() {
+      return images;
+    }
+
+    public int[] lines() {
+      return lines;
+    }
+
+    int size() {
+      return images.length;
+    }
+
+    String image(int i) {
+      return images[i];
+    }
+
+    int line(int i) {
+      return lines[i];
+    }
+
+  }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript.cpd;
+
+import com.sonar.sslr.api.AstAndTokenVisitor;
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.Token;
+import org.sonar.plugins.javascript.api.tree.Tree.Kind;
+import org.sonar.squidbridge.SquidAstVisitor;
+import org.sonar.sslr.parser.LexerlessGrammar;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Records the CPD tokens of each file while it is walked by the analysis.
+ * The characters of a template literal, one token each for the parser, make a single literal token, as for the lexer.
+ */
+public class CpdTokensVisitor extends SquidAstVisitor<LexerlessGrammar> implements AstAndTokenVisitor {
+
+  private final CpdTokens cpdTokens;
+
+  private String[] images = new String[1024];
+  private int[] lines = new int[1024];
+  private int size;
+  private boolean inTemplateCharacters;
+  private boolean templateCharactersRecorded;
+
+  public CpdTokensVisitor(CpdTokens cpdTokens) {
+    this.cpdTokens = cpdTokens;
+  }
+
+  @Override
+  public void init() {
+    subscribeTo(Kind.TEMPLATE_CHARACTERS);
+  }
+
+  @Override
+  public void visitFile(@Nullable AstNode astNode) {
+    size = 0;
+  }
+
+  @Override
+  public void visitNode(AstNode astNode) {
+    inTemplateCharacters = true;
+    templateCharactersRecorded = false;
+  }
+
+  @Override
+  public void visitToken(Token token) {
+    if (!inTemplateCharacters) {
+      add(cpdTokens.intern(JavaScriptTokenizer.getTokenImage(token)), token.getLine());
+    } else if (!templateCharactersRecorded) {
+      templateCharactersRecorded = true;
+      add(GenericTokenType.LITERAL.getValue(), token.getLine());
+    }
+  }
+
+  @Override
+  public void leaveNode(AstNode astNode) {
+    inTemplateCharacters = false;
+  }
+
+  private void add(String image, int line) {
+    if (size == images.length) {
+      images = Arrays.copyOf(images, size * 2);
+      lines = Arrays.copyOf(lines, size * 2);
+    }
+    images[size] = image;
+    lines[size] = line;
+    size++;
+  }
+
+  @Override
+  public void leaveFile(@Nullable AstNode astNode) {
+    if (astNode != null) {
+      cpdTokens.put(getContext().getFile(), new CpdTokens.FileTokens(Arrays.copyOf(images, size), Arrays.copyOf(lines, size)));
+    }
+    Arrays.fill(images, 0, size, null);
+    size = 0;
+  }
+
+}
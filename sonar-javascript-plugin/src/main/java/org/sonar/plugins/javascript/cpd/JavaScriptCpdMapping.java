@@ -23,6 +23,7 @@ import net.sourceforge.pmd.cpd.Tokenizer;
 import org.sonar.api.batch.AbstractCpdMapping;
 import org.sonar.api.resources.Language;
 import org.sonar.api.resources.ProjectFileSystem;
+import org.sonar.javascript.SourceBuffers;
 import org.sonar.plugins.javascript.core.JavaScript;
 
 import java.nio.charset.Charset;
@@ -31,15 +32,19 @@ public class JavaScriptCpdMapping extends AbstractCpdMapping {
 
   private final JavaScript language;
   private final Charset charset;
+  private final SourceBuffers sourceBuffers;
+  private final CpdTokens cpdTokens;
 
-  public JavaScriptCpdMapping(JavaScript language, ProjectFileSystem fs) {
+  public JavaScriptCpdMapping(JavaScript language, ProjectFileSystem fs, SourceBuffers sourceBuffers, CpdTokens cpdTokens) {
     this.language = language;
     this.charset = fs.getSourceCharset();
+    this.sourceBuffers = sourceBuffers;
+    this.cpdTokens = cpdTokens;
   }
 
   @Override
   public Tokenizer getTokenizer() {
-    return new JavaScriptTokenizer(charset);
+    return new JavaScriptTokenizer(charset, sourceBuffers, cpdTokens);
   }
 
   @Override
@@ -27,6 +27,7 @@ import net.sourceforge.pmd.cpd.TokenEntry;
 import net.sourceforge.pmd.cpd.Tokenizer;
 import net.sourceforge.pmd.cpd.Tokens;
 import org.sonar.javascript.EcmaScriptConfiguration;
+import org.sonar.javascript.SourceBuffers;
 import org.sonar.javascript.lexer.EcmaScriptLexer;
 
 import java.io.File;
@@ -36,27 +37,52 @@ import java.util.List;
 public class JavaScriptTokenizer implements Tokenizer {
 
   private final Charset charset;
+  private final SourceBuffers sourceBuffers;
+  private final CpdTokens analysedTokens;
 
   public JavaScriptTokenizer(Charset charset) {
+    this(charset, new SourceBuffers(), new CpdTokens());
+  }
+
+  public JavaScriptTokenizer(Charset charset, SourceBuffers sourceBuffers, CpdTokens analysedTokens) {
     this.charset = charset;
+    this.sourceBuffers = sourceBuffers;
+    this.analysedTokens = analysedTokens;
   }
 
+  /**
+   * Files parsed by the analysis come with their tokens, the others are lexed. Their content is released once lexed,
+   * as CPD does not read them again.
+   */
   @Override
   public final void tokenize(SourceCode source, Tokens cpdTokens) {
-    Lexer lexer = EcmaScriptLexer.create(new EcmaScriptConfiguration(charset));
     String fileName = source.getFileName();
-    List<Token> tokens = lexer.lex(new File(fileName));
-    for (Token token : tokens) {
-      TokenEntry cpdToken = new TokenEntry(getTokenImage(token), fileName, token.getLine());
-      cpdTokens.add(cpdToken);
+    CpdTokens.FileTokens fileTokens = analysedTokens.remove(new File(fileName));
+
+    if (fileTokens != null) {
+      for (int i = 0; i < fileTokens.size(); i++) {
+        cpdTokens.add(new TokenEntry(fileTokens.image(i), fileName, fileTokens.line(i)));
+      }
+    } else {
+      File file = new File(fileName);
+      Lexer lexer = EcmaScriptLexer.create(new EcmaScriptConfiguration(charset), true);
+      List<Token> tokens = lexer.lex(sourceBuffers.get(file, charset).text());
+      sourceBuffers.release(file);
+      for (Token token : tokens) {
+        cpdTokens.add(new TokenEntry(getTokenImage(token), fileName, token.getLine()));
+      }
     }
     cpdTokens.add(TokenEntry.getEOF());
   }
 
-  private String getTokenImage(Token token) {
+  static String getTokenImage(Token token) {
     if (token.getType() == GenericTokenType.LITERAL) {
       return GenericTokenType.LITERAL.getValue();
     }
+    if (token.getType() == GenericTokenType.EOF) {
+      // Same image for the end of file token of the lexer and of the parser
+      return GenericTokenType.EOF.getValue();
+    }
     return token.getValue();
   }
 
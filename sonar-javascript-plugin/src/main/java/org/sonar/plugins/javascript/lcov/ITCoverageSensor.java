@@ -22,12 +22,17 @@ package org.sonar.plugins.javascript.lcov;
 import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.config.Settings;
 import org.sonar.api.measures.CoreMetrics;
+import org.sonar.javascript.profiling.AnalysisPhases;
 import org.sonar.plugins.javascript.JavaScriptPlugin;
 
 public class ITCoverageSensor extends UTCoverageSensor {
 
   public ITCoverageSensor(FileSystem fileSystem, Settings settings) {
-    super(fileSystem, settings);
+    this(fileSystem, settings, new AnalysisPhases());
+  }
+
+  public ITCoverageSensor(FileSystem fileSystem, Settings settings, AnalysisPhases analysisPhases) {
+    super(fileSystem, settings, analysisPhases);
     linesToCoverMetric = CoreMetrics.IT_LINES_TO_COVER;
     uncoveredLinesMetric = CoreMetrics.IT_UNCOVERED_LINES;
     coverageLineHitsDataMetric = CoreMetrics.IT_COVERAGE_LINE_HITS_DATA;
@@ -36,6 +36,7 @@ import org.sonar.api.measures.Measure;
 import org.sonar.api.measures.Metric;
 import org.sonar.api.measures.PropertiesBuilder;
 import org.sonar.api.resources.Project;
+import org.sonar.javascript.profiling.AnalysisPhases;
 import org.sonar.plugins.javascript.JavaScriptPlugin;
 import org.sonar.plugins.javascript.core.JavaScript;
 
@@ -57,6 +58,7 @@ public class UTCoverageSensor implements Sensor {
   private final FileSystem fileSystem;
   private final Settings settings;
   private final FilePredicate mainFilePredicate;
+  private final AnalysisPhases analysisPhases;
 
   protected Metric linesToCoverMetric = CoreMetrics.LINES_TO_COVER;
   protected Metric uncoveredLinesMetric = CoreMetrics.UNCOVERED_LINES;
@@ -68,7 +70,12 @@ public class UTCoverageSensor implements Sensor {
   protected String reportPath = JavaScriptPlugin.LCOV_UT_REPORT_PATH;
 
   public UTCoverageSensor(FileSystem fileSystem, Settings settings) {
+    this(fileSystem, settings, new AnalysisPhases());
+  }
+
+  public UTCoverageSensor(FileSystem fileSystem, Settings settings, AnalysisPhases analysisPhases) {
     this.fileSystem = fileSystem;
+    this.analysisPhases = analysisPhases;
     this.settings = settings;
     this.mainFilePredicate = fileSystem.predicates().and(
         fileSystem.predicates().hasType(InputFile.Type.MAIN),
@@ -83,7 +90,12 @@ public class UTCoverageSensor implements Sensor {
   @Override
   public void analyse(Project module, SensorContext context) {
     if (isLCOVReportProvided()) {
-      saveMeasureFromLCOVFile(context);
+      analysisPhases.start();
+      try {
+        saveMeasureFromLCOVFile(context);
+      } finally {
+        analysisPhases.stop(AnalysisPhases.Phase.LCOV);
+      }
 
     } else if (isForceZeroCoverageActivated()) {
       saveZeroValueForAllFiles(context);
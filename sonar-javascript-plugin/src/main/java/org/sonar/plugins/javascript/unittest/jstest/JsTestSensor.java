@@ -23,6 +23,7 @@ import org.sonar.api.batch.SensorContext;
 import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.config.Settings;
 import org.sonar.api.resources.Project;
+import org.sonar.javascript.profiling.AnalysisPhases;
 import org.sonar.plugins.javascript.JavaScriptPlugin;
 import org.sonar.plugins.javascript.unittest.jstestdriver.JsTestDriverSensor;
 
@@ -32,6 +33,10 @@ public class JsTestSensor extends JsTestDriverSensor {
     super(fileSystem, settings);
   }
 
+  public JsTestSensor(FileSystem fileSystem, Settings settings, AnalysisPhases analysisPhases) {
+    super(fileSystem, settings, analysisPhases);
+  }
+
   @Override
   public void analyse(Project project, SensorContext context) {
     String jsTestDriverFolder = getReportsDirectoryPath();
@@ -32,6 +32,7 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.config.Settings;
 import org.sonar.api.resources.Project;
 import org.sonar.api.resources.Resource;
+import org.sonar.javascript.profiling.AnalysisPhases;
 import org.sonar.plugins.javascript.JavaScriptPlugin;
 import org.sonar.plugins.javascript.core.JavaScript;
 import org.sonar.plugins.javascript.unittest.surefireparser.AbstractSurefireParser;
@@ -42,9 +43,15 @@ public class JsTestDriverSensor implements Sensor {
   protected Settings settings;
   private final FilePredicate mainFilePredicate;
   private final FilePredicate testFilePredicate;
+  private final AnalysisPhases analysisPhases;
 
   public JsTestDriverSensor(FileSystem fileSystem, Settings settings) {
+    this(fileSystem, settings, new AnalysisPhases());
+  }
+
+  public JsTestDriverSensor(FileSystem fileSystem, Settings settings, AnalysisPhases analysisPhases) {
     this.fileSystem = fileSystem;
+    this.analysisPhases = analysisPhases;
     this.settings = settings;
     this.mainFilePredicate = fileSystem.predicates().and(
       fileSystem.predicates().hasType(InputFile.Type.MAIN),
@@ -70,6 +77,15 @@ public class JsTestDriverSensor implements Sensor {
   protected void collect(final SensorContext context, File reportsDir) {
     LOG.info("Parsing Unit Test run results in Surefire format from folder {}", reportsDir);
 
+    analysisPhases.start();
+    try {
+      parseReports(context, reportsDir);
+    } finally {
+      analysisPhases.stop(AnalysisPhases.Phase.TEST_REPORTS);
+    }
+  }
+
+  private void parseReports(final SensorContext context, File reportsDir) {
     new AbstractSurefireParser() {
 
       @Override
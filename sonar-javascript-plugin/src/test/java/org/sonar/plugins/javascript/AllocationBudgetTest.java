@@ -0,0 +1,207 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Defaults;
+import com.google.common.collect.Lists;
+import com.google.common.io.Closeables;
+import com.google.common.io.Files;
+import org.junit.Test;
+import org.sonar.api.batch.SensorContext;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
+import org.sonar.api.checks.NoSonarFilter;
+import org.sonar.api.component.ResourcePerspectives;
+import org.sonar.api.config.Settings;
+import org.sonar.api.measures.FileLinesContextFactory;
+import org.sonar.api.resources.Project;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.scan.filesystem.PathResolver;
+import org.sonar.api.utils.AnnotationUtils;
+import org.sonar.check.Rule;
+import org.sonar.javascript.SourceBuffers;
+import org.sonar.javascript.checks.CheckList;
+import org.sonar.javascript.profiling.AnalysisPhases;
+import org.sonar.javascript.profiling.AnalysisPhases.Phase;
+import org.sonar.plugins.javascript.core.JavaScript;
+import org.sonar.plugins.javascript.cpd.CpdTokens;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Fails when a phase of the analysis allocates more bytes per line of code than recorded in {@code allocation/baseline.properties},
+ * beyond a margin which absorbs the variations between JVMs and runs (up to about 15% for the tree creation).
+ * <p>
+ * Files of the corpus of the benchmarks are analysed with all the rules active. Platform services are stubbed by proxies which do not
+ * record their invocations, so that the save phase only accounts for the allocations of the sensor.
+ * The read of the files is not budgeted: it allocates their content, whatever the amount of code they contain.
+ * After an intended change of the allocations, the baseline is regenerated with
+ * {@code mvn test -Dtest=AllocationBudgetTest -DupdateAllocationBaseline=true}.
+ */
+public class AllocationBudgetTest {
+
+  private static final String BASELINE = "/allocation/baseline.properties";
+  private static final File CORPUS_DIR = new File("../javascript-benchmarks/src/main/resources/org/sonar/javascript/benchmarks/corpus");
+  private static final String[] CORPUS = {"underscore-1.8.3.js", "jquery-2.1.4.js"};
+  private static final double MARGIN = 0.25;
+  // Phases allocating almost nothing, such as the sanitization, vary by a few dozen bytes per line of code
+  private static final long SLACK = 256;
+
+  @Test
+  public void phases_should_not_allocate_more_per_line_of_code_than_baseline() throws IOException {
+    assumeTrue(AnalysisPhases.measuresAllocations());
+
+    // The first analysis loads classes and runs interpreted code, whose allocations are not eliminated by the JIT compiler
+    analyse();
+    AnalysisPhases phases = analyse();
+
+    if (Boolean.getBoolean("updateAllocationBaseline")) {
+      saveBaseline(phases);
+      return;
+    }
+
+    Properties baseline = loadBaseline();
+    List<String> overBudget = Lists.newArrayList();
+    for (String key : baseline.stringPropertyNames()) {
+      Phase phase = Phase.valueOf(key.toUpperCase(Locale.ENGLISH));
+      assertThat(phases.invocations(phase)).as(key).isGreaterThan(0);
+
+      long expected = Long.parseLong(baseline.getProperty(key));
+      long actual = bytesPerLineOfCode(phases, phase);
+      if (actual > expected * (1 + MARGIN) + SLACK) {
+        overBudget.add(key + ": " + actual + " bytes per line of code, baseline is " + expected);
+      }
+    }
+    assertThat(overBudget).isEmpty();
+  }
+
+  private static AnalysisPhases analyse() {
+    DefaultFileSystem fileSystem = new DefaultFileSystem();
+    fileSystem.setBaseDir(CORPUS_DIR);
+    for (String name : CORPUS) {
+      fileSystem.add(new DefaultInputFile(name)
+        .setAbsolutePath(new File(CORPUS_DIR, name).getAbsolutePath())
+        .setType(InputFile.Type.MAIN)
+        .setLanguage(JavaScript.KEY));
+    }
+
+    Settings settings = new Settings();
+    settings.setProperty(JavaScriptPlugin.ANALYSIS_THREADS_KEY, 1);
+
+    AnalysisPhases phases = new AnalysisPhases();
+    JavaScriptSquidSensor sensor = new JavaScriptSquidSensor(allChecks(), stub(FileLinesContextFactory.class), stub(ResourcePerspectives.class),
+      fileSystem, new NoSonarFilter(stub(SensorContext.class)), new PathResolver(), settings, new SourceBuffers(), new CpdTokens(), phases);
+    sensor.analyse(new Project("project"), stub(SensorContext.class));
+    return phases;
+  }
+
+  private static CheckFactory allChecks() {
+    ActiveRulesBuilder activeRules = new ActiveRulesBuilder();
+    for (Class check : CheckList.getChecks()) {
+      Rule rule = AnnotationUtils.getAnnotation(check, Rule.class);
+      activeRules.create(RuleKey.of(CheckList.REPOSITORY_KEY, rule.key())).activate();
+    }
+    return new CheckFactory(activeRules.build());
+  }
+
+  private static long bytesPerLineOfCode(AnalysisPhases phases, Phase phase) {
+    return phases.allocatedBytes(phase) / phases.linesOfCode();
+  }
+
+  private static Properties loadBaseline() throws IOException {
+    Properties baseline = new Properties();
+    InputStream in = AllocationBudgetTest.class.getResourceAsStream(BASELINE);
+    try {
+      baseline.load(in);
+    } finally {
+      Closeables.closeQuietly(in);
+    }
+    return baseline;
+  }
+
+  private static void saveBaseline(AnalysisPhases phases) throws IOException {
+    Writer writer = Files.newWriter(new File("src/test/resources" + BASELINE), Charsets.ISO_8859_1);
+    try {
+      writer.write("# Bytes allocated per line of code by the phases of the analysis of the benchmark corpus, see AllocationBudgetTest\n");
+      for (Phase phase : Phase.values()) {
+        if (phase != Phase.READ && phases.invocations(phase) > 0) {
+          writer.write(phase.name().toLowerCase(Locale.ENGLISH) + "=" + bytesPerLineOfCode(phases, phase) + "\n");
+        }
+      }
+    } finally {
+      Closeables.closeQuietly(writer);
+    }
+  }
+
+  /**
+   * Unlike a mock, the returned instance does not record its invocations. Methods returning an interface return a stub of it,
+   * {@code as(Class, ...)} returns a stub of the requested type and {@code getResource(...)} returns its argument.
+   */
+  private static <T> T stub(Class<T> type) {
+    return type.cast(Proxy.newProxyInstance(AllocationBudgetTest.class.getClassLoader(), new Class[] {type}, new StubHandler()));
+  }
+
+  private static class StubHandler implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      Class<?> returnType = method.getReturnType();
+      if (method.getDeclaringClass() == Object.class) {
+        return invokeObjectMethod(proxy, method, args);
+      } else if ("as".equals(method.getName()) && args[0] instanceof Class) {
+        return stub((Class<?>) args[0]);
+      } else if ("getResource".equals(method.getName()) && returnType.isInstance(args[0])) {
+        return args[0];
+      } else if (returnType.isInstance(proxy)) {
+        return proxy;
+      } else if (returnType.isInterface()) {
+        return stub(returnType);
+      }
+      return Defaults.defaultValue(returnType);
+    }
+
+    private static Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+      if ("equals".equals(method.getName())) {
+        return proxy == args[0];
+      } else if ("hashCode".equals(method.getName())) {
+        return System.identityHashCode(proxy);
+      }
+      return "stub of " + proxy.getClass().getInterfaces()[0].getName();
+    }
+
+  }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.SensorContext;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.resources.Project;
+import org.sonar.javascript.profiling.AnalysisPhases;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class JavaScriptAnalysisSummaryTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void should_write_phases_to_work_dir() throws Exception {
+    DefaultFileSystem fs = new DefaultFileSystem();
+    fs.setWorkDir(temp.newFolder());
+    AnalysisPhases phases = new AnalysisPhases();
+    phases.start();
+    phases.stop(AnalysisPhases.Phase.PARSE);
+
+    new JavaScriptAnalysisSummary(phases, fs).executeOn(new Project("project"), mock(SensorContext.class));
+
+    assertThat(new File(fs.workDir(), JavaScriptAnalysisSummary.FILE_NAME).isFile()).isTrue();
+  }
+
+  @Test
+  public void should_not_report_when_nothing_was_analysed() throws Exception {
+    DefaultFileSystem fs = new DefaultFileSystem();
+    fs.setWorkDir(temp.newFolder());
+
+    new JavaScriptAnalysisSummary(new AnalysisPhases(), fs).executeOn(new Project("project"), mock(SensorContext.class));
+
+    assertThat(fs.workDir().list()).isEmpty();
+  }
+
+}
@@ -22,38 +22,64 @@ package org.sonar.plugins.javascript;
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Ordering;
+import com.google.common.io.Files;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.sonar.api.batch.SensorContext;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.internal.DefaultFileSystem;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.rule.ActiveRules;
 import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
 import org.sonar.api.checks.NoSonarFilter;
 import org.sonar.api.component.ResourcePerspectives;
 import org.sonar.api.config.Settings;
+import org.sonar.api.issue.Issuable;
+import org.sonar.api.issue.Issue;
 import org.sonar.api.measures.CoreMetrics;
 import org.sonar.api.measures.FileLinesContext;
 import org.sonar.api.measures.FileLinesContextFactory;
+import org.sonar.api.measures.Metric;
 import org.sonar.api.resources.File;
 import org.sonar.api.resources.Project;
 import org.sonar.api.resources.Resource;
+import org.sonar.api.rule.RuleKey;
 import org.sonar.api.scan.filesystem.PathResolver;
 import org.sonar.api.source.Highlightable;
+import org.sonar.api.utils.AnnotationUtils;
+import org.sonar.javascript.SourceBuffers;
+import org.sonar.javascript.checks.CheckList;
+import org.sonar.javascript.profiling.AnalysisPhases;
 import org.sonar.check.Rule;
 import org.sonar.check.RuleProperty;
 import org.sonar.plugins.javascript.api.CustomJavaScriptRulesDefinition;
 import org.sonar.plugins.javascript.api.visitors.BaseTreeVisitor;
 import org.sonar.plugins.javascript.core.JavaScript;
+import org.sonar.plugins.javascript.cpd.CpdTokens;
 import org.sonar.test.TestUtils;
 
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+
 public class JavaScriptSquidSensorTest {
 
+  @org.junit.Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
   private final DefaultFileSystem FS = new DefaultFileSystem();
   private FileLinesContextFactory fileLinesContextFactory;
   private final Project project = new Project("project");
@@ -89,7 +115,7 @@ public class JavaScriptSquidSensorTest {
   public void should_execute_if_js_files() {
     DefaultFileSystem localFS = new DefaultFileSystem();
     JavaScriptSquidSensor sensor = new JavaScriptSquidSensor(checkFactory, fileLinesContextFactory, mock(ResourcePerspectives.class), localFS, new NoSonarFilter(
-      mock(SensorContext.class)), new PathResolver(), new Settings(), CUSTOM_RULES);
+      mock(SensorContext.class)), new PathResolver(), new Settings(), new SourceBuffers(), new CpdTokens(), new AnalysisPhases(), CUSTOM_RULES);
 
     // no JS files -> do not execute
     assertThat(sensor.shouldExecuteOnProject(project)).isFalse();
@@ -118,11 +144,22 @@ public class JavaScriptSquidSensorTest {
     when(context.getResource(any(Resource.class))).thenReturn(File.create((new PathResolver()).relativePath(FS.baseDir(), TestUtils.getResource("/cpd/Person.js"))));
 
     when(context.getResource(any(Resource.class))).thenReturn(File.create((new PathResolver()).relativePath(FS.baseDir(), TestUtils.getResource("/cpd/Person.js"))));
-    JavaScriptSquidSensor sensor = new JavaScriptSquidSensor(checkFactory, fileLinesContextFactory, mock(ResourcePerspectives.class), FS, new NoSonarFilter(
-      mock(SensorContext.class)), new PathResolver(), new Settings(), CUSTOM_RULES);
+    SourceBuffers sourceBuffers = new SourceBuffers();
+    AnalysisPhases analysisPhases = new AnalysisPhases();
+    JavaScriptSquidSensor sensor = new JavaScriptSquidSensor(checkFactory, fileLinesContextFactory, perspectives, FS, new NoSonarFilter(
+      mock(SensorContext.class)), new PathResolver(), new Settings(), sourceBuffers, new CpdTokens(), analysisPhases, CUSTOM_RULES);
 
     sensor.analyse(project, context);
 
+    // parsing, checks, symbol and syntax highlighting share the same content
+    assertThat(sourceBuffers.readCount()).isEqualTo(1);
+
+    assertThat(analysisPhases.files()).isEqualTo(1);
+    assertThat(analysisPhases.linesOfCode()).isEqualTo(18);
+    assertThat(analysisPhases.invocations(AnalysisPhases.Phase.PARSE)).isEqualTo(1);
+    assertThat(analysisPhases.invocations(AnalysisPhases.Phase.SYMBOL_RESOLUTION)).isEqualTo(1);
+    assertThat(analysisPhases.invocations(AnalysisPhases.Phase.SAVE)).isEqualTo(1);
+
     verify(context).saveMeasure(any(Resource.class), eq(CoreMetrics.LINES), eq(32.0));
     verify(context).saveMeasure(any(Resource.class), eq(CoreMetrics.NCLOC), eq(18.0));
     verify(context).saveMeasure(any(Resource.class), eq(CoreMetrics.CLASSES), eq(1.0));
@@ -134,6 +171,310 @@ public class JavaScriptSquidSensorTest {
     verify(context).saveMeasure(any(Resource.class), eq(CoreMetrics.COMMENT_LINES), eq(2.0));
   }
 
+  @Test
+  public void parallel_analysis_should_save_same_results_as_sequential_one() {
+    List<String> sequential = analyseWithThreads(1);
+    assertThat(reportedOf("issue", sequential)).isNotEmpty();
+    assertThat(reportedOf("issue", analyseWithThreads(2))).isEqualTo(reportedOf("issue", sequential));
+    assertThat(analyseWithThreads(2)).isEqualTo(sequential);
+  }
+
+  @Test
+  public void cached_analysis_should_save_same_results_as_first_one() throws Exception {
+    java.io.File workDir = temp.newFolder();
+    Settings settings = new Settings();
+    settings.setProperty(JavaScriptPlugin.ANALYSIS_CACHE_KEY, true);
+
+    List<String> analysed = analyse(settings, workDir);
+    assertThat(new java.io.File(workDir, "javascript-analysis-cache.bin").isFile()).isTrue();
+    assertThat(reportedOf("issue", analysed)).isNotEmpty();
+    assertThat(reportedOf("highlighting", analysed)).isNotEmpty();
+
+    // measures, issues and highlighting are restored without parsing the files again
+    AnalysisPhases analysisPhases = new AnalysisPhases();
+    assertThat(analyse(settings, workDir, new CpdTokens(), analysisPhases, "Person.js", "utils.js")).isEqualTo(analysed);
+    assertThat(analysisPhases.invocations(AnalysisPhases.Phase.PARSE)).isEqualTo(0);
+  }
+
+  @Test
+  public void analysis_with_cached_parse_trees_should_save_same_results_as_first_one() throws Exception {
+    java.io.File workDir = temp.newFolder();
+    Settings settings = new Settings();
+    settings.setProperty(JavaScriptPlugin.PARSE_TREE_CACHE_KEY, true);
+
+    List<String> analysed = analyse(settings, workDir);
+    assertThat(new java.io.File(workDir, "javascript-parse-trees.bin").isFile()).isTrue();
+    assertThat(analyse(settings, workDir)).isEqualTo(analysed);
+    assertThat(analyseWithThreads(1)).isEqualTo(analysed);
+  }
+
+  @Test
+  public void profiled_analysis_should_save_same_results_and_write_report() throws Exception {
+    java.io.File workDir = temp.newFolder();
+    Settings settings = new Settings();
+    settings.setProperty(JavaScriptPlugin.PROFILING_KEY, true);
+    settings.setProperty(JavaScriptPlugin.ANALYSIS_THREADS_KEY, 2);
+
+    assertThat(analyse(settings, workDir)).isEqualTo(analyseWithThreads(1));
+    java.io.File report = new java.io.File(workDir, "javascript-profiling.json");
+    assertThat(report.isFile()).isTrue();
+    String json = Files.toString(report, Charsets.UTF_8);
+    assertThat(json).contains("{\"name\": \"(parser)\"");
+    assertThat(json).contains("Person.js");
+  }
+
+  @Test
+  public void analysis_within_file_time_budget_should_save_same_results() {
+    Settings settings = new Settings();
+    settings.setProperty(JavaScriptPlugin.FILE_TIME_BUDGET_KEY, 60);
+    settings.setProperty(JavaScriptPlugin.ANALYSIS_THREADS_KEY, 2);
+
+    assertThat(analyse(settings, null)).isEqualTo(analyseWithThreads(1));
+  }
+
+  @Test
+  public void streaming_save_should_save_same_results() throws Exception {
+    Settings settings = new Settings();
+    settings.setProperty(JavaScriptPlugin.STREAMING_SAVE_KEY, true);
+    assertThat(analyse(settings, null)).isEqualTo(analyseWithThreads(1));
+
+    // files are saved in the order they are scanned: minified files last, files of other threads in no particular order
+    settings.setProperty(JavaScriptPlugin.MINIFIED_FILES_KEY, JavaScriptPlugin.MINIFIED_FILES_METRICS_ONLY);
+    assertThat(sorted(analyse(settings, null, new CpdTokens(), "Person.js", "library.min.js")))
+      .isEqualTo(sorted(analyse(minifiedFilesSettings(JavaScriptPlugin.MINIFIED_FILES_METRICS_ONLY), null, new CpdTokens(), "Person.js", "library.min.js")));
+    settings.removeProperty(JavaScriptPlugin.MINIFIED_FILES_KEY);
+
+    java.io.File workDir = temp.newFolder();
+    settings.setProperty(JavaScriptPlugin.ANALYSIS_CACHE_KEY, true);
+    settings.setProperty(JavaScriptPlugin.ANALYSIS_THREADS_KEY, 2);
+    List<String> analysed = sorted(analyse(settings, workDir));
+    assertThat(analysed).isEqualTo(sorted(analyseWithThreads(1)));
+    // cached files are saved once
+    assertThat(sorted(analyse(settings, workDir))).isEqualTo(analysed);
+  }
+
+  private static List<String> sorted(List<String> measures) {
+    return Ordering.natural().sortedCopy(measures);
+  }
+
+  private List<String> analyseWithThreads(int threads) {
+    Settings settings = new Settings();
+    settings.setProperty(JavaScriptPlugin.ANALYSIS_THREADS_KEY, threads);
+    return analyse(settings, null);
+  }
+
+  @Test
+  public void minified_files_should_only_get_measures() {
+    CpdTokens cpdTokens = new CpdTokens();
+    Settings settings = minifiedFilesSettings(JavaScriptPlugin.MINIFIED_FILES_METRICS_ONLY);
+    List<String> measures = analyse(settings, null, cpdTokens, "Person.js", "library.min.js");
+
+    assertThat(measures).contains("library.min.js:ncloc=1.0");
+    assertThat(cpdTokens.get(TestUtils.getResource("/parallel/library.min.js")).images()).isEmpty();
+    assertThat(measuresOf("Person.js", measures)).isEqualTo(measuresOf("Person.js", analyse(new Settings(), null)));
+
+    // each worker recognizes the minified files among the ones it scans
+    settings.setProperty(JavaScriptPlugin.ANALYSIS_THREADS_KEY, 2);
+    assertThat(sorted(analyse(settings, null, new CpdTokens(), "Person.js", "utils.js", "library.min.js"))).isEqualTo(
+      sorted(analyse(minifiedFilesSettings(JavaScriptPlugin.MINIFIED_FILES_METRICS_ONLY), null, new CpdTokens(), "Person.js", "utils.js", "library.min.js")));
+  }
+
+  @Test
+  public void minified_files_can_be_skipped_or_analysed() {
+    List<String> measures = analyse(minifiedFilesSettings(JavaScriptPlugin.MINIFIED_FILES_SKIP), null, new CpdTokens(), "Person.js", "library.min.js");
+    assertThat(measuresOf("library.min.js", measures)).isEmpty();
+    assertThat(measuresOf("Person.js", measures)).isNotEmpty();
+
+    CpdTokens cpdTokens = new CpdTokens();
+    assertThat(analyse(minifiedFilesSettings(JavaScriptPlugin.MINIFIED_FILES_ANALYZE), null, cpdTokens, "Person.js", "library.min.js"))
+      .contains("library.min.js:ncloc=1.0");
+    assertThat(cpdTokens.get(TestUtils.getResource("/parallel/library.min.js")).images()).isNotEmpty();
+  }
+
+  @Test
+  public void minified_files_should_be_analysed_by_default() {
+    CpdTokens cpdTokens = new CpdTokens();
+    assertThat(sorted(analyse(new Settings(), null, cpdTokens, "Person.js", "library.min.js")))
+      .isEqualTo(sorted(analyse(minifiedFilesSettings(JavaScriptPlugin.MINIFIED_FILES_ANALYZE), null, new CpdTokens(), "Person.js", "library.min.js")));
+    assertThat(cpdTokens.get(TestUtils.getResource("/parallel/library.min.js")).images()).isNotEmpty();
+  }
+
+  @Test
+  public void complexity_in_classes_should_not_include_classes_nested_in_functions() {
+    List<String> measures = analyse(new Settings(), null, new CpdTokens(), "classes.js");
+    assertThat(measures).contains(
+      "classes.js:" + CoreMetrics.COMPLEXITY_KEY + "=6.0",
+      "classes.js:" + CoreMetrics.COMPLEXITY_IN_CLASSES_KEY + "=3.0");
+  }
+
+  private static Settings minifiedFilesSettings(String mode) {
+    Settings settings = new Settings();
+    settings.setProperty(JavaScriptPlugin.MINIFIED_FILES_KEY, mode);
+    return settings;
+  }
+
+  private static List<String> measuresOf(String fileName, List<String> measures) {
+    List<String> result = Lists.newArrayList();
+    for (String measure : measures) {
+      if (measure.startsWith(fileName + ":")) {
+        result.add(measure);
+      }
+    }
+    return result;
+  }
+
+  private List<String> analyse(Settings settings, @Nullable java.io.File workDir) {
+    return analyse(settings, workDir, new CpdTokens(), "Person.js", "utils.js");
+  }
+
+  private static List<String> reportedOf(String kind, List<String> results) {
+    List<String> result = Lists.newArrayList();
+    for (String reported : results) {
+      if (reported.contains(":" + kind + ":")) {
+        result.add(reported);
+      }
+    }
+    return result;
+  }
+
+  private List<String> analyse(Settings settings, @Nullable java.io.File workDir, CpdTokens cpdTokens, String... fileNames) {
+    return analyse(settings, workDir, cpdTokens, new AnalysisPhases(), fileNames);
+  }
+
+  /**
+   * Returns the measures in the order they are saved, followed by the issues and the highlighting reported to the platform,
+   * sorted since they can be reported by several threads.
+   */
+  private List<String> analyse(Settings settings, @Nullable java.io.File workDir, CpdTokens cpdTokens, AnalysisPhases analysisPhases, String... fileNames) {
+    DefaultFileSystem fs = new DefaultFileSystem();
+    fs.setBaseDir(TestUtils.getResource("/parallel/"));
+    if (workDir != null) {
+      fs.setWorkDir(workDir);
+    }
+    for (String fileName : fileNames) {
+      fs.add(new DefaultInputFile(fileName)
+        .setAbsolutePath(TestUtils.getResource("/parallel/" + fileName).getAbsolutePath())
+        .setType(InputFile.Type.MAIN)
+        .setLanguage(JavaScript.KEY));
+    }
+
+    SourceBuffers sourceBuffers = new SourceBuffers();
+
+    SensorContext context = mock(SensorContext.class);
+    when(context.getResource(any(Resource.class))).thenAnswer(new Answer<Resource>() {
+      @Override
+      public Resource answer(InvocationOnMock invocation) {
+        return (Resource) invocation.getArguments()[0];
+      }
+    });
+
+    final List<String> reported = Collections.synchronizedList(Lists.<String>newArrayList());
+    ResourcePerspectives perspectives = mock(ResourcePerspectives.class);
+    when(perspectives.as(eq(Issuable.class), any(Resource.class))).thenAnswer(new Answer<Issuable>() {
+      @Override
+      public Issuable answer(InvocationOnMock invocation) {
+        return recordingIssuable(((Resource) invocation.getArguments()[1]).getKey(), reported);
+      }
+    });
+    when(perspectives.as(eq(Highlightable.class), any(InputFile.class))).thenAnswer(new Answer<Highlightable>() {
+      @Override
+      public Highlightable answer(InvocationOnMock invocation) {
+        return recordingHighlightable(((InputFile) invocation.getArguments()[1]).relativePath(), reported);
+      }
+    });
+
+    JavaScriptSquidSensor sensor = new JavaScriptSquidSensor(allChecks(), fileLinesContextFactory, perspectives, fs, new NoSonarFilter(
+      mock(SensorContext.class)), new PathResolver(), settings, sourceBuffers, cpdTokens, analysisPhases, CUSTOM_RULES);
+    sensor.analyse(project, context);
+    // minified files analysed for their measures only are read again once the other files of their worker are scanned
+    int expectedReads = fileNames.length;
+    if (JavaScriptPlugin.MINIFIED_FILES_METRICS_ONLY.equals(settings.getString(JavaScriptPlugin.MINIFIED_FILES_KEY))) {
+      for (String fileName : fileNames) {
+        if (fileName.endsWith(".min.js")) {
+          expectedReads++;
+        }
+      }
+    }
+    // files restored from the analysis cache are only hashed, unless their parse tree is kept
+    if (settings.getBoolean(JavaScriptPlugin.ANALYSIS_CACHE_KEY) && !settings.getBoolean(JavaScriptPlugin.PARSE_TREE_CACHE_KEY)) {
+      expectedReads -= fileNames.length - analysisPhases.files();
+    }
+    assertThat(sourceBuffers.readCount()).isEqualTo(expectedReads);
+
+    ArgumentCaptor<Resource> resources = ArgumentCaptor.forClass(Resource.class);
+    ArgumentCaptor<Metric> metrics = ArgumentCaptor.forClass(Metric.class);
+    ArgumentCaptor<Double> values = ArgumentCaptor.forClass(Double.class);
+    verify(context, atLeastOnce()).saveMeasure(resources.capture(), metrics.capture(), values.capture());
+
+    List<String> savedMeasures = Lists.newArrayList();
+    for (int i = 0; i < values.getAllValues().size(); i++) {
+      savedMeasures.add(resources.getAllValues().get(i).getKey() + ":" + metrics.getAllValues().get(i).getKey() + "=" + values.getAllValues().get(i));
+    }
+    savedMeasures.addAll(sorted(reported));
+    return savedMeasures;
+  }
+
+  private static CheckFactory allChecks() {
+    ActiveRulesBuilder activeRules = new ActiveRulesBuilder();
+    for (Class check : CheckList.getChecks()) {
+      Rule rule = AnnotationUtils.getAnnotation(check, Rule.class);
+      activeRules.create(RuleKey.of(CheckList.REPOSITORY_KEY, rule.key())).activate();
+    }
+    return new CheckFactory(activeRules.build());
+  }
+
+  /**
+   * Records the rule key, line and message of each issue built through the returned issuable.
+   */
+  private static Issuable recordingIssuable(final String fileKey, final List<String> reported) {
+    Issuable issuable = mock(Issuable.class);
+    when(issuable.newIssueBuilder()).thenAnswer(new Answer<Issuable.IssueBuilder>() {
+      @Override
+      public Issuable.IssueBuilder answer(InvocationOnMock invocation) {
+        final StringBuilder issue = new StringBuilder(fileKey).append(":issue");
+        return mock(Issuable.IssueBuilder.class, new Answer<Object>() {
+          @Override
+          public Object answer(InvocationOnMock builderInvocation) {
+            if ("build".equals(builderInvocation.getMethod().getName())) {
+              reported.add(issue.toString());
+              return mock(Issue.class);
+            }
+            if (!builderInvocation.getMethod().getReturnType().isInstance(builderInvocation.getMock())) {
+              return null;
+            }
+            for (Object argument : builderInvocation.getArguments()) {
+              issue.append(':').append(argument);
+            }
+            return builderInvocation.getMock();
+          }
+        });
+      }
+    });
+    return issuable;
+  }
+
+  private static Highlightable recordingHighlightable(final String relativePath, final List<String> reported) {
+    Highlightable highlightable = mock(Highlightable.class);
+    when(highlightable.newHighlighting()).thenAnswer(new Answer<Highlightable.HighlightingBuilder>() {
+      @Override
+      public Highlightable.HighlightingBuilder answer(InvocationOnMock invocation) {
+        return new Highlightable.HighlightingBuilder() {
+          @Override
+          public Highlightable.HighlightingBuilder highlight(int startOffset, int endOffset, String typeOfText) {
+            reported.add(relativePath + ":highlighting:" + startOffset + "-" + endOffset + "=" + typeOfText);
+            return this;
+          }
+
+          @Override
+          public void done() {
+            // nothing to save
+          }
+        };
+      }
+    });
+    return highlightable;
+  }
+
   @Test
   public void test_to_string() {
     JavaScriptSquidSensor sensor = new JavaScriptSquidSensor(
@@ -141,7 +482,7 @@ public class JavaScriptSquidSensorTest {
       fileLinesContextFactory,
       mock(ResourcePerspectives.class),
       new DefaultFileSystem(), new NoSonarFilter(mock(SensorContext.class)), new PathResolver(),
-      new Settings(), CUSTOM_RULES);
+      new Settings(), new SourceBuffers(), new CpdTokens(), new AnalysisPhases(), CUSTOM_RULES);
 
     assertThat(sensor.toString()).isNotNull();
   }
@@ -0,0 +1,131 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript.cache;
+
+import com.google.common.base.Charsets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.javascript.SourceBuffer;
+
+import java.io.File;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class AnalysisCacheTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  @Test
+  public void should_restore_saved_results() throws Exception {
+    File workDir = temp.newFolder();
+    FileResult result = new FileResult();
+    result.addMeasure("lines", 12);
+    result.addIssue("javascript:S1", 3, "message");
+    result.setCpdTokens(new String[] {"var", "a"}, new int[] {1, 1});
+
+    AnalysisCache cache = AnalysisCache.load(workDir, "fingerprint");
+    assertThat(cache.get("a.js", "hash")).isNull();
+    cache.put("a.js", "hash", result);
+    cache.save();
+    assertThat(new File(workDir, AnalysisCache.CACHE_FILE_NAME)).exists();
+
+    FileResult restored = AnalysisCache.load(workDir, "fingerprint").get("a.js", "hash");
+    assertThat(restored).isNotNull();
+    assertThat(restored.measures().get("lines")).isEqualTo(12.0);
+    assertThat(restored.issues()).hasSize(1);
+    assertThat(restored.issues().get(0).line()).isEqualTo(3);
+    assertThat(restored.cpdImages()).containsOnly("var", "a");
+  }
+
+  @Test
+  public void should_ignore_modified_files() throws Exception {
+    File workDir = temp.newFolder();
+    AnalysisCache cache = AnalysisCache.load(workDir, "fingerprint");
+    cache.put("a.js", "hash", new FileResult());
+    cache.save();
+
+    assertThat(AnalysisCache.load(workDir, "fingerprint").get("a.js", "other hash")).isNull();
+    assertThat(AnalysisCache.load(workDir, "fingerprint").get("b.js", "hash")).isNull();
+  }
+
+  @Test
+  public void should_ignore_cache_of_other_configuration() throws Exception {
+    File workDir = temp.newFolder();
+    AnalysisCache cache = AnalysisCache.load(workDir, "fingerprint");
+    cache.put("a.js", "hash", new FileResult());
+    cache.save();
+
+    assertThat(AnalysisCache.load(workDir, "other fingerprint").get("a.js", "hash")).isNull();
+  }
+
+  @Test
+  public void should_forget_files_not_seen_during_analysis() throws Exception {
+    File workDir = temp.newFolder();
+    AnalysisCache cache = AnalysisCache.load(workDir, "fingerprint");
+    cache.put("a.js", "hash", new FileResult());
+    cache.put("b.js", "hash", new FileResult());
+    cache.save();
+
+    cache = AnalysisCache.load(workDir, "fingerprint");
+    assertThat(cache.get("a.js", "hash")).isNotNull();
+    cache.save();
+
+    cache = AnalysisCache.load(workDir, "fingerprint");
+    assertThat(cache.get("a.js", "hash")).isNotNull();
+    assertThat(cache.get("b.js", "hash")).isNull();
+  }
+
+  @Test
+  public void should_ignore_corrupted_cache() throws Exception {
+    File workDir = temp.newFolder();
+    com.google.common.io.Files.write(new byte[] {1, 2, 3}, new File(workDir, AnalysisCache.CACHE_FILE_NAME));
+
+    assertThat(AnalysisCache.load(workDir, "fingerprint").get("a.js", "hash")).isNull();
+  }
+
+  @Test
+  public void content_hash_should_be_the_hash_of_the_text() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      text.append("var \u00e9\u20ac = '\ud83d\ude00';\n");
+    }
+    // lone surrogate, replaced as in String.getBytes
+    text.append('\ud83d');
+    SourceBuffer buffer = new SourceBuffer(new File("a.js"), text.toString().toCharArray());
+
+    assertThat(AnalysisCache.contentHash(buffer)).isEqualTo(AnalysisCache.sha1(text.toString()));
+  }
+
+  @Test
+  public void streamed_content_hash_should_be_the_hash_of_the_read_content() throws Exception {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      text.append("var \u00e9\u20ac = '\ud83d\ude00';\n");
+    }
+    File file = temp.newFile("a.js");
+    com.google.common.io.Files.write(text.toString(), file, Charsets.UTF_8);
+
+    assertThat(AnalysisCache.contentHash(file, Charsets.UTF_8)).isEqualTo(AnalysisCache.contentHash(SourceBuffer.read(file, Charsets.UTF_8)));
+    assertThat(AnalysisCache.contentHash(file, Charsets.ISO_8859_1)).isEqualTo(AnalysisCache.contentHash(SourceBuffer.read(file, Charsets.ISO_8859_1)));
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * SonarQube JavaScript Plugin
+ * Copyright (C) 2011 SonarSource and Eriks Nukis
+ * dev@sonar.codehaus.org
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02
+ */
+package org.sonar.plugins.javascript.cache;
+
+import org.junit.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.component.ResourcePerspectives;
+import org.sonar.api.measures.FileLinesContext;
+import org.sonar.api.measures.FileLinesContextFactory;
+import org.sonar.api.source.Highlightable;
+import org.sonar.api.source.Symbol;
+import org.sonar.api.source.Symbolizable;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PlatformRecorderTest {
+
+  private final ResourcePerspectives perspectives = mock(ResourcePerspectives.class);
+  private final FileLinesContextFactory fileLinesContextFactory = mock(FileLinesContextFactory.class);
+  private final InputFile inputFile = new DefaultInputFile("dir/a.js");
+
+  @Test
+  public void should_record_and_replay_highlighting() {
+    Highlightable highlightable = mock(Highlightable.class);
+    Highlightable.HighlightingBuilder builder = mock(Highlightable.HighlightingBuilder.class);
+    when(highlightable.newHighlighting()).thenReturn(builder);
+    when(perspectives.as(Highlightable.class, inputFile)).thenReturn(highlightable);
+
+    PlatformRecorder recorder = new PlatformRecorder(perspectives, fileLinesContextFactory);
+    recorder.perspectives().as(Highlightable.class, inputFile).newHighlighting().highlight(0, 3, "k").done();
+    verify(builder).highlight(0, 3, "k");
+    verify(builder).done();
+
+    Highlightable otherHighlightable = mock(Highlightable.class);
+    Highlightable.HighlightingBuilder otherBuilder = mock(Highlightable.HighlightingBuilder.class);
+    when(otherHighlightable.newHighlighting()).thenReturn(otherBuilder);
+    PlatformRecorder.replay(recorder.resultFor("dir/a.js"), otherHighlightable, null, null);
+    verify(otherBuilder).highlight(0, 3, "k");
+    verify(otherBuilder).done();
+  }
+
+  @Test
+  public void should_record_and_replay_symbols() {
+    Symbolizable symbolizable = mock(Symbolizable.class);
+    Symbolizable.SymbolTableBuilder builder = mock(Symbolizable.SymbolTableBuilder.class);
+    Symbolizable.SymbolTable table = mock(Symbolizable.SymbolTable.class);
+    Symbol symbol = mock(Symbol.class);
+    when(symbolizable.newSymbolTableBuilder()).thenReturn(builder);
+    when(builder.newSymbol(4, 5)).thenReturn(symbol);
+    when(builder.build()).thenReturn(table);
+    when(perspectives.as(Symbolizable.class, inputFile)).thenReturn(symbolizable);
+
+    PlatformRecorder recorder = new PlatformRecorder(perspectives, fileLinesContextFactory);
+    Symbolizable recordingSymbolizable = recorder.perspectives().as(Symbolizable.class, inputFile);
+    Symbolizable.SymbolTableBuilder recordingBuilder = recordingSymbolizable.newSymbolTableBuilder();
+    recordingBuilder.newReference(recordingBuilder.newSymbol(4, 5), 10);
+    recordingSymbolizable.setSymbolTable(recordingBuilder.build());
+    verify(symbolizable).setSymbolTable(table);
+
+    Symbolizable otherSymbolizable = mock(Symbolizable.class);
+    Symbolizable.SymbolTableBuilder otherBuilder = mock(Symbolizable.SymbolTableBuilder.class);
+    Symbol otherSymbol = mock(Symbol.class);
+    when(otherSymbolizable.newSymbolTableBuilder()).thenReturn(otherBuilder);
+    when(otherBuilder.newSymbol(4, 5)).thenReturn(otherSymbol);
+    PlatformRecorder.replay(recorder.resultFor("dir/a.js"), null, otherSymbolizable, null);
+    verify(otherBuilder).newReference(otherSymbol, 10);
+    verify(otherSymbolizable).setSymbolTable(any(Symbolizable.SymbolTable.class));
+  }
+
+  @Test
+  public void should_record_and_replay_line_data() {
+    FileLinesContext fileLinesContext = mock(FileLinesContext.class);
+    when(fileLinesContextFactory.createFor(inputFile)).thenReturn(fileLinesContext);
+
+    PlatformRecorder recorder = new PlatformRecorder(perspectives, fileLinesContextFactory);
+    FileLinesContext recordingContext = recorder.fileLinesContextFactory().createFor(inputFile);
+    recordingContext.setIntValue("ncloc_data", 2, 1);
+    recordingContext.save();
+    verify(fileLinesContext).setIntValue("ncloc_data", 2, 1);
+    verify(fileLinesContext).save();
+
+    FileLinesContext otherContext = mock(FileLinesContext.class);
+    PlatformRecorder.replay(recorder.resultFor("dir/a.js"), null, null, otherContext);
+    verify(otherContext).setIntValue("ncloc_data", 2, 1);
+    verify(otherContext).save();
+  }
+
+  @Test
+  public void should_not_replay_what_was_not_recorded() {
+    Highlightable highlightable = mock(Highlightable.class);
+    PlatformRecorder.replay(new FileResult(), highlightable, null, null);
+    verify(highlightable, org.mockito.Mockito.never()).newHighlighting();
+    assertThat(new PlatformRecorder(perspectives, fileLinesContextFactory).resultFor("b.js").issues()).isEmpty();
+  }
+
+  @Test
+  public void saved_results_should_be_forgotten() {
+    PlatformRecorder recorder = new PlatformRecorder(perspectives, fileLinesContextFactory);
+    FileResult result = recorder.resultFor("dir/a.js");
+    assertThat(recorder.removeResultFor("dir/a.js")).isSameAs(result);
+    assertThat(recorder.removeResultFor("dir/a.js")).isNotSameAs(result);
+  }
+
+}
@@ -19,13 +19,17 @@
  */
 package org.sonar.plugins.javascript.cpd;
 
+import com.google.common.collect.Lists;
 import net.sourceforge.pmd.cpd.SourceCode;
 import net.sourceforge.pmd.cpd.TokenEntry;
 import net.sourceforge.pmd.cpd.Tokens;
 import org.junit.Test;
+import org.sonar.javascript.JavaScriptAstScanner;
+import org.sonar.javascript.SourceBuffers;
 
 import java.io.File;
 import java.nio.charset.Charset;
+import java.util.List;
 
 import static org.fest.assertions.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -44,4 +48,46 @@ public class JavaScriptTokenizerTest {
     assertThat(tokens.getTokens().get(tokens.size() - 1)).isEqualTo(TokenEntry.getEOF());
   }
 
+  @Test
+  public void same_tokens_from_analysis_as_from_lexer() {
+    assertSameTokensFromAnalysisAsFromLexer(new File("src/test/resources/cpd/Person.js"));
+    assertSameTokensFromAnalysisAsFromLexer(new File("src/test/resources/cpd/templates.js"));
+  }
+
+  @Test
+  public void template_characters_are_one_literal() {
+    List<String> firstLine = Lists.newArrayList();
+    for (TokenEntry token : tokenize(new JavaScriptTokenizer(Charset.forName("UTF-8")), new File("src/test/resources/cpd/templates.js"))) {
+      if (token.getBeginLine() == 1) {
+        firstLine.add(token.getValue());
+      }
+    }
+    assertThat(firstLine).containsExactly("var", "greeting", "=", "`", "LITERAL", "$", "{", "name", "}", "LITERAL", "`", ";");
+  }
+
+  private static void assertSameTokensFromAnalysisAsFromLexer(File file) {
+    CpdTokens cpdTokens = new CpdTokens();
+    JavaScriptAstScanner.scanSingleFile(file, new CpdTokensVisitor(cpdTokens));
+
+    List<TokenEntry> lexed = tokenize(new JavaScriptTokenizer(Charset.forName("UTF-8")), file);
+    List<TokenEntry> analysed = tokenize(new JavaScriptTokenizer(Charset.forName("UTF-8"), new SourceBuffers(), cpdTokens), file);
+
+    assertThat(analysed).hasSize(lexed.size());
+    for (int i = 0; i < lexed.size(); i++) {
+      assertThat(analysed.get(i).getIdentifier()).isEqualTo(lexed.get(i).getIdentifier());
+      assertThat(analysed.get(i).getBeginLine()).isEqualTo(lexed.get(i).getBeginLine());
+    }
+
+    // tokens are handed over once
+    assertThat(cpdTokens.remove(file)).isNull();
+  }
+
+  private static List<TokenEntry> tokenize(JavaScriptTokenizer tokenizer, File file) {
+    SourceCode source = mock(SourceCode.class);
+    when(source.getFileName()).thenReturn(file.getAbsolutePath());
+    Tokens tokens = new Tokens();
+    tokenizer.tokenize(source, tokens);
+    return tokens.getTokens();
+  }
+
 }
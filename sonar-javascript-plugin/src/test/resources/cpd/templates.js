@@ -0,0 +1,5 @@
+var greeting = `Hello, it's ${name}!`;
+var empty = ``;
+var nested = `a ${ { b: `c ${d}` }.b } e
+  f`;
+var cost = `$5`;
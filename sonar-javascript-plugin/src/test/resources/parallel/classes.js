@@ -0,0 +1,17 @@
+class A {
+  m(a) {
+    if (a) {
+      return 1;
+    }
+    return 2;
+  }
+}
+
+function f() {
+  class B {
+    n(c) {
+      return c ? 1 : 2;
+    }
+  }
+  return B;
+}
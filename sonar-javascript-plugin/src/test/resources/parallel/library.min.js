@@ -0,0 +1 @@
+function f(a){return a+1}var x=f(1);
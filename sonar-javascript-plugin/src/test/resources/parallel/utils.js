@@ -0,0 +1,16 @@
+function max(a, b) {
+  if (a > b) {
+    return a;
+  }
+  return b;
+}
+
+// Returns the first element matching the predicate
+function find(array, predicate) {
+  for (var i = 0; i < array.length; i++) {
+    if (predicate(array[i]) && array[i] != null) {
+      return array[i];
+    }
+  }
+  return null;
+}